@@ -68,4 +68,14 @@ public interface WorkerPoolStatisticsBean {
      */
     public int getHighestQueued();
 
+    /**
+     * @return The number of requests rejected because the queue was full
+     */
+    long getTotalRejected();
+
+    /**
+     * @return The total time in milliseconds that requests waited in the queue
+     */
+    long getTotalQueueTime();
+
 }
@@ -35,6 +35,8 @@ public class WorkerPoolStatisticsMetadata extends AdminObjectImpl implements Wor
     private int highestActiveThreads;
     private long totalSubmitted;
     private long totalCompleted;
+    private long totalRejected;
+    private long totalQueueTime;
 
     @Override
     public int getActiveThreads() {
@@ -84,6 +86,16 @@ public class WorkerPoolStatisticsMetadata extends AdminObjectImpl implements Wor
         this.highestQueued = highestQueued;
     }
 
+    @Override
+    public long getTotalRejected() {
+        return totalRejected;
+    }
+
+    @Override
+    public long getTotalQueueTime() {
+        return totalQueueTime;
+    }
+
     public void setMaxThreads(int maxThreads) {
         this.maxThreads = maxThreads;
     }
@@ -104,6 +116,14 @@ public class WorkerPoolStatisticsMetadata extends AdminObjectImpl implements Wor
         this.totalCompleted = totalCompleted;
     }
 
+    public void setTotalRejected(long totalRejected) {
+        this.totalRejected = totalRejected;
+    }
+
+    public void setTotalQueueTime(long totalQueueTime) {
+        this.totalQueueTime = totalQueueTime;
+    }
+
     public void setQueueName(String name) {
         setName(name);
     }
@@ -120,6 +140,8 @@ public class WorkerPoolStatisticsMetadata extends AdminObjectImpl implements Wor
         str.append("; highestActiveThreads = " + highestActiveThreads);     //$NON-NLS-1$
         str.append("; totalSubmitted = " + totalSubmitted);     //$NON-NLS-1$
         str.append("; totalCompleted = " + totalCompleted);     //$NON-NLS-1$
+        str.append("; totalRejected = " + totalRejected);     //$NON-NLS-1$
+        str.append("; totalQueueTime = " + totalQueueTime);     //$NON-NLS-1$
         return str.toString();
     }
 
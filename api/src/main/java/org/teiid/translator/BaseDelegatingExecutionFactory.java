@@ -1458,6 +1458,11 @@ public class BaseDelegatingExecutionFactory<F, C> extends ExecutionFactory<F, C>
         //nothing to do
     }
 
+    @Override
+    public void stop() {
+        //the delegate is not owned by this instance
+    }
+
     Boolean supportsUpsert;
     @TranslatorProperty(display="Supports Upsert", advanced=true)
     @Override
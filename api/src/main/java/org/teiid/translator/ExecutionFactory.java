@@ -133,6 +133,13 @@ public class ExecutionFactory<F, C> {
         }
     }
 
+    /**
+     * Release any resources acquired by {@link #start()}.  Called when the
+     * factory is no longer in use.
+     */
+    public void stop() {
+    }
+
     /**
      * Defines if the Connector is read-only connector
      * @return
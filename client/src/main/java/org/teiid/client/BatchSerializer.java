@@ -33,6 +33,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
@@ -65,6 +66,8 @@ import org.teiid.jdbc.JDBCPlugin;
  * <li>version 3: starts with 8.6 and adds better repeated string performance
  * <li>version 4: starts with 8.10 and adds the geometry type
  * <li>version 5: starts with 11.2 and adds the geography and json types
+ * <li>version 6: only used for buffer storage and never sent to clients.  Adds
+ *   run-length, dictionary and delta column encodings
  * </ul>
  */
 public class BatchSerializer {
@@ -72,6 +75,7 @@ public class BatchSerializer {
     public static final byte VERSION_GEOMETRY = (byte)4;
     public static final byte VERSION_GEOGRAPHY = (byte)5;
     static final byte CURRENT_VERSION = VERSION_GEOGRAPHY;
+    public static final byte VERSION_ENCODED = (byte)6;
 
     private BatchSerializer() {} // Uninstantiable
 
@@ -102,6 +106,23 @@ public class BatchSerializer {
         serializers.put(DataTypeManager.DefaultDataTypes.NULL,             new ColumnSerializer[] {defaultSerializer, new NullColumnSerializer1()});
         serializers.put(DataTypeManager.DefaultDataTypes.OBJECT,         new ColumnSerializer[] {defaultSerializer, new ObjectColumnSerializer((byte)1)});
         serializers.put(DataTypeManager.DefaultDataTypes.VARBINARY,        new ColumnSerializer[] {new BinaryColumnSerializer(), new BinaryColumnSerializer1()});
+
+        addEncodedSerializer(DataTypeManager.DefaultDataTypes.STRING, true, null);
+        addEncodedSerializer(DataTypeManager.DefaultDataTypes.INTEGER, true, Integer.class);
+        addEncodedSerializer(DataTypeManager.DefaultDataTypes.LONG, true, Long.class);
+        addEncodedSerializer(DataTypeManager.DefaultDataTypes.DATE, true, java.sql.Date.class);
+        addEncodedSerializer(DataTypeManager.DefaultDataTypes.TIMESTAMP, false, null);
+        addEncodedSerializer(DataTypeManager.DefaultDataTypes.BIG_DECIMAL, true, null);
+        addEncodedSerializer(DataTypeManager.DefaultDataTypes.DOUBLE, false, null);
+    }
+
+    private static void addEncodedSerializer(String type, boolean dictionary, Class<?> deltaType) {
+        ColumnSerializer[] sers = serializers.get(type);
+        ColumnSerializer last = sers[sers.length - 1];
+        ColumnSerializer[] result = Arrays.copyOf(sers, VERSION_ENCODED + 1);
+        Arrays.fill(result, sers.length, VERSION_ENCODED, last);
+        result[VERSION_ENCODED] = new EncodedColumnSerializer(last, dictionary, deltaType);
+        serializers.put(type, result);
     }
 
     private static ColumnSerializer arrayColumnSerializer = new ColumnSerializer() {
@@ -599,6 +620,199 @@ public class BatchSerializer {
         }
     }
 
+    /**
+     * Chooses a column encoding based upon the values in the batch.  Individual values are
+     * still written by the base serializer so that nested usage, such as in arrays, is unaffected.
+     */
+    private static final class EncodedColumnSerializer extends ColumnSerializer {
+        private static final byte PLAIN = 0;
+        private static final byte RUN_LENGTH = 1;
+        private static final byte DICTIONARY = 2;
+        private static final byte DELTA = 3;
+        private static final int MAX_DICTIONARY_SIZE = 256;
+
+        private ColumnSerializer base;
+        private boolean dictionary;
+        private Class<?> deltaType;
+
+        public EncodedColumnSerializer(ColumnSerializer base, boolean dictionary, Class<?> deltaType) {
+            this.base = base;
+            this.dictionary = dictionary;
+            this.deltaType = deltaType;
+        }
+
+        @Override
+        public void writeColumn(ObjectOutput out, int col, List<? extends List<?>> batch,
+                Map<Object, Integer> cache, byte version) throws IOException {
+            writeIsNullData(out, col, batch);
+            Object[] values = new Object[batch.size()];
+            int count = 0;
+            for (int i = 0; i < values.length; i++) {
+                Object obj = batch.get(i).get(col);
+                if (obj != null) {
+                    values[count++] = obj;
+                }
+            }
+            int runs = count > 0?1:0;
+            boolean sorted = deltaType != null;
+            for (int i = 1; i < count; i++) {
+                if (!values[i].equals(values[i-1])) {
+                    runs++;
+                }
+                if (sorted && toLong(values[i]) < toLong(values[i-1])) {
+                    sorted = false;
+                }
+            }
+            if (runs * 2 <= count) {
+                out.writeByte(RUN_LENGTH);
+                for (int i = 0; i < count;) {
+                    int start = i++;
+                    while (i < count && values[i].equals(values[start])) {
+                        i++;
+                    }
+                    base.writeObject(out, values[start], cache, version);
+                    writeVarLong(out, i - start);
+                }
+                return;
+            }
+            Map<Object, Integer> dict = null;
+            if (dictionary && count > 1) {
+                dict = new LinkedHashMap<Object, Integer>();
+                for (int i = 0; i < count; i++) {
+                    if (!dict.containsKey(values[i])) {
+                        if (dict.size() == MAX_DICTIONARY_SIZE || dict.size() * 2 >= count) {
+                            dict = null;
+                            break;
+                        }
+                        dict.put(values[i], dict.size());
+                    }
+                }
+            }
+            if (dict != null) {
+                out.writeByte(DICTIONARY);
+                out.writeShort(dict.size());
+                for (Object obj : dict.keySet()) {
+                    base.writeObject(out, obj, cache, version);
+                }
+                for (int i = 0; i < count; i++) {
+                    out.writeByte(dict.get(values[i]));
+                }
+            } else if (sorted && count > 1) {
+                out.writeByte(DELTA);
+                base.writeObject(out, values[0], cache, version);
+                for (int i = 1; i < count; i++) {
+                    writeVarLong(out, toLong(values[i]) - toLong(values[i-1]));
+                }
+            } else {
+                out.writeByte(PLAIN);
+                for (int i = 0; i < count; i++) {
+                    base.writeObject(out, values[i], cache, version);
+                }
+            }
+        }
+
+        @Override
+        public void readColumn(ObjectInput in, int col, List<List<Object>> batch, byte[] isNull,
+                List<Object> cache, byte version) throws IOException, ClassNotFoundException {
+            readIsNullData(in, isNull);
+            byte encoding = in.readByte();
+            Object[] dict = null;
+            if (encoding == DICTIONARY) {
+                dict = new Object[in.readShort()];
+                for (int i = 0; i < dict.length; i++) {
+                    dict[i] = DataTypeManager.getCanonicalValue(base.readObject(in, cache, version));
+                }
+            }
+            Object current = null;
+            long remaining = 0;
+            long previous = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                if (isNullObject(isNull, i)) {
+                    continue;
+                }
+                Object value = null;
+                switch (encoding) {
+                case RUN_LENGTH:
+                    if (remaining == 0) {
+                        current = DataTypeManager.getCanonicalValue(base.readObject(in, cache, version));
+                        remaining = readVarLong(in);
+                    }
+                    remaining--;
+                    value = current;
+                    break;
+                case DICTIONARY:
+                    value = dict[in.readByte() & 0xff];
+                    break;
+                case DELTA:
+                    if (current == null) {
+                        current = DataTypeManager.getCanonicalValue(base.readObject(in, cache, version));
+                        previous = toLong(current);
+                        value = current;
+                    } else {
+                        previous += readVarLong(in);
+                        value = DataTypeManager.getCanonicalValue(fromLong(previous));
+                    }
+                    break;
+                default:
+                    value = DataTypeManager.getCanonicalValue(base.readObject(in, cache, version));
+                    break;
+                }
+                batch.get(i).set(col, value);
+            }
+        }
+
+        private long toLong(Object obj) {
+            if (obj instanceof java.util.Date) {
+                return ((java.util.Date)obj).getTime();
+            }
+            return ((Number)obj).longValue();
+        }
+
+        private Object fromLong(long value) {
+            if (deltaType == Integer.class) {
+                return Integer.valueOf((int)value);
+            }
+            if (deltaType == Long.class) {
+                return Long.valueOf(value);
+            }
+            return new java.sql.Date(value);
+        }
+
+        @Override
+        protected void writeObject(ObjectOutput out, Object obj, Map<Object, Integer> cache, byte version) throws IOException {
+            base.writeObject(out, obj, cache, version);
+        }
+
+        @Override
+        protected Object readObject(ObjectInput in, List<Object> cache, byte version) throws IOException, ClassNotFoundException {
+            return base.readObject(in, cache, version);
+        }
+
+        @Override
+        public boolean usesCache(byte version) {
+            return base.usesCache(version);
+        }
+    }
+
+    static void writeVarLong(ObjectOutput out, long value) throws IOException {
+        while ((value & ~0x7fL) != 0) {
+            out.writeByte((int)((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int)value);
+    }
+
+    static long readVarLong(ObjectInput in) throws IOException {
+        long result = 0;
+        for (int shift = 0;; shift += 7) {
+            byte b = in.readByte();
+            result |= (long)(b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+    }
+
     private static class IntColumnSerializer extends ColumnSerializer {
         @Override
         protected void writeObject(ObjectOutput out, Object obj, Map<Object, Integer> cache, byte version) throws IOException {
@@ -133,6 +133,30 @@ public class TestBatchSerializer {
         helpTestSerialization(sampleBatchTypes, sampleBatchWithNulls(4096), BatchSerializer.CURRENT_VERSION); // A bunch of rows. This should also test large strings
     }
 
+    @Test public void testSerializeEncoded() throws Exception {
+        helpTestSerialization(sampleBatchTypes, sampleBatchWithNulls(1), BatchSerializer.VERSION_ENCODED);
+        helpTestSerialization(sampleBatchTypes, sampleBatchWithNulls(833), BatchSerializer.VERSION_ENCODED);
+
+        String[] types = new String[] {DataTypeManager.DefaultDataTypes.STRING, DataTypeManager.DefaultDataTypes.INTEGER,
+                DataTypeManager.DefaultDataTypes.LONG, DataTypeManager.DefaultDataTypes.DATE};
+        List<?>[] batch = new List[512];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = Arrays.asList(i%7 == 0?null:"value" + (i%3), i/100, (i%5 == 0)?null:Long.MAX_VALUE - 1000 + i, new java.sql.Date(i*86400000L));
+        }
+        //dictionary, run-length, delta
+        helpTestSerialization(types, batch, BatchSerializer.VERSION_ENCODED);
+
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(plain);
+        BatchSerializer.writeBatch(out, types, Arrays.asList(batch), BatchSerializer.CURRENT_VERSION);
+        out.close();
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        out = new ObjectOutputStream(encoded);
+        BatchSerializer.writeBatch(out, types, Arrays.asList(batch), BatchSerializer.VERSION_ENCODED);
+        out.close();
+        assertTrue(encoded.size() * 2 < plain.size());
+    }
+
     @Test public void testSerializeLargeStrings() throws Exception {
         List<?> row = Arrays.asList(new Object[] {sampleString(66666)});
         helpTestSerialization(new String[] {DataTypeManager.DefaultDataTypes.STRING}, new List[] {row}, BatchSerializer.CURRENT_VERSION);
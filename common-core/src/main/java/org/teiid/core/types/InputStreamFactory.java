@@ -125,6 +125,10 @@ public abstract class InputStreamFactory implements Source {
             return StorageMode.PERSISTENT;
         }
 
+        public File getFile() {
+            return f;
+        }
+
     }
 
     public static class ClobInputStreamFactory extends InputStreamFactory implements DataSource {
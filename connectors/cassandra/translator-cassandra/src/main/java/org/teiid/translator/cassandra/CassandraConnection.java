@@ -37,6 +37,14 @@ public interface CassandraConnection extends Connection {
      * */
     public ResultSetFuture executeQuery(String query);
 
+    /**
+     * Executes a CQL query using the given page size.
+     * The default implementation ignores the page size.
+     * */
+    default ResultSetFuture executeQuery(String query, int fetchSize) {
+        return executeQuery(query);
+    }
+
     /**
      * Returns metadata about Cassandra keyspace (column families, columns metadata etc.)
      * */
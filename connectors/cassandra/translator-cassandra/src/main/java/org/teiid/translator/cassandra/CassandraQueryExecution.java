@@ -38,6 +38,7 @@ import com.datastax.driver.core.GuavaCompatibility;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
+import com.google.common.util.concurrent.ListenableFuture;
 
 public class CassandraQueryExecution implements ResultSetExecution {
 
@@ -45,6 +46,8 @@ public class CassandraQueryExecution implements ResultSetExecution {
     private CassandraConnection connection;
     private ResultSetFuture resultSetFuture;
     private ResultSet resultSet;
+    private ListenableFuture<ResultSet> fetchFuture;
+    private int pageSize;
     private ExecutionContext executionContext;
     protected boolean returnsArray;
 
@@ -59,6 +62,7 @@ public class CassandraQueryExecution implements ResultSetExecution {
         LogManager.logDetail(LogConstants.CTX_CONNECTOR, CassandraExecutionFactory.UTIL.getString("close_query")); //$NON-NLS-1$
         this.resultSet = null;
         this.resultSetFuture = null;
+        this.fetchFuture = null;
     }
 
     @Override
@@ -67,6 +71,9 @@ public class CassandraQueryExecution implements ResultSetExecution {
         if (resultSetFuture != null) {
             resultSetFuture.cancel(true);
         }
+        if (fetchFuture != null) {
+            fetchFuture.cancel(true);
+        }
     }
 
     @Override
@@ -80,8 +87,17 @@ public class CassandraQueryExecution implements ResultSetExecution {
     protected void execute(String cql) {
         LogManager.logDetail(LogConstants.CTX_CONNECTOR, "Source-Query:", cql); //$NON-NLS-1$
         this.executionContext.logCommand(cql);
-        resultSetFuture = connection.executeQuery(cql);
-        resultSetFuture.addListener(new Runnable() {
+        this.pageSize = this.executionContext.getBatchSize();
+        if (this.pageSize > 0) {
+            resultSetFuture = connection.executeQuery(cql, this.pageSize);
+        } else {
+            resultSetFuture = connection.executeQuery(cql);
+        }
+        addDataAvailableListener(resultSetFuture);
+    }
+
+    private void addDataAvailableListener(ListenableFuture<?> future) {
+        future.addListener(new Runnable() {
 
             @Override
             public void run() {
@@ -97,11 +113,32 @@ public class CassandraQueryExecution implements ResultSetExecution {
         }
         if (resultSet == null) {
             this.resultSet = this.resultSetFuture.getUninterruptibly();
+            if (this.pageSize <= 0) {
+                this.pageSize = this.resultSet.getAvailableWithoutFetching();
+            }
+        }
+        if (!resultSet.isFullyFetched()) {
+            int available = resultSet.getAvailableWithoutFetching();
+            if (fetchFuture != null && fetchFuture.isDone()) {
+                fetchFuture = null;
+            }
+            //keep one page in flight while the current page is consumed
+            if (fetchFuture == null && available <= pageSize) {
+                fetchMore();
+            }
+            //don't let one() block on the next page
+            if (available == 0 && !fetchFuture.isDone()) {
+                throw DataNotAvailableException.NO_POLLING;
+            }
         }
-        //TODO: use asynch for results fetching
         return getRow(resultSet.one());
     }
 
+    private void fetchMore() {
+        this.fetchFuture = this.resultSet.fetchMoreResults();
+        addDataAvailableListener(this.fetchFuture);
+    }
+
     /**
      * Iterates through all columns in the {@code row}. For each column, returns its value as Java type
      * that matches the CQL type in switch part. Otherwise returns the value as bytes composing the value.
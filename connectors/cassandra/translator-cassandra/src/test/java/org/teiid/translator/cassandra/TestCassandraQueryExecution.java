@@ -24,10 +24,15 @@ import java.util.List;
 
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.teiid.translator.DataNotAvailableException;
+import org.teiid.translator.ExecutionContext;
 
 import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
+import com.google.common.util.concurrent.ListenableFuture;
 
 public class TestCassandraQueryExecution {
 
@@ -43,4 +48,43 @@ public class TestCassandraQueryExecution {
         assertNull(val.get(0));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test public void testAsyncPaging() throws Exception {
+        ExecutionContext ec = Mockito.mock(ExecutionContext.class);
+        Mockito.stub(ec.getBatchSize()).toReturn(2);
+        CassandraConnection connection = Mockito.mock(CassandraConnection.class);
+        ResultSetFuture rsf = Mockito.mock(ResultSetFuture.class);
+        Mockito.stub(rsf.isDone()).toReturn(true);
+        ResultSet rs = Mockito.mock(ResultSet.class);
+        Mockito.stub(rsf.getUninterruptibly()).toReturn(rs);
+        Mockito.stub(connection.executeQuery("SELECT a FROM t", 2)).toReturn(rsf);
+
+        ListenableFuture<ResultSet> fetch = Mockito.mock(ListenableFuture.class);
+        Mockito.stub(rs.fetchMoreResults()).toReturn(fetch);
+        Mockito.stub(rs.isFullyFetched()).toReturn(false);
+        Mockito.stub(rs.getAvailableWithoutFetching()).toReturn(2).toReturn(1).toReturn(0);
+        Row row = Mockito.mock(Row.class);
+        ColumnDefinitions cd = Mockito.mock(ColumnDefinitions.class);
+        Mockito.stub(row.getColumnDefinitions()).toReturn(cd);
+        Mockito.stub(rs.one()).toReturn(row);
+
+        CassandraQueryExecution cqe = new CassandraQueryExecution(null, connection, ec);
+        cqe.execute("SELECT a FROM t");
+        assertNotNull(cqe.next());
+        //the next page is requested as soon as the last local page is being read
+        Mockito.verify(rs, Mockito.times(1)).fetchMoreResults();
+        assertNotNull(cqe.next());
+        try {
+            cqe.next();
+            fail("expected the worker to be released");
+        } catch (DataNotAvailableException e) {
+        }
+        Mockito.verify(rs, Mockito.times(1)).fetchMoreResults();
+
+        Mockito.stub(fetch.isDone()).toReturn(true);
+        Mockito.stub(rs.isFullyFetched()).toReturn(true);
+        assertNotNull(cqe.next());
+        Mockito.verify(rs, Mockito.times(1)).fetchMoreResults();
+    }
+
 }
@@ -63,6 +63,7 @@ public class TestNativeCassandra {
         ColumnDefinitions cd = Mockito.mock(ColumnDefinitions.class);
         Mockito.stub(row.getColumnDefinitions()).toReturn(cd);
         Mockito.stub(rs.one()).toReturn(row).toReturn(null);
+        Mockito.stub(rs.isFullyFetched()).toReturn(true);
 
         Mockito.stub(connection.executeQuery("select 'a'")).toReturn(rsf);
 
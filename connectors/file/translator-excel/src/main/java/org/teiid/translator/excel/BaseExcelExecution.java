@@ -74,7 +74,7 @@ public class BaseExcelExecution implements Execution {
     private AtomicInteger fileCount = new AtomicInteger();
     protected ExcelQueryVisitor visitor = new ExcelQueryVisitor();
     protected FormulaEvaluator evaluator;
-    private DataFormatter dataFormatter;
+    protected DataFormatter dataFormatter;
     protected Workbook workbook;
 
     public BaseExcelExecution(ExecutionContext executionContext,
@@ -95,10 +95,17 @@ public class BaseExcelExecution implements Execution {
 
     @Override
     public void execute() throws TranslatorException {
-        this.xlsFiles = VirtualFileConnection.Util.getFiles(this.visitor.getXlsPath(), this.connection, true);
+        getXLSFiles();
         this.rowIterator = readXLSFile(xlsFiles[fileCount.getAndIncrement()]);
     }
 
+    protected VirtualFile[] getXLSFiles() throws TranslatorException {
+        if (this.xlsFiles == null) {
+            this.xlsFiles = VirtualFileConnection.Util.getFiles(this.visitor.getXlsPath(), this.connection, true);
+        }
+        return this.xlsFiles;
+    }
+
     private Iterator<Row> readXLSFile(VirtualFile xlsFile) throws TranslatorException {
         try (InputStream xlsFileStream = xlsFile.openInputStream(!immutable)) {
             return readXLSFile(xlsFile, xlsFileStream);
@@ -149,6 +156,10 @@ public class BaseExcelExecution implements Execution {
             }
 
             if (!this.visitor.allows(row.getRowNum())) {
+                if (row.getRowNum() > this.visitor.getLastRowNumber()) {
+                    //nothing more can match in this file
+                    this.rowIterator = null;
+                }
                 continue;
             }
             return row;
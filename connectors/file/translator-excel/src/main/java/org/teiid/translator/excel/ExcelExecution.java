@@ -19,11 +19,17 @@
 package org.teiid.translator.excel;
 
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.core.types.TransformationException;
+import org.teiid.core.util.TimestampWithTimezone;
+import org.teiid.file.VirtualFile;
 import org.teiid.file.VirtualFileConnection;
 import org.teiid.language.Select;
 import org.teiid.metadata.RuntimeMetadata;
@@ -36,6 +42,8 @@ import org.teiid.translator.TranslatorException;
 public class ExcelExecution extends BaseExcelExecution implements ResultSetExecution {
 
     private Class<?>[] expectedColumnTypes;
+    private boolean streaming;
+    private XlsxStreamingReader streamingReader;
 
     public ExcelExecution(Select query, ExecutionContext executionContext,
             RuntimeMetadata metadata, VirtualFileConnection connection, boolean immutable)
@@ -45,8 +53,34 @@ public class ExcelExecution extends BaseExcelExecution implements ResultSetExecu
         visit(query);
     }
 
+    /**
+     * Use the streaming reader if all of the files are xlsx
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    @Override
+    public void execute() throws TranslatorException {
+        if (this.streaming) {
+            for (VirtualFile file : getXLSFiles()) {
+                if (!ExcelMetadataProcessor.getFileExtension(file).equalsIgnoreCase("xlsx")) { //$NON-NLS-1$
+                    this.streaming = false;
+                    break;
+                }
+            }
+            if (this.streaming) {
+                return;
+            }
+        }
+        super.execute();
+    }
+
     @Override
     public List<?> next() throws TranslatorException, DataNotAvailableException {
+        if (this.streaming) {
+            return nextStreaming();
+        }
         Row row = nextRow();
         if (row == null) {
             return null;
@@ -96,4 +130,100 @@ public class ExcelExecution extends BaseExcelExecution implements ResultSetExecu
         return output;
     }
 
+    private List<?> nextStreaming() throws TranslatorException {
+        while (true) {
+            if (this.streamingReader == null) {
+                VirtualFile file = getNextXLSFile();
+                if (file == null) {
+                    return null;
+                }
+                List<Integer> cellNumbers = new ArrayList<Integer>(this.visitor.getProjectedColumns().size());
+                for (int index:this.visitor.getProjectedColumns()) {
+                    cellNumbers.add(index == ExcelQueryVisitor.ROW_ID_INDEX?ExcelQueryVisitor.ROW_ID_INDEX:index-1);
+                }
+                this.streamingReader = new XlsxStreamingReader(file, !this.immutable, this.visitor.getSheetName(),
+                        cellNumbers, this.visitor.getFirstDataRowNumber(), this.visitor.getLastRowNumber());
+            }
+            Object[] values = this.streamingReader.nextRow();
+            if (values == null) {
+                this.streamingReader.close();
+                this.streamingReader = null;
+                continue;
+            }
+            int rowNumber = this.streamingReader.getRowNumber();
+            if (!this.visitor.allows(rowNumber)) {
+                continue;
+            }
+            return projectRow(rowNumber, values);
+        }
+    }
+
+    List<Object> projectRow(int rowNumber, Object[] values) throws TranslatorException {
+        ArrayList<Object> output = new ArrayList<Object>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (this.visitor.getProjectedColumns().get(i) == ExcelQueryVisitor.ROW_ID_INDEX) {
+                output.add(rowNumber+1);
+                continue;
+            }
+            Object value = values[i];
+            if (value instanceof String) {
+                output.add(convertFromExcelType((String)value, this.expectedColumnTypes[i]));
+            } else if (value instanceof Boolean) {
+                output.add(convertFromExcelType(((Boolean)value).booleanValue(), this.expectedColumnTypes[i]));
+            } else if (value instanceof Double) {
+                output.add(convertFromExcelType((Double)value, i, this.expectedColumnTypes[i]));
+            } else {
+                output.add(null);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * The streaming equivalent of {@link #convertFromExcelType(Double, Cell, Class)}
+     */
+    Object convertFromExcelType(final Double value, int index, final Class<?> expectedType) throws TranslatorException {
+        if (expectedType.isAssignableFrom(Double.class)) {
+            return value;
+        }
+        else if (expectedType.isAssignableFrom(Timestamp.class)) {
+            Date date = this.streamingReader.getJavaDate(value);
+            return new Timestamp(date.getTime());
+        }
+        else if (expectedType.isAssignableFrom(java.sql.Date.class)) {
+            Date date = this.streamingReader.getJavaDate(value);
+            return TimestampWithTimezone.createDate(date);
+        }
+        else if (expectedType.isAssignableFrom(java.sql.Time.class)) {
+            Date date = this.streamingReader.getJavaDate(value);
+            return TimestampWithTimezone.createTime(date);
+        }
+
+        if (expectedType == String.class && this.dataFormatter != null) {
+            return this.streamingReader.formatNumeric(index, value, this.dataFormatter);
+        }
+
+        Object val = value;
+
+        if (this.streamingReader.isDateFormatted(index)) {
+            Date date = this.streamingReader.getJavaDate(value);
+            val = new java.sql.Timestamp(date.getTime());
+        }
+
+        try {
+            return DataTypeManager.transformValue(val, expectedType);
+        } catch (TransformationException e) {
+            throw new TranslatorException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.streamingReader != null) {
+            this.streamingReader.close();
+            this.streamingReader = null;
+        }
+        super.close();
+    }
+
 }
@@ -0,0 +1,378 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.translator.excel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.teiid.core.types.InputStreamFactory;
+import org.teiid.core.types.InputStreamFactory.FileInputStreamFactory;
+import org.teiid.core.util.ObjectConverterUtil;
+import org.teiid.file.VirtualFile;
+import org.teiid.translator.TranslatorException;
+import org.xml.sax.SAXException;
+
+/**
+ * Reads the rows of a single xlsx sheet with a pull parser rather than building
+ * the workbook model.  Only the projected cells are converted, and reading stops once
+ * the last row allowed by the query has been seen.
+ * <br>
+ * Formulas are not evaluated, the cached cell values are used instead.
+ */
+class XlsxStreamingReader implements Closeable {
+
+    private static XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+    static {
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    }
+
+    private InputStream lockStream;
+    private File tempFile;
+    private OPCPackage pkg;
+    private InputStream sheetStream;
+    private XMLStreamReader reader;
+    private ReadOnlySharedStringsTable strings;
+    private StylesTable styles;
+    private boolean date1904;
+
+    private int[] cellNumbers;
+    private boolean[] projected;
+    private int firstRowNumber;
+    private int lastRowNumber;
+
+    private Object[] values;
+    private int[] styleIndexes;
+    private int rowNumber = -1;
+    private StringBuilder text = new StringBuilder();
+
+    /**
+     * @param cellNumbers the zero based cell index for each projected column, -1 for the row id
+     */
+    XlsxStreamingReader(VirtualFile xlsxFile, boolean lock, String sheetName, List<Integer> cellNumbers, int firstRowNumber, int lastRowNumber) throws TranslatorException {
+        this.cellNumbers = new int[cellNumbers.size()];
+        int max = -1;
+        for (int i = 0; i < this.cellNumbers.length; i++) {
+            this.cellNumbers[i] = cellNumbers.get(i);
+            max = Math.max(max, this.cellNumbers[i]);
+        }
+        this.projected = new boolean[max + 1];
+        for (int cellNumber : this.cellNumbers) {
+            if (cellNumber >= 0) {
+                this.projected[cellNumber] = true;
+            }
+        }
+        this.values = new Object[this.cellNumbers.length];
+        this.styleIndexes = new int[this.cellNumbers.length];
+        this.firstRowNumber = firstRowNumber;
+        this.lastRowNumber = lastRowNumber;
+        try {
+            open(xlsxFile, lock, sheetName);
+        } catch (IOException | OpenXML4JException | SAXException | XMLStreamException e) {
+            close();
+            throw new TranslatorException(e);
+        } catch (TranslatorException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void open(VirtualFile xlsxFile, boolean lock, String sheetName) throws IOException, OpenXML4JException, SAXException, XMLStreamException, TranslatorException {
+        this.lockStream = xlsxFile.openInputStream(lock);
+        InputStreamFactory isf = xlsxFile.createInputStreamFactory();
+        File file = null;
+        if (isf instanceof FileInputStreamFactory) {
+            file = ((FileInputStreamFactory)isf).getFile();
+        } else {
+            //the package needs random access, so copy the compressed form rather
+            //than allowing poi to inflate every entry in memory
+            this.tempFile = File.createTempFile("teiid-xlsx", null); //$NON-NLS-1$
+            try (OutputStream os = new FileOutputStream(this.tempFile)) {
+                ObjectConverterUtil.write(os, this.lockStream, -1, false);
+            }
+            file = this.tempFile;
+        }
+        this.pkg = OPCPackage.open(file, PackageAccess.READ);
+        XSSFReader xssfReader = new XSSFReader(this.pkg);
+        this.strings = new ReadOnlySharedStringsTable(this.pkg);
+        this.styles = xssfReader.getStylesTable();
+        this.date1904 = isDate1904(xssfReader);
+        XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator)xssfReader.getSheetsData();
+        while (iter.hasNext()) {
+            InputStream is = iter.next();
+            if (iter.getSheetName().equalsIgnoreCase(sheetName)) {
+                this.sheetStream = is;
+                break;
+            }
+            is.close();
+        }
+        if (this.sheetStream == null) {
+            throw new TranslatorException(ExcelPlugin.Event.TEIID23011, ExcelPlugin.Util.gs(ExcelPlugin.Event.TEIID23011, sheetName, xlsxFile.getName()));
+        }
+        this.reader = inputFactory.createXMLStreamReader(this.sheetStream);
+    }
+
+    private static boolean isDate1904(XSSFReader xssfReader) throws IOException, OpenXML4JException, XMLStreamException {
+        try (InputStream is = xssfReader.getWorkbookData()) {
+            XMLStreamReader workbookReader = inputFactory.createXMLStreamReader(is);
+            try {
+                while (workbookReader.hasNext()) {
+                    if (workbookReader.next() == XMLStreamConstants.START_ELEMENT) {
+                        String name = workbookReader.getLocalName();
+                        if (name.equals("workbookPr")) { //$NON-NLS-1$
+                            String value = workbookReader.getAttributeValue(null, "date1904"); //$NON-NLS-1$
+                            return "1".equals(value) || "true".equals(value); //$NON-NLS-1$ //$NON-NLS-2$
+                        }
+                        if (name.equals("sheets")) { //$NON-NLS-1$
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                workbookReader.close();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the zero based row number of the last row returned by {@link #nextRow()}
+     */
+    int getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * Get the next non-empty row.  The values for projected columns will be
+     * String, Boolean, Double, or null.
+     * @return the projected values or null if there are no more rows
+     */
+    Object[] nextRow() throws TranslatorException {
+        try {
+            return nextRowInternal();
+        } catch (XMLStreamException e) {
+            throw new TranslatorException(e);
+        }
+    }
+
+    private Object[] nextRowInternal() throws XMLStreamException {
+        while (this.reader.hasNext()) {
+            if (this.reader.next() != XMLStreamConstants.START_ELEMENT || !this.reader.getLocalName().equals("row")) { //$NON-NLS-1$
+                continue;
+            }
+            String r = this.reader.getAttributeValue(null, "r"); //$NON-NLS-1$
+            this.rowNumber = r != null?Integer.parseInt(r) - 1:this.rowNumber + 1;
+            if (this.rowNumber > this.lastRowNumber) {
+                return null;
+            }
+            if (readRow() && this.rowNumber >= this.firstRowNumber) {
+                return this.values;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read the cells of the current row
+     * @return true if the row has cells
+     */
+    private boolean readRow() throws XMLStreamException {
+        Arrays.fill(this.values, null);
+        Arrays.fill(this.styleIndexes, -1);
+        boolean hasCells = false;
+        int nextCell = 0;
+        while (this.reader.hasNext()) {
+            int event = this.reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && this.reader.getLocalName().equals("row")) { //$NON-NLS-1$
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT || !this.reader.getLocalName().equals("c")) { //$NON-NLS-1$
+                continue;
+            }
+            hasCells = true;
+            String ref = this.reader.getAttributeValue(null, "r"); //$NON-NLS-1$
+            int cellNumber = ref != null?getCellNumber(ref):nextCell;
+            nextCell = cellNumber + 1;
+            if (cellNumber >= this.projected.length || !this.projected[cellNumber]) {
+                skipElement();
+                continue;
+            }
+            String type = this.reader.getAttributeValue(null, "t"); //$NON-NLS-1$
+            String style = this.reader.getAttributeValue(null, "s"); //$NON-NLS-1$
+            Object value = readCell(type);
+            int styleIndex = style != null?Integer.parseInt(style):-1;
+            for (int i = 0; i < this.cellNumbers.length; i++) {
+                if (this.cellNumbers[i] == cellNumber) {
+                    this.values[i] = value;
+                    this.styleIndexes[i] = styleIndex;
+                }
+            }
+        }
+        return hasCells;
+    }
+
+    private Object readCell(String type) throws XMLStreamException {
+        String value = null;
+        this.text.setLength(0);
+        boolean inlineText = false;
+        int depth = 1;
+        while (depth > 0) {
+            int event = this.reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = this.reader.getLocalName();
+                if (name.equals("v")) { //$NON-NLS-1$
+                    value = this.reader.getElementText();
+                } else if (name.equals("t")) { //$NON-NLS-1$
+                    //inline string or rich text run
+                    this.text.append(this.reader.getElementText());
+                    inlineText = true;
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        if (type == null || type.equals("n")) { //$NON-NLS-1$
+            if (value == null || value.isEmpty()) {
+                return null;
+            }
+            return Double.valueOf(value);
+        }
+        switch (type) {
+        case "s": //$NON-NLS-1$
+            if (value == null || value.isEmpty()) {
+                return null;
+            }
+            return this.strings.getEntryAt(Integer.parseInt(value.trim()));
+        case "inlineStr": //$NON-NLS-1$
+            return inlineText?this.text.toString():value;
+        case "b": //$NON-NLS-1$
+            return value == null?null:Boolean.valueOf("1".equals(value) || "true".equals(value)); //$NON-NLS-1$ //$NON-NLS-2$
+        case "str": //$NON-NLS-1$
+            return value;
+        default:
+            //errors
+            return null;
+        }
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = this.reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Convert a cell reference such as AB12 to the zero based cell number
+     */
+    static int getCellNumber(String ref) {
+        int result = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char c = ref.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            result = result * 26 + (c - 'A' + 1);
+        }
+        return result - 1;
+    }
+
+    boolean isDateFormatted(int index) {
+        XSSFCellStyle style = getStyle(index);
+        return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+    }
+
+    Date getJavaDate(double value) {
+        return DateUtil.getJavaDate(value, this.date1904);
+    }
+
+    String formatNumeric(int index, double value, DataFormatter formatter) {
+        XSSFCellStyle style = getStyle(index);
+        if (style == null) {
+            return formatter.formatRawCellContents(value, 0, "General"); //$NON-NLS-1$
+        }
+        return formatter.formatRawCellContents(value, style.getDataFormat(), style.getDataFormatString(), this.date1904);
+    }
+
+    private XSSFCellStyle getStyle(int index) {
+        int styleIndex = this.styleIndexes[index];
+        if (styleIndex < 0 || this.styles == null) {
+            return null;
+        }
+        return this.styles.getStyleAt(styleIndex);
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (this.reader != null) {
+                this.reader.close();
+            }
+        } catch (XMLStreamException e) {
+            //ignore
+        }
+        closeQuietly(this.sheetStream);
+        if (this.pkg != null) {
+            this.pkg.revert();
+        }
+        closeQuietly(this.lockStream);
+        if (this.tempFile != null) {
+            this.tempFile.delete();
+        }
+    }
+
+    private static void closeQuietly(Closeable c) {
+        if (c != null) {
+            try {
+                c.close();
+            } catch (IOException e) {
+                //ignore
+            }
+        }
+    }
+
+}
@@ -20,14 +20,20 @@ package org.teiid.translator.excel;
 import static org.junit.Assert.*;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.poi.util.LocaleUtil;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.teiid.cdk.api.TranslationUtility;
+import org.teiid.core.util.ObjectConverterUtil;
 import org.teiid.core.util.TimestampWithTimezone;
 import org.teiid.core.util.UnitTestUtil;
 import org.teiid.file.JavaVirtualFile;
@@ -48,8 +54,13 @@ public class TestExcelExecution {
     }
 
     static ArrayList helpExecute(String ddl, VirtualFileConnection connection, String query, boolean format) throws Exception {
+        return helpExecute(ddl, connection, query, format, false);
+    }
+
+    static ArrayList helpExecute(String ddl, VirtualFileConnection connection, String query, boolean format, boolean streaming) throws Exception {
         ExcelExecutionFactory translator = new ExcelExecutionFactory();
         translator.setFormatStrings(format);
+        translator.setStreaming(streaming);
         translator.start();
 
         TransformationMetadata metadata = RealMetadataFactory.fromDDL(ddl, "vdb", "excel");
@@ -110,6 +121,66 @@ public class TestExcelExecution {
         assertEquals("[[1, FirstName, LastName, Age], [2, John, Doe, null], [3, Jane, Smith, 40.0], [4, Matt, Liek, 13.0], [5, Sarah, Byne, 10.0], [6, Rocky, Dog, 3.0]]", results.toString());
     }
 
+    @Test
+    public void testStreamingXLSX() throws Exception {
+        String ddl = "CREATE FOREIGN TABLE Sheet1 (\n" +
+                "	ROW_ID integer OPTIONS (SEARCHABLE 'All_Except_Like', \"teiid_excel:CELL_NUMBER\" 'ROW_ID'),\n" +
+                "	column1 string OPTIONS (SEARCHABLE 'Unsearchable', \"teiid_excel:CELL_NUMBER\" '1'),\n" +
+                "	column2 string OPTIONS (SEARCHABLE 'Unsearchable', \"teiid_excel:CELL_NUMBER\" '2'),\n" +
+                "	column3 string OPTIONS (SEARCHABLE 'Unsearchable', \"teiid_excel:CELL_NUMBER\" '3'),\n" +
+                "	column4 time OPTIONS (SEARCHABLE 'Unsearchable', \"teiid_excel:CELL_NUMBER\" '4'),\n" +
+                "	CONSTRAINT PK0 PRIMARY KEY(ROW_ID)\n" +
+                ") OPTIONS (\"teiid_excel:FILE\" 'names.xlsx');";
+
+        VirtualFileConnection connection = Mockito.mock(VirtualFileConnection.class);
+        Mockito.stub(connection.getFiles("names.xlsx")).toReturn(JavaVirtualFile.getFiles("names.xlsx", new File(UnitTestUtil.getTestDataPath(), "names.xlsx")));
+
+        ArrayList results = helpExecute(ddl, connection, "select ROW_ID, column1, column2, column3 from Sheet1", false, true);
+        assertEquals("[[1, FirstName, LastName, Age], [2, John, Doe, null], [3, Jane, Smith, 40.0], [4, Matt, Liek, 13.0], [5, Sarah, Byne, 10.0], [6, Rocky, Dog, 3.0]]", results.toString());
+
+        results = helpExecute(ddl, connection, "select column1, column4 from Sheet1 LIMIT 1, 2", false, true);
+        assertEquals("[[John, 10:12:14], [Jane, 10:12:16]]", results.toString());
+
+        results = helpExecute(ddl, connection, "select column1 from Sheet1 WHERE ROW_ID > 3 and ROW_ID < 5", false, true);
+        assertEquals("[[Matt]]", results.toString());
+    }
+
+    @Test
+    public void testStreamingSharedStringWithoutValue() throws Exception {
+        String ddl = "CREATE FOREIGN TABLE Sheet1 (\n" +
+                "	ROW_ID integer OPTIONS (SEARCHABLE 'All_Except_Like', \"teiid_excel:CELL_NUMBER\" 'ROW_ID'),\n" +
+                "	column1 string OPTIONS (SEARCHABLE 'Unsearchable', \"teiid_excel:CELL_NUMBER\" '1'),\n" +
+                "	column2 string OPTIONS (SEARCHABLE 'Unsearchable', \"teiid_excel:CELL_NUMBER\" '2'),\n" +
+                "	CONSTRAINT PK0 PRIMARY KEY(ROW_ID)\n" +
+                ") OPTIONS (\"teiid_excel:FILE\" 'names.xlsx');";
+
+        //rewrite B2 as a shared string cell with no value
+        File file = new File(UnitTestUtil.getTestScratchPath(), "names-empty-string.xlsx");
+        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(new File(UnitTestUtil.getTestDataPath(), "names.xlsx")));
+                ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+            ZipEntry entry = null;
+            while ((entry = zis.getNextEntry()) != null) {
+                zos.putNextEntry(new ZipEntry(entry.getName()));
+                byte[] bytes = ObjectConverterUtil.convertToByteArray(zis, -1, false);
+                if (entry.getName().equals("xl/worksheets/sheet1.xml")) {
+                    String sheet = new String(bytes, "UTF-8");
+                    String cell = "<c r=\"B2\" s=\"1\" t=\"s\"><v>5</v></c>";
+                    assertTrue(sheet.contains(cell));
+                    bytes = sheet.replace(cell, "<c r=\"B2\" s=\"1\" t=\"s\"/>").getBytes("UTF-8");
+                }
+                zos.write(bytes);
+                zos.closeEntry();
+            }
+        }
+
+        VirtualFileConnection connection = Mockito.mock(VirtualFileConnection.class);
+        Mockito.stub(connection.getFiles("names.xlsx")).toReturn(JavaVirtualFile.getFiles("names.xlsx", file));
+
+        ArrayList results = helpExecute(ddl, connection, "select ROW_ID, column1, column2 from Sheet1 where ROW_ID = 2", false, true);
+        assertEquals("[[2, John, null]]", results.toString());
+        file.delete();
+    }
+
     @Test
     public void testExecutionColumnWithNullCell() throws Exception {
         String ddl = "CREATE FOREIGN TABLE Sheet1 (\n" +
@@ -23,12 +23,15 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import org.teiid.resource.api.ConnectionFactory;
 
 import org.teiid.core.TeiidRuntimeException;
 import org.teiid.core.types.DataTypeManager;
 import org.teiid.core.types.TransformationException;
+import org.teiid.core.util.ExecutorUtils;
 import org.teiid.language.Command;
 import org.teiid.language.QueryExpression;
 import org.teiid.metadata.RuntimeMetadata;
@@ -39,6 +42,7 @@ import org.teiid.translator.ResultSetExecution;
 import org.teiid.translator.SourceSystemFunctions;
 import org.teiid.translator.Translator;
 import org.teiid.translator.TranslatorException;
+import org.teiid.translator.TranslatorProperty;
 import org.teiid.translator.UpdateExecution;
 import org.teiid.translator.jdbc.AliasModifier;
 import org.teiid.translator.jdbc.FunctionModifier;
@@ -46,6 +50,9 @@ import org.teiid.translator.jdbc.FunctionModifier;
 @Translator(name = "solr", description = "A translator for Solr search platform")
 public class SolrExecutionFactory extends ExecutionFactory<ConnectionFactory, SolrConnection> {
     protected Map<String, FunctionModifier> functionModifiers = new TreeMap<String, FunctionModifier>(String.CASE_INSENSITIVE_ORDER);
+    private boolean useCursorMark = true;
+    private boolean prefetch = true;
+    private ExecutorService prefetchExecutor;
 
     public SolrExecutionFactory() {
         super();
@@ -63,6 +70,43 @@ public class SolrExecutionFactory extends ExecutionFactory<ConnectionFactory, So
     @Override
     public void start() throws TranslatorException {
         super.start();
+        if (this.prefetch) {
+            this.prefetchExecutor = ExecutorUtils.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), "Solr Prefetch"); //$NON-NLS-1$
+        }
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (this.prefetchExecutor != null) {
+            this.prefetchExecutor.shutdownNow();
+            this.prefetchExecutor = null;
+        }
+    }
+
+    @TranslatorProperty(display="Use Cursor Mark", description="Page unlimited queries with a cursorMark sorted on the table primary key rather than by start offset", advanced=true)
+    public boolean isUseCursorMark() {
+        return useCursorMark;
+    }
+
+    public void setUseCursorMark(boolean useCursorMark) {
+        this.useCursorMark = useCursorMark;
+    }
+
+    @TranslatorProperty(display="Prefetch", description="Asynchronously fetch the next page of results while the current page is being read", advanced=true)
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * @return the executor for asynch page fetches or null if prefetching is disabled
+     */
+    Executor getPrefetchExecutor() {
+        return prefetchExecutor;
     }
 
     @Override
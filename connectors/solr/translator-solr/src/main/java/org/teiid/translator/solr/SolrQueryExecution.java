@@ -20,11 +20,17 @@ package org.teiid.translator.solr;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrQuery.SortClause;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.teiid.language.Command;
 import org.teiid.language.QueryExpression;
 import org.teiid.logging.LogManager;
@@ -43,6 +49,9 @@ public class SolrQueryExecution implements ResultSetExecution {
     private SolrExecutionFactory executionFactory;
     private int offset = 0;
     private Long resultSize;
+    private String cursorMark;
+    private boolean moreResults;
+    private FutureTask<QueryResponse> prefetch;
 
     public SolrQueryExecution(SolrExecutionFactory ef, Command command,
             ExecutionContext executionContext, RuntimeMetadata metadata,
@@ -60,21 +69,105 @@ public class SolrQueryExecution implements ResultSetExecution {
 
     @Override
     public void execute() throws TranslatorException {
-        LogManager.logDetail("Solr Source Query:", this.visitor.getSolrQuery()); //$NON-NLS-1$
+        SolrQuery query = this.visitor.getSolrQuery();
+        String uniqueKey = this.visitor.getUniqueKeyField();
+        if (!this.visitor.isLimitInUse() && !this.visitor.isCountStarInUse()
+                && this.executionFactory.isUseCursorMark() && uniqueKey != null) {
+            //deep paging requires the unique key as the final sort
+            boolean sorted = false;
+            for (SortClause clause : query.getSorts()) {
+                if (clause.getItem().equals(uniqueKey)) {
+                    sorted = true;
+                    break;
+                }
+            }
+            if (!sorted) {
+                query.addSort(uniqueKey, SolrQuery.ORDER.asc);
+            }
+            this.cursorMark = CursorMarkParams.CURSOR_MARK_START;
+        }
+        LogManager.logDetail("Solr Source Query:", query); //$NON-NLS-1$
         nextBatch();
     }
 
     public void nextBatch() throws TranslatorException {
+        QueryResponse queryResponse = null;
+        if (this.prefetch != null) {
+            queryResponse = getPrefetched();
+        } else {
+            queryResponse = connection.query(nextQuery());
+        }
+        SolrDocumentList docList = queryResponse.getResults();
+        this.resultSize = docList.getNumFound();
+        this.resultsItr = docList.iterator();
+        this.offset += docList.size();
+
+        if (this.visitor.isLimitInUse()) {
+            this.moreResults = false;
+        } else if (this.cursorMark != null) {
+            //the cursor is exhausted when the mark does not change
+            String nextCursorMark = queryResponse.getNextCursorMark();
+            this.moreResults = nextCursorMark != null && !nextCursorMark.equals(this.cursorMark);
+            this.cursorMark = nextCursorMark;
+        } else {
+            this.moreResults = !docList.isEmpty() && this.offset < this.resultSize;
+        }
+
+        if (this.moreResults && !this.visitor.isCountStarInUse()) {
+            Executor executor = this.executionFactory.getPrefetchExecutor();
+            if (executor != null) {
+                startPrefetch(executor);
+            }
+        }
+    }
+
+    /**
+     * Get the query for the next page of results
+     */
+    private SolrQuery nextQuery() {
         SolrQuery query = this.visitor.getSolrQuery();
         if (!this.visitor.isLimitInUse()) {
-            query.setStart(this.offset);
+            query = query.getCopy();
             query.setRows(this.executionContext.getBatchSize());
+            if (this.cursorMark != null) {
+                query.set(CursorMarkParams.CURSOR_MARK_PARAM, this.cursorMark);
+            } else {
+                query.setStart(this.offset);
+            }
         }
+        return query;
+    }
 
-        QueryResponse queryResponse = connection.query(this.visitor.getSolrQuery());
-        SolrDocumentList docList = queryResponse.getResults();
-        this.resultSize = docList.getNumFound();
-        this.resultsItr = docList.iterator();
+    private void startPrefetch(Executor executor) {
+        final SolrQuery query = nextQuery();
+        this.prefetch = new FutureTask<QueryResponse>(new Callable<QueryResponse>() {
+            @Override
+            public QueryResponse call() throws Exception {
+                return connection.query(query);
+            }
+        }) {
+            @Override
+            protected void done() {
+                executionContext.dataAvailable();
+            }
+        };
+        executor.execute(this.prefetch);
+    }
+
+    private QueryResponse getPrefetched() throws TranslatorException {
+        try {
+            return this.prefetch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslatorException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TranslatorException) {
+                throw (TranslatorException)e.getCause();
+            }
+            throw new TranslatorException(e.getCause());
+        } finally {
+            this.prefetch = null;
+        }
     }
 
     /*
@@ -94,6 +187,14 @@ public class SolrQueryExecution implements ResultSetExecution {
             return row;
         }
 
+        // if we are at the end of the current cursor set, then get next ones.
+        if (this.resultsItr != null && !this.resultsItr.hasNext() && this.moreResults) {
+            if (this.prefetch != null && !this.prefetch.isDone()) {
+                throw DataNotAvailableException.NO_POLLING;
+            }
+            nextBatch();
+        }
+
         // is there any solr docs
         if (this.resultsItr != null && this.resultsItr.hasNext()) {
             SolrDocument doc = this.resultsItr.next();
@@ -102,12 +203,6 @@ public class SolrQueryExecution implements ResultSetExecution {
                 Object obj = doc.getFieldValue(columnName);
                 row.add(this.executionFactory.convertFromSolrType(obj, this.expectedTypes[i]));
             }
-            this.offset++;
-
-            // if we are at the end of the current cursor set, then get next ones.
-            if (!this.resultsItr.hasNext() && !this.visitor.isLimitInUse()) {
-                nextBatch();
-            }
             return row;
         }
         return null;
@@ -121,10 +216,9 @@ public class SolrQueryExecution implements ResultSetExecution {
         while(this.resultsItr != null && this.resultsItr.hasNext()) {
             SolrDocument doc = this.resultsItr.next();
             callback.walk(doc);
-            this.offset++;
 
             // if we are at the end of the current cursor set, then get next ones.
-            if (!this.resultsItr.hasNext()) {
+            if (!this.resultsItr.hasNext() && this.moreResults) {
                 nextBatch();
             }
         }
@@ -132,9 +226,18 @@ public class SolrQueryExecution implements ResultSetExecution {
 
     @Override
     public void close() {
+        cancelPrefetch();
     }
 
     @Override
     public void cancel() throws TranslatorException {
+        cancelPrefetch();
+    }
+
+    private void cancelPrefetch() {
+        FutureTask<QueryResponse> task = this.prefetch;
+        if (task != null) {
+            task.cancel(true);
+        }
     }
 }
@@ -35,6 +35,7 @@ import org.teiid.language.SQLConstants.Reserved;
 import org.teiid.language.SQLConstants.Tokens;
 import org.teiid.language.visitor.HierarchyVisitor;
 import org.teiid.metadata.AbstractMetadataRecord;
+import org.teiid.metadata.KeyRecord;
 import org.teiid.metadata.RuntimeMetadata;
 import org.teiid.translator.jdbc.FunctionModifier;
 
@@ -55,6 +56,7 @@ public class SolrSQLHierarchyVistor extends HierarchyVisitor {
     private SolrExecutionFactory ef;
     private HashMap<String, String> columnAliasMap = new HashMap<String, String>();
     private boolean countStarInUse;
+    private String uniqueKeyField;
 
     public SolrSQLHierarchyVistor(RuntimeMetadata metadata, SolrExecutionFactory ef) {
         this.metadata = metadata;
@@ -262,6 +264,16 @@ public class SolrSQLHierarchyVistor extends HierarchyVisitor {
         return str;
     }
 
+    @Override
+    public void visit(NamedTable obj) {
+        if (obj.getMetadataObject() != null) {
+            KeyRecord pk = obj.getMetadataObject().getPrimaryKey();
+            if (pk != null && pk.getColumns().size() == 1) {
+                this.uniqueKeyField = getRecordName(pk.getColumns().get(0));
+            }
+        }
+    }
+
     @Override
     public void visit(Limit obj) {
         this.limitInUse = true;
@@ -346,4 +358,11 @@ public class SolrSQLHierarchyVistor extends HierarchyVisitor {
         return countStarInUse;
     }
 
+    /**
+     * @return the single column primary key field of the queried table or null
+     */
+    public String getUniqueKeyField() {
+        return uniqueKeyField;
+    }
+
 }
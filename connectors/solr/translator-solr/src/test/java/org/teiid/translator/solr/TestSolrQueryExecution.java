@@ -0,0 +1,152 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.teiid.translator.solr;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.teiid.cdk.api.TranslationUtility;
+import org.teiid.core.util.ObjectConverterUtil;
+import org.teiid.core.util.UnitTestUtil;
+import org.teiid.language.QueryExpression;
+import org.teiid.query.metadata.TransformationMetadata;
+import org.teiid.query.unittest.RealMetadataFactory;
+import org.teiid.translator.DataNotAvailableException;
+import org.teiid.translator.ExecutionContext;
+import org.teiid.translator.ResultSetExecution;
+
+@SuppressWarnings("nls")
+public class TestSolrQueryExecution {
+
+    private SolrExecutionFactory ef = new SolrExecutionFactory();
+
+    @After public void tearDown() {
+        ef.stop();
+    }
+
+    private static QueryResponse page(String nextCursorMark, String... names) {
+        SolrDocumentList list = new SolrDocumentList();
+        for (String name : names) {
+            SolrDocument doc = new SolrDocument();
+            doc.addField("name", name);
+            list.add(doc);
+        }
+        QueryResponse response = Mockito.mock(QueryResponse.class);
+        Mockito.stub(response.getResults()).toReturn(list);
+        Mockito.stub(response.getNextCursorMark()).toReturn(nextCursorMark);
+        return response;
+    }
+
+    private ResultSetExecution helpExecute(String sql, SolrConnection connection) throws Exception {
+        ef.start();
+        TransformationMetadata metadata = RealMetadataFactory.fromDDL(ObjectConverterUtil.convertFileToString(UnitTestUtil.getTestDataFile("exampleTBL.ddl")), "example", "solr");
+        TranslationUtility utility = new TranslationUtility(metadata);
+        QueryExpression cmd = (QueryExpression)utility.parseCommand(sql);
+        ExecutionContext context = Mockito.mock(ExecutionContext.class);
+        Mockito.stub(context.getBatchSize()).toReturn(2);
+        ResultSetExecution execution = ef.createResultSetExecution(cmd, context, utility.createRuntimeMetadata(), connection);
+        execution.execute();
+        return execution;
+    }
+
+    private int readAll(ResultSetExecution execution) throws Exception {
+        int rows = 0;
+        while (true) {
+            List<?> row = null;
+            try {
+                row = execution.next();
+            } catch (DataNotAvailableException e) {
+                Thread.sleep(10);
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+            rows++;
+        }
+        return rows;
+    }
+
+    @Test public void testCursorMarkPaging() throws Exception {
+        ef.setPrefetch(false);
+        SolrConnection connection = Mockito.mock(SolrConnection.class);
+        Mockito.when(connection.query(Mockito.any(SolrQuery.class))).thenReturn(page("a", "x", "y"), page("b", "z"), page("b"));
+
+        ResultSetExecution execution = helpExecute("select name from example", connection);
+        assertEquals(3, readAll(execution));
+
+        ArgumentCaptor<SolrQuery> argument = ArgumentCaptor.forClass(SolrQuery.class);
+        Mockito.verify(connection, Mockito.times(3)).query(argument.capture());
+        List<SolrQuery> queries = argument.getAllValues();
+        assertEquals(CursorMarkParams.CURSOR_MARK_START, queries.get(0).get(CursorMarkParams.CURSOR_MARK_PARAM));
+        assertEquals("a", queries.get(1).get(CursorMarkParams.CURSOR_MARK_PARAM));
+        assertEquals("b", queries.get(2).get(CursorMarkParams.CURSOR_MARK_PARAM));
+        assertEquals("name asc", queries.get(0).getSortField());
+        assertNull(queries.get(1).getStart());
+    }
+
+    @Test public void testOffsetPagingWithoutCursorMark() throws Exception {
+        ef.setPrefetch(false);
+        ef.setUseCursorMark(false);
+        SolrConnection connection = Mockito.mock(SolrConnection.class);
+        QueryResponse first = page(null, "x", "y");
+        first.getResults().setNumFound(3);
+        QueryResponse second = page(null, "z");
+        second.getResults().setNumFound(3);
+        Mockito.when(connection.query(Mockito.any(SolrQuery.class))).thenReturn(first, second);
+
+        ResultSetExecution execution = helpExecute("select name from example", connection);
+        assertEquals(3, readAll(execution));
+
+        ArgumentCaptor<SolrQuery> argument = ArgumentCaptor.forClass(SolrQuery.class);
+        Mockito.verify(connection, Mockito.times(2)).query(argument.capture());
+        assertEquals(Integer.valueOf(2), argument.getAllValues().get(1).getStart());
+    }
+
+    @Test public void testPrefetch() throws Exception {
+        SolrConnection connection = Mockito.mock(SolrConnection.class);
+        Mockito.when(connection.query(Mockito.any(SolrQuery.class))).thenReturn(page("a", "x", "y"), page("b", "z"), page("b"));
+
+        ResultSetExecution execution = helpExecute("select name from example", connection);
+        assertEquals(3, readAll(execution));
+        Mockito.verify(connection, Mockito.times(3)).query(Mockito.any(SolrQuery.class));
+    }
+
+    @Test public void testLimitNotPaged() throws Exception {
+        SolrConnection connection = Mockito.mock(SolrConnection.class);
+        Mockito.when(connection.query(Mockito.any(SolrQuery.class))).thenReturn(page(null, "x", "y"));
+
+        ResultSetExecution execution = helpExecute("select name from example limit 2", connection);
+        assertEquals(2, readAll(execution));
+
+        ArgumentCaptor<SolrQuery> argument = ArgumentCaptor.forClass(SolrQuery.class);
+        Mockito.verify(connection, Mockito.times(1)).query(argument.capture());
+        assertNull(argument.getValue().get(CursorMarkParams.CURSOR_MARK_PARAM));
+    }
+
+}
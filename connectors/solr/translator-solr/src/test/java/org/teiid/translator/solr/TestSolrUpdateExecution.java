@@ -28,6 +28,7 @@ import org.apache.solr.client.solrj.response.UpdateResponse;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrInputDocument;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -57,6 +58,11 @@ public class TestSolrUpdateExecution {
         this.utility = new TranslationUtility(metadata);
     }
 
+    @After
+    public void tearDown() {
+        this.translator.stop();
+    }
+
     private UpdateRequest helpUpdate(String query, QueryResponse... responseDocs) throws TranslatorException {
 
         Command cmd = this.utility.parseCommand(query);
@@ -304,6 +304,9 @@ public class TestTeiidLanguageToSolr {
 
     @After public void tearDown() {
         TimestampWithTimezone.resetCalendar(null);
+        if (this.translator != null) {
+            this.translator.stop();
+        }
     }
 
 }
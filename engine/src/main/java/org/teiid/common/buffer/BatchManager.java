@@ -32,6 +32,11 @@ public interface BatchManager {
 
     void remove(Long batch);
 
+    /**
+     * Hint that the batch will be read soon, so that it may be loaded asynchronously
+     */
+    void prefetch(Long batch);
+
     void setPrefersMemory(boolean prefers);
 
     boolean prefersMemory();
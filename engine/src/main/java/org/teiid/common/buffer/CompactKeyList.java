@@ -0,0 +1,410 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.common.buffer;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.query.sql.symbol.Constant;
+
+/**
+ * A page of single valued rows held as a primitive or String key array rather than as
+ * a list and boxed value per row.  Used by the {@link STree} for single column integer,
+ * long, and string key pages to reduce the memory held per indexed row and to allow
+ * the page to be searched without going through the list comparator.
+ * <br>
+ * The rows returned by {@link #get(int)} are created on demand.  If a null or
+ * otherwise incompatible row is added, the list is inflated to a normal list of rows.
+ */
+public abstract class CompactKeyList extends AbstractList<List<?>> implements RandomAccess {
+
+    static final class IntKeys extends CompactKeyList {
+        private int[] keys;
+
+        IntKeys(int capacity) {
+            super(DataTypeManager.DefaultDataClasses.INTEGER);
+            keys = new int[capacity];
+        }
+
+        @Override
+        public Object getKey(int index) {
+            return keys[index];
+        }
+
+        @Override
+        void setKey(int index, Object value) {
+            keys[index] = (Integer)value;
+        }
+
+        @Override
+        int compareKey(int index, Object key) {
+            return Integer.compare(keys[index], (Integer)key);
+        }
+
+        @Override
+        int capacity() {
+            return keys.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+
+        @Override
+        void move(int from, int to, int length) {
+            System.arraycopy(keys, from, keys, to, length);
+        }
+
+        @Override
+        public int getKeyBytes() {
+            return 4;
+        }
+    }
+
+    static final class LongKeys extends CompactKeyList {
+        private long[] keys;
+
+        LongKeys(int capacity) {
+            super(DataTypeManager.DefaultDataClasses.LONG);
+            keys = new long[capacity];
+        }
+
+        @Override
+        public Object getKey(int index) {
+            return keys[index];
+        }
+
+        @Override
+        void setKey(int index, Object value) {
+            keys[index] = (Long)value;
+        }
+
+        @Override
+        int compareKey(int index, Object key) {
+            return Long.compare(keys[index], (Long)key);
+        }
+
+        @Override
+        int capacity() {
+            return keys.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+
+        @Override
+        void move(int from, int to, int length) {
+            System.arraycopy(keys, from, keys, to, length);
+        }
+
+        @Override
+        public int getKeyBytes() {
+            return 8;
+        }
+    }
+
+    static final class StringKeys extends CompactKeyList {
+        private String[] keys;
+
+        StringKeys(int capacity) {
+            super(DataTypeManager.DefaultDataClasses.STRING);
+            keys = new String[capacity];
+        }
+
+        @Override
+        public Object getKey(int index) {
+            return keys[index];
+        }
+
+        @Override
+        void setKey(int index, Object value) {
+            keys[index] = (String)value;
+        }
+
+        @Override
+        int compareKey(int index, Object key) {
+            //use the same comparison as the list comparator, which may be collation or pad space aware
+            return Constant.COMPARATOR.compare(keys[index], key);
+        }
+
+        @Override
+        int capacity() {
+            return keys.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+
+        @Override
+        void move(int from, int to, int length) {
+            System.arraycopy(keys, from, keys, to, length);
+        }
+
+        @Override
+        void clear(int from, int to) {
+            Arrays.fill(keys, from, to, null);
+        }
+
+        @Override
+        public int getKeyBytes() {
+            return 8;
+        }
+    }
+
+    private Class<?> type;
+    private int size;
+    private List<List<?>> inflated;
+
+    CompactKeyList(Class<?> type) {
+        this.type = type;
+    }
+
+    /**
+     * Create a compact list of the given rows.
+     * @return the compact list or null if the type is not supported or the rows
+     * are not all single non-null values of the type.
+     */
+    static CompactKeyList create(List<? extends List<?>> rows, Class<?> type) {
+        CompactKeyList result = null;
+        if (type == DataTypeManager.DefaultDataClasses.INTEGER) {
+            result = new IntKeys(rows.size());
+        } else if (type == DataTypeManager.DefaultDataClasses.LONG) {
+            result = new LongKeys(rows.size());
+        } else if (type == DataTypeManager.DefaultDataClasses.STRING) {
+            result = new StringKeys(rows.size());
+        } else {
+            return null;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            Object value = result.getCompactValue(rows.get(i));
+            if (value == null) {
+                return null;
+            }
+            result.setKey(i, value);
+        }
+        result.size = rows.size();
+        return result;
+    }
+
+    public abstract Object getKey(int index);
+
+    abstract void setKey(int index, Object value);
+
+    abstract int compareKey(int index, Object key);
+
+    abstract int capacity();
+
+    abstract void resize(int capacity);
+
+    abstract void move(int from, int to, int length);
+
+    void clear(int from, int to) {
+
+    }
+
+    /**
+     * @return the number of bytes used to hold each key
+     */
+    public abstract int getKeyBytes();
+
+    /**
+     * @return true if the rows are still held as keys
+     */
+    public boolean isCompact() {
+        return inflated == null;
+    }
+
+    /**
+     * @return true if {@link #search(Object, boolean)} may be used with the given key value
+     */
+    public boolean isSearchable(Object key) {
+        return inflated == null && key != null && key.getClass() == type;
+    }
+
+    /**
+     * Binary search for the key value with the same result as {@link java.util.Collections#binarySearch(List, Object, java.util.Comparator)}
+     * against the single column rows.
+     */
+    public int search(Object key, boolean ascending) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(mid, key);
+            if (!ascending) {
+                cmp = -cmp;
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private Object getCompactValue(List<?> row) {
+        if (row.size() != 1) {
+            return null;
+        }
+        Object value = row.get(0);
+        if (value == null || value.getClass() != type) {
+            return null;
+        }
+        return value;
+    }
+
+    private void inflate() {
+        List<List<?>> rows = new ArrayList<List<?>>(Math.max(10, size));
+        for (int i = 0; i < size; i++) {
+            rows.add(get(i));
+        }
+        resize(0);
+        size = 0;
+        inflated = rows;
+    }
+
+    private void ensureCapacity(int capacity) {
+        int current = capacity();
+        if (capacity > current) {
+            resize(Math.max(capacity, current + (current >> 1) + 1));
+        }
+    }
+
+    @Override
+    public List<?> get(int index) {
+        if (inflated != null) {
+            return inflated.get(index);
+        }
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        return Arrays.asList(getKey(index));
+    }
+
+    @Override
+    public int size() {
+        if (inflated != null) {
+            return inflated.size();
+        }
+        return size;
+    }
+
+    @Override
+    public List<?> set(int index, List<?> element) {
+        if (inflated == null) {
+            Object value = getCompactValue(element);
+            if (value != null) {
+                List<?> old = get(index);
+                setKey(index, value);
+                return old;
+            }
+            inflate();
+        }
+        return inflated.set(index, element);
+    }
+
+    @Override
+    public void add(int index, List<?> element) {
+        if (inflated == null) {
+            Object value = getCompactValue(element);
+            if (value != null) {
+                if (index < 0 || index > size) {
+                    throw new IndexOutOfBoundsException(String.valueOf(index));
+                }
+                ensureCapacity(size + 1);
+                move(index, index + 1, size - index);
+                setKey(index, value);
+                size++;
+                modCount++;
+                return;
+            }
+            inflate();
+        }
+        inflated.add(index, element);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends List<?>> c) {
+        return addAll(size(), c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends List<?>> c) {
+        if (inflated == null) {
+            Object[] rows = c.toArray();
+            Object[] values = new Object[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                values[i] = getCompactValue((List<?>)rows[i]);
+                if (values[i] == null) {
+                    inflate();
+                    return inflated.addAll(index, c);
+                }
+            }
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            ensureCapacity(size + values.length);
+            move(index, index + values.length, size - index);
+            for (int i = 0; i < values.length; i++) {
+                setKey(index + i, values[i]);
+            }
+            size += values.length;
+            modCount++;
+            return values.length > 0;
+        }
+        return inflated.addAll(index, c);
+    }
+
+    @Override
+    public List<?> remove(int index) {
+        if (inflated != null) {
+            return inflated.remove(index);
+        }
+        List<?> old = get(index);
+        removeRange(index, index + 1);
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (inflated != null) {
+            inflated.subList(fromIndex, toIndex).clear();
+            modCount++;
+            return;
+        }
+        move(toIndex, fromIndex, size - toIndex);
+        clear(size - (toIndex - fromIndex), size);
+        size -= toIndex - fromIndex;
+        modCount++;
+    }
+
+}
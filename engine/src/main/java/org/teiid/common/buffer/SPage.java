@@ -21,7 +21,6 @@ package org.teiid.common.buffer;
 import java.lang.ref.PhantomReference;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -133,7 +132,7 @@ class SPage implements Cloneable {
         List<List<?>> previousValues = null;
         for (;;) {
             List<List<?>> values = page.getValues();
-            int index = Collections.binarySearch(values, k, page.stree.comparator);
+            int index = page.stree.search(values, k);
             int flippedIndex = - index - 1;
             if (previousValues != null) {
                 if (flippedIndex == 0) {
@@ -143,7 +142,7 @@ class SPage implements Cloneable {
                 if (parent != null && index != 0) {
                     page.stree.updateLock.lock();
                     try {
-                        index = Collections.binarySearch(values, k, page.stree.comparator);
+                        index = page.stree.search(values, k);
                         if (index != 0) {
                             //for non-matches move the previous pointer over to this page
                             SPage childPage = page;
@@ -190,7 +189,7 @@ class SPage implements Cloneable {
             return;
         }
         this.values = null;
-        managedBatch = stree.getBatchManager(children == null).createManagedBatch(values, managedBatch, trackingObject == null);
+        managedBatch = stree.getBatchManager(children == null).createManagedBatch(stree.compact(values, children == null), managedBatch, trackingObject == null);
         this.trackingObject = null;
     }
 
@@ -23,6 +23,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -37,7 +38,9 @@ import org.teiid.common.buffer.SPage.SearchResult;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.TeiidRuntimeException;
+import org.teiid.core.types.DataTypeManager;
 import org.teiid.core.util.Assertion;
+import org.teiid.core.util.PropertiesUtils;
 import org.teiid.query.QueryPlugin;
 import org.teiid.query.processor.relational.ListNestedSortComparator;
 
@@ -52,6 +55,7 @@ public class STree implements Cloneable {
     public enum InsertMode {ORDERED, NEW, UPDATE}
 
     private static final Random seedGenerator = new Random(0);
+    private static final boolean COMPACT_KEYS = PropertiesUtils.getHierarchicalProperty("org.teiid.compactIndexKeys", true, Boolean.class); //$NON-NLS-1$
 
     protected int randomSeed;
     private int mask = 1;
@@ -357,6 +361,44 @@ public class STree implements Cloneable {
         return logSize;
     }
 
+    /**
+     * Search the page values for the key, using the {@link CompactKeyList} search if possible
+     */
+    int search(List<List<?>> values, List<?> key) {
+        List<List<?>> list = values;
+        if (list instanceof LightWeightCopyOnWriteList<?>) {
+            list = ((LightWeightCopyOnWriteList<List<?>>)list).getList();
+        }
+        if (list instanceof CompactKeyList && !key.isEmpty()) {
+            CompactKeyList keys = (CompactKeyList)list;
+            Object value = key.get(0);
+            int[] sortParameters = comparator.getSortParameters();
+            if (sortParameters.length == 1 && sortParameters[0] == 0 && keys.isSearchable(value)) {
+                return keys.search(value, comparator.isAscending(0));
+            }
+        }
+        return Collections.binarySearch(values, key, comparator);
+    }
+
+    /**
+     * Use a {@link CompactKeyList} for the page values if the page holds a single column
+     * of a supported type
+     */
+    List<List<?>> compact(List<List<?>> values, boolean leaf) {
+        if (!COMPACT_KEYS || values instanceof CompactKeyList || comparator.getSortParameters().length != 1) {
+            return values;
+        }
+        String[] types = getBatchManager(leaf).getTypes();
+        if (types.length != 1) {
+            return values;
+        }
+        CompactKeyList result = CompactKeyList.create(values, DataTypeManager.getDataTypeClass(types[0]));
+        if (result == null) {
+            return values;
+        }
+        return result;
+    }
+
     List extractKey(List tuple) {
         if (tuple.size() > keyLength) {
             return new ArrayList(tuple.subList(0, keyLength));
@@ -44,6 +44,7 @@ public class TupleBuffer {
         private final boolean singleUse;
         private boolean noBlocking;
         private boolean reverse;
+        private long prefetchedRow;
 
         private TupleBufferTupleSource(boolean singleUse) {
             this.singleUse = singleUse;
@@ -67,7 +68,11 @@ public class TupleBuffer {
 
         @Override
         protected TupleBatch getBatch(long row) throws TeiidComponentException {
-            return TupleBuffer.this.getBatch(row);
+            TupleBatch result = TupleBuffer.this.getBatch(row);
+            if (readAheadBatches > 0 && !reverse) {
+                prefetchedRow = prefetch(result.getEndRow(), prefetchedRow);
+            }
+            return result;
         }
 
         @Override
@@ -126,6 +131,7 @@ public class TupleBuffer {
     private List<List<?>> batchBuffer;
     private boolean removed;
     private boolean forwardOnly;
+    private int readAheadBatches;
 
     private LobManager lobManager;
     private String uuid;
@@ -297,6 +303,26 @@ public class TupleBuffer {
         return result;
     }
 
+    /**
+     * Hint to the manager that the managed batches following the row will be read.
+     * @param row the end row of the current batch
+     * @param prefetchedRow batches starting at or before this row have already been requested
+     * @return the start row of the last batch requested
+     */
+    private long prefetch(long row, long prefetchedRow) {
+        int count = 0;
+        for (Map.Entry<Long, Long> entry : batches.tailMap(row, false).entrySet()) {
+            if (count++ == readAheadBatches) {
+                break;
+            }
+            if (entry.getKey() > prefetchedRow) {
+                manager.prefetch(entry.getValue());
+                prefetchedRow = entry.getKey();
+            }
+        }
+        return prefetchedRow;
+    }
+
     public void remove() {
         if (!removed) {
             if (LogManager.isMessageToBeRecorded(LogConstants.CTX_BUFFER_MGR, MessageLevel.DETAIL)) {
@@ -358,6 +384,13 @@ public class TupleBuffer {
         return lobManager.getLobReference(id);
     }
 
+    /**
+     * Set the number of batches to read ahead of a forward iteration
+     */
+    public void setReadAheadBatches(int readAheadBatches) {
+        this.readAheadBatches = readAheadBatches;
+    }
+
     public void setForwardOnly(boolean forwardOnly) {
         this.forwardOnly = forwardOnly;
     }
@@ -45,6 +45,10 @@ import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import org.teiid.common.buffer.AutoCleanupUtil;
 import org.teiid.common.buffer.Cache;
@@ -379,6 +383,7 @@ public class BufferFrontedFileStoreCache implements Cache<PhysicalInfo> {
     private AtomicInteger freedCounter = new AtomicInteger();
 
     private boolean compactBufferFiles = PropertiesUtils.getHierarchicalProperty("org.teiid.compactBufferFiles", false, Boolean.class); //$NON-NLS-1$
+    private boolean compressBufferFiles = PropertiesUtils.getHierarchicalProperty("org.teiid.compressBufferFiles", false, Boolean.class); //$NON-NLS-1$
 
     private int truncateInterval = 4;
     //defrag to release freespace held by storage files
@@ -551,6 +556,7 @@ public class BufferFrontedFileStoreCache implements Cache<PhysicalInfo> {
 
     private AtomicLong storageWrites = new AtomicLong();
     private AtomicLong storageReads = new AtomicLong();
+    private AtomicLong serializedBytes = new AtomicLong();
 
     private long minDefrag = DEFAULT_MIN_DEFRAG;
     private BufferManagerImpl bufferManager;
@@ -620,6 +626,7 @@ public class BufferFrontedFileStoreCache implements Cache<PhysicalInfo> {
         PhysicalInfo info = null;
         boolean success = false;
         int memoryBlocks = this.maxMemoryBlocks;
+        Deflater deflater = null;
         try {
             Map<Long, PhysicalInfo> map = physicalMapping.get(s.getId());
             if (map == null) {
@@ -664,9 +671,16 @@ public class BufferFrontedFileStoreCache implements Cache<PhysicalInfo> {
             BlockOutputStream bos = new BlockOutputStream(blockManager, memoryBlocks);
             bos.writeLong(s.getId());
             bos.writeLong(entry.getId());
-            ObjectOutput dos = new ObjectOutputStream(bos);
+            OutputStream os = bos;
+            if (compressBufferFiles) {
+                //the header is left uncompressed so that defrag can still read the ids
+                deflater = new Deflater(Deflater.BEST_SPEED);
+                os = new DeflaterOutputStream(bos, deflater, 1 << LOG_BLOCK_SIZE);
+            }
+            ObjectOutput dos = new ObjectOutputStream(os);
             s.serialize(entry.getObject(), dos);
             dos.close();
+            serializedBytes.addAndGet(bos.getBytesWritten());
             //synchronized to ensure proper cleanup from a concurrent removal
             synchronized (map) {
                 if (physicalMapping.containsKey(s.getId()) && map.containsKey(entry.getId())) {
@@ -715,6 +729,9 @@ public class BufferFrontedFileStoreCache implements Cache<PhysicalInfo> {
                 LogManager.logError(LogConstants.CTX_BUFFER_MGR, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30002,s.getId(), entry.getId()));
             }
         } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
             if (hasPermit) {
                 memoryWritePermits.release(memoryBlocks);
             }
@@ -789,6 +806,7 @@ public class BufferFrontedFileStoreCache implements Cache<PhysicalInfo> {
         Lock lock = null;
         ExtensibleBufferedInputStream eis = null;
         int memoryBlocks = 0;
+        Inflater inflater = null;
         try {
             synchronized (info) {
                 assert !info.pinned && info.loading; //load should be locked
@@ -825,6 +843,10 @@ public class BufferFrontedFileStoreCache implements Cache<PhysicalInfo> {
             for (int i = 0; i < HEADER_BYTES; i++) {
                 is.read();
             }
+            if (compressBufferFiles) {
+                inflater = new Inflater();
+                is = new InflaterInputStream(is, inflater, 1 << LOG_BLOCK_SIZE);
+            }
             ObjectInput dis = new ObjectInputStream(is);
             CacheEntry ce = new CacheEntry(new CacheKey(oid, 1, 1), info.sizeEstimate, serializer.deserialize(dis), ref, true);
             return ce;
@@ -835,6 +857,9 @@ public class BufferFrontedFileStoreCache implements Cache<PhysicalInfo> {
         } catch (InterruptedException e) {
              throw new TeiidRuntimeException(QueryPlugin.Event.TEIID30049, e);
         } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
             synchronized (info) {
                 info.pinned = false;
                 info.notifyAll();
@@ -1258,6 +1283,13 @@ public class BufferFrontedFileStoreCache implements Cache<PhysicalInfo> {
         return storageWrites.get();
     }
 
+    /**
+     * @return the total bytes written for all objects added to the memory buffer
+     */
+    public long getSerializedBytes() {
+        return serializedBytes.get();
+    }
+
     public long getMemoryBufferSpace() {
         return memoryBufferSpace;
     }
@@ -1302,6 +1334,17 @@ public class BufferFrontedFileStoreCache implements Cache<PhysicalInfo> {
         this.compactBufferFiles = compactBufferFiles;
     }
 
+    /**
+     * Compress the serialized form of objects.  Must be set prior to adding entries.
+     */
+    public void setCompressBufferFiles(boolean compressBufferFiles) {
+        this.compressBufferFiles = compressBufferFiles;
+    }
+
+    public boolean isCompressBufferFiles() {
+        return compressBufferFiles;
+    }
+
     @Override
     public long getMaxStorageSpace() {
         return this.storageManager.getMaxStorageSpace();
@@ -33,6 +33,8 @@ import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -52,6 +54,7 @@ import org.teiid.core.types.DataTypeManager;
 import org.teiid.core.types.DataTypeManager.WeakReferenceHashedValueCache;
 import org.teiid.core.types.Streamable;
 import org.teiid.core.util.Assertion;
+import org.teiid.core.util.ExecutorUtils;
 import org.teiid.dqp.internal.process.DQPConfiguration;
 import org.teiid.dqp.internal.process.RequestWorkItem;
 import org.teiid.dqp.service.SessionService;
@@ -199,7 +202,7 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
         private long totalSize;
         private long currentSize;
         private long rowsSampled;
-        private boolean removed;
+        private volatile boolean removed;
         private boolean sizeWarning;
 
         private BatchManagerImpl(Long newID, Class<?>[] types) {
@@ -344,7 +347,12 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
             }
             try {
                 //it's expected that the containing structure has updated the lob manager
-                BatchSerializer.writeBatch(oos, types, obj);
+                if (encodeBatches) {
+                    BatchSerializer.writeBatch(oos, types, obj, BatchSerializer.VERSION_ENCODED);
+                } else {
+                    BatchSerializer.writeBatch(oos, types, obj);
+                }
+                serializedRows.addAndGet(obj.size());
             } catch (RuntimeException e) {
                 if (ExceptionUtil.getExceptionOfType(e, ClassCastException.class) != null) {
                     throw e;
@@ -412,6 +420,55 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
             return (List<List<?>>)ce.getObject();
         }
 
+        @Override
+        public void prefetch(final Long batch) {
+            if (ioExecutor == null || removed || memoryEntries.containsKey(batch)
+                    || activeBatchBytes.get() + overheadBytes.get() >= reserveBatchBytes.get()) {
+                return; //no io threads or no free heap
+            }
+            try {
+                ioExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        load(batch);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                //just skip the read ahead
+            }
+        }
+
+        /**
+         * Read the batch from storage into memory so that a subsequent
+         * {@link #getBatch(Long, boolean)} will not hit storage
+         */
+        void load(Long batch) {
+            Cache c = cache;
+            if (removed || c == null) {
+                return;
+            }
+            Object o = c.lockForLoad(batch, this);
+            try {
+                if (removed || fastGet(batch, prefersMemory.get(), true) != null) {
+                    return;
+                }
+                CacheEntry ce = c.get(o, batch, this.ref);
+                if (ce == null) {
+                    return; //already removed
+                }
+                prefetchCount.incrementAndGet();
+                addMemoryEntry(ce);
+            } catch (Throwable e) {
+                LogManager.logDetail(LogConstants.CTX_BUFFER_MGR, e, id, "could not read ahead batch", batch); //$NON-NLS-1$
+            } finally {
+                c.unlockForLoad(o);
+            }
+            if (removed) {
+                //the removal may have raced with the load
+                fastGet(batch, prefersMemory.get(), false);
+            }
+        }
+
         @Override
         public void remove(Long batch) {
             Integer sizeEstimate = BufferManagerImpl.this.remove(id, batch, prefersMemory.get());
@@ -484,6 +541,7 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
     private int maxActivePlans = DQPConfiguration.DEFAULT_MAX_ACTIVE_PLANS; //used as a hint to set the reserveBatchKB
     private boolean useWeakReferences = true;
     private boolean inlineLobs = true;
+    private boolean encodeBatches;
     private int targetBytesPerRow = TARGET_BYTES_PER_ROW;
     private int maxSoftReferences;
     private int nominalProcessingMemoryMax = maxProcessingBytes;
@@ -524,7 +582,12 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
     private AtomicLong tsId = new AtomicLong();
     private AtomicLong batchAdded = new AtomicLong();
     private AtomicLong readCount = new AtomicLong();
+    private AtomicLong serializedRows = new AtomicLong();
     private AtomicLong writeCount = new AtomicLong();
+    private AtomicLong writeBehindCount = new AtomicLong();
+    private AtomicLong prefetchCount = new AtomicLong();
+    private AtomicLong evictionCount = new AtomicLong();
+    private AtomicLong reservationWaitCount = new AtomicLong();
     private AtomicLong referenceHit = new AtomicLong();
 
     private static Timer SHARED_TIMER;
@@ -533,6 +596,11 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
     private Cleaner cleaner;
     private AtomicBoolean cleaning = new AtomicBoolean();
 
+    private int ioThreads;
+    private int readAheadBatches = 2;
+    private ExecutorService ioExecutor;
+    private AtomicBoolean writeBehindScheduled = new AtomicBoolean();
+
     private long maxFileStoreLength = Long.MAX_VALUE;
     private long maxBatchManagerSizeEstimate = Long.MAX_VALUE;
     private boolean enforceMaxBatchManagerSizeEstimate = false;
@@ -581,14 +649,46 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
         return readCount.get();
     }
 
+    public long getSerializedRowCount() {
+        return serializedRows.get();
+    }
+
     public long getWriteCount() {
         return writeCount.get();
     }
 
+    /**
+     * Get the number of eviction runs performed by the io threads
+     */
+    public long getWriteBehindCount() {
+        return writeBehindCount.get();
+    }
+
+    /**
+     * Get the number of batches read ahead by the io threads
+     */
+    public long getPrefetchCount() {
+        return prefetchCount.get();
+    }
+
     public long getReadAttempts() {
         return readAttempts.get();
     }
 
+    /**
+     * @return the number of batches removed from the memory cache
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return the number of blocking reservation attempts that could not be immediately satisfied
+     */
+    public long getReservationWaitCount() {
+        return reservationWaitCount.get();
+    }
+
     @Override
     public int getMaxProcessingSize() {
         return maxProcessingBytes;
@@ -633,6 +733,9 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
             LogManager.logDetail(LogConstants.CTX_BUFFER_MGR, "Creating TupleBuffer:", newID, elements, Arrays.toString(types), "batch size", tupleBuffer.getBatchSize(), "of type", tupleSourceType); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
         }
         tupleBuffer.setInlineLobs(inlineLobs);
+        if (ioExecutor != null) {
+            tupleBuffer.setReadAheadBatches(readAheadBatches);
+        }
         return tupleBuffer;
     }
 
@@ -764,6 +867,9 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
         }
         this.maxSoftReferences = 1 << Math.min(30, logSize);
         this.nominalProcessingMemoryMax = (int)Math.max(Math.min(this.maxReserveBytes, 2*this.maxProcessingBytes), Math.min(Integer.MAX_VALUE, 2*this.maxReserveBytes/maxActivePlans));
+        if (this.ioThreads > 0 && this.ioExecutor == null) {
+            this.ioExecutor = ExecutorUtils.newFixedThreadPool(ioThreads, "BufferManager IO"); //$NON-NLS-1$
+        }
     }
 
     void setNominalProcessingMemoryMax(int nominalProcessingMemoryMax) {
@@ -863,6 +969,7 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
         }
         result = noWaitReserve(count, true, context);
         if (result == 0) {
+            reservationWaitCount.incrementAndGet();
             if (val[0]++ == 0) {
                 val[1] = System.currentTimeMillis();
             }
@@ -974,9 +1081,55 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
                 cleaner.notify();
             }
         }
+        if (ioExecutor != null && memoryCount - maxReserveBytes < maxProcessingBytes) {
+            //write behind - the io threads will evict unless they have fallen too far behind
+            scheduleWriteBehind();
+            return;
+        }
         //we delay work here as there should be excess vm space, we are using an overestimate, and we want the cleaner to do the work if possible
         //TODO: track sizes held by each queue independently
-        long maxToFree = Math.min(max, memoryCount - maxReserveBytes);
+        evictToStorage(Math.min(max, memoryCount - maxReserveBytes));
+    }
+
+    private void scheduleWriteBehind() {
+        if (!writeBehindScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ioExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        writeBehind();
+                    } catch (Throwable e) {
+                        LogManager.logDetail(LogConstants.CTX_BUFFER_MGR, e, "Exception during write behind"); //$NON-NLS-1$
+                    } finally {
+                        writeBehindScheduled.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            writeBehindScheduled.set(false);
+        }
+    }
+
+    /**
+     * Evict until the active batches fit in the reserve
+     */
+    void writeBehind() {
+        while (cache != null) {
+            long memoryCount = activeBatchBytes.get() + overheadBytes.get() + maxReserveBytes - reserveBatchBytes.get();
+            if (memoryCount <= maxReserveBytes) {
+                return;
+            }
+            writeBehindCount.incrementAndGet();
+            if (evictToStorage(Math.min(maxProcessingBytes, memoryCount - maxReserveBytes)) <= 0) {
+                return;
+            }
+        }
+    }
+
+    private long evictToStorage(long maxToFree) {
         LrfuEvictionQueue<CacheEntry> first = initialEvictionQueue;
         LrfuEvictionQueue<CacheEntry> second = evictionQueue;
         if (evictionQueue.getSize() > 2*initialEvictionQueue.getSize()) {
@@ -985,13 +1138,15 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
             first = evictionQueue;
             second = initialEvictionQueue;
         }
-        maxToFree -= doEvictions(maxToFree, false, first);
+        long freed = doEvictions(maxToFree, false, first);
+        maxToFree -= freed;
         if (maxToFree > 0) {
             maxToFree = Math.min(maxToFree, activeBatchBytes.get() + overheadBytes.get() - reserveBatchBytes.get());
             if (maxToFree > 0) {
-                doEvictions(maxToFree, false, second);
+                freed += doEvictions(maxToFree, false, second);
             }
         }
+        return freed;
     }
 
     long doEvictions(long maxToFree, boolean ageOut, LrfuEvictionQueue<CacheEntry> queue) {
@@ -1039,6 +1194,7 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
                                 LogManager.logTrace(LogConstants.CTX_BUFFER_MGR, "Removing batch from heap cache", s!=null?s.getId():null, ce.getId()); //$NON-NLS-1$
                             }
                             freed += ce.getSizeEstimate();
+                            evictionCount.incrementAndGet();
                             long result = activeBatchBytes.addAndGet(-ce.getSizeEstimate());
                             assert result >= 0 || !LrfuEvictionQueue.isSuspectSize(activeBatchBytes);
                             queue.remove(ce); //ensures that an intervening get will still be cleaned
@@ -1274,6 +1430,10 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
         this.evictionQueue.getEvictionQueue().clear();
         this.initialEvictionQueue.getEvictionQueue().clear();
         this.cleaner.cancel();
+        if (this.ioExecutor != null) {
+            this.ioExecutor.shutdownNow();
+            this.ioExecutor = null;
+        }
         if (this.timer != SHARED_TIMER) {
             this.timer.cancel();
         }
@@ -1415,6 +1575,42 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
         this.inlineLobs = inlineLobs;
     }
 
+    /**
+     * Use the column encodings of {@link BatchSerializer#VERSION_ENCODED} when
+     * serializing batches to storage.
+     */
+    public void setEncodeBatches(boolean encodeBatches) {
+        this.encodeBatches = encodeBatches;
+    }
+
+    public boolean isEncodeBatches() {
+        return encodeBatches;
+    }
+
+    /**
+     * Set the number of threads used to write evicted batches and to read ahead
+     * batches for forward iteration.  0, the default, performs all io on the
+     * processing threads.  Must be set prior to {@link #initialize()}.
+     */
+    public void setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    /**
+     * Set the number of batches to read ahead of a forward iteration when io threads are used.
+     */
+    public void setReadAheadBatches(int readAheadBatches) {
+        this.readAheadBatches = readAheadBatches;
+    }
+
+    public int getReadAheadBatches() {
+        return readAheadBatches;
+    }
+
     public int getMaxReserveKB() {
         return (int)(maxReserveBytes>>10);
     }
@@ -201,6 +201,10 @@ public class EncryptedStorageManager implements StorageManager {
         }
     }
 
+    public StorageManager getStorageManager() {
+        return manager;
+    }
+
     @Override
     public long getMaxStorageSpace() {
         return manager.getMaxStorageSpace();
@@ -56,6 +56,9 @@ public class FileStorageManager implements StorageManager {
 
     private AtomicInteger outOfDiskCount = new AtomicInteger();
 
+    private AtomicLong bytesRead = new AtomicLong();
+    private AtomicLong bytesWritten = new AtomicLong();
+
     private class FileInfo {
         private File file;
         private RandomAccessFile fileData;       // may be null if not open
@@ -123,7 +126,11 @@ public class FileStorageManager implements StorageManager {
                 try {
                     RandomAccessFile fileAccess = fileInfo.open();
                     fileAccess.seek(fileOffset);
-                    return fileAccess.read(b, offSet, length);
+                    int count = fileAccess.read(b, offSet, length);
+                    if (count > 0) {
+                        bytesRead.addAndGet(count);
+                    }
+                    return count;
                 } finally {
                     fileInfo.close();
                 }
@@ -137,6 +144,7 @@ public class FileStorageManager implements StorageManager {
                 setLength(fileAccess, newLength, false);
                 fileAccess.seek(fileOffset);
                 fileAccess.write(b, offSet, length);
+                bytesWritten.addAndGet(length);
             } finally {
                 fileInfo.close();
             }
@@ -302,6 +310,14 @@ public class FileStorageManager implements StorageManager {
         return outOfDiskCount.get();
     }
 
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
     /**
      * Set the max amount of buffer space in bytes
      * @param maxBufferSpace
@@ -34,6 +34,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.teiid.common.buffer.CompactKeyList;
 import org.teiid.core.types.ArrayImpl;
 import org.teiid.core.types.BaseLob;
 import org.teiid.core.types.BinaryType;
@@ -121,6 +122,21 @@ public final class SizeUtility {
         int colLength = types.length;
         int rowLength = data.size();
 
+        if (data instanceof CompactKeyList && ((CompactKeyList)data).isCompact()) {
+            CompactKeyList keys = (CompactKeyList)data;
+            long size = 32 + alignMemory(rowLength * keys.getKeyBytes());
+            if (isVariableSize(types[0]) && rowLength > 0) {
+                int rowsSampled = 0;
+                int estimatedSize = 0;
+                for (int row = 0; row < rowLength; row=(row*2)+1) {
+                    rowsSampled++;
+                    estimatedSize += getSize(keys.getKey(row), accountForValueCache);
+                }
+                size += estimatedSize/(float)rowsSampled * rowLength;
+            }
+            return size;
+        }
+
         // Array overhead for row array
         long size = 16 + alignMemory(rowLength * REFERENCE_SIZE);
         // array overhead for all the columns ( 8 object overhead + 4 ref + 4 int)
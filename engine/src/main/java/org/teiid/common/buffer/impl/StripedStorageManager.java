@@ -0,0 +1,211 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.teiid.common.buffer.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.teiid.common.buffer.FileStore;
+import org.teiid.common.buffer.StorageManager;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.logging.LogConstants;
+import org.teiid.logging.LogManager;
+
+/**
+ * A storage manager that spreads file stores across several {@link FileStorageManager}s,
+ * typically one per device, so that spill bandwidth grows with the number of devices.
+ * <br>
+ * Each manager keeps its own open file budget, space limit and io counters.  New stores
+ * are assigned round robin skipping full managers.  A manager that ran out of space is not
+ * used again until its usage drops as its existing files are removed.  A store that runs
+ * out of space before anything has been written to it is moved to another manager.
+ * <br>
+ * Typically wrapped by a {@link SplittableStorageManager} so that the segments of a large
+ * logical file are striped.
+ */
+public class StripedStorageManager implements StorageManager {
+
+    private List<FileStorageManager> managers;
+    private AtomicInteger counter = new AtomicInteger();
+    //the used space when a manager last ran out of space, it's considered full until usage drops below
+    private AtomicLongArray fullAt;
+
+    public StripedStorageManager(List<FileStorageManager> managers) {
+        this.managers = new ArrayList<FileStorageManager>(managers);
+        this.fullAt = new AtomicLongArray(managers.size());
+        for (int i = 0; i < managers.size(); i++) {
+            fullAt.set(i, Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void initialize() throws TeiidComponentException {
+        for (FileStorageManager manager : managers) {
+            manager.initialize();
+        }
+    }
+
+    @Override
+    public FileStore createFileStore(String name) {
+        int index = nextManager(-1);
+        return new StripedFileStore(name, index, managers.get(index).createFileStore(name));
+    }
+
+    /**
+     * Get the next manager in round robin order that has free space.  If all
+     * are full, the one with the most free space is returned.
+     * @param exclude the index to skip or -1
+     * @return the index or -1 if only the excluded manager exists
+     */
+    int nextManager(int exclude) {
+        int size = managers.size();
+        int start = counter.getAndIncrement() & Integer.MAX_VALUE;
+        int best = -1;
+        long bestFree = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (index == exclude) {
+                continue;
+            }
+            FileStorageManager manager = managers.get(index);
+            long used = manager.getUsedBufferSpace();
+            long free = manager.getMaxStorageSpace() - used;
+            long full = fullAt.get(index);
+            if (used < full && full != Long.MAX_VALUE) {
+                //space has been freed, so the manager is no longer considered full
+                fullAt.compareAndSet(index, full, Long.MAX_VALUE);
+                full = Long.MAX_VALUE;
+            }
+            if (free > 0 && used < full) {
+                return index;
+            }
+            if (free > bestFree) {
+                best = index;
+                bestFree = free;
+            }
+        }
+        return best;
+    }
+
+    final class StripedFileStore extends FileStore {
+        private String name;
+        private int index;
+        private volatile FileStore store;
+
+        StripedFileStore(String name, int index, FileStore store) {
+            this.name = name;
+            this.index = index;
+            this.store = store;
+        }
+
+        @Override
+        public long getLength() {
+            return store.getLength();
+        }
+
+        @Override
+        public synchronized void setLength(long length) throws IOException {
+            for (int attempt = 0;; attempt++) {
+                try {
+                    store.setLength(length);
+                    return;
+                } catch (OutOfDiskException e) {
+                    relocate(attempt, e);
+                }
+            }
+        }
+
+        @Override
+        protected int readWrite(long fileOffset, byte[] b, int offSet,
+                int length, boolean write) throws IOException {
+            if (!write) {
+                return store.read(fileOffset, b, offSet, length);
+            }
+            synchronized (this) {
+                for (int attempt = 0;; attempt++) {
+                    try {
+                        store.write(fileOffset, b, offSet, length);
+                        return length;
+                    } catch (OutOfDiskException e) {
+                        relocate(attempt, e);
+                    }
+                }
+            }
+        }
+
+        private void relocate(int attempt, OutOfDiskException e) throws OutOfDiskException {
+            fullAt.set(index, managers.get(index).getUsedBufferSpace());
+            if (attempt >= managers.size() - 1 || store.getLength() > 0) {
+                throw e;
+            }
+            int next = nextManager(index);
+            if (next == -1) {
+                throw e;
+            }
+            LogManager.logDetail(LogConstants.CTX_BUFFER_MGR, "Moving storage", name, "to directory", managers.get(next).getDirectory()); //$NON-NLS-1$ //$NON-NLS-2$
+            store.remove();
+            index = next;
+            store = managers.get(next).createFileStore(name);
+        }
+
+        @Override
+        protected synchronized void removeDirect() {
+            store.remove();
+        }
+
+        int getIndex() {
+            return index;
+        }
+    }
+
+    public List<FileStorageManager> getStorageManagers() {
+        return managers;
+    }
+
+    /**
+     * Get the used buffer space in bytes across all managers
+     */
+    public long getUsedBufferSpace() {
+        long result = 0;
+        for (FileStorageManager manager : managers) {
+            result += manager.getUsedBufferSpace();
+        }
+        return result;
+    }
+
+    public int getOutOfDiskErrorCount() {
+        int result = 0;
+        for (FileStorageManager manager : managers) {
+            result += manager.getOutOfDiskErrorCount();
+        }
+        return result;
+    }
+
+    @Override
+    public long getMaxStorageSpace() {
+        long result = 0;
+        for (FileStorageManager manager : managers) {
+            result += manager.getMaxStorageSpace();
+        }
+        return result;
+    }
+
+}
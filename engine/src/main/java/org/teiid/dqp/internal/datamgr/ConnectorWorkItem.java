@@ -46,6 +46,7 @@ import org.teiid.core.types.*;
 import org.teiid.core.types.InputStreamFactory.StorageMode;
 import org.teiid.core.util.Assertion;
 import org.teiid.core.util.ReaderInputStream;
+import org.teiid.dqp.internal.process.EngineMetrics;
 import org.teiid.dqp.internal.process.SaveOnReadInputStream;
 import org.teiid.dqp.message.AtomicRequestID;
 import org.teiid.dqp.message.AtomicRequestMessage;
@@ -124,7 +125,9 @@ public class ConnectorWorkItem implements ConnectorWork {
 
     private TeiidException conversionError;
 
-    private ThreadCpuTimer timer = new ThreadCpuTimer();
+    private ThreadCpuTimer timer;
+    private EngineMetrics metrics;
+    private long executeStart = -1;
 
     private boolean unmodifiableList;
 
@@ -151,6 +154,11 @@ public class ConnectorWorkItem implements ConnectorWork {
         this.securityContext.setBatchSize(this.requestMsg.getFetchSize());
         this.securityContext.setSession(requestMsg.getWorkContext().getSession());
 
+        if (message.getCommandContext() != null) {
+            this.metrics = message.getCommandContext().getMetrics();
+        }
+        this.timer = new ThreadCpuTimer(this.metrics != null);
+
         this.connector = manager.getExecutionFactory();
         VDBMetaData vdb = requestMsg.getWorkContext().getVDB();
         QueryMetadataInterface qmi = vdb.getAttachment(QueryMetadataInterface.class);
@@ -306,6 +314,9 @@ public class ConnectorWorkItem implements ConnectorWork {
             }
             Long time = timer.stop();
             manager.logSRCCommand(this, this.requestMsg, this.securityContext, Event.END, this.rowCount, time);
+            if (this.metrics != null && this.executeStart != -1) {
+                this.metrics.sourceRequestCompleted(manager.getTranslatorName(), System.nanoTime() - this.executeStart, this.rowCount, time);
+            }
             if (scope != null) {
                 scope.close();
             }
@@ -348,6 +359,9 @@ public class ConnectorWorkItem implements ConnectorWork {
         }
         Scope scope = null;
         timer.start();
+        if (this.executeStart == -1) {
+            this.executeStart = System.nanoTime();
+        }
         try {
             if (this.execution == null) {
                 if (this.connection == null) {
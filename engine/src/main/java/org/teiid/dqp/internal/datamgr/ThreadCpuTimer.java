@@ -31,14 +31,21 @@ import org.teiid.logging.MessageLevel;
 public class ThreadCpuTimer {
 
     private static ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
-    private int totalTime = -1;
+    private long totalTime = -1;
     private long lastTime = -1;
     private boolean active;
 
     public ThreadCpuTimer() {
+        this(false);
+    }
+
+    /**
+     * @param always if true the timer will be active even if command logging is not enabled
+     */
+    public ThreadCpuTimer(boolean always) {
         active = threadMXBean.isThreadCpuTimeSupported()
                 && threadMXBean.isThreadCpuTimeEnabled()
-                && LogManager.isMessageToBeRecorded(LogConstants.CTX_COMMANDLOGGING, MessageLevel.DETAIL);
+                && (always || LogManager.isMessageToBeRecorded(LogConstants.CTX_COMMANDLOGGING, MessageLevel.DETAIL));
     }
 
     public void start() {
@@ -17,6 +17,8 @@
  */
 package org.teiid.dqp.internal.process;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import org.teiid.PreParser;
@@ -61,6 +63,10 @@ public class DQPConfiguration{
 
     private Properties properties;
 
+    private List<ResourcePoolConfiguration> resourcePools = new ArrayList<ResourcePoolConfiguration>();
+    private boolean memoryAdmissionControl;
+    private boolean metricsEnabled;
+
     public DQPConfiguration() {
         properties = PropertiesUtils.getDefaultProperties();
     }
@@ -179,7 +185,11 @@ public class DQPConfiguration{
     }
 
     public TeiidExecutor getTeiidExecutor() {
-        return new ThreadReuseExecutor(DQPConfiguration.PROCESS_PLAN_QUEUE_NAME, getMaxThreads()) {
+        return getTeiidExecutor(DQPConfiguration.PROCESS_PLAN_QUEUE_NAME, getMaxThreads());
+    }
+
+    TeiidExecutor getTeiidExecutor(String name, int threads) {
+        return new ThreadReuseExecutor(name, threads) {
             Tracer tracer = GlobalTracerInjector.getTracer();
             @Override
             public void execute(Runnable command) {
@@ -189,6 +199,41 @@ public class DQPConfiguration{
         };
     }
 
+    /**
+     * @return the resource pools in selection order
+     */
+    public List<ResourcePoolConfiguration> getResourcePools() {
+        return resourcePools;
+    }
+
+    public void addResourcePool(ResourcePoolConfiguration resourcePool) {
+        this.resourcePools.add(resourcePool);
+    }
+
+    /**
+     * If true, a plan will wait to start while other plans are active and
+     * the buffer manager cannot reserve the per plan processing memory.
+     */
+    public boolean isMemoryAdmissionControl() {
+        return memoryAdmissionControl;
+    }
+
+    public void setMemoryAdmissionControl(boolean memoryAdmissionControl) {
+        this.memoryAdmissionControl = memoryAdmissionControl;
+    }
+
+    /**
+     * If true, source, operator, cache, buffer and worker metrics will be recorded.
+     * Operator metrics require node statistics collection for every plan.
+     */
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
     public void setPreParser(PreParser preParser) {
         this.preParser = preParser;
     }
@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -59,6 +60,14 @@ import org.teiid.client.util.ResultsReceiver;
 import org.teiid.client.xa.XATransactionException;
 import org.teiid.client.xa.XidImpl;
 import org.teiid.common.buffer.BufferManager;
+import org.teiid.common.buffer.BufferManager.BufferReserveMode;
+import org.teiid.common.buffer.StorageManager;
+import org.teiid.common.buffer.impl.BufferFrontedFileStoreCache;
+import org.teiid.common.buffer.impl.BufferManagerImpl;
+import org.teiid.common.buffer.impl.EncryptedStorageManager;
+import org.teiid.common.buffer.impl.FileStorageManager;
+import org.teiid.common.buffer.impl.SplittableStorageManager;
+import org.teiid.common.buffer.impl.StripedStorageManager;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.TeiidRuntimeException;
@@ -126,6 +135,9 @@ public class DQPCore implements DQP {
     private int userRequestSourceConcurrency;
     private LinkedList<RequestWorkItem> waitingPlans = new LinkedList<RequestWorkItem>();
     private volatile int maxWaitingPlans = 0;
+    private List<ResourcePool> resourcePools = Collections.emptyList();
+    private boolean memoryAdmissionControl;
+    private EngineMetrics metrics;
     private AuthorizationValidator authorizationValidator;
 
     private EnhancedTimer cancellationTimer;
@@ -150,6 +162,11 @@ public class DQPCore implements DQP {
             }
         }
         processWorkerPool.shutdownNow();
+        for (ResourcePool pool : resourcePools) {
+            if (pool.getExecutor() != null) {
+                pool.getExecutor().shutdownNow();
+            }
+        }
         try {
             processWorkerPool.awaitTermination(10, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
@@ -287,6 +304,8 @@ public class DQPCore implements DQP {
         } else {
             request = new Request();
         }
+        boolean runInThread = requestMsg.isSync();
+        ResourcePool pool = getResourcePool(workContext);
         ClientState state = this.getClientState(workContext.getSessionId(), true);
         if (state.session == null) {
             state.session = workContext.getSession();
@@ -295,9 +314,14 @@ public class DQPCore implements DQP {
                 dataTierMgr, transactionService, state.sessionTables,
                 workContext, this.prepPlanCache);
         request.setOptions(options);
-        request.setExecutor(this.processWorkerPool);
+        if (pool != null && pool.getExecutor() != null) {
+            request.setExecutor(pool.getExecutor());
+        } else {
+            request.setExecutor(this.processWorkerPool);
+        }
         request.setResultSetCacheEnabled(this.rsCache != null);
         request.setAuthorizationValidator(this.authorizationValidator);
+        request.setMetrics(this.metrics);
         final PreParser preparser = workContext.getVDB().getAttachment(PreParser.class);
         if (preparser != null) {
             if (this.config.getPreParser() != null) {
@@ -319,6 +343,7 @@ public class DQPCore implements DQP {
         request.setUserRequestConcurrency(this.getUserRequestSourceConcurrency());
         ResultsFuture<ResultsMessage> resultsFuture = new ResultsFuture<ResultsMessage>();
         final RequestWorkItem workItem = new RequestWorkItem(this, requestMsg, request, resultsFuture.getResultsReceiver(), requestID, workContext);
+        workItem.resourcePool = pool;
         logMMCommand(workItem, Event.NEW, null, null);
         addRequest(requestID, workItem, state);
         long timeout = workContext.getVDB().getQueryTimeout();
@@ -344,13 +369,31 @@ public class DQPCore implements DQP {
                 }
             }, timeout));
         }
-        boolean runInThread = requestMsg.isSync();
         synchronized (waitingPlans) {
-            if (runInThread || currentlyActivePlans < maxActivePlans) {
+            boolean canStart = runInThread || canStart(pool);
+            if (!canStart && pool != null && pool.isQueueFull()) {
+                //the admission check must be atomic with the enqueue so that maxQueued is enforced
+                pool.rejected();
+                workItem.cancelCancelTask();
+                removeRequest(workItem);
+                logMMCommand(workItem, Event.ERROR, null, null);
+                throw new TeiidProcessingException(QueryPlugin.Event.TEIID31302, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31302, requestID, pool.getName(), pool.getConfig().getMaxQueued()));
+            }
+            if (pool != null) {
+                pool.submitted();
+            }
+            if (canStart) {
+                if (metrics != null && !runInThread) {
+                    metrics.requestQueued(pool != null ? pool.getName() : DQPConfiguration.PROCESS_PLAN_QUEUE_NAME, 0);
+                }
                 startActivePlan(workItem, !runInThread);
             } else {
                 if (LogManager.isMessageToBeRecorded(LogConstants.CTX_DQP, MessageLevel.DETAIL)) {
-                    LogManager.logDetail(LogConstants.CTX_DQP, workItem.requestID, "Queuing plan, since max plans has been reached.");  //$NON-NLS-1$
+                    LogManager.logDetail(LogConstants.CTX_DQP, workItem.requestID, "Queuing plan, since max plans or available resources have been reached.");  //$NON-NLS-1$
+                }
+                workItem.queueStart = System.currentTimeMillis();
+                if (pool != null) {
+                    pool.queued();
                 }
                 waitingPlans.add(workItem);
                 maxWaitingPlans = Math.max(this.maxWaitingPlans, waitingPlans.size());
@@ -384,14 +427,58 @@ public class DQPCore implements DQP {
         state.addRequest(requestID);
     }
 
+    /**
+     * Select the first matching resource pool
+     * @return the pool or null if the engine defaults apply
+     */
+    private ResourcePool getResourcePool(DQPWorkContext workContext) {
+        Collection<String> roles = null;
+        for (ResourcePool pool : this.resourcePools) {
+            ResourcePoolConfiguration poolConfig = pool.getConfig();
+            if (roles == null && !poolConfig.getRoles().isEmpty()) {
+                roles = workContext.getAllowedDataPolicies().keySet();
+            }
+            if (poolConfig.matches(workContext.getVdbName(), workContext.getUserName(), roles)) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Must be called holding the waitingPlans lock
+     */
+    private boolean canStart(ResourcePool pool) {
+        if (currentlyActivePlans >= maxActivePlans) {
+            return false;
+        }
+        int estimate = this.bufferManager.getMaxProcessingSize();
+        if (pool != null && !pool.canStart(estimate)) {
+            return false;
+        }
+        if (memoryAdmissionControl && currentlyActivePlans > 0) {
+            //probe for the processing memory of a plan - it's not held
+            //as the plan will make its own reservations
+            int reserved = this.bufferManager.reserveBuffers(estimate, BufferReserveMode.NO_WAIT);
+            this.bufferManager.releaseBuffers(reserved);
+            if (reserved < estimate) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void startActivePlan(RequestWorkItem workItem, boolean addToQueue) {
         boolean continuous = workItem.requestMsg.getRequestOptions().isContinuous();
         workItem.active = !continuous;
         if (addToQueue) {
-            this.addWork(workItem);
+            this.addWork(workItem, workItem.resourcePool);
         }
         if (!continuous) {
             this.currentlyActivePlans++;
+            if (workItem.resourcePool != null) {
+                workItem.resourcePool.started(this.bufferManager.getMaxProcessingSize());
+            }
         }
     }
 
@@ -402,9 +489,24 @@ public class DQPCore implements DQP {
             }
             workItem.active = false;
             currentlyActivePlans--;
+            if (workItem.resourcePool != null) {
+                workItem.resourcePool.finished(this.bufferManager.getMaxProcessingSize());
+            }
             totalPlansProcessed.incrementAndGet();
-            if (!waitingPlans.isEmpty()) {
-                RequestWorkItem work = waitingPlans.remove();
+            //start the earliest plans allowed by the engine and pool limits
+            for (Iterator<RequestWorkItem> iter = waitingPlans.iterator(); iter.hasNext() && currentlyActivePlans < maxActivePlans;) {
+                RequestWorkItem work = iter.next();
+                if (!canStart(work.resourcePool)) {
+                    continue;
+                }
+                iter.remove();
+                long queueTime = System.currentTimeMillis() - work.queueStart;
+                if (work.resourcePool != null) {
+                    work.resourcePool.dequeued(queueTime);
+                }
+                if (metrics != null) {
+                    metrics.requestQueued(work.resourcePool != null ? work.resourcePool.getName() : DQPConfiguration.PROCESS_PLAN_QUEUE_NAME, queueTime);
+                }
                 startActivePlan(work, true);
             }
         }
@@ -453,8 +555,19 @@ public class DQPCore implements DQP {
     }
 
     void addWork(Runnable work) {
+        addWork(work, null);
+    }
+
+    /**
+     * Add work to the resource pool executor if there is one, otherwise the engine worker pool
+     */
+    void addWork(Runnable work, ResourcePool pool) {
         try {
-            this.processWorkerPool.execute(work);
+            if (pool != null && pool.getExecutor() != null) {
+                pool.getExecutor().execute(work);
+            } else {
+                this.processWorkerPool.execute(work);
+            }
         } catch (RejectedExecutionException e) {
             if (!shutdown) {
                 throw e;
@@ -509,6 +622,105 @@ public class DQPCore implements DQP {
         return this.processWorkerPool.getStats();
     }
 
+    /**
+     * @return the admission and thread statistics for each resource pool
+     */
+    public List<WorkerPoolStatisticsMetadata> getResourcePoolStatistics() {
+        List<WorkerPoolStatisticsMetadata> result = new ArrayList<WorkerPoolStatisticsMetadata>(this.resourcePools.size());
+        synchronized (waitingPlans) {
+            for (ResourcePool pool : this.resourcePools) {
+                result.add(pool.getStats());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the engine metrics or null if metrics are not enabled
+     */
+    public EngineMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void collectMetrics(MetricsRegistry registry) {
+        if (this.bufferManager instanceof BufferManagerImpl) {
+            BufferManagerImpl impl = (BufferManagerImpl)this.bufferManager;
+            registry.sampledCounter("teiid_buffer_reads_total", "Batches read from buffer storage").set(impl.getReadCount()); //$NON-NLS-1$ //$NON-NLS-2$
+            registry.sampledCounter("teiid_buffer_writes_total", "Batches written to buffer storage").set(impl.getWriteCount()); //$NON-NLS-1$ //$NON-NLS-2$
+            registry.sampledCounter("teiid_buffer_evictions_total", "Batches evicted from the buffer memory cache").set(impl.getEvictionCount()); //$NON-NLS-1$ //$NON-NLS-2$
+            registry.sampledCounter("teiid_buffer_reservation_waits_total", "Blocking buffer reservations that had to wait").set(impl.getReservationWaitCount()); //$NON-NLS-1$ //$NON-NLS-2$
+            registry.gauge("teiid_buffer_reserve_available_bytes", "Buffer memory currently available for reservation").set(impl.getReserveBatchBytes()); //$NON-NLS-1$ //$NON-NLS-2$
+            if (impl.getCache() instanceof BufferFrontedFileStoreCache) {
+                long bytes = ((BufferFrontedFileStoreCache)impl.getCache()).getSerializedBytes();
+                long rows = impl.getSerializedRowCount();
+                //every batch added to the cache is serialized into the memory buffer, disk writes are in the storage metrics
+                registry.sampledCounter("teiid_buffer_serialized_bytes_total", "Bytes of batches serialized into the buffer cache").set(bytes); //$NON-NLS-1$ //$NON-NLS-2$
+                registry.sampledCounter("teiid_buffer_serialized_rows_total", "Rows of batches serialized into the buffer cache").set(rows); //$NON-NLS-1$ //$NON-NLS-2$
+                registry.gauge("teiid_buffer_serialized_bytes_per_row", "Average serialized bytes per row of batches added to the buffer cache").set(rows == 0 ? 0 : (double)bytes / rows); //$NON-NLS-1$ //$NON-NLS-2$
+                collectStorageMetrics(registry, ((BufferFrontedFileStoreCache)impl.getCache()).getStorageManager());
+            }
+        }
+        collectCacheMetrics(registry, "plan", this.prepPlanCache); //$NON-NLS-1$
+        collectCacheMetrics(registry, "resultset", this.rsCache); //$NON-NLS-1$
+        //the engine worker pool queue holds work waiting for a thread
+        WorkerPoolStatisticsMetadata workerStats = getWorkerPoolStatistics();
+        String name = workerStats.getName();
+        registry.sampledCounter("teiid_worker_queue_seconds_total", "Time work waited in the engine worker pool queue for a thread", "pool", name).set(workerStats.getTotalQueueTime() / 1000d); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        registry.sampledCounter("teiid_worker_submitted_total", "Work submitted to the engine worker pool", "pool", name).set(workerStats.getTotalSubmitted()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        registry.sampledCounter("teiid_worker_completed_total", "Work completed by the engine worker pool", "pool", name).set(workerStats.getTotalCompleted()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        registry.gauge("teiid_worker_active_threads", "Active threads of the engine worker pool", "pool", name).set(workerStats.getActiveThreads()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        registry.gauge("teiid_worker_queued", "Work currently waiting for an engine worker thread", "pool", name).set(workerStats.getQueued()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        //the resource pool queues hold requests waiting for admission
+        for (WorkerPoolStatisticsMetadata stats : getResourcePoolStatistics()) {
+            name = stats.getName();
+            registry.sampledCounter("teiid_resource_pool_admission_seconds_total", "Time requests waited in a resource pool queue for admission", "pool", name).set(stats.getTotalQueueTime() / 1000d); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            registry.sampledCounter("teiid_resource_pool_submitted_total", "Requests admitted or queued by a resource pool", "pool", name).set(stats.getTotalSubmitted()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            registry.sampledCounter("teiid_resource_pool_completed_total", "Requests completed by a resource pool", "pool", name).set(stats.getTotalCompleted()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            registry.sampledCounter("teiid_resource_pool_rejected_total", "Requests rejected by a full resource pool queue", "pool", name).set(stats.getTotalRejected()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            registry.gauge("teiid_resource_pool_active_threads", "Active threads of a resource pool executor", "pool", name).set(stats.getActiveThreads()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            registry.gauge("teiid_resource_pool_queued", "Requests currently waiting for resource pool admission", "pool", name).set(stats.getQueued()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        registry.gauge("teiid_active_plans", "Currently active plans").set(this.currentlyActivePlans); //$NON-NLS-1$ //$NON-NLS-2$
+        registry.gauge("teiid_waiting_plans", "Plans waiting to become active").set(getWaitingPlanCount()); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Publish the io counters of each buffer storage directory
+     */
+    private void collectStorageMetrics(MetricsRegistry registry, StorageManager storageManager) {
+        if (storageManager instanceof EncryptedStorageManager) {
+            storageManager = ((EncryptedStorageManager)storageManager).getStorageManager();
+        }
+        if (storageManager instanceof SplittableStorageManager) {
+            storageManager = ((SplittableStorageManager)storageManager).getStorageManager();
+        }
+        List<FileStorageManager> managers = null;
+        if (storageManager instanceof StripedStorageManager) {
+            managers = ((StripedStorageManager)storageManager).getStorageManagers();
+        } else if (storageManager instanceof FileStorageManager) {
+            managers = Arrays.asList((FileStorageManager)storageManager);
+        } else {
+            return;
+        }
+        for (FileStorageManager manager : managers) {
+            String directory = manager.getDirectory();
+            registry.sampledCounter("teiid_buffer_storage_read_bytes_total", "Bytes read from a buffer storage directory", "directory", directory).set(manager.getBytesRead()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            registry.sampledCounter("teiid_buffer_storage_written_bytes_total", "Bytes written to a buffer storage directory", "directory", directory).set(manager.getBytesWritten()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            registry.gauge("teiid_buffer_storage_used_bytes", "Space used in a buffer storage directory", "directory", directory).set(manager.getUsedBufferSpace()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+
+    private void collectCacheMetrics(MetricsRegistry registry, String name, SessionAwareCache<?> cache) {
+        if (cache == null) {
+            return;
+        }
+        int requests = cache.getRequestCount();
+        int hits = cache.getCacheHitCount();
+        registry.sampledCounter("teiid_cache_requests_total", "Cache lookups", "cache", name).set(requests); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        registry.sampledCounter("teiid_cache_hits_total", "Cache hits", "cache", name).set(hits); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        registry.gauge("teiid_cache_hit_ratio", "Cache hits divided by lookups", "cache", name).set(requests == 0 ? 0 : (double)hits / requests); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
     public TeiidExecutor getProcessWorkerPool() {
         return processWorkerPool;
     }
@@ -727,6 +939,31 @@ public class DQPCore implements DQP {
              throw new TeiidRuntimeException(QueryPlugin.Event.TEIID30496, e);
         }
 
+        this.memoryAdmissionControl = config.isMemoryAdmissionControl();
+        List<ResourcePool> pools = new ArrayList<ResourcePool>(config.getResourcePools().size());
+        for (ResourcePoolConfiguration poolConfig : config.getResourcePools()) {
+            TeiidExecutor executor = null;
+            if (poolConfig.getMaxThreads() > 0) {
+                executor = config.getTeiidExecutor(DQPConfiguration.PROCESS_PLAN_QUEUE_NAME + "_" + poolConfig.getName(), poolConfig.getMaxThreads()); //$NON-NLS-1$
+            }
+            pools.add(new ResourcePool(poolConfig, executor));
+        }
+        this.resourcePools = pools;
+
+        if (config.isMetricsEnabled()) {
+            MetricsRegistry registry = new MetricsRegistry();
+            registry.addCollector(new MetricsRegistry.Collector() {
+
+                @Override
+                public void collect(MetricsRegistry r) {
+                    collectMetrics(r);
+                }
+            });
+            this.metrics = new EngineMetrics(registry);
+        } else {
+            this.metrics = null;
+        }
+
         this.userRequestSourceConcurrency = config.getUserRequestSourceConcurrency();
         if (this.userRequestSourceConcurrency < 1) {
             this.userRequestSourceConcurrency = Math.min(config.getMaxThreads(), 2*config.getMaxThreads()/this.maxActivePlans);
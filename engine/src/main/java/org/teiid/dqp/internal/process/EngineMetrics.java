@@ -0,0 +1,106 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.dqp.internal.process;
+
+import org.teiid.query.processor.ProcessorPlan;
+import org.teiid.query.processor.relational.RelationalNode;
+import org.teiid.query.processor.relational.RelationalNodeStatistics;
+import org.teiid.query.processor.relational.RelationalPlan;
+
+/**
+ * Records engine level metrics into a {@link MetricsRegistry}
+ */
+public class EngineMetrics {
+
+    static final double[] LATENCY_BUCKETS = new double[] {.001, .005, .01, .025, .05, .1, .25, .5, 1, 2.5, 5, 10, 30, 60};
+    static final double[] ROWS_PER_SECOND_BUCKETS = new double[] {10, 100, 1000, 10000, 100000, 1000000, 10000000};
+
+    private MetricsRegistry registry;
+
+    public EngineMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Record a completed source request
+     * @param translator the translator name
+     * @param elapsedNanos the time from execution until close
+     * @param rows the number of rows returned
+     * @param cpuNanos the thread cpu time spent in the translator or -1 if not known
+     */
+    public void sourceRequestCompleted(String translator, long elapsedNanos, long rows, long cpuNanos) {
+        double seconds = elapsedNanos / 1e9;
+        registry.histogram("teiid_source_request_seconds", "Source request latency from execution to close", LATENCY_BUCKETS, "translator", translator).observe(seconds); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        registry.counter("teiid_source_rows_total", "Rows returned from sources", "translator", translator).add(rows); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        if (rows > 0 && elapsedNanos > 0) {
+            registry.histogram("teiid_source_rows_per_second", "Source request row throughput", ROWS_PER_SECOND_BUCKETS, "translator", translator).observe(rows / seconds); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        if (cpuNanos >= 0) {
+            registry.counter("teiid_source_cpu_seconds_total", "Thread cpu time spent in translator calls", "translator", translator).add(cpuNanos / 1e9); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+
+    /**
+     * Record the operator statistics of a closed plan.  The plan must have been
+     * processed with node statistics collection enabled.
+     */
+    public void planCompleted(ProcessorPlan plan) {
+        if (plan instanceof RelationalPlan) {
+            recordNode(((RelationalPlan)plan).getRootNode());
+        }
+    }
+
+    private void recordNode(RelationalNode node) {
+        RelationalNodeStatistics stats = node.getNodeStatistics();
+        RelationalNode[] children = node.getChildren();
+        if (stats != null && stats.getNodeNextBatchCalls() > 0) {
+            long time = stats.getNodeCumulativeNextBatchProcessingTime();
+            for (RelationalNode child : children) {
+                if (child == null) {
+                    break;
+                }
+                if (child.getNodeStatistics() != null) {
+                    time -= child.getNodeStatistics().getNodeCumulativeNextBatchProcessingTime();
+                }
+            }
+            String operator = node.getClass().getSimpleName();
+            registry.counter("teiid_operator_executions_total", "Executions of each plan operator type", "operator", operator).inc(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            registry.counter("teiid_operator_rows_total", "Rows output by each plan operator type", "operator", operator).add(stats.getNodeOutputRows()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            registry.counter("teiid_operator_seconds_total", "Processing time of each plan operator type excluding children", "operator", operator).add(Math.max(0, time) / 1000d); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        for (RelationalNode child : children) {
+            if (child == null) {
+                break;
+            }
+            recordNode(child);
+        }
+    }
+
+    /**
+     * Record the time a request waited for admission
+     */
+    void requestQueued(String pool, long queueTimeMillis) {
+        registry.histogram("teiid_request_queue_seconds", "Time requests waited for an active plan slot", LATENCY_BUCKETS, "pool", pool).observe(queueTimeMillis / 1000d); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+}
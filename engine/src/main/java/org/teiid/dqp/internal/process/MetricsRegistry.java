@@ -0,0 +1,309 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.dqp.internal.process;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.teiid.logging.LogConstants;
+import org.teiid.logging.LogManager;
+
+/**
+ * A simple registry of labeled counters, gauges and histograms that can be
+ * exported in the Prometheus text exposition format.
+ * <br>
+ * Values that are already tracked elsewhere, such as buffer manager or cache counts,
+ * should be sampled by a {@link Collector} at export time rather than duplicated.
+ */
+public class MetricsRegistry {
+
+    public interface Collector {
+        void collect(MetricsRegistry registry);
+    }
+
+    public static class Counter {
+        private DoubleAdder value = new DoubleAdder();
+
+        public void inc() {
+            value.add(1);
+        }
+
+        public void add(double amount) {
+            value.add(amount);
+        }
+
+        public double get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * A value that is set rather than accumulated
+     */
+    public static class Sample {
+        private volatile double value;
+
+        public void set(double value) {
+            this.value = value;
+        }
+
+        public double get() {
+            return value;
+        }
+    }
+
+    public static class Histogram {
+        private double[] bounds;
+        private AtomicLongArray counts;
+        private DoubleAdder sum = new DoubleAdder();
+
+        Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.counts = new AtomicLongArray(bounds.length + 1);
+        }
+
+        public void observe(double value) {
+            int i = 0;
+            while (i < bounds.length && value > bounds[i]) {
+                i++;
+            }
+            counts.incrementAndGet(i);
+            sum.add(value);
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                count += counts.get(i);
+            }
+            return count;
+        }
+
+        public double getSum() {
+            return sum.sum();
+        }
+    }
+
+    private enum Type {
+        COUNTER,
+        GAUGE,
+        HISTOGRAM
+    }
+
+    private static class Family {
+        String name;
+        String help;
+        Type type;
+        double[] buckets;
+        boolean sampled;
+        Map<String, Object> metrics = new ConcurrentSkipListMap<String, Object>();
+    }
+
+    private Map<String, Family> families = new ConcurrentHashMap<String, Family>();
+    private List<Collector> collectors = new CopyOnWriteArrayList<Collector>();
+
+    public void addCollector(Collector collector) {
+        this.collectors.add(collector);
+    }
+
+    /**
+     * Get or create a counter
+     * @param labels alternating label names and values
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter)getMetric(name, help, Type.COUNTER, false, null, labels);
+    }
+
+    /**
+     * Get or create a counter whose value is sampled from an existing monotonic source
+     * @param labels alternating label names and values
+     */
+    public Sample sampledCounter(String name, String help, String... labels) {
+        return (Sample)getMetric(name, help, Type.COUNTER, true, null, labels);
+    }
+
+    /**
+     * Get or create a gauge
+     * @param labels alternating label names and values
+     */
+    public Sample gauge(String name, String help, String... labels) {
+        return (Sample)getMetric(name, help, Type.GAUGE, true, null, labels);
+    }
+
+    /**
+     * Get or create a histogram
+     * @param buckets the ascending upper bounds of the buckets, excluding +Inf
+     * @param labels alternating label names and values
+     */
+    public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+        return (Histogram)getMetric(name, help, Type.HISTOGRAM, false, buckets, labels);
+    }
+
+    private Object getMetric(String name, String help, Type type, boolean sampled, double[] buckets, String... labels) {
+        Family family = families.get(name);
+        if (family == null) {
+            Family newFamily = new Family();
+            newFamily.name = name;
+            newFamily.help = help;
+            newFamily.type = type;
+            newFamily.buckets = buckets;
+            newFamily.sampled = sampled;
+            family = families.putIfAbsent(name, newFamily);
+            if (family == null) {
+                family = newFamily;
+            }
+        }
+        String key = labelString(labels);
+        Object metric = family.metrics.get(key);
+        if (metric == null) {
+            Object newMetric = null;
+            if (family.type == Type.HISTOGRAM) {
+                newMetric = new Histogram(family.buckets);
+            } else if (family.sampled) {
+                newMetric = new Sample();
+            } else {
+                newMetric = new Counter();
+            }
+            metric = family.metrics.putIfAbsent(key, newMetric);
+            if (metric == null) {
+                metric = newMetric;
+            }
+        }
+        return metric;
+    }
+
+    static String labelString(String... labels) {
+        if (labels.length == 0) {
+            return ""; //$NON-NLS-1$
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length - 1; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\""); //$NON-NLS-1$
+            String value = labels[i + 1];
+            if (value != null) {
+                for (int j = 0; j < value.length(); j++) {
+                    char c = value.charAt(j);
+                    switch (c) {
+                    case '\\':
+                        sb.append("\\\\"); //$NON-NLS-1$
+                        break;
+                    case '"':
+                        sb.append("\\\""); //$NON-NLS-1$
+                        break;
+                    case '\n':
+                        sb.append("\\n"); //$NON-NLS-1$
+                        break;
+                    default:
+                        sb.append(c);
+                    }
+                }
+            }
+            sb.append('"');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write all metrics in the Prometheus text exposition format
+     */
+    public void writePrometheus(Writer writer) throws IOException {
+        for (Collector collector : collectors) {
+            try {
+                collector.collect(this);
+            } catch (RuntimeException e) {
+                LogManager.logDetail(LogConstants.CTX_DQP, e, "Could not collect metrics"); //$NON-NLS-1$
+            }
+        }
+        for (Family family : new ConcurrentSkipListMap<String, Family>(families).values()) {
+            writer.write("# HELP "); //$NON-NLS-1$
+            writer.write(family.name);
+            writer.write(' ');
+            writer.write(family.help.replace("\\", "\\\\").replace("\n", "\\n")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+            writer.write("\n# TYPE "); //$NON-NLS-1$
+            writer.write(family.name);
+            writer.write(' ');
+            writer.write(family.type.name().toLowerCase());
+            writer.write('\n');
+            for (Map.Entry<String, Object> entry : family.metrics.entrySet()) {
+                String labels = entry.getKey();
+                Object metric = entry.getValue();
+                if (metric instanceof Histogram) {
+                    Histogram histogram = (Histogram)metric;
+                    long cumulative = 0;
+                    for (int i = 0; i <= family.buckets.length; i++) {
+                        cumulative += histogram.counts.get(i);
+                        String le = i < family.buckets.length ? format(family.buckets[i]) : "+Inf"; //$NON-NLS-1$
+                        writeLine(writer, family.name + "_bucket", labels.isEmpty() ? "le=\"" + le + "\"" : labels + ",le=\"" + le + "\"", cumulative); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+                    }
+                    writeLine(writer, family.name + "_sum", labels, histogram.getSum()); //$NON-NLS-1$
+                    writeLine(writer, family.name + "_count", labels, cumulative); //$NON-NLS-1$
+                } else if (metric instanceof Counter) {
+                    writeLine(writer, family.name, labels, ((Counter)metric).get());
+                } else {
+                    writeLine(writer, family.name, labels, ((Sample)metric).get());
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    public String toPrometheusText() {
+        StringWriter writer = new StringWriter();
+        try {
+            writePrometheus(writer);
+        } catch (IOException e) {
+            //not possible with a StringWriter
+        }
+        return writer.toString();
+    }
+
+    private static void writeLine(Writer writer, String name, String labels, double value) throws IOException {
+        writer.write(name);
+        if (!labels.isEmpty()) {
+            writer.write('{');
+            writer.write(labels);
+            writer.write('}');
+        }
+        writer.write(' ');
+        writer.write(format(value));
+        writer.write('\n');
+    }
+
+    static String format(double value) {
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long)value);
+        }
+        return String.valueOf(value);
+    }
+
+}
@@ -133,6 +133,7 @@ public class Request {
     private GlobalTableStore globalTables;
     private SessionAwareCache<PreparedPlan> planCache;
     private boolean resultSetCacheEnabled = true;
+    private EngineMetrics metrics;
     private int userRequestConcurrency;
     private AuthorizationValidator authorizationValidator;
     private Executor executor;
@@ -173,6 +174,10 @@ public class Request {
         this.resultSetCacheEnabled = resultSetCacheEnabled;
     }
 
+    public void setMetrics(EngineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     public void setAuthorizationValidator(
             AuthorizationValidator authorizationValidator) {
         this.authorizationValidator = authorizationValidator;
@@ -254,6 +259,11 @@ public class Request {
         context.setBufferManager(this.bufferManager);
         context.setPreparedPlanCache(planCache);
         context.setResultSetCacheEnabled(this.resultSetCacheEnabled);
+        if (this.metrics != null) {
+            context.setMetrics(this.metrics);
+            //operator metrics are taken from the node statistics
+            context.setCollectNodeStatistics(true);
+        }
         context.setUserRequestSourceConcurrency(this.userRequestConcurrency);
         context.setSubject(workContext.getSubject());
         this.context.setOptions(options);
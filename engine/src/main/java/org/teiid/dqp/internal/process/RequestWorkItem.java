@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.teiid.api.exception.query.QueryMetadataException;
@@ -156,7 +157,7 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
                 }
             }
             if (nextWork != null) {
-                dqpCore.addWork(nextWork.work);
+                dqpCore.addWork(nextWork.work, resourcePool);
             }
         }
     }
@@ -183,6 +184,8 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
     private final TransactionService transactionService;
     private final DQPWorkContext dqpWorkContext;
     boolean active;
+    ResourcePool resourcePool;
+    long queueStart;
 
     /*
      * obtained during new
@@ -317,7 +320,7 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
     @Override
     protected void resumeProcessing() {
         if (!this.useCallingThread) {
-            dqpCore.addWork(this);
+            dqpCore.addWork(this, resourcePool);
         }
     }
 
@@ -473,7 +476,7 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
             synchronized (queue) {
                 while (!queue.isEmpty() && totalThreads < dqpCore.getUserRequestSourceConcurrency()) {
                     WorkWrapper<?> w = queue.removeFirst();
-                    dqpCore.addWork(w.work);
+                    dqpCore.addWork(w.work, resourcePool);
                     w.submitted = true;
                     totalThreads++;
                 }
@@ -535,6 +538,10 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
                     try {
                         CommandContext.pushThreadLocalContext(this.processor.getContext());
                         this.processor.closeProcessing();
+                        EngineMetrics metrics = this.processor.getContext().getMetrics();
+                        if (metrics != null) {
+                            metrics.planCompleted(this.processor.getProcessorPlan());
+                        }
 
                         if (LogManager.isMessageToBeRecorded(LogConstants.CTX_DQP, MessageLevel.DETAIL)) {
                             LogManager.logDetail(LogConstants.CTX_DQP, "Removing tuplesource for the request " + requestID); //$NON-NLS-1$
@@ -610,7 +617,7 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
         }
     }
 
-    private void cancelCancelTask() {
+    void cancelCancelTask() {
         if (this.cancelTask != null) {
             this.cancelTask.cancel(false);
             this.cancelTask = null;
@@ -1215,7 +1222,7 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
         if (this.dqpWorkContext.useCallingThread()) {
             workItem.run();
         } else {
-            dqpCore.addWork(workItem);
+            dqpCore.addWork(workItem, resourcePool);
         }
     }
 
@@ -1380,10 +1387,22 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
             }
         });
         work.setRequestId(this.requestID.toString());
-        dqpCore.addWork(work);
+        dqpCore.addWork(work, resourcePool);
         return work;
     }
 
+    /**
+     * Add engine work that is limited by the user request source concurrency.
+     * The work is responsible for notifying this work item of any results.
+     */
+    public void addConcurrentWork(Runnable work) {
+        addWork(Executors.callable(work, (Void)null), new CompletionListener<Void>() {
+            @Override
+            public void onCompletion(FutureWork<Void> future) {
+            }
+        }, 100);
+    }
+
     <T> FutureWork<T> addWork(Callable<T> callable, CompletionListener<T> listener, int priority) {
         FutureWork<T> work = new FutureWork<T>(callable, priority);
         work.setRequestId(this.requestID.toString());
@@ -1392,7 +1411,7 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
         work.addCompletionListener(listener);
         synchronized (queue) {
             if (totalThreads < dqpCore.getUserRequestSourceConcurrency()) {
-                dqpCore.addWork(work);
+                dqpCore.addWork(work, resourcePool);
                 totalThreads++;
                 wl.submitted = true;
             } else {
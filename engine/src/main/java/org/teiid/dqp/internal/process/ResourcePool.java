@@ -0,0 +1,138 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.dqp.internal.process;
+
+import org.teiid.adminapi.impl.WorkerPoolStatisticsMetadata;
+
+/**
+ * The runtime state of a {@link ResourcePoolConfiguration}.
+ * <br>
+ * The admission state is guarded by the {@link DQPCore} plan queue lock.
+ */
+class ResourcePool {
+
+    private final ResourcePoolConfiguration config;
+    private final TeiidExecutor executor;
+
+    //admission state
+    private int activePlans;
+    private long estimatedBytes;
+    private int queued;
+
+    //statistics
+    private int highestQueued;
+    private long totalSubmitted;
+    private long totalCompleted;
+    private long totalRejected;
+    private long totalQueueTime;
+
+    ResourcePool(ResourcePoolConfiguration config, TeiidExecutor executor) {
+        this.config = config;
+        this.executor = executor;
+    }
+
+    String getName() {
+        return config.getName();
+    }
+
+    ResourcePoolConfiguration getConfig() {
+        return config;
+    }
+
+    /**
+     * @return the pool executor or null if the engine worker pool should be used
+     */
+    TeiidExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return true if the pool limits allow another plan with the given memory estimate to start
+     */
+    boolean canStart(long estimate) {
+        if (config.getMaxActivePlans() > 0 && activePlans >= config.getMaxActivePlans()) {
+            return false;
+        }
+        if (config.getMaxReserveKb() >= 0 && activePlans > 0
+                && estimatedBytes + estimate > ((long)config.getMaxReserveKb() << 10)) {
+            return false;
+        }
+        return true;
+    }
+
+    boolean isQueueFull() {
+        return config.getMaxQueued() >= 0 && queued >= config.getMaxQueued();
+    }
+
+    void submitted() {
+        totalSubmitted++;
+    }
+
+    void rejected() {
+        totalRejected++;
+    }
+
+    void queued() {
+        queued++;
+        highestQueued = Math.max(highestQueued, queued);
+    }
+
+    void dequeued(long queueTime) {
+        queued--;
+        totalQueueTime += queueTime;
+    }
+
+    void started(long estimate) {
+        activePlans++;
+        estimatedBytes += estimate;
+    }
+
+    void finished(long estimate) {
+        activePlans--;
+        estimatedBytes -= estimate;
+        totalCompleted++;
+    }
+
+    int getActivePlans() {
+        return activePlans;
+    }
+
+    /**
+     * The queue values are for plans waiting on admission.  The thread values are
+     * for the pool executor, if there is one.
+     */
+    WorkerPoolStatisticsMetadata getStats() {
+        WorkerPoolStatisticsMetadata stats = new WorkerPoolStatisticsMetadata();
+        if (executor != null) {
+            WorkerPoolStatisticsMetadata executorStats = executor.getStats();
+            stats.setActiveThreads(executorStats.getActiveThreads());
+            stats.setHighestActiveThreads(executorStats.getHighestActiveThreads());
+        }
+        stats.setName(getName());
+        stats.setMaxThreads(config.getMaxThreads());
+        stats.setQueued(queued);
+        stats.setHighestQueued(highestQueued);
+        stats.setTotalSubmitted(totalSubmitted);
+        stats.setTotalCompleted(totalCompleted);
+        stats.setTotalRejected(totalRejected);
+        stats.setTotalQueueTime(totalQueueTime);
+        return stats;
+    }
+
+}
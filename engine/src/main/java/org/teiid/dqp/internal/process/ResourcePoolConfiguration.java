@@ -0,0 +1,150 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.dqp.internal.process;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Configuration of a named pool of engine resources.
+ * <br>
+ * A request is assigned to the first pool whose vdb, user, and data role
+ * selectors all match.  An empty selector matches everything.
+ */
+public class ResourcePoolConfiguration {
+
+    private String name;
+    private Set<String> vdbNames = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+    private Set<String> userNames = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+    private Set<String> roles = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+    private int maxThreads;
+    private int maxActivePlans;
+    private int maxReserveKb = -1;
+    private int maxQueued = -1;
+
+    public ResourcePoolConfiguration() {
+    }
+
+    public ResourcePoolConfiguration(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Set<String> getVdbNames() {
+        return vdbNames;
+    }
+
+    public void addVdbName(String vdbName) {
+        this.vdbNames.add(vdbName);
+    }
+
+    public Set<String> getUserNames() {
+        return userNames;
+    }
+
+    public void addUserName(String userName) {
+        this.userNames.add(userName);
+    }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * Add a data role name
+     */
+    public void addRole(String role) {
+        this.roles.add(role);
+    }
+
+    /**
+     * @return the max number of processing threads for the pool, or 0 if the
+     * engine worker pool is shared
+     */
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public void setMaxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * @return the max number of plans from this pool that may be active,
+     * or 0 if only the engine limit applies
+     */
+    public int getMaxActivePlans() {
+        return maxActivePlans;
+    }
+
+    public void setMaxActivePlans(int maxActivePlans) {
+        this.maxActivePlans = maxActivePlans;
+    }
+
+    /**
+     * @return the max buffer memory in KB that may be estimated as in use by the active
+     * plans of this pool, or -1 if there is no pool limit
+     */
+    public int getMaxReserveKb() {
+        return maxReserveKb;
+    }
+
+    public void setMaxReserveKb(int maxReserveKb) {
+        this.maxReserveKb = maxReserveKb;
+    }
+
+    /**
+     * @return the max number of requests that may wait for admission
+     * before new requests are rejected, or -1 if unbounded
+     */
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    boolean matches(String vdbName, String userName, Collection<String> dataRoles) {
+        if (!vdbNames.isEmpty() && (vdbName == null || !vdbNames.contains(vdbName))) {
+            return false;
+        }
+        if (!userNames.isEmpty() && (userName == null || !userNames.contains(userName))) {
+            return false;
+        }
+        if (!roles.isEmpty()) {
+            for (String role : dataRoles) {
+                if (roles.contains(role)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+}
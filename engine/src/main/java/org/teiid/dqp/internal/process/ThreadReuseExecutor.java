@@ -87,6 +87,7 @@ public class ThreadReuseExecutor implements TeiidExecutor {
         Runnable r;
         DQPWorkContext workContext = DQPWorkContext.getWorkContext();
         long creationTime;
+        long queuedTime;
         int priority;
         long id = ID_GEN.getAndIncrement();
 
@@ -148,6 +149,7 @@ public class ThreadReuseExecutor implements TeiidExecutor {
     private volatile boolean terminated;
     private volatile int submittedCount;
     private volatile int completedCount;
+    private volatile long totalQueueTime;
     private Object poolLock = new Object();
     private AtomicInteger threadCounter = new AtomicInteger();
     private Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
@@ -185,6 +187,7 @@ public class ThreadReuseExecutor implements TeiidExecutor {
             submittedCount++;
             boolean atMaxThreads = activeCount == maximumPoolSize;
             if (atMaxThreads) {
+                command.queuedTime = System.currentTimeMillis();
                 queue.add(command);
                 int queueSize = queue.size();
                 if (queueSize > highestQueueSize) {
@@ -216,7 +219,11 @@ public class ThreadReuseExecutor implements TeiidExecutor {
                             if (success) {
                                 completedCount++;
                                 //we only poll if successful, to let the exception handling happen immediately otherwise
-                                r = queue.poll();
+                                RunnableWrapper next = queue.poll();
+                                if (next != null) {
+                                    totalQueueTime += System.currentTimeMillis() - next.queuedTime;
+                                }
+                                r = next;
                             }
                             if (!success || r == null) {
                                 threads.remove(t);
@@ -289,6 +296,7 @@ public class ThreadReuseExecutor implements TeiidExecutor {
         stats.setTotalSubmitted(getSubmittedCount());
         stats.setHighestActiveThreads(getLargestPoolSize());
         stats.setTotalCompleted(getCompletedCount());
+        stats.setTotalQueueTime(totalQueueTime);
         return stats;
     }
 
@@ -130,7 +130,6 @@ public class Evaluator {
     }
 
     public final static char[] REGEX_RESERVED = new char[] {'$', '(', ')', '*', '+', '.', '?', '[', '\\', ']', '^', '{', '|', '}'}; //in sorted order
-    private final static MatchCriteria.PatternTranslator LIKE_TO_REGEX = new MatchCriteria.PatternTranslator(new char[] {'%', '_'}, new String[] {".*", "."},  REGEX_RESERVED, '\\', Pattern.DOTALL);  //$NON-NLS-1$ //$NON-NLS-2$
 
     private final static char[] SIMILAR_REGEX_RESERVED = new char[] {'$', '.', '\\', '^'}; //in sorted order
     public final static MatchCriteria.PatternTranslator SIMILAR_TO_REGEX = new MatchCriteria.PatternTranslator(
@@ -397,7 +396,11 @@ public class Evaluator {
             return null;
         }
 
-        result = match(rightValue, criteria.getEscapeChar(), leftValue, criteria.getMode());
+        if (criteria.getMode() == MatchMode.LIKE) {
+            result = criteria.getLikeMatcher(rightValue).matches(leftValue);
+        } else {
+            result = match(rightValue, criteria.getEscapeChar(), leftValue, criteria.getMode());
+        }
 
         return Boolean.valueOf(result ^ criteria.isNegated());
     }
@@ -407,9 +410,6 @@ public class Evaluator {
 
         Pattern patternRegex = null;
         switch (mode) {
-        case LIKE:
-            patternRegex = LIKE_TO_REGEX.translate(pattern, escape);
-            break;
         case SIMILAR:
             patternRegex = SIMILAR_TO_REGEX.translate(pattern, escape);
             break;
@@ -0,0 +1,477 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.query.eval;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.teiid.api.exception.query.ExpressionEvaluationException;
+import org.teiid.common.buffer.BlockedException;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.types.Sequencable;
+import org.teiid.core.util.PropertiesUtils;
+import org.teiid.language.Like.MatchMode;
+import org.teiid.metadata.FunctionMethod.PushDown;
+import org.teiid.query.QueryPlugin;
+import org.teiid.query.function.FunctionDescriptor;
+import org.teiid.query.function.FunctionLibrary;
+import org.teiid.query.sql.LanguageObject;
+import org.teiid.query.sql.lang.CompareCriteria;
+import org.teiid.query.sql.lang.CompoundCriteria;
+import org.teiid.query.sql.lang.Criteria;
+import org.teiid.query.sql.lang.IsNullCriteria;
+import org.teiid.query.sql.lang.LikeMatcher;
+import org.teiid.query.sql.lang.MatchCriteria;
+import org.teiid.query.sql.lang.NotCriteria;
+import org.teiid.query.sql.symbol.Constant;
+import org.teiid.query.sql.symbol.DerivedExpression;
+import org.teiid.query.sql.symbol.Expression;
+import org.teiid.query.sql.symbol.ExpressionSymbol;
+import org.teiid.query.sql.symbol.Function;
+import org.teiid.query.sql.visitor.FunctionCollectorVisitor;
+import org.teiid.query.sql.visitor.ValueIteratorProviderCollectorVisitor;
+
+/**
+ * Lowers resolved {@link Expression}s and {@link Criteria} into chains of pre-bound closures
+ * so that row evaluation does not dispatch on the language object type or look up element
+ * positions for every row.
+ * <br>
+ * Element references, constants, functions, comparisons, LIKE, IS NULL, AND/OR and NOT are
+ * compiled.  Everything else, and any function requiring pushdown, procedure, or lookup handling,
+ * is delegated to the {@link Evaluator} so the results and errors are the same as interpretation.
+ * <br>
+ * The compiled forms are bound to the evaluator and should not be shared between nodes.
+ */
+public class ExpressionCompiler {
+
+    public static final boolean COMPILE_EXPRESSIONS = PropertiesUtils.getHierarchicalProperty("org.teiid.compileExpressions", true, Boolean.class); //$NON-NLS-1$
+
+    public interface CompiledExpression {
+        Object evaluate(List<?> tuple) throws ExpressionEvaluationException, BlockedException, TeiidComponentException;
+    }
+
+    public interface CompiledCriteria {
+        Boolean evaluateTVL(List<?> tuple) throws ExpressionEvaluationException, BlockedException, TeiidComponentException;
+    }
+
+    /**
+     * Criteria evaluated a batch at a time into a selection vector.
+     */
+    public interface BatchCriteria {
+        /**
+         * Select the tuples for which the criteria is true
+         * @param tuples
+         * @param selection receives the selected indexes in ascending order, must be at least as large as tuples
+         * @return the number of selected indexes
+         */
+        int select(List<? extends List<?>> tuples, int[] selection) throws ExpressionEvaluationException, BlockedException, TeiidComponentException;
+    }
+
+    private static final class ConjunctBatchCriteria implements BatchCriteria {
+        private CompiledCriteria[] conjuncts;
+        private boolean[] unknown = new boolean[0];
+
+        ConjunctBatchCriteria(CompiledCriteria[] conjuncts) {
+            this.conjuncts = conjuncts;
+        }
+
+        @Override
+        public int select(List<? extends List<?>> tuples, int[] selection)
+                throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+            int count = tuples.size();
+            if (unknown.length < count) {
+                unknown = new boolean[count];
+            } else {
+                Arrays.fill(unknown, 0, count, false);
+            }
+            for (int i = 0; i < count; i++) {
+                selection[i] = i;
+            }
+            //refine the selection one conjunct at a time.  as with row evaluation
+            //a conjunct is only evaluated if the prior ones were not false
+            for (CompiledCriteria conjunct : conjuncts) {
+                int selected = 0;
+                for (int i = 0; i < count; i++) {
+                    int index = selection[i];
+                    Boolean result = conjunct.evaluateTVL(tuples.get(index));
+                    if (result == null) {
+                        unknown[index] = true;
+                        selection[selected++] = index;
+                    } else if (result) {
+                        selection[selected++] = index;
+                    }
+                }
+                count = selected;
+            }
+            int selected = 0;
+            for (int i = 0; i < count; i++) {
+                if (!unknown[selection[i]]) {
+                    selection[selected++] = selection[i];
+                }
+            }
+            return selected;
+        }
+    }
+
+    private Map<?, Integer> elements;
+    private Evaluator evaluator;
+
+    public ExpressionCompiler(Map<?, Integer> elements, Evaluator evaluator) {
+        this.elements = elements;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Compile the expression for use in place of {@link Evaluator#evaluate(Expression, List)}
+     */
+    public CompiledExpression compile(final Expression expression) {
+        if (!COMPILE_EXPRESSIONS) {
+            return new CompiledExpression() {
+                @Override
+                public Object evaluate(List<?> tuple)
+                        throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                    return evaluator.evaluate(expression, tuple);
+                }
+            };
+        }
+        final CompiledExpression compiled = compileInternal(expression);
+        return new CompiledExpression() {
+            @Override
+            public Object evaluate(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                try {
+                    return compiled.evaluate(tuple);
+                } catch (ExpressionEvaluationException e) {
+                    throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30328, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30328, new Object[] {expression, e.getMessage()}));
+                }
+            }
+        };
+    }
+
+    /**
+     * Compile the criteria for use in place of {@link Evaluator#evaluateTVL(Criteria, List)}
+     */
+    public CompiledCriteria compile(final Criteria criteria) {
+        if (!COMPILE_EXPRESSIONS) {
+            return interpreted(criteria);
+        }
+        return compileCriteria(criteria);
+    }
+
+    /**
+     * Compile the criteria for batch evaluation.  Should only be used if {@link #canEvaluateBatch(LanguageObject)}
+     * is true, since a blocked exception will lose the work done on the batch.
+     */
+    public BatchCriteria compileBatch(Criteria criteria) {
+        List<Criteria> crits = Criteria.separateCriteriaByAnd(criteria);
+        CompiledCriteria[] conjuncts = new CompiledCriteria[crits.size()];
+        for (int i = 0; i < conjuncts.length; i++) {
+            conjuncts[i] = compile(crits.get(i));
+        }
+        return new ConjunctBatchCriteria(conjuncts);
+    }
+
+    /**
+     * Determine if the object can be evaluated without blocking, such that it's safe to
+     * evaluate over a batch without retaining per row state.
+     */
+    public static boolean canEvaluateBatch(LanguageObject obj) {
+        if (!ValueIteratorProviderCollectorVisitor.getValueIteratorProviders(obj).isEmpty()) {
+            return false;
+        }
+        for (Function function : FunctionCollectorVisitor.getFunctions(obj, false)) {
+            FunctionDescriptor fd = function.getFunctionDescriptor();
+            if (fd == null || fd.getPushdown() == PushDown.MUST_PUSHDOWN || fd.getProcedure() != null
+                    || function.getName().equalsIgnoreCase(FunctionLibrary.LOOKUP)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private CompiledExpression compileInternal(final Expression expression) {
+        if (expression instanceof DerivedExpression) {
+            Integer index = elements != null ? elements.get(expression) : null;
+            if (index != null) {
+                final int i = index;
+                return new CompiledExpression() {
+                    @Override
+                    public Object evaluate(List<?> tuple) {
+                        return tuple.get(i);
+                    }
+                };
+            }
+            if (expression instanceof ExpressionSymbol) {
+                return compileInternal(((ExpressionSymbol)expression).getExpression());
+            }
+        } else if (expression instanceof Constant) {
+            final Constant c = (Constant)expression;
+            if (!c.isMultiValued()) {
+                final Object value = c.getValue();
+                return new CompiledExpression() {
+                    @Override
+                    public Object evaluate(List<?> tuple) {
+                        return value;
+                    }
+                };
+            }
+        } else if (expression instanceof Function) {
+            CompiledExpression result = compileFunction((Function)expression);
+            if (result != null) {
+                return result;
+            }
+        } else if (expression instanceof Criteria) {
+            final CompiledCriteria crit = compileCriteria((Criteria)expression);
+            return new CompiledExpression() {
+                @Override
+                public Object evaluate(List<?> tuple)
+                        throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                    return Boolean.TRUE.equals(crit.evaluateTVL(tuple));
+                }
+            };
+        }
+        return new CompiledExpression() {
+            @Override
+            public Object evaluate(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                return evaluator.internalEvaluate(expression, tuple);
+            }
+        };
+    }
+
+    private CompiledExpression compileFunction(Function function) {
+        final FunctionDescriptor fd = function.getFunctionDescriptor();
+        if (fd == null || fd.getPushdown() == PushDown.MUST_PUSHDOWN || fd.getProcedure() != null
+                || function.getName().equalsIgnoreCase(FunctionLibrary.LOOKUP)) {
+            return null;
+        }
+        Expression[] args = function.getArgs();
+        final CompiledExpression[] compiledArgs = new CompiledExpression[args.length];
+        for (int i = 0; i < args.length; i++) {
+            compiledArgs[i] = compileInternal(args[i]);
+        }
+        final int start = fd.requiresContext()?1:0;
+        return new CompiledExpression() {
+            @Override
+            public Object evaluate(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                Object[] values = new Object[compiledArgs.length + start];
+                if (start == 1) {
+                    values[0] = evaluator.context;
+                }
+                for (int i = 0; i < compiledArgs.length; i++) {
+                    values[i + start] = compiledArgs[i].evaluate(tuple);
+                }
+                return fd.invokeFunction(values, evaluator.context, null);
+            }
+        };
+    }
+
+    private CompiledCriteria compileCriteria(final Criteria criteria) {
+        if (criteria instanceof CompoundCriteria) {
+            CompoundCriteria cc = (CompoundCriteria)criteria;
+            final boolean and = cc.getOperator() == CompoundCriteria.AND;
+            final CompiledCriteria[] subCrits = new CompiledCriteria[cc.getCriteria().size()];
+            for (int i = 0; i < subCrits.length; i++) {
+                subCrits[i] = compileCriteria(cc.getCriteria().get(i));
+            }
+            return new CompiledCriteria() {
+                @Override
+                public Boolean evaluateTVL(List<?> tuple)
+                        throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                    Boolean result = and?Boolean.TRUE:Boolean.FALSE;
+                    for (int i = 0; i < subCrits.length; i++) {
+                        Boolean value = subCrits[i].evaluateTVL(tuple);
+                        if (value == null) {
+                            result = null;
+                        } else if (!value.booleanValue()) {
+                            if (and) {
+                                return Boolean.FALSE;
+                            }
+                        } else if (!and) {
+                            return Boolean.TRUE;
+                        }
+                    }
+                    return result;
+                }
+            };
+        }
+        if (criteria instanceof NotCriteria) {
+            final CompiledCriteria subCrit = compileCriteria(((NotCriteria)criteria).getCriteria());
+            return new CompiledCriteria() {
+                @Override
+                public Boolean evaluateTVL(List<?> tuple)
+                        throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                    Boolean result = subCrit.evaluateTVL(tuple);
+                    if (result == null) {
+                        return null;
+                    }
+                    return !result;
+                }
+            };
+        }
+        if (criteria instanceof CompareCriteria) {
+            return compileCompare((CompareCriteria)criteria);
+        }
+        if (criteria instanceof MatchCriteria && ((MatchCriteria)criteria).getMode() == MatchMode.LIKE) {
+            return compileLike((MatchCriteria)criteria);
+        }
+        if (criteria instanceof IsNullCriteria) {
+            final IsNullCriteria inc = (IsNullCriteria)criteria;
+            final CompiledExpression expr = compile(inc.getExpression());
+            final boolean negated = inc.isNegated();
+            return new CompiledCriteria() {
+                @Override
+                public Boolean evaluateTVL(List<?> tuple)
+                        throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                    Object value = null;
+                    try {
+                        value = expr.evaluate(tuple);
+                    } catch(ExpressionEvaluationException e) {
+                         throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30323, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30323, inc));
+                    }
+                    return value == null ^ negated;
+                }
+            };
+        }
+        return interpreted(criteria);
+    }
+
+    private CompiledCriteria interpreted(final Criteria criteria) {
+        return new CompiledCriteria() {
+            @Override
+            public Boolean evaluateTVL(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                return evaluator.evaluateTVL(criteria, tuple);
+            }
+        };
+    }
+
+    private CompiledCriteria compileCompare(final CompareCriteria criteria) {
+        final CompiledExpression left = compile(criteria.getLeftExpression());
+        final CompiledExpression right = compile(criteria.getRightExpression());
+        final int operator = criteria.getOperator();
+        final boolean natural = isNaturallyOrdered(criteria.getLeftExpression().getType())
+                && criteria.getLeftExpression().getType() == criteria.getRightExpression().getType();
+        return new CompiledCriteria() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public Boolean evaluateTVL(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                Object leftValue = evaluateOperand(left, tuple, criteria, "left"); //$NON-NLS-1$
+                if (leftValue == null) {
+                    return null;
+                }
+                Object rightValue = evaluateOperand(right, tuple, criteria, "right"); //$NON-NLS-1$
+                if (rightValue == null) {
+                    return null;
+                }
+                if (!natural) {
+                    return Evaluator.compare(operator, leftValue, rightValue);
+                }
+                int compare = ((Comparable<Object>)leftValue).compareTo(rightValue);
+                switch (operator) {
+                case CompareCriteria.EQ:
+                    return compare == 0;
+                case CompareCriteria.NE:
+                    return compare != 0;
+                case CompareCriteria.LT:
+                    return compare < 0;
+                case CompareCriteria.LE:
+                    return compare <= 0;
+                case CompareCriteria.GT:
+                    return compare > 0;
+                case CompareCriteria.GE:
+                    return compare >= 0;
+                default:
+                    throw new AssertionError();
+                }
+            }
+        };
+    }
+
+    /**
+     * @return true if the values of the type are compared with their natural ordering,
+     * without the string padding or collation logic of {@link Constant#COMPARATOR}
+     */
+    static boolean isNaturallyOrdered(Class<?> type) {
+        return type == Integer.class || type == Long.class || type == Short.class
+                || type == Byte.class || type == Double.class || type == Float.class
+                || type == java.math.BigInteger.class || type == java.math.BigDecimal.class
+                || type == java.sql.Date.class || type == java.sql.Time.class
+                || type == java.sql.Timestamp.class || type == Boolean.class;
+    }
+
+    private CompiledCriteria compileLike(final MatchCriteria criteria) {
+        final CompiledExpression left = compile(criteria.getLeftExpression());
+        final CompiledExpression right = compile(criteria.getRightExpression());
+        LikeMatcher matcher = null;
+        if (criteria.getRightExpression() instanceof Constant
+                && ((Constant)criteria.getRightExpression()).getValue() instanceof String) {
+            try {
+                matcher = criteria.getLikeMatcher((String)((Constant)criteria.getRightExpression()).getValue());
+            } catch (ExpressionEvaluationException e) {
+                //report during evaluation
+            }
+        }
+        final LikeMatcher constantMatcher = matcher;
+        final boolean negated = criteria.isNegated();
+        return new CompiledCriteria() {
+            @Override
+            public Boolean evaluateTVL(List<?> tuple)
+                    throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+                Object value = evaluateOperand(left, tuple, criteria, "left"); //$NON-NLS-1$
+                if (value == null) {
+                    return null;
+                }
+                CharSequence leftValue = null;
+                if (value instanceof CharSequence) {
+                    leftValue = (CharSequence)value;
+                } else {
+                    try {
+                        leftValue = ((Sequencable)value).getCharSequence();
+                    } catch (SQLException err) {
+                         throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30316, err, err.getMessage());
+                    }
+                }
+                LikeMatcher likeMatcher = constantMatcher;
+                if (likeMatcher == null) {
+                    String rightValue = (String)evaluateOperand(right, tuple, criteria, "right"); //$NON-NLS-1$
+                    if (rightValue == null) {
+                        return null;
+                    }
+                    likeMatcher = criteria.getLikeMatcher(rightValue);
+                }
+                return likeMatcher.matches(leftValue) ^ negated;
+            }
+        };
+    }
+
+    static Object evaluateOperand(CompiledExpression expression, List<?> tuple, Criteria criteria, String side)
+            throws ExpressionEvaluationException, BlockedException, TeiidComponentException {
+        try {
+            return expression.evaluate(tuple);
+        } catch(ExpressionEvaluationException e) {
+             throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30312, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30312, side, criteria));
+        }
+    }
+
+}
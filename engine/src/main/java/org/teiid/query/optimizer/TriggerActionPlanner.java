@@ -35,11 +35,16 @@ import org.teiid.language.SQLConstants;
 import org.teiid.query.analysis.AnalysisRecord;
 import org.teiid.query.metadata.QueryMetadataInterface;
 import org.teiid.query.optimizer.capabilities.CapabilitiesFinder;
+import org.teiid.query.optimizer.capabilities.SourceCapabilities;
+import org.teiid.query.optimizer.capabilities.SourceCapabilities.Capability;
+import org.teiid.query.optimizer.relational.rules.CriteriaCapabilityValidatorVisitor;
+import org.teiid.query.optimizer.relational.rules.CriteriaCapabilityValidatorVisitor.ValidatorOptions;
 import org.teiid.query.optimizer.relational.rules.RuleChooseJoinStrategy;
 import org.teiid.query.optimizer.relational.rules.RulePlanSubqueries;
 import org.teiid.query.processor.ProcessorPlan;
 import org.teiid.query.processor.proc.ForEachRowPlan;
 import org.teiid.query.processor.proc.ProcedurePlan;
+import org.teiid.query.processor.relational.AccessNode;
 import org.teiid.query.processor.relational.RelationalNode;
 import org.teiid.query.resolver.QueryResolver;
 import org.teiid.query.resolver.util.ResolverUtil;
@@ -54,9 +59,12 @@ import org.teiid.query.sql.proc.TriggerAction;
 import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.sql.symbol.Expression;
 import org.teiid.query.sql.symbol.GroupSymbol;
+import org.teiid.query.sql.symbol.Reference;
 import org.teiid.query.sql.util.SymbolMap;
 import org.teiid.query.sql.visitor.ExpressionMappingVisitor;
 import org.teiid.query.sql.visitor.GroupCollectorVisitor;
+import org.teiid.query.sql.visitor.ReferenceCollectorVisitor;
+import org.teiid.query.sql.visitor.ValueIteratorProviderCollectorVisitor;
 import org.teiid.query.util.CommandContext;
 
 
@@ -109,6 +117,14 @@ public final class TriggerActionPlanner {
         ProcessorPlan queryPlan = QueryOptimizer.optimizePlan(query, metadata, idGenerator, capFinder, analysisRecord, context);
         result.setQueryPlan(queryPlan);
         result.setLookupMap(RelationalNode.createLookupMap(query.getProjectedSymbols()));
+        if (!(userCommand instanceof Insert)) {
+            List<ElementSymbol> bulkParams = new ArrayList<ElementSymbol>();
+            ProcessorPlan bulkPlan = planBulkCommand(ta, params, bulkParams, idGenerator, metadata, capFinder, analysisRecord, context);
+            if (bulkPlan != null) {
+                result.setBulkPlan(bulkPlan, bulkParams);
+                return result;
+            }
+        }
         CreateProcedureCommand command = new CreateProcedureCommand(ta.getBlock());
         command.setVirtualGroup(ta.getView());
         command.setUpdateType(userCommand.getType());
@@ -196,6 +212,56 @@ public final class TriggerActionPlanner {
         return QueryOptimizer.optimizePlan(mapped, metadata, idGenerator, capFinder, analysisRecord, context);
     }
 
+    /**
+     * look for the case of a single update statement trigger action that references the OLD/NEW values
+     * and can be pushed to a source supporting bulk updates - the statement can then be executed once per
+     * set of rows rather than once per row
+     */
+    private ProcessorPlan planBulkCommand(TriggerAction ta, Map<ElementSymbol, Expression> params,
+            List<ElementSymbol> bulkParams, IDGenerator idGenerator, QueryMetadataInterface metadata,
+            CapabilitiesFinder capFinder, AnalysisRecord analysisRecord, CommandContext context)
+            throws QueryMetadataException, TeiidComponentException, QueryPlannerException {
+        if (ta.getBlock().getStatements().size() != 1) {
+            return null;
+        }
+        Statement s = ta.getBlock().getStatements().get(0);
+        if (!(s instanceof CommandStatement)) {
+            return null;
+        }
+        Command command = ((CommandStatement)s).getCommand();
+        if (!(command instanceof Update || command instanceof Delete
+                || (command instanceof Insert && ((Insert)command).getQueryExpression() == null))) {
+            return null;
+        }
+        if (!ValueIteratorProviderCollectorVisitor.getValueIteratorProviders(command).isEmpty()) {
+            return null;
+        }
+        for (Reference ref : ReferenceCollectorVisitor.getReferences(command)) {
+            if (ref.isPositional() || !params.containsKey(ref.getExpression())) {
+                return null;
+            }
+            if (!bulkParams.contains(ref.getExpression())) {
+                bulkParams.add(ref.getExpression());
+            }
+        }
+        if (bulkParams.isEmpty()) {
+            return null;
+        }
+        ProcessorPlan plan = QueryOptimizer.optimizePlan((Command)command.clone(), metadata, idGenerator, capFinder, analysisRecord, context);
+        AccessNode aNode = CriteriaCapabilityValidatorVisitor.getAccessNode(plan);
+        if (aNode == null) {
+            return null;
+        }
+        String modelName = aNode.getModelName();
+        SourceCapabilities caps = capFinder.findCapabilities(modelName);
+        if (!caps.supportsCapability(Capability.BULK_UPDATE)
+                //only allow the plan if the multi-valued references result in expressions that can be pushed
+                || !CriteriaCapabilityValidatorVisitor.canPushLanguageObject(aNode.getCommand(), metadata.getModelID(modelName), metadata, capFinder, analysisRecord, new ValidatorOptions(false, false, true))) {
+            return null;
+        }
+        return plan;
+    }
+
     private QueryCommand createOldQuery(ProcedureContainer userCommand,
             TriggerAction ta, QueryMetadataInterface metadata,
             Map<ElementSymbol, Expression> params)
@@ -30,6 +30,7 @@ import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.TeiidRuntimeException;
 import org.teiid.core.id.IDGenerator;
+import org.teiid.core.types.DataTypeManager;
 import org.teiid.core.util.Assertion;
 import org.teiid.metadata.FunctionMethod.Determinism;
 import org.teiid.metadata.FunctionMethod.PushDown;
@@ -37,6 +38,7 @@ import org.teiid.query.QueryPlugin;
 import org.teiid.query.analysis.AnalysisRecord;
 import org.teiid.query.function.source.XMLHelper;
 import org.teiid.query.metadata.QueryMetadataInterface;
+import org.teiid.query.metadata.SupportConstants;
 import org.teiid.query.metadata.TempMetadataAdapter;
 import org.teiid.query.metadata.TempMetadataID;
 import org.teiid.query.optimizer.capabilities.CapabilitiesFinder;
@@ -70,8 +72,10 @@ import org.teiid.query.sql.symbol.Expression;
 import org.teiid.query.sql.symbol.ExpressionSymbol;
 import org.teiid.query.sql.symbol.GroupSymbol;
 import org.teiid.query.sql.symbol.Reference;
+import org.teiid.query.sql.symbol.Symbol;
 import org.teiid.query.sql.symbol.WindowFunction;
 import org.teiid.query.sql.util.SymbolMap;
+import org.teiid.query.sql.visitor.AggregateSymbolCollectorVisitor;
 import org.teiid.query.sql.visitor.ElementCollectorVisitor;
 import org.teiid.query.sql.visitor.EvaluatableVisitor;
 import org.teiid.query.sql.visitor.EvaluatableVisitor.EvaluationLevel;
@@ -403,7 +407,14 @@ public class PlanToProcessConverter {
                     } else {
 
                         // create access node
-                        aNode = new AccessNode(getID());
+                        List<Criteria> partitionCriteria = getPartitionCriteria(node, command, modelID);
+                        if (partitionCriteria != null) {
+                            PartitionedAccessNode paNode = new PartitionedAccessNode(getID());
+                            paNode.setPartitionCriteria(partitionCriteria);
+                            aNode = paNode;
+                        } else {
+                            aNode = new AccessNode(getID());
+                        }
                         processNode = aNode;
 
                     }
@@ -433,6 +444,15 @@ public class PlanToProcessConverter {
                         }
                     } else if (command instanceof QueryCommand) {
                         command = aliasCommand(aNode, command, modelID);
+                        if (aNode instanceof PartitionedAccessNode) {
+                            //aliasing retains the single table from clause, so just refer to the aliased group
+                            GroupSymbol group = ((UnaryFromClause)((Query)command).getFrom().getClauses().get(0)).getGroup();
+                            for (Criteria crit : ((PartitionedAccessNode)aNode).getPartitionCriteria()) {
+                                for (ElementSymbol es : ElementCollectorVisitor.getElements(crit, false)) {
+                                    es.setGroupSymbol(group.clone());
+                                }
+                            }
+                        }
                     }
                     ev = EvaluatableVisitor.needsEvaluationVisitor(modelID, metadata, capFinder);
                     if (!shouldEval && modelID != null) {
@@ -457,7 +477,8 @@ public class PlanToProcessConverter {
                     } else {
                         DeepPreOrderNavigator.doVisit(command, ev);
                     }
-                    aNode.setShouldEvaluateExpressions(ev.requiresEvaluation(EvaluationLevel.PROCESSING) || shouldEval);
+                    //each partition is prepared as a new command
+                    aNode.setShouldEvaluateExpressions(ev.requiresEvaluation(EvaluationLevel.PROCESSING) || shouldEval || aNode instanceof PartitionedAccessNode);
                     aNode.setCommand(command);
                     if (modelID != null) {
                         String fullName = metadata.getFullName(modelID);
@@ -484,7 +505,8 @@ public class PlanToProcessConverter {
                             aNode.minimizeProject(command);
                         }
                         //check if valid to share this with other nodes
-                        if (ev != null && ev.getDeterminismLevel().compareTo(Determinism.INSTRUCTION_DETERMINISTIC) >= 0 && command.areResultsCachable()) {
+                        if (ev != null && ev.getDeterminismLevel().compareTo(Determinism.INSTRUCTION_DETERMINISTIC) >= 0 && command.areResultsCachable()
+                                && !(aNode instanceof PartitionedAccessNode)) {
                             checkForSharedSourceCommand(aNode, node);
                         }
                     }
@@ -732,6 +754,83 @@ public class PlanToProcessConverter {
         }
     }
 
+    /**
+     * Determine if the access node can scan its table as a set of modulo partitions.
+     * Only unordered, non-aggregate, single table queries qualify.
+     * @return the partition criteria or null if the scan should not be partitioned
+     */
+    private List<Criteria> getPartitionCriteria(PlanNode node, Command command, Object modelID)
+            throws QueryMetadataException, TeiidComponentException {
+        if (modelID == null || !(command instanceof Query) || node.getProperty(Info.SUB_PLANS) != null
+                || metadata.isMultiSource(modelID)) {
+            return null;
+        }
+        //a limit above will likely be satisfied without reading all of the partitions
+        for (PlanNode parent = node.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent.getType() == NodeConstants.Types.TUPLE_LIMIT) {
+                return null;
+            }
+            if (parent.getType() != NodeConstants.Types.SELECT
+                    && parent.getType() != NodeConstants.Types.PROJECT
+                    && parent.getType() != NodeConstants.Types.SOURCE) {
+                //blocking or combining ancestor
+                break;
+            }
+        }
+        Query query = (Query)command;
+        if (query.getOrderBy() != null || query.getLimit() != null || query.getSelect().isDistinct()
+                || query.getGroupBy() != null || query.getHaving() != null || query.getWith() != null
+                || query.getInto() != null || query.getFrom() == null || query.getFrom().getClauses().size() != 1
+                || !(query.getFrom().getClauses().get(0) instanceof UnaryFromClause)) {
+            return null;
+        }
+        List<Expression> functions = new ArrayList<Expression>();
+        AggregateSymbolCollectorVisitor.getAggregates(query.getSelect(), functions, null, null, functions, null);
+        if (!functions.isEmpty()) {
+            return null;
+        }
+        GroupSymbol group = ((UnaryFromClause)query.getFrom().getClauses().get(0)).getGroup();
+        if (group.isProcedure() || group.isTempTable() || group.getMetadataID() instanceof TempMetadataID) {
+            return null;
+        }
+        String columnName = metadata.getExtensionProperty(group.getMetadataID(), PartitionedAccessNode.PARTITION_COLUMN, false);
+        String partitions = metadata.getExtensionProperty(group.getMetadataID(), PartitionedAccessNode.PARTITION_COUNT, false);
+        if (columnName == null || partitions == null) {
+            return null;
+        }
+        int count = 0;
+        try {
+            count = Integer.parseInt(partitions);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (count < 2) {
+            return null;
+        }
+        Object elementId = null;
+        try {
+            elementId = metadata.getElementID(metadata.getFullName(group.getMetadataID()) + Symbol.SEPARATOR + columnName);
+        } catch (QueryMetadataException e) {
+            return null;
+        }
+        ElementSymbol column = new ElementSymbol(metadata.getName(elementId), group.clone());
+        column.setMetadataID(elementId);
+        column.setType(DataTypeManager.getDataTypeClass(metadata.getElementRuntimeTypeName(elementId)));
+        column.setDisplayMode(ElementSymbol.DisplayMode.FULLY_QUALIFIED);
+        List<Criteria> result = PartitionedAccessNode.createPartitionCriteria(column, count,
+                metadata.elementSupports(elementId, SupportConstants.Element.NULL), metadata.getFunctionLibrary());
+        if (result == null) {
+            return null;
+        }
+        //the first two partitions cover all of the predicate forms
+        for (Criteria crit : result.subList(0, 2)) {
+            if (!CriteriaCapabilityValidatorVisitor.canPushLanguageObject(crit, modelID, metadata, capFinder, analysisRecord)) {
+                return null;
+            }
+        }
+        return result;
+    }
+
     private Command aliasCommand(AccessNode aNode, Command command,
             Object modelID) throws TeiidComponentException,
             QueryPlannerException {
@@ -38,10 +38,12 @@ import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.id.IDGenerator;
 import org.teiid.core.types.DataTypeManager;
 import org.teiid.dqp.internal.process.AuthorizationValidator.CommandType;
+import org.teiid.dqp.internal.process.PreparedPlan;
 import org.teiid.dqp.internal.process.Request;
 import org.teiid.language.SQLConstants.Reserved;
 import org.teiid.logging.LogManager;
 import org.teiid.metadata.Column;
+import org.teiid.metadata.FunctionMethod.Determinism;
 import org.teiid.query.QueryPlugin;
 import org.teiid.query.analysis.AnalysisRecord;
 import org.teiid.query.metadata.QueryMetadataInterface;
@@ -70,6 +72,7 @@ import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.sql.symbol.Expression;
 import org.teiid.query.sql.symbol.GroupSymbol;
 import org.teiid.query.sql.util.VariableContext;
+import org.teiid.query.sql.visitor.GroupCollectorVisitor;
 import org.teiid.query.sql.visitor.ValueIteratorProviderCollectorVisitor;
 import org.teiid.query.util.CommandContext;
 import org.teiid.query.validator.ValidationVisitor;
@@ -86,6 +89,7 @@ import org.teiid.query.validator.ValidationVisitor;
 public class ExecDynamicSqlInstruction extends ProgramInstruction {
 
     private static final int MAX_SQL_LENGTH = 1 << 18; //based roughly on what could be the default max over JDBC
+    private static final String PLAN_KEY_PREFIX = "dynamic sql "; //$NON-NLS-1$
 
     // the DynamicCommand
     private DynamicCommand dynamicCommand;
@@ -157,72 +161,120 @@ public class ExecDynamicSqlInstruction extends ProgramInstruction {
                     new Object[] { "Executing dynamic sql ", query }); //$NON-NLS-1$
 
 
-            Command command = QueryParser.getQueryParser().parseCommand(query);
+            String cacheKey = null;
+            PreparedPlan pp = null;
+            if (parentProcCommand.getUpdateType() == Command.TYPE_UNKNOWN && parentProcCommand.getVirtualGroup() != null) {
+                cacheKey = PLAN_KEY_PREFIX + parentProcCommand.getVirtualGroup() + ' ' + dynamicCommand + ' ' + returnable + ' ' + query;
+                pp = procEnv.getContext().getPlan(cacheKey);
+            }
 
-            //special handling for dynamic anon blocks
-            if (command instanceof CreateProcedureCommand) {
-                if (dynamicCommand.getIntoGroup() != null || returnable) {
-                    //won't work unless we use a different approach than the insert into ...
-                    //and the creation of an inline view
-                    throw new QueryProcessingException(QueryPlugin.Event.TEIID31250, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31250));
+            Command command = null;
+            ProcessorPlan commandPlan = null;
+            boolean updateCommand = false;
+            if (pp != null) {
+                //the cached plan references the variables rather than their values
+                command = pp.getCommand();
+                updateContextWithUsingValues(procEnv, localContext);
+                validateDynamicCommand(procEnv, command, value.toString());
+                updateCommand = isUpdateCommand(command);
+                commandPlan = pp.getPlan().clone();
+            } else {
+                command = QueryParser.getQueryParser().parseCommand(query);
+
+                //special handling for dynamic anon blocks
+                if (command instanceof CreateProcedureCommand) {
+                    if (dynamicCommand.getIntoGroup() != null || returnable) {
+                        //won't work unless we use a different approach than the insert into ...
+                        //and the creation of an inline view
+                        throw new QueryProcessingException(QueryPlugin.Event.TEIID31250, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31250));
+                    }
+                    ((CreateProcedureCommand)command).setResultSetColumns(Collections.EMPTY_LIST);
+                    cacheKey = null;
                 }
-                ((CreateProcedureCommand)command).setResultSetColumns(Collections.EMPTY_LIST);
-            }
 
-            command.setExternalGroupContexts(dynamicCommand.getExternalGroupContexts());
-            command.setTemporaryMetadata(dynamicCommand.getTemporaryMetadata().clone());
-            updateContextWithUsingValues(procEnv, localContext);
-
-            TempMetadataStore metadataStore = command.getTemporaryMetadata();
-
-            if (dynamicCommand.getUsing() != null
-                            && !dynamicCommand.getUsing().isEmpty()) {
-                metadataStore.addTempGroup(Reserved.USING, new LinkedList<ElementSymbol>(dynamicCommand.getUsing().getClauseMap().keySet()));
-                GroupSymbol using = new GroupSymbol(Reserved.USING);
-                using.setMetadataID(metadataStore.getTempGroupID(Reserved.USING));
-                command.addExternalGroupToContext(using);
-                metadataStore.addTempGroup(ProcedureReservedWords.DVARS, new LinkedList<ElementSymbol>(dynamicCommand.getUsing().getClauseMap().keySet()));
-                using = new GroupSymbol(ProcedureReservedWords.DVARS);
-                using.setMetadataID(metadataStore.getTempGroupID(ProcedureReservedWords.DVARS));
-                command.addExternalGroupToContext(using);
-            }
+                command.setExternalGroupContexts(dynamicCommand.getExternalGroupContexts());
+                command.setTemporaryMetadata(dynamicCommand.getTemporaryMetadata().clone());
+                updateContextWithUsingValues(procEnv, localContext);
+
+                TempMetadataStore metadataStore = command.getTemporaryMetadata();
+
+                if (dynamicCommand.getUsing() != null
+                                && !dynamicCommand.getUsing().isEmpty()) {
+                    metadataStore.addTempGroup(Reserved.USING, new LinkedList<ElementSymbol>(dynamicCommand.getUsing().getClauseMap().keySet()));
+                    GroupSymbol using = new GroupSymbol(Reserved.USING);
+                    using.setMetadataID(metadataStore.getTempGroupID(Reserved.USING));
+                    command.addExternalGroupToContext(using);
+                    metadataStore.addTempGroup(ProcedureReservedWords.DVARS, new LinkedList<ElementSymbol>(dynamicCommand.getUsing().getClauseMap().keySet()));
+                    using = new GroupSymbol(ProcedureReservedWords.DVARS);
+                    using.setMetadataID(metadataStore.getTempGroupID(ProcedureReservedWords.DVARS));
+                    command.addExternalGroupToContext(using);
+                }
 
-            QueryResolver.resolveCommand(command, metadata.getDesignTimeMetadata());
+                QueryResolver.resolveCommand(command, metadata.getDesignTimeMetadata());
 
-            validateDynamicCommand(procEnv, command, value.toString());
+                validateDynamicCommand(procEnv, command, value.toString());
 
-            // create a new set of variables including vars
-            Map<ElementSymbol, Expression> nameValueMap = createVariableValuesMap(localContext);
-            ValidationVisitor visitor = new ValidationVisitor();
-            Request.validateWithVisitor(visitor, metadata, command);
-            boolean insertInto = false;
-            boolean updateCommand = false;
-            if (!command.returnsResultSet() && !(command instanceof StoredProcedure)) {
-                if (dynamicCommand.isAsClauseSet()) {
-                    if (dynamicCommand.getProjectedSymbols().size() != 1 || ((Expression)dynamicCommand.getProjectedSymbols().get(0)).getType() != DataTypeManager.DefaultDataClasses.INTEGER) {
-                        throw new QueryProcessingException(QueryPlugin.Event.TEIID31157, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31157));
+                ValidationVisitor visitor = new ValidationVisitor();
+                Request.validateWithVisitor(visitor, metadata, command);
+
+                if (cacheKey != null) {
+                    //temp table definitions may differ between executions
+                    GroupSymbol intoGroup = dynamicCommand.getIntoGroup();
+                    if (intoGroup != null && (intoGroup.isTempTable() || intoGroup.isTempGroupSymbol())) {
+                        cacheKey = null;
                     }
                 }
-                updateCommand = true;
-            } else if (dynamicCommand.getAsColumns() != null
-                    && !dynamicCommand.getAsColumns().isEmpty()) {
-                command = QueryRewriter.createInlineViewQuery(new GroupSymbol("X"), command, metadata, dynamicCommand.getAsColumns()); //$NON-NLS-1$
-                if (dynamicCommand.getIntoGroup() != null) {
-                    Insert insert = new Insert(dynamicCommand.getIntoGroup(), dynamicCommand.getAsColumns(), Collections.emptyList());
-                    insert.setQueryExpression((Query)command);
-                    command = insert;
-                    insertInto = true;
+                if (cacheKey != null) {
+                    for (GroupSymbol group : GroupCollectorVisitor.getGroups(command, true)) {
+                        if (group.isTempTable()) {
+                            cacheKey = null;
+                            break;
+                        }
+                    }
+                }
+                Command resolvedCommand = cacheKey != null?(Command)command.clone():null;
+
+                updateCommand = isUpdateCommand(command);
+                if (!updateCommand && dynamicCommand.getAsColumns() != null
+                        && !dynamicCommand.getAsColumns().isEmpty()) {
+                    command = QueryRewriter.createInlineViewQuery(new GroupSymbol("X"), command, metadata, dynamicCommand.getAsColumns()); //$NON-NLS-1$
+                    if (dynamicCommand.getIntoGroup() != null) {
+                        Insert insert = new Insert(dynamicCommand.getIntoGroup(), dynamicCommand.getAsColumns(), Collections.emptyList());
+                        insert.setQueryExpression((Query)command);
+                        command = insert;
+                    }
                 }
-            }
 
-            //if this is an update procedure, it could reassign variables
-            command = QueryRewriter.rewrite(command, metadata, procEnv.getContext(),
-                    command instanceof CreateProcedureCommand?Collections.EMPTY_MAP:nameValueMap);
+                CommandContext planContext = procEnv.getContext();
+                if (cacheKey != null) {
+                    //plan against references so that the plan is reusable for other variable values
+                    planContext = planContext.clone();
+                    planContext.resetDeterminismLevel(true);
+                    command = QueryRewriter.rewrite(command, metadata, planContext);
+                } else {
+                    // create a new set of variables including vars
+                    Map<ElementSymbol, Expression> nameValueMap = createVariableValuesMap(localContext);
+                    //if this is an update procedure, it could reassign variables
+                    command = QueryRewriter.rewrite(command, metadata, planContext,
+                            command instanceof CreateProcedureCommand?Collections.EMPTY_MAP:nameValueMap);
+                }
 
-            ProcessorPlan commandPlan = QueryOptimizer.optimizePlan(command, metadata,
-                    idGenerator, capFinder, AnalysisRecord
-                            .createNonRecordingRecord(), procEnv
-                            .getContext());
+                commandPlan = QueryOptimizer.optimizePlan(command, metadata,
+                        idGenerator, capFinder, AnalysisRecord
+                                .createNonRecordingRecord(), planContext);
+
+                if (cacheKey != null) {
+                    pp = new PreparedPlan();
+                    pp.setPlan(commandPlan, planContext);
+                    pp.setCommand(resolvedCommand);
+                    Determinism determinism = planContext.getDeterminismLevel();
+                    procEnv.getContext().setDeterminismLevel(determinism);
+                    planContext.putPlan(cacheKey, pp, determinism);
+                    commandPlan = commandPlan.clone();
+                }
+            }
+            boolean insertInto = !updateCommand && dynamicCommand.getIntoGroup() != null
+                    && dynamicCommand.getAsColumns() != null && !dynamicCommand.getAsColumns().isEmpty();
 
             if (command instanceof CreateProcedureCommand && commandPlan instanceof ProcedurePlan) {
                 ((ProcedurePlan)commandPlan).setValidateAccess(procEnv.isValidateAccess());
@@ -301,6 +353,18 @@ public class ExecDynamicSqlInstruction extends ProgramInstruction {
         }
     }
 
+    private boolean isUpdateCommand(Command command) throws QueryProcessingException {
+        if (command.returnsResultSet() || command instanceof StoredProcedure) {
+            return false;
+        }
+        if (dynamicCommand.isAsClauseSet()) {
+            if (dynamicCommand.getProjectedSymbols().size() != 1 || ((Expression)dynamicCommand.getProjectedSymbols().get(0)).getType() != DataTypeManager.DefaultDataClasses.INTEGER) {
+                throw new QueryProcessingException(QueryPlugin.Event.TEIID31157, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31157));
+            }
+        }
+        return true;
+    }
+
     /**
      * @param procEnv
      * @param localContext
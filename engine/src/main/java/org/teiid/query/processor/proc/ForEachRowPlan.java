@@ -43,6 +43,7 @@ import org.teiid.query.processor.ProcessorDataManager;
 import org.teiid.query.processor.ProcessorPlan;
 import org.teiid.query.processor.QueryProcessor;
 import org.teiid.query.sql.lang.Command;
+import org.teiid.query.sql.symbol.Constant;
 import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.sql.symbol.Expression;
 import org.teiid.query.sql.util.VariableContext;
@@ -50,8 +51,12 @@ import org.teiid.query.util.CommandContext;
 
 public class ForEachRowPlan extends ProcessorPlan {
 
+    private static final int BULK_ROWS = 1 << 14;
+
     private ProcessorPlan queryPlan;
     private ProcedurePlan rowProcedure;
+    private ProcessorPlan bulkPlan;
+    private List<ElementSymbol> bulkParams;
     private Map<ElementSymbol, Expression> params;
     private Map<Expression, Integer> lookupMap;
     private boolean singleRow;
@@ -71,12 +76,18 @@ public class ForEachRowPlan extends ProcessorPlan {
     private boolean first = true;
     private boolean nextNull = false;
     private BatchCollector batchCollector;
+    private long bulkRows;
 
     @Override
     public ProcessorPlan clone() {
         ForEachRowPlan clone = new ForEachRowPlan();
         clone.setQueryPlan(queryPlan.clone());
-        clone.setRowProcedure((ProcedurePlan) rowProcedure.clone());
+        if (rowProcedure != null) {
+            clone.setRowProcedure((ProcedurePlan) rowProcedure.clone());
+        }
+        if (bulkPlan != null) {
+            clone.setBulkPlan(bulkPlan.clone(), bulkParams);
+        }
         clone.setParams(params);
         clone.setLookupMap(lookupMap);
         return clone;
@@ -131,6 +142,9 @@ public class ForEachRowPlan extends ProcessorPlan {
             this.getContext().getTransactionServer().resume(planContext);
         }
         try {
+            if (bulkPlan != null) {
+                return nextBulkBatch();
+            }
             while (true) {
                 if (currentTuple == null) {
                     if (nextTuple != null) {
@@ -143,15 +157,7 @@ public class ForEachRowPlan extends ProcessorPlan {
                         currentTuple = tupleSource.nextTuple();
                     }
                     if (currentTuple == null) {
-                        this.tupleSource.closeSource();
-                        if (this.planContext != null) {
-                            TransactionService ts = this.getContext().getTransactionServer();
-                            ts.commit(this.planContext);
-                            this.planContext = null;
-                        }
-                        TupleBatch result = new TupleBatch(1, new List[] {Arrays.asList((int)Math.min(Integer.MAX_VALUE, updateCount))});
-                        result.setTerminationFlag(true);
-                        return result;
+                        return finish();
                     }
                 }
                 if (first) {
@@ -209,6 +215,92 @@ public class ForEachRowPlan extends ProcessorPlan {
         }
     }
 
+    private TupleBatch finish() throws TeiidComponentException,
+            XATransactionException {
+        this.tupleSource.closeSource();
+        if (this.planContext != null) {
+            TransactionService ts = this.getContext().getTransactionServer();
+            ts.commit(this.planContext);
+            this.planContext = null;
+        }
+        TupleBatch result = new TupleBatch(1, new List[] {Arrays.asList((int)Math.min(Integer.MAX_VALUE, updateCount))});
+        result.setTerminationFlag(true);
+        return result;
+    }
+
+    /**
+     * Execute the single trigger statement once for each chunk of the changeset
+     * by binding each referenced OLD/NEW value as a multi-valued constant.
+     */
+    private TupleBatch nextBulkBatch() throws BlockedException,
+            TeiidComponentException, TeiidProcessingException {
+        if (tupleSource == null) {
+            //buffer the changeset from the processor plan
+            tupleSource = batchCollector.collectTuples().createIndexedTupleSource(true);
+        }
+        while (true) {
+            if (this.rowProcessor == null) {
+                VariableContext vc = new VariableContext();
+                bulkRows = collectBulkValues(vc);
+                if (bulkRows == 0) {
+                    return finish();
+                }
+                if (first) {
+                    TransactionContext tc = this.getContext().getTransactionContext();
+                    if (this.planContext == null && tc != null && tc.getTransactionType() == Scope.NONE) {
+                        Boolean txnRequired = bulkPlan.requiresTransaction(false);
+                        if (Boolean.TRUE.equals(txnRequired) || (txnRequired == null && bulkRows == BULK_ROWS)) {
+                            this.getContext().getTransactionServer().begin(tc);
+                            this.planContext = tc;
+                        }
+                    }
+                    first = false;
+                }
+                bulkPlan.reset();
+                CommandContext context = getContext().clone();
+                context.pushVariableContext(vc);
+                this.rowProcessor = new QueryProcessor(bulkPlan, context, this.bufferMgr, this.dataMgr);
+            }
+            //just getting the next batch is enough
+            this.rowProcessor.nextBatch();
+            this.rowProcessor.closeProcessing();
+            this.rowProcessor = null;
+            this.updateCount += bulkRows;
+        }
+    }
+
+    private int collectBulkValues(VariableContext vc) throws TeiidComponentException, TeiidProcessingException {
+        List<List<Object>> values = new ArrayList<List<Object>>(bulkParams.size());
+        for (int i = 0; i < bulkParams.size(); i++) {
+            values.add(new ArrayList<Object>());
+        }
+        Evaluator eval = new Evaluator(lookupMap, dataMgr, getContext());
+        int rows = 0;
+        while (rows < BULK_ROWS) {
+            List<?> tuple = tupleSource.nextTuple();
+            if (tuple == null) {
+                break;
+            }
+            for (int i = 0; i < bulkParams.size(); i++) {
+                Expression ex = this.params.get(bulkParams.get(i));
+                Integer index = this.lookupMap.get(ex);
+                if (index != null) {
+                    values.get(i).add(tuple.get(index));
+                } else {
+                    values.get(i).add(eval.evaluate(ex, tuple));
+                }
+            }
+            rows++;
+        }
+        for (int i = 0; i < bulkParams.size(); i++) {
+            ElementSymbol es = bulkParams.get(i);
+            Constant c = new Constant(null, es.getType());
+            c.setMultiValued(values.get(i));
+            vc.setValue(es, c);
+        }
+        return rows;
+    }
+
     private void assignGeneratedKey(VariableContext vc) {
         LinkedHashMap<ElementSymbol, Object> key = null;
         for (Map.Entry<Object, Object> entry : vc.getVariableMap().entrySet()) {
@@ -274,6 +366,17 @@ public class ForEachRowPlan extends ProcessorPlan {
         this.rowProcedure = rowProcedure;
     }
 
+    /**
+     * Set a plan for the single trigger statement to be executed in bulk rather
+     * than executing the row procedure for each row.
+     * @param bulkPlan
+     * @param bulkParams the OLD/NEW symbols referenced by the statement
+     */
+    public void setBulkPlan(ProcessorPlan bulkPlan, List<ElementSymbol> bulkParams) {
+        this.bulkPlan = bulkPlan;
+        this.bulkParams = bulkParams;
+    }
+
     public void setParams(Map<ElementSymbol, Expression> params) {
         this.params = params;
     }
@@ -296,6 +399,7 @@ public class ForEachRowPlan extends ProcessorPlan {
         this.first = true;
         this.nextTuple = null;
         this.nextNull = false;
+        this.bulkRows = 0;
     }
 
     @Override
@@ -304,7 +408,7 @@ public class ForEachRowPlan extends ProcessorPlan {
         if (!Boolean.FALSE.equals(requiresTxn)) {
             return true;
         }
-        Boolean forEach = rowProcedure.requiresTransaction(transactionalReads);
+        Boolean forEach = (bulkPlan != null ? bulkPlan : rowProcedure).requiresTransaction(transactionalReads);
         if (Boolean.TRUE.equals(forEach)) {
             return true;
         }
@@ -321,7 +425,7 @@ public class ForEachRowPlan extends ProcessorPlan {
     public String toString() {
         StringBuilder val = new StringBuilder("ForEach "); //$NON-NLS-1$
         val.append(this.queryPlan).append("\n{\n"); //$NON-NLS-1$
-        val.append(this.rowProcedure);
+        val.append(bulkPlan != null ? bulkPlan : this.rowProcedure);
         val.append("}\n"); //$NON-NLS-1$
         return val.toString();
     }
@@ -203,8 +203,7 @@ public class ListNestedSortComparator<T extends Comparable<? super T>> implement
                 compare = Constant.COMPARATOR.compare(param1, param2);
             }
             if (compare != 0) {
-                boolean asc = orderTypes != null?orderTypes.get(k):this.ascendingOrder;
-                return asc ? compare : -compare;
+                return isAscending(k) ? compare : -compare;
             } else if (k == distinctIndex) {
                 isDistinct = false;
             }
@@ -216,6 +215,13 @@ public class ListNestedSortComparator<T extends Comparable<? super T>> implement
         return nullOrdering.get(index);
     }
 
+    /**
+     * @return true if the sort parameter at the given index is ascending
+     */
+    public boolean isAscending(int index) {
+        return orderTypes != null?orderTypes.get(index):this.ascendingOrder;
+    }
+
     public int[] getSortParameters() {
         return sortParameters;
     }
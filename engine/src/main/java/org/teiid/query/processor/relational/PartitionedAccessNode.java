@@ -0,0 +1,173 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.query.processor.relational;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.teiid.client.plan.PlanNode;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.query.function.FunctionDescriptor;
+import org.teiid.query.function.FunctionLibrary;
+import org.teiid.query.sql.lang.Command;
+import org.teiid.query.sql.lang.CompareCriteria;
+import org.teiid.query.sql.lang.CompoundCriteria;
+import org.teiid.query.sql.lang.Criteria;
+import org.teiid.query.sql.lang.IsNullCriteria;
+import org.teiid.query.sql.lang.Query;
+import org.teiid.query.sql.lang.SetCriteria;
+import org.teiid.query.sql.symbol.Constant;
+import org.teiid.query.sql.symbol.ElementSymbol;
+import org.teiid.query.sql.symbol.Expression;
+import org.teiid.query.sql.symbol.Function;
+import org.teiid.translator.SourceSystemFunctions;
+
+/**
+ * Splits a single table scan into modulo partitions over an integral column.
+ * Each partition is registered as a separate source query so that up to the
+ * user request source concurrency of them are executed in parallel.  The results
+ * are returned as they become available, so the planner must only use this node
+ * when the parent does not require ordered results.
+ */
+public class PartitionedAccessNode extends AccessNode {
+
+    /**
+     * Table extension property naming the integral column used to partition scans
+     */
+    public static final String PARTITION_COLUMN = "teiid_rel:PARTITION_COLUMN"; //$NON-NLS-1$
+    /**
+     * Table extension property with the number of partitions to use
+     */
+    public static final String PARTITION_COUNT = "teiid_rel:PARTITION_COUNT"; //$NON-NLS-1$
+
+    private static final String PROP_PARTITIONS = "Partitions"; //$NON-NLS-1$
+
+    //plan state
+    private List<Criteria> partitionCriteria;
+
+    //processing state
+    private int partition;
+
+    protected PartitionedAccessNode() {
+        super();
+    }
+
+    public PartitionedAccessNode(int nodeID) {
+        super(nodeID);
+    }
+
+    public void setPartitionCriteria(List<Criteria> partitionCriteria) {
+        this.partitionCriteria = partitionCriteria;
+    }
+
+    public List<Criteria> getPartitionCriteria() {
+        return partitionCriteria;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        partition = 0;
+    }
+
+    @Override
+    protected Command nextCommand() throws TeiidProcessingException,
+            TeiidComponentException {
+        if (nextCommand == null) {
+            Query query = (Query)super.nextCommand();
+            Criteria crit = (Criteria)partitionCriteria.get(partition++).clone();
+            query.setCriteria(Criteria.combineCriteria(query.getCriteria(), crit));
+            return query;
+        }
+        return super.nextCommand();
+    }
+
+    @Override
+    protected boolean hasNextCommand() {
+        return partition < partitionCriteria.size();
+    }
+
+    @Override
+    public Object clone() {
+        PartitionedAccessNode clonedNode = new PartitionedAccessNode();
+        super.copyTo(clonedNode);
+        clonedNode.partitionCriteria = this.partitionCriteria;
+        return clonedNode;
+    }
+
+    @Override
+    public synchronized PlanNode getDescriptionProperties() {
+        PlanNode props = super.getDescriptionProperties();
+        props.addProperty(PROP_PARTITIONS, String.valueOf(this.partitionCriteria.size()));
+        return props;
+    }
+
+    /**
+     * Create the criteria for each partition.  Since the sign of MOD follows the dividend on
+     * most sources, partition i &gt; 0 also accepts the negative remainder i - partitions.
+     * Null values, if possible, are assigned to the first partition.
+     * @return the partition criteria or null if the column type cannot be partitioned
+     */
+    public static List<Criteria> createPartitionCriteria(ElementSymbol column, int partitions, boolean nullable, FunctionLibrary library) {
+        Class<?> type = column.getType();
+        if (type != DataTypeManager.DefaultDataClasses.INTEGER
+                && type != DataTypeManager.DefaultDataClasses.LONG
+                && type != DataTypeManager.DefaultDataClasses.BIG_INTEGER) {
+            return null;
+        }
+        FunctionDescriptor fd = library.findFunction(SourceSystemFunctions.MOD, new Class<?>[] {type, type});
+        if (fd == null) {
+            return null;
+        }
+        List<Criteria> result = new ArrayList<Criteria>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            Function mod = new Function(SourceSystemFunctions.MOD, new Expression[] {column.clone(), getConstant(partitions, type)});
+            mod.setType(type);
+            mod.setFunctionDescriptor(fd);
+            Criteria crit = null;
+            if (i == 0) {
+                crit = new CompareCriteria(mod, CompareCriteria.EQ, getConstant(0, type));
+                if (nullable) {
+                    crit = new CompoundCriteria(CompoundCriteria.OR, crit, new IsNullCriteria(column.clone()));
+                }
+            } else {
+                SetCriteria setCrit = new SetCriteria(mod, Arrays.asList(getConstant(i, type), getConstant(i - partitions, type)));
+                setCrit.setAllConstants(true);
+                crit = setCrit;
+            }
+            result.add(crit);
+        }
+        return result;
+    }
+
+    private static Constant getConstant(int value, Class<?> type) {
+        if (type == DataTypeManager.DefaultDataClasses.LONG) {
+            return new Constant(Long.valueOf(value));
+        }
+        if (type == DataTypeManager.DefaultDataClasses.BIG_INTEGER) {
+            return new Constant(BigInteger.valueOf(value));
+        }
+        return new Constant(value);
+    }
+
+}
@@ -35,6 +35,8 @@ import org.teiid.common.buffer.TupleBuffer;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.query.analysis.AnalysisRecord;
+import org.teiid.query.eval.ExpressionCompiler;
+import org.teiid.query.eval.ExpressionCompiler.CompiledExpression;
 import org.teiid.query.sql.LanguageObject;
 import org.teiid.query.sql.symbol.AliasSymbol;
 import org.teiid.query.sql.symbol.Expression;
@@ -52,6 +54,9 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
     private boolean needsProject = true;
     private List<Expression> expressions;
     private int[] projectionIndexes;
+    private CompiledExpression[] compiledExpressions;
+    private boolean batchEvaluation;
+    private Object[][] columns;
 
     // Saved state when blocked on evaluating a row - must be reset
     private TupleBatch currentBatch;
@@ -154,6 +159,16 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
             }
         }
 
+        if (compiledExpressions == null) {
+            compileExpressions();
+        } else {
+            getEvaluator(this.elementMap);
+        }
+
+        if (batchEvaluation) {
+            projectColumns();
+        }
+
         while (currentRow <= currentBatch.getEndRow() && !isBatchFull()) {
             List<?> tuple = currentBatch.getTuple(currentRow);
 
@@ -180,6 +195,64 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
         return pullBatch();
     }
 
+    private void compileExpressions() {
+        ExpressionCompiler compiler = new ExpressionCompiler(this.elementMap, getEvaluator(this.elementMap));
+        CompiledExpression[] compiled = new CompiledExpression[expressions.size()];
+        boolean batch = true;
+        for (int i = 0; i < compiled.length; i++) {
+            if (this.projectionIndexes[i] == -1) {
+                compiled[i] = compiler.compile(expressions.get(i));
+                batch &= ExpressionCompiler.canEvaluateBatch(expressions.get(i));
+            }
+        }
+        this.compiledExpressions = compiled;
+        this.batchEvaluation = batch;
+        this.columns = new Object[compiled.length][];
+    }
+
+    /**
+     * Evaluate the projected expressions column-wise over as many rows of
+     * the current batch as will fit in the output batch.
+     */
+    private void projectColumns() throws BlockedException, TeiidComponentException, ExpressionEvaluationException {
+        int count = (int)Math.min(currentBatch.getEndRow() - currentRow + 1, getBatchCapacity());
+        if (count <= 0) {
+            return;
+        }
+        int offset = (int)(currentRow - currentBatch.getBeginRow());
+        List<List<?>> tuples = currentBatch.getTuples();
+        for (int i = 0; i < compiledExpressions.length; i++) {
+            CompiledExpression expr = compiledExpressions[i];
+            if (expr == null) {
+                continue;
+            }
+            Object[] column = columns[i];
+            if (column == null || column.length < count) {
+                column = new Object[count];
+                columns[i] = column;
+            }
+            for (int j = 0; j < count; j++) {
+                column[j] = expr.evaluate(tuples.get(offset + j));
+            }
+        }
+        for (int j = 0; j < count; j++) {
+            List<?> tuple = tuples.get(offset + j);
+            List<Object> projectedTuple = new ArrayList<Object>(projectionIndexes.length);
+            for (int i = 0; i < projectionIndexes.length; i++) {
+                int index = projectionIndexes[i];
+                projectedTuple.add(index != -1?tuple.get(index):columns[i][j]);
+            }
+            addBatchRow(projectedTuple);
+        }
+        for (Object[] column : columns) {
+            if (column != null) {
+                //don't hold references to the values
+                Arrays.fill(column, 0, count, null);
+            }
+        }
+        currentRow += count;
+    }
+
     private void updateTuple(Expression symbol, int projectionIndex, List<?> values, List<Object> tuple)
         throws BlockedException, TeiidComponentException, ExpressionEvaluationException {
 
@@ -187,7 +260,7 @@ public class ProjectNode extends SubqueryAwareRelationalNode {
         if(index != -1) {
             tuple.add(values.get(index));
         } else {
-            tuple.add(getEvaluator(this.elementMap).evaluate(symbol, values));
+            tuple.add(this.compiledExpressions[projectionIndex].evaluate(values));
         }
     }
 
@@ -219,6 +219,14 @@ public abstract class RelationalNode implements Cloneable, BatchProducer {
         return (this.getProcessingState().batchRows != null) && (this.getProcessingState().batchRows.size() >= this.getProcessingState().batchSize);
     }
 
+    /**
+     * @return the number of rows that may be added before the batch is full
+     */
+    protected int getBatchCapacity() {
+        List<?> rows = this.getProcessingState().batchRows;
+        return this.getProcessingState().batchSize - (rows == null ? 0 : rows.size());
+    }
+
     protected boolean hasPendingRows() {
         return this.getProcessingState().batchRows != null;
     }
@@ -32,6 +32,10 @@ import org.teiid.common.buffer.TupleBatch;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.query.analysis.AnalysisRecord;
+import org.teiid.query.eval.Evaluator;
+import org.teiid.query.eval.ExpressionCompiler;
+import org.teiid.query.eval.ExpressionCompiler.BatchCriteria;
+import org.teiid.query.eval.ExpressionCompiler.CompiledCriteria;
 import org.teiid.query.processor.ProcessorDataManager;
 import org.teiid.query.rewriter.QueryRewriter;
 import org.teiid.query.sql.LanguageObject;
@@ -44,18 +48,25 @@ public class SelectNode extends SubqueryAwareRelationalNode {
 
     private Criteria criteria;
     private Criteria preEvalCriteria;
+    private CompiledCriteria compiledCriteria;
+    private BatchCriteria batchCriteria;
     private List<Expression> projectedExpressions;
     private boolean shouldEvaluate = false;
 
     // Derived element lookup map
     private Map<Expression, Integer> elementMap;
     private int[] projectionIndexes;
+    private boolean identityProjection;
 
     private boolean noRows;
 
     // State if blocked on evaluating a criteria
     private TupleBatch currentBatch;
     private int currentRow = 1;
+    //selection vector state for batch evaluation
+    private int[] selection;
+    private int selectionCount = -1;
+    private int selectionIndex;
 
     protected SelectNode() {
         super();
@@ -72,6 +83,9 @@ public class SelectNode extends SubqueryAwareRelationalNode {
         currentRow = 1;
         noRows = false;
         preEvalCriteria = null;
+        compiledCriteria = null;
+        batchCriteria = null;
+        selectionCount = -1;
     }
 
     public void setCriteria(Criteria criteria) {
@@ -94,6 +108,10 @@ public class SelectNode extends SubqueryAwareRelationalNode {
         if(this.elementMap == null) {
             this.elementMap = createLookupMap(this.getChildren()[0].getElements());
             this.projectionIndexes = getProjectionIndexes(this.elementMap, projectedExpressions!=null?projectedExpressions:getElements());
+            this.identityProjection = this.projectionIndexes.length == this.getChildren()[0].getElements().size();
+            for (int i = 0; i < this.projectionIndexes.length && this.identityProjection; i++) {
+                this.identityProjection = this.projectionIndexes[i] == i;
+            }
         }
     }
 
@@ -112,10 +130,24 @@ public class SelectNode extends SubqueryAwareRelationalNode {
             currentBatch = this.getChildren()[0].nextBatch();
         }
 
+        Evaluator eval = getEvaluator(this.elementMap);
+        if (compiledCriteria == null) {
+            Criteria crit = this.preEvalCriteria!=null?preEvalCriteria:criteria;
+            ExpressionCompiler compiler = new ExpressionCompiler(this.elementMap, eval);
+            compiledCriteria = compiler.compile(crit);
+            if (ExpressionCompiler.canEvaluateBatch(crit)) {
+                batchCriteria = compiler.compileBatch(crit);
+            }
+        }
+
+        if (batchCriteria != null) {
+            return nextBatchSelection();
+        }
+
         while (currentRow <= currentBatch.getEndRow() && !isBatchFull()) {
             List<?> tuple = currentBatch.getTuple(currentRow);
 
-            if(getEvaluator(this.elementMap).evaluate(this.preEvalCriteria!=null?preEvalCriteria:criteria, tuple)) {
+            if(Boolean.TRUE.equals(compiledCriteria.evaluateTVL(tuple))) {
                 addBatchRow(projectTuple(this.projectionIndexes, tuple));
             }
             currentRow++;
@@ -131,6 +163,36 @@ public class SelectNode extends SubqueryAwareRelationalNode {
         return pullBatch();
     }
 
+    /**
+     * Evaluate the criteria over the whole batch into a selection vector, then
+     * output the selected rows.
+     */
+    private TupleBatch nextBatchSelection() throws TeiidComponentException, TeiidProcessingException {
+        List<List<?>> tuples = currentBatch.getTuples();
+        if (selectionCount < 0) {
+            if (selection == null || selection.length < tuples.size()) {
+                selection = new int[tuples.size()];
+            }
+            selectionCount = batchCriteria.select(tuples, selection);
+            selectionIndex = 0;
+        }
+
+        while (selectionIndex < selectionCount && !isBatchFull()) {
+            List<?> tuple = tuples.get(selection[selectionIndex++]);
+            addBatchRow(identityProjection?tuple:projectTuple(this.projectionIndexes, tuple));
+        }
+
+        if (selectionIndex >= selectionCount) {
+            if(currentBatch.getTerminationFlag()) {
+                terminateBatches();
+            }
+            currentBatch = null;
+            selectionCount = -1;
+        }
+
+        return pullBatch();
+    }
+
     protected void getNodeString(StringBuffer str) {
         super.getNodeString(str);
         str.append(criteria);
@@ -147,6 +209,7 @@ public class SelectNode extends SubqueryAwareRelationalNode {
         target.criteria = criteria;
         target.elementMap = elementMap;
         target.projectionIndexes = projectionIndexes;
+        target.identityProjection = identityProjection;
         target.projectedExpressions = projectedExpressions;
         target.shouldEvaluate = shouldEvaluate;
     }
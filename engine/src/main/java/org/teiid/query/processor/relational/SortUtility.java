@@ -25,6 +25,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.PriorityQueue;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
@@ -155,6 +156,10 @@ public class SortUtility {
     private boolean stableSort = STABLE_SORT;
     private Future<Void> future;
 
+    //top-n state
+    private PriorityQueue<List<?>> topN;
+    private int topNReserved;
+
     public SortUtility(TupleSource sourceID, List<OrderByItem> items, Mode mode, BufferManager bufferMgr,
                         String groupName, List<? extends Expression> schema) {
         List<Expression> sortElements = null;
@@ -240,7 +245,11 @@ public class SortUtility {
             waitForWork();
             synchronized (this) {
                 if(this.phase == INITIAL_SORT) {
-                    initialSort(false, false, rowLimit);
+                    if (useTopN(rowLimit)) {
+                        topNSort(rowLimit);
+                    } else {
+                        initialSort(false, false, rowLimit);
+                    }
                 }
 
                 if(this.phase == MERGE) {
@@ -294,6 +303,75 @@ public class SortUtility {
         return tb;
     }
 
+    /**
+     * A limited sort of a streaming source can retain just the qualifying rows
+     * in memory rather than buffering the whole input.  Ties are not kept in
+     * input order, so this is not used for a stable sort.
+     */
+    private boolean useTopN(int rowLimit) {
+        if (topN != null) {
+            return true;
+        }
+        return rowLimit > 0 && mode == Mode.SORT && source != null
+                && workingBuffer == null && !stableSort && rowLimit <= this.targetRowCount;
+    }
+
+    /**
+     * Streams the source through a bounded heap with the last qualifying row at the head,
+     * then outputs the heap contents in sorted order as the single sorted sublist.
+     */
+    private void topNSort(int rowLimit) throws TeiidComponentException, TeiidProcessingException {
+        if (topN == null) {
+            topN = new PriorityQueue<List<?>>(Math.min(rowLimit, this.batchSize) + 1, Collections.reverseOrder(comparator));
+            long rowsSize = (long)rowLimit * this.schemaSize / this.batchSize;
+            topNReserved = bufferManager.reserveBuffers((int)Math.min(bufferManager.getMaxProcessingSize(), rowsSize), BufferReserveMode.FORCE);
+        }
+        long end = Long.MAX_VALUE;
+        if (!nonBlocking) {
+            //obey the timeslice
+            CommandContext cc = CommandContext.getThreadLocalContext();
+            if (cc != null && cc.getWorkItem() != null) {
+                end = System.nanoTime() + (cc.getTimeSliceEnd()-System.currentTimeMillis())*1000000;
+            }
+        }
+        int read = 0;
+        while (!doneReading) {
+            List<?> tuple = source.nextTuple();
+            if (tuple == null) {
+                doneReading = true;
+                break;
+            }
+            if (topN.size() < rowLimit) {
+                topN.add(tuple);
+            } else if (comparator.compare(tuple, topN.peek()) < 0) {
+                topN.poll();
+                topN.add(tuple);
+            }
+            if (end != Long.MAX_VALUE && (++read & 0xff) == 0 && System.nanoTime() > end) {
+                CommandContext.getThreadLocalContext().getWorkItem().moreWork();
+                throw BlockedException.block("Blocking on top-n sort"); //$NON-NLS-1$
+            }
+        }
+        List<?>[] rows = topN.toArray(new List<?>[topN.size()]);
+        Arrays.sort(rows, comparator);
+        TupleBuffer sorted = createTupleBuffer();
+        activeTupleBuffers.add(sorted);
+        for (List<?> row : rows) {
+            sorted.addTuple(row);
+        }
+        sorted.saveBatch();
+        releaseTopN();
+        this.phase = MERGE;
+    }
+
+    private void releaseTopN() {
+        if (topN != null) {
+            topN = null;
+            bufferManager.releaseBuffers(topNReserved);
+            topNReserved = 0;
+        }
+    }
+
     /**
      * creates sorted sublists stored in tuplebuffers
      */
@@ -645,6 +723,7 @@ public class SortUtility {
     }
 
     public synchronized void remove() {
+        releaseTopN();
         if (workingBuffer != null && source != null) {
             workingBuffer.remove();
             workingBuffer = null;
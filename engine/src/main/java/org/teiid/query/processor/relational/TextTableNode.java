@@ -18,10 +18,16 @@
 
 package org.teiid.query.processor.relational;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
 import java.io.Reader;
+import java.nio.charset.Charset;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -34,6 +40,7 @@ import org.teiid.api.exception.query.ExpressionEvaluationException;
 import org.teiid.client.plan.PlanNode;
 import org.teiid.common.buffer.BlockedException;
 import org.teiid.common.buffer.BufferManager;
+import org.teiid.common.buffer.BufferManager.BufferReserveMode;
 import org.teiid.common.buffer.TupleBatch;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
@@ -41,6 +48,9 @@ import org.teiid.core.TeiidRuntimeException;
 import org.teiid.core.types.ClobImpl;
 import org.teiid.core.types.ClobType;
 import org.teiid.core.types.DataTypeManager;
+import org.teiid.core.types.InputStreamFactory;
+import org.teiid.core.types.InputStreamFactory.FileInputStreamFactory;
+import org.teiid.core.types.Streamable;
 import org.teiid.core.types.TransformationException;
 import org.teiid.dqp.internal.process.RequestWorkItem;
 import org.teiid.query.QueryPlugin;
@@ -54,11 +64,360 @@ import org.teiid.query.util.CommandContext;
 
 /**
  * Handles text file processing.
+ * <p>
+ * When {@link org.teiid.query.util.Options#getTextTableChunkSize()} is set and the
+ * file is a local file in a single byte line terminated encoding, the remainder of the
+ * file after the header/skip lines is split into line aligned byte ranges that are parsed
+ * concurrently and merged back in file order.  A range that contains a record spanning
+ * lines, or that fails to parse, is instead processed serially from its start.
+ * Ranges beyond the first in flight are only parsed if their estimated memory can be
+ * reserved from the {@link BufferManager}.
  *
  * TODO: allow for a configurable line terminator
  */
 public class TextTableNode extends SubqueryAwareRelationalNode {
 
+    //estimated bytes of the range plus the parsed string values
+    private static final int CHUNK_MEMORY_FACTOR = 3;
+
+    private static final class Chunk {
+        final long start;
+        final long end;
+        boolean submitted;
+        volatile boolean cancelled;
+        volatile boolean done;
+        //set before done
+        boolean serial;
+        List<List<Object>> rows;
+        int lineCount;
+        //merge position
+        int next;
+        //memory reserved for the chunk bytes and parsed rows
+        int reserved;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Line reading and parsing state for a single reader.
+     * Characters are read in blocks and lines are scanned directly from the block.
+     */
+    private final class LineReader {
+        private Reader reader;
+        private char[] buf = new char[BLOCK_SIZE];
+        private int pos;
+        private int limit;
+        private int textLine;
+        private boolean cr;
+        private boolean eof;
+        //when false records may not span lines
+        private boolean multiLine = true;
+        private boolean spansLines;
+
+        LineReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        void close() {
+            try {
+                this.reader.close();
+            } catch (IOException e) {
+            }
+        }
+
+        private boolean fill() throws TeiidProcessingException {
+            try {
+                int read = 0;
+                while (read == 0) {
+                    read = reader.read(buf);
+                }
+                if (read < 0) {
+                    return false;
+                }
+                pos = 0;
+                limit = read;
+                return true;
+            } catch (IOException e) {
+                throw new TeiidProcessingException(QueryPlugin.Event.TEIID30179, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30179, systemId));
+            }
+        }
+
+        StringBuilder readLine(int maxLength, boolean exact) throws TeiidProcessingException {
+            if (eof) {
+                return null;
+            }
+            if (!table.isUsingRowDelimiter()) {
+                return readFixedLine(maxLength, exact);
+            }
+            StringBuilder sb = null;
+            boolean discard = false;
+            while (true) {
+                if (pos == limit && !fill()) {
+                    eof = true;
+                    textLine++;
+                    if (sb == null || sb.length() == 0) {
+                        return null;
+                    }
+                    return sb;
+                }
+                if (cr) {
+                    cr = false;
+                    if (buf[pos] == newLine) {
+                        pos++;
+                        continue;
+                    }
+                }
+                int start = pos;
+                int end = start;
+                char c = 0;
+                for (; end < limit; end++) {
+                    c = buf[end];
+                    if (c == newLine || (crNewLine && c == '\r')) {
+                        break;
+                    }
+                }
+                if (end > start && !discard) {
+                    if (sb == null) {
+                        sb = new StringBuilder(exact ? maxLength : Math.max(end - start, maxLength >> 4));
+                    }
+                    sb.append(buf, start, end - start);
+                    if (sb.length() > maxLength) {
+                        if (!exact) {
+                            //protects non-fixed width processing from run-away values
+                            //TODO it is possible that string values could be desired that are longer than the max and/or returned as clobs
+                            throw new TeiidProcessingException(QueryPlugin.Event.TEIID30178, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30178, textLine+1, systemId, maxLength));
+                        }
+                        //we're not forcing them to fully specify the line, so just drop the rest
+                        //TODO: there should be a max read length
+                        sb.setLength(maxLength);
+                        discard = true;
+                    }
+                }
+                if (end == limit) {
+                    pos = limit;
+                    continue;
+                }
+                pos = end + 1;
+                textLine++;
+                if (c == '\r' && crNewLine) {
+                    cr = true;
+                }
+                if (sb == null || sb.length() == 0) {
+                    continue; //skip empty lines
+                }
+                return sb;
+            }
+        }
+
+        /**
+         * Read a line without regard to row delimiters
+         */
+        private StringBuilder readFixedLine(int maxLength, boolean exact) throws TeiidProcessingException {
+            StringBuilder sb = new StringBuilder(exact ? maxLength : (maxLength >> 4));
+            while (true) {
+                char c = readChar();
+                if (c == newLine && sb.length() == 0 && eof) {
+                    return null;
+                }
+                sb.append(c);
+                if (exact && sb.length() == maxLength) {
+                    return sb;
+                }
+                if (sb.length() > maxLength) {
+                    throw new TeiidProcessingException(QueryPlugin.Event.TEIID30178, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30178, textLine+1, systemId, maxLength));
+                }
+            }
+        }
+
+        char readChar() throws TeiidProcessingException {
+            int c = read();
+            if (cr) {
+                if (c == newLine) {
+                    c = read();
+                }
+                cr = false;
+            }
+            switch (c) {
+            case '\r':
+                if (crNewLine) {
+                    cr = true;
+                    textLine++;
+                    return newLine;
+                }
+                break;
+            case -1:
+                eof = true;
+                textLine++;
+                return newLine;
+            }
+            if (c == newLine) {
+                textLine++;
+                return newLine;
+            }
+            return (char)c;
+        }
+
+        private int read() throws TeiidProcessingException {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            return buf[pos++];
+        }
+
+        /**
+         * @param needed the value indexes to materialize, or null for all values
+         */
+        List<String> parseLine(StringBuilder line, boolean[] needed) throws TeiidProcessingException {
+            if (table.isFixedWidth()) {
+                return parseFixedWidth(line, needed);
+            }
+            return parseDelimitedLine(line, needed);
+        }
+
+        private List<String> parseDelimitedLine(StringBuilder line, boolean[] needed) throws TeiidProcessingException {
+            ArrayList<String> result = new ArrayList<String>();
+            StringBuilder builder = new StringBuilder();
+            boolean escaped = false;
+            boolean wasQualified = false;
+            boolean qualified = false;
+            while (true) {
+                if (line == null) {
+                    if (!multiLine && (escaped || qualified)) {
+                        spansLines = true;
+                        return null;
+                    }
+                    if (escaped) {
+                        //allow for escaped new lines
+                        if (cr) {
+                            builder.append('\r');
+                        }
+                        builder.append(newLine);
+                        escaped = false;
+                        line = readLine(lineWidth, false);
+                        continue;
+                    }
+                    if (!qualified) {
+                        //close the last entry
+                        addValue(result, needed, wasQualified || noTrim, builder);
+                        return result;
+                    }
+                    line = readLine(lineWidth, false);
+                    if (line == null) {
+                         throw new TeiidProcessingException(QueryPlugin.Event.TEIID30182, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30182, systemId));
+                    }
+                }
+                int length = line.length();
+                for (int i = 0; i < length; i++) {
+                    if (!escaped && !qualified && !wasQualified && builder.length() == 0) {
+                        //scan an unquoted value directly from the line
+                        int end = i;
+                        for (; end < length; end++) {
+                            char chr = line.charAt(end);
+                            if (chr == delimiter || chr == quote) {
+                                break;
+                            }
+                        }
+                        if (end == length) {
+                            addValue(result, needed, line, i, end);
+                            return result;
+                        }
+                        if (line.charAt(end) == delimiter) {
+                            addValue(result, needed, line, i, end);
+                            i = end;
+                            continue;
+                        }
+                        builder.append(line, i, end);
+                        i = end;
+                    }
+                    char chr = line.charAt(i);
+                    if (chr == delimiter) {
+                        if (escaped || qualified) {
+                            builder.append(chr);
+                            escaped = false;
+                        } else {
+                            addValue(result, needed, wasQualified || noTrim, builder);
+                            wasQualified = false;
+                            builder = new StringBuilder();  //next entry
+                        }
+                    } else if (chr == quote) {
+                        if (noQuote) {     //it's the escape char
+                            if (escaped) {
+                                builder.append(quote);
+                            }
+                            escaped = !escaped;
+                        } else {
+                            if (qualified) {
+                                qualified = false;
+                            } else {
+                                if (wasQualified) {
+                                    qualified = true;
+                                    builder.append(chr);
+                                } else {
+                                    if (builder.toString().trim().length() != 0) {
+                                         throw new TeiidProcessingException(QueryPlugin.Event.TEIID30183, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30183, textLine, systemId));
+                                    }
+                                    qualified = true;
+                                    builder = new StringBuilder(); //start the entry over
+                                    wasQualified = true;
+                                }
+                            }
+                        }
+                    } else {
+                        if (escaped) {
+                            //don't understand other escape sequences yet
+                             throw new TeiidProcessingException(QueryPlugin.Event.TEIID30184, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30184, chr, textLine, systemId));
+                        }
+                        if (wasQualified && !qualified) {
+                            if (!Character.isWhitespace(chr)) {
+                                 throw new TeiidProcessingException(QueryPlugin.Event.TEIID30183, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30183, textLine, systemId));
+                            }
+                            //else just ignore
+                        } else {
+                            builder.append(chr);
+                        }
+                    }
+                }
+                line = null;
+            }
+        }
+
+        private void addValue(ArrayList<String> result, boolean[] needed, boolean wasQualified, StringBuilder val) {
+            if (!isNeeded(needed, result.size())) {
+                result.add(null);
+                return;
+            }
+            TextTableNode.this.addValue(result, wasQualified, val.toString());
+        }
+
+        /**
+         * Add the unquoted value between start and end without an intermediate copy
+         */
+        private void addValue(ArrayList<String> result, boolean[] needed, StringBuilder line, int start, int end) {
+            if (!isNeeded(needed, result.size())) {
+                result.add(null);
+                return;
+            }
+            if (!noTrim) {
+                while (start < end && line.charAt(start) <= ' ') {
+                    start++;
+                }
+                while (end > start && line.charAt(end - 1) <= ' ') {
+                    end--;
+                }
+                if (start == end) {
+                    result.add(null);
+                    return;
+                }
+            }
+            result.add(line.substring(start, end));
+        }
+    }
+
+    private static final int BLOCK_SIZE = 1 << 14;
+
     private TextTable table;
 
     //initialized state
@@ -72,14 +431,19 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
     private Map<String, List<String>> parentLines;
 
     //per file state
-    private BufferedReader reader;
-    private int textLine = 0;
+    private LineReader lines;
     private Map<String, Integer> nameIndexes;
+    private boolean[] neededValues;
     private String systemId;
     private long rowNumber;
 
-    private boolean cr;
-    private boolean eof;
+    //chunked file state
+    private ArrayDeque<Chunk> chunks;
+    private File chunkFile;
+    private Charset chunkCharset;
+    private RandomAccessFile chunkScanner;
+    private long chunkOffset;
+    private int chunkSize;
 
     private volatile boolean running;
     private volatile TeiidRuntimeException asynchException;
@@ -155,18 +519,14 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
     @Override
     public synchronized void reset() {
         super.reset();
-        if (this.reader != null) {
-            try {
-                this.reader.close();
-            } catch (IOException e) {
-            }
-            this.reader = null;
+        if (this.lines != null) {
+            this.lines.close();
+            this.lines = null;
         }
+        closeChunks();
         this.nameIndexes = null;
-        this.textLine = 0;
+        this.neededValues = null;
         this.rowNumber = 0;
-        this.cr = false;
-        this.eof = false;
         if (this.parentLines != null) {
             for (Map.Entry<String, List<String>> entry : this.parentLines.entrySet()) {
                 entry.setValue(null);
@@ -205,11 +565,11 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
     protected synchronized TupleBatch nextBatchDirect() throws BlockedException,
             TeiidComponentException, TeiidProcessingException {
 
-        if (reader == null) {
+        if (lines == null) {
             initReader();
         }
 
-        if (reader == null) {
+        if (lines == null) {
             terminateBatches();
             return pullBatch();
         }
@@ -218,6 +578,14 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
             return pullBatch();
         }
 
+        if (chunks != null) {
+            TupleBatch result = nextChunkedBatch();
+            if (result != null) {
+                return result;
+            }
+            //else continue serially
+        }
+
         if (isBatchFull()) {
             TupleBatch result = pullBatch();
             processAsynch(); // read ahead
@@ -244,10 +612,261 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
         throw BlockedException.block("Blocking on results from file processing."); //$NON-NLS-1$
     }
 
+    /**
+     * Merge the parsed chunks in file order
+     * @return the next batch or null if processing should continue serially
+     */
+    private TupleBatch nextChunkedBatch() throws TeiidProcessingException {
+        int window = Math.max(1, getContext().getUserRequestSourceConcurrency());
+        while (true) {
+            while (chunks.size() < window) {
+                Chunk chunk = nextChunk();
+                if (chunk == null) {
+                    break;
+                }
+                chunks.add(chunk);
+            }
+            for (Chunk chunk : chunks) {
+                if (!chunk.submitted) {
+                    //the head chunk is always parsed, others only if memory is available
+                    if (!reserve(chunk, chunk == chunks.peek())) {
+                        break;
+                    }
+                    chunk.submitted = true;
+                    parseAsynch(chunk);
+                }
+            }
+            Chunk chunk = chunks.peek();
+            if (chunk == null) {
+                terminateBatches();
+                return pullBatch();
+            }
+            if (!chunk.done) {
+                if (this.getContext().getWorkItem() == null) {
+                    while (!chunk.done) {
+                        try {
+                            this.wait();
+                        } catch (InterruptedException e) {
+                            throw new TeiidRuntimeException(e);
+                        }
+                    }
+                }
+                throw BlockedException.block("Blocking on results from file processing."); //$NON-NLS-1$
+            }
+            if (chunk.serial) {
+                processSerially(chunk);
+                return null;
+            }
+            List<List<Object>> rows = chunk.rows;
+            while (chunk.next < rows.size()) {
+                if (isBatchFull()) {
+                    return pullBatch();
+                }
+                List<Object> tuple = rows.set(chunk.next++, null);
+                rowNumber++;
+                for (int i = 0; i < projectionIndexes.length; i++) {
+                    if (table.getColumns().get(projectionIndexes[i]).isOrdinal()) {
+                        tuple.set(i, getOrdinal());
+                    }
+                }
+                addBatchRow(tuple);
+                if (rowNumber == limit) {
+                    terminateBatches();
+                    return pullBatch();
+                }
+            }
+            lines.textLine += chunk.lineCount;
+            chunks.poll();
+            release(chunk);
+        }
+    }
+
+    /**
+     * Reserve the estimated memory for the chunk bytes and parsed rows
+     * @return true if the reservation was made
+     */
+    private boolean reserve(Chunk chunk, boolean force) {
+        int needed = (int)Math.min(Integer.MAX_VALUE, (chunk.end - chunk.start) * CHUNK_MEMORY_FACTOR);
+        BufferManager bm = getBufferManager();
+        int reserved = bm.reserveBuffers(needed, force?BufferReserveMode.FORCE:BufferReserveMode.NO_WAIT);
+        if (reserved < needed && !force) {
+            bm.releaseBuffers(reserved);
+            return false;
+        }
+        chunk.reserved = reserved;
+        return true;
+    }
+
+    private void release(Chunk chunk) {
+        if (chunk.reserved > 0) {
+            getBufferManager().releaseBuffers(chunk.reserved);
+            chunk.reserved = 0;
+        }
+    }
+
+    /**
+     * Determine the next line aligned byte range
+     */
+    private Chunk nextChunk() throws TeiidProcessingException {
+        long length = chunkFile.length();
+        if (chunkOffset >= length) {
+            return null;
+        }
+        long end = chunkOffset + chunkSize;
+        boolean serial = false;
+        if (end >= length) {
+            end = length;
+        } else {
+            try {
+                end = findLineEnd(end);
+            } catch (IOException e) {
+                throw new TeiidProcessingException(QueryPlugin.Event.TEIID30179, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30179, systemId));
+            }
+            if (end < 0) {
+                //no reasonable split, just read the rest serially
+                end = length;
+                serial = true;
+            }
+        }
+        Chunk chunk = new Chunk(chunkOffset, end);
+        chunkOffset = end;
+        if (serial) {
+            chunk.serial = true;
+            chunk.submitted = true;
+            chunk.done = true;
+        }
+        return chunk;
+    }
+
+    /**
+     * @return the position after the next line terminator, the file length if the end of the file is
+     * reached, or -1 if there is no terminator within the chunk size
+     */
+    private long findLineEnd(long pos) throws IOException {
+        byte[] bytes = new byte[1 << 13];
+        long limit = pos + chunkSize;
+        chunkScanner.seek(pos);
+        while (pos < limit) {
+            int read = chunkScanner.read(bytes, 0, (int)Math.min(bytes.length, limit - pos));
+            if (read < 0) {
+                return pos;
+            }
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == newLine) {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+        return -1;
+    }
+
+    private void parseAsynch(final Chunk chunk) {
+        final int width = this.lineWidth;
+        final boolean[] needed = this.neededValues;
+        getContext().getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    parseChunk(chunk, width, needed);
+                } catch (Exception e) {
+                    //reprocess serially to get the proper exception and line number
+                    chunk.rows = null;
+                    chunk.serial = true;
+                } finally {
+                    if (chunk.rows == null) {
+                        //incomplete, including an Error thrown from the parse
+                        chunk.serial = true;
+                    }
+                    chunk.done = true;
+                    RequestWorkItem workItem = TextTableNode.this.getContext().getWorkItem();
+                    if (workItem != null) {
+                        workItem.moreWork();
+                    } else {
+                        synchronized (TextTableNode.this) {
+                            TextTableNode.this.notifyAll();
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private void parseChunk(Chunk chunk, int width, boolean[] needed) throws IOException, TeiidProcessingException {
+        byte[] bytes = new byte[(int)(chunk.end - chunk.start)];
+        RandomAccessFile raf = new RandomAccessFile(chunkFile, "r"); //$NON-NLS-1$
+        try {
+            raf.seek(chunk.start);
+            raf.readFully(bytes);
+        } finally {
+            raf.close();
+        }
+        LineReader chunkLines = new LineReader(new InputStreamReader(new ByteArrayInputStream(bytes), chunkCharset.newDecoder()));
+        chunkLines.multiLine = false;
+        List<List<Object>> rows = new ArrayList<List<Object>>();
+        while (!chunk.cancelled) {
+            StringBuilder line = chunkLines.readLine(width, table.isFixedWidth());
+            if (line == null) {
+                break;
+            }
+            List<String> vals = chunkLines.parseLine(line, needed);
+            if (chunkLines.spansLines) {
+                chunk.serial = true;
+                return;
+            }
+            //ordinals are assigned when merged
+            rows.add(buildTuple(vals, chunkLines, 0));
+        }
+        //exclude the end of file
+        chunk.lineCount = chunkLines.textLine - 1;
+        chunk.rows = rows;
+    }
+
+    /**
+     * Switch to serial processing starting from the given chunk
+     */
+    private void processSerially(Chunk chunk) throws TeiidProcessingException {
+        try {
+            FileInputStream fis = new FileInputStream(chunkFile);
+            try {
+                fis.getChannel().position(chunk.start);
+            } catch (IOException e) {
+                fis.close();
+                throw e;
+            }
+            LineReader serial = new LineReader(new InputStreamReader(fis, chunkCharset.newDecoder()));
+            serial.textLine = lines.textLine;
+            lines.close();
+            lines = serial;
+        } catch (IOException e) {
+            throw new TeiidProcessingException(QueryPlugin.Event.TEIID30179, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30179, systemId));
+        }
+        closeChunks();
+    }
+
+    private void closeChunks() {
+        if (this.chunks != null) {
+            for (Chunk chunk : this.chunks) {
+                chunk.cancelled = true;
+                release(chunk);
+            }
+            this.chunks = null;
+        }
+        if (this.chunkScanner != null) {
+            try {
+                this.chunkScanner.close();
+            } catch (IOException e) {
+            }
+            this.chunkScanner = null;
+        }
+        this.chunkFile = null;
+        this.chunkCharset = null;
+    }
+
     private void processAsynch() {
         if (!running) {
             running = true;
-            final Reader r = this.reader;
+            final LineReader r = this.lines;
             getContext().getExecutor().execute(new Runnable() {
                 @Override
                 public void run() {
@@ -255,7 +874,7 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
                         process(r);
                     } catch (TeiidRuntimeException e) {
                         asynchException = e;
-                    } catch (Throwable e) {
+                    } catch (Exception e) {
                         asynchException = new TeiidRuntimeException(e);
                     } finally {
                         running = false;
@@ -273,13 +892,13 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
         }
     }
 
-    private void process(Reader r) throws TeiidProcessingException {
+    private void process(LineReader r) throws TeiidProcessingException {
         while (true) {
             synchronized (this) {
-                if (isBatchFull() || r != this.reader) {
+                if (isBatchFull() || r != this.lines) {
                     return;
                 }
-                StringBuilder line = readLine(lineWidth, table.isFixedWidth());
+                StringBuilder line = r.readLine(lineWidth, table.isFixedWidth());
 
                 if (line == null) {
                     terminateBatches();
@@ -303,7 +922,7 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
                     }
                 }
 
-                List<String> vals = parseLine(line);
+                List<String> vals = r.parseLine(line, neededValues);
 
                 if (parentSelector != null) {
                     this.parentLines.put(parentSelector, vals);
@@ -314,45 +933,7 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
 
                 rowNumber++;
 
-                List<Object> tuple = new ArrayList<Object>(projectionIndexes.length);
-                for (int output : projectionIndexes) {
-                    TextColumn col = table.getColumns().get(output);
-                    String val = null;
-                    int index = output;
-                    boolean missing = false;
-
-                    if (col.isOrdinal()) {
-                        if (rowNumber > Integer.MAX_VALUE) {
-                            throw new TeiidRuntimeException(new TeiidProcessingException(QueryPlugin.Event.TEIID31174, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31174)));
-                        }
-                        tuple.add((int)rowNumber);
-                        continue;
-                    }
-
-                    if (col.getSelector() != null) {
-                        vals = this.parentLines.get(col.getSelector());
-                        index = col.getPosition() - 1;
-                    } else if (nameIndexes != null) {
-                        Integer headerIndex = nameIndexes.get(col.getName());
-                        if (headerIndex != null) {
-                            index = headerIndex;
-                        } else {
-                            missing = true;
-                        }
-                    }
-                    if (vals == null || index >= vals.size() || missing) {
-                        //throw new TeiidProcessingException(QueryPlugin.Util.getString("TextTableNode.no_value", col.getName(), textLine, systemId)); //$NON-NLS-1$
-                        tuple.add(null);
-                        continue;
-                    }
-                    val = vals.get(index);
-                    try {
-                        tuple.add(DataTypeManager.transformValue(val, table.getColumns().get(output).getSymbol().getType()));
-                    } catch (TransformationException e) {
-                         throw new TeiidProcessingException(QueryPlugin.Event.TEIID30176, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30176, col.getName(), textLine, systemId));
-                    }
-                }
-                addBatchRow(tuple);
+                addBatchRow(buildTuple(vals, r, rowNumber));
 
                 if (rowNumber == limit) {
                     terminateBatches();
@@ -362,77 +943,53 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
         }
     }
 
-    private StringBuilder readLine(int maxLength, boolean exact) throws TeiidProcessingException {
-        if (eof) {
-            return null;
+    private Integer getOrdinal() {
+        if (rowNumber > Integer.MAX_VALUE) {
+            throw new TeiidRuntimeException(new TeiidProcessingException(QueryPlugin.Event.TEIID31174, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31174)));
         }
-        StringBuilder sb = new StringBuilder(exact ? maxLength : (maxLength >> 4));
-        while (true) {
-            char c = readChar();
-            if (c == newLine) {
-                if (sb.length() == 0) {
-                    if (eof) {
-                        return null;
-                    }
-                    if (table.isUsingRowDelimiter()) {
-                        continue; //skip empty lines
-                    }
-                }
-                if (table.isUsingRowDelimiter()) {
-                    return sb;
-                }
-            }
-            sb.append(c);
-            if (exact && sb.length() == maxLength && !table.isUsingRowDelimiter()) {
-                return sb;
-            }
-            if (sb.length() > maxLength) {
-                if (exact) {
-                    sb.deleteCharAt(sb.length() - 1);
-                    //we're not forcing them to fully specify the line, so just drop the rest
-                    //TODO: there should be a max read length
-                    while (readChar() != newLine) {
+        return (int)rowNumber;
+    }
 
-                    }
-                    return sb;
-                }
-                //protects non-fixed width processing from run-away values
-                //TODO it is possible that string values could be desired that are longer than the max and/or returned as clobs
-                 throw new TeiidProcessingException(QueryPlugin.Event.TEIID30178, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30178, textLine+1, systemId, maxLength));
+    /**
+     * @param row the row number, or 0 if ordinal values will be set later
+     */
+    private List<Object> buildTuple(List<String> vals, LineReader r, long row) throws TeiidProcessingException {
+        List<Object> tuple = new ArrayList<Object>(projectionIndexes.length);
+        for (int output : projectionIndexes) {
+            TextColumn col = table.getColumns().get(output);
+            String val = null;
+            int index = output;
+            boolean missing = false;
+
+            if (col.isOrdinal()) {
+                tuple.add(row == 0 ? null : getOrdinal());
+                continue;
             }
-        }
-    }
 
-    private char readChar() throws TeiidProcessingException {
-        try {
-            int c = reader.read();
-            if (cr) {
-                if (c == newLine) {
-                    c = reader.read();
+            if (col.getSelector() != null) {
+                vals = this.parentLines.get(col.getSelector());
+                index = col.getPosition() - 1;
+            } else if (nameIndexes != null) {
+                Integer headerIndex = nameIndexes.get(col.getName());
+                if (headerIndex != null) {
+                    index = headerIndex;
+                } else {
+                    missing = true;
                 }
-                cr = false;
             }
-            switch (c) {
-            case '\r':
-                if (crNewLine) {
-                    cr = true;
-                    textLine++;
-                    return newLine;
-                }
-                break;
-            case -1:
-                eof = true;
-                textLine++;
-                return newLine;
+            if (vals == null || index >= vals.size() || missing) {
+                //throw new TeiidProcessingException(QueryPlugin.Util.getString("TextTableNode.no_value", col.getName(), textLine, systemId)); //$NON-NLS-1$
+                tuple.add(null);
+                continue;
             }
-            if (c == newLine) {
-                textLine++;
-                return newLine;
+            val = vals.get(index);
+            try {
+                tuple.add(DataTypeManager.transformValue(val, table.getColumns().get(output).getSymbol().getType()));
+            } catch (TransformationException e) {
+                 throw new TeiidProcessingException(QueryPlugin.Event.TEIID30176, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30176, col.getName(), r.textLine, systemId));
             }
-            return (char)c;
-        } catch (IOException e) {
-            throw new TeiidProcessingException(QueryPlugin.Event.TEIID30179, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30179, systemId));
         }
+        return tuple;
     }
 
     private void initReader() throws ExpressionEvaluationException,
@@ -453,35 +1010,114 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
                     this.systemId = "Unknown"; //$NON-NLS-1$
                 }
             }
-            Reader r = file.getCharacterStream();
-            if (!(r instanceof BufferedReader)) {
-                reader = new BufferedReader(r);
-            } else {
-                reader = (BufferedReader)r;
-            }
+            lines = new LineReader(file.getCharacterStream());
         } catch (SQLException e) {
              throw new TeiidProcessingException(QueryPlugin.Event.TEIID30180, e);
         }
 
         //process the skip field
-        if (skip <= 0) {
-            return;
-        }
-        while (textLine < skip) {
-            boolean isHeader = textLine == header;
+        while (lines.textLine < skip) {
+            boolean isHeader = lines.textLine == header;
             if (isHeader) {
-                StringBuilder line = readLine(DataTypeManager.MAX_STRING_LENGTH * 16, false);
+                StringBuilder line = lines.readLine(DataTypeManager.MAX_STRING_LENGTH * 16, false);
                 if (line == null) { //just return an empty batch
                     reset();
                     return;
                 }
-                processHeader(parseLine(line));
+                processHeader(lines.parseLine(line, null));
             } else {
-                while (readChar() != newLine) {
+                while (lines.readChar() != newLine) {
 
                 }
             }
         }
+
+        neededValues = getNeededValues();
+        initChunks(file);
+    }
+
+    /**
+     * Set up chunked processing if the file and table definition allow for it
+     */
+    private void initChunks(ClobType file) throws TeiidProcessingException {
+        chunkSize = getContext().getOptions().getTextTableChunkSize();
+        if (chunkSize <= 0 || lines.eof || table.getSelector() != null || parentLines != null
+                || !table.isUsingRowDelimiter() || newLine > 0x7f || !(file.getReference() instanceof ClobImpl)) {
+            return;
+        }
+        ClobImpl clob = (ClobImpl)file.getReference();
+        InputStreamFactory isf = null;
+        try {
+            isf = clob.getStreamFactory();
+        } catch (SQLException e) {
+            return;
+        }
+        if (!(isf instanceof FileInputStreamFactory)) {
+            return;
+        }
+        Charset cs = clob.getCharset();
+        if (cs == null) {
+            cs = Streamable.CHARSET;
+        }
+        //the line terminator byte must not appear within other characters
+        if (!cs.name().equals("UTF-8") && !cs.name().equals("US-ASCII") && !cs.name().equals("ISO-8859-1")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            return;
+        }
+        File f = ((FileInputStreamFactory)isf).getFile();
+        if (f.length() < 2L * chunkSize) {
+            return;
+        }
+        try {
+            chunkScanner = new RandomAccessFile(f, "r"); //$NON-NLS-1$
+            chunkOffset = skipLines(lines.textLine);
+        } catch (IOException e) {
+            throw new TeiidProcessingException(QueryPlugin.Event.TEIID30179, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30179, systemId));
+        }
+        chunkFile = f;
+        chunkCharset = cs;
+        chunks = new ArrayDeque<Chunk>();
+    }
+
+    /**
+     * @return the byte position after the given number of lines
+     */
+    private long skipLines(int count) throws IOException {
+        byte[] bytes = new byte[1 << 13];
+        long pos = 0;
+        int line = 0;
+        boolean wasCr = false;
+        while (line < count) {
+            int read = chunkScanner.read(bytes);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = bytes[i];
+                if (wasCr) {
+                    wasCr = false;
+                    if (b == newLine) {
+                        continue;
+                    }
+                }
+                if (line == count) {
+                    return pos + i;
+                }
+                if (crNewLine && b == '\r') {
+                    wasCr = true;
+                    line++;
+                } else if (b == newLine) {
+                    line++;
+                }
+            }
+            pos += read;
+        }
+        if (wasCr) {
+            //check for the \n of a \r\n terminator
+            if (chunkScanner.read() == newLine) {
+                pos++;
+            }
+        }
+        return pos;
     }
 
     private void processHeader(List<String> line) {
@@ -509,94 +1145,6 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
         }
     }
 
-    private List<String> parseLine(StringBuilder line) throws TeiidProcessingException {
-        if (table.isFixedWidth()) {
-            return parseFixedWidth(line);
-        }
-        return parseDelimitedLine(line);
-    }
-
-    private List<String> parseDelimitedLine(StringBuilder line) throws TeiidProcessingException {
-        ArrayList<String> result = new ArrayList<String>();
-        StringBuilder builder = new StringBuilder();
-        boolean escaped = false;
-        boolean wasQualified = false;
-        boolean qualified = false;
-        while (true) {
-            if (line == null) {
-                if (escaped) {
-                    //allow for escaped new lines
-                    if (cr) {
-                        builder.append('\r');
-                    }
-                    builder.append(newLine);
-                    escaped = false;
-                    line = readLine(lineWidth, false);
-                    continue;
-                }
-                if (!qualified) {
-                    //close the last entry
-                    addValue(result, wasQualified || noTrim, builder.toString());
-                    return result;
-                }
-                line = readLine(lineWidth, false);
-                if (line == null) {
-                     throw new TeiidProcessingException(QueryPlugin.Event.TEIID30182, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30182, systemId));
-                }
-            }
-            for (int i = 0; i < line.length(); i++) {
-                char chr = line.charAt(i);
-                if (chr == delimiter) {
-                    if (escaped || qualified) {
-                        builder.append(chr);
-                        escaped = false;
-                    } else {
-                        addValue(result, wasQualified || noTrim, builder.toString());
-                        wasQualified = false;
-                        builder = new StringBuilder();  //next entry
-                    }
-                } else if (chr == quote) {
-                    if (noQuote) {     //it's the escape char
-                        if (escaped) {
-                            builder.append(quote);
-                        }
-                        escaped = !escaped;
-                    } else {
-                        if (qualified) {
-                            qualified = false;
-                        } else {
-                            if (wasQualified) {
-                                qualified = true;
-                                builder.append(chr);
-                            } else {
-                                if (builder.toString().trim().length() != 0) {
-                                     throw new TeiidProcessingException(QueryPlugin.Event.TEIID30183, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30183, textLine, systemId));
-                                }
-                                qualified = true;
-                                builder = new StringBuilder(); //start the entry over
-                                wasQualified = true;
-                            }
-                        }
-                    }
-                } else {
-                    if (escaped) {
-                        //don't understand other escape sequences yet
-                         throw new TeiidProcessingException(QueryPlugin.Event.TEIID30184, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30184, chr, textLine, systemId));
-                    }
-                    if (wasQualified && !qualified) {
-                        if (!Character.isWhitespace(chr)) {
-                             throw new TeiidProcessingException(QueryPlugin.Event.TEIID30183, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30183, textLine, systemId));
-                        }
-                        //else just ignore
-                    } else {
-                        builder.append(chr);
-                    }
-                }
-            }
-            line = null;
-        }
-    }
-
     private void addValue(ArrayList<String> result, boolean wasQualified, String val) {
         if (!wasQualified) {
             val = val.trim();
@@ -607,21 +1155,61 @@ public class TextTableNode extends SubqueryAwareRelationalNode {
         result.add(val);
     }
 
-    private List<String> parseFixedWidth(StringBuilder line) {
+    private List<String> parseFixedWidth(StringBuilder line, boolean[] needed) {
         ArrayList<String> result = new ArrayList<String>();
         int beginIndex = 0;
         for (TextColumn col : table.getColumns()) {
             if (beginIndex >= line.length()) {
                 result.add(null);
             } else {
-                String val = new String(line.substring(beginIndex, Math.min(line.length(), beginIndex + col.getWidth())));
-                addValue(result, col.isNoTrim(), val);
+                if (isNeeded(needed, result.size())) {
+                    String val = line.substring(beginIndex, Math.min(line.length(), beginIndex + col.getWidth()));
+                    addValue(result, col.isNoTrim(), val);
+                } else {
+                    result.add(null);
+                }
                 beginIndex += col.getWidth();
             }
         }
         return result;
     }
 
+    static boolean isNeeded(boolean[] needed, int index) {
+        return needed == null || (index < needed.length && needed[index]);
+    }
+
+    /**
+     * Determine which value indexes are used by the projected columns
+     * @return the needed indexes or null if all values should be materialized
+     */
+    private boolean[] getNeededValues() {
+        if (table.getSelector() != null || parentLines != null) {
+            return null;
+        }
+        List<Integer> indexes = new ArrayList<Integer>(projectionIndexes.length);
+        int max = -1;
+        for (int output : projectionIndexes) {
+            TextColumn col = table.getColumns().get(output);
+            if (col.isOrdinal()) {
+                continue;
+            }
+            Integer index = output;
+            if (nameIndexes != null) {
+                index = nameIndexes.get(col.getName());
+                if (index == null) {
+                    continue;
+                }
+            }
+            indexes.add(index);
+            max = Math.max(max, index);
+        }
+        boolean[] needed = new boolean[max + 1];
+        for (Integer index : indexes) {
+            needed[index] = true;
+        }
+        return needed;
+    }
+
     @Override
     public Collection<? extends LanguageObject> getObjects() {
         return Arrays.asList(this.table.getFile());
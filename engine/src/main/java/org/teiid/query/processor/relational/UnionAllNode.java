@@ -18,7 +18,10 @@
 
 package org.teiid.query.processor.relational;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import org.teiid.common.buffer.BlockedException;
 import org.teiid.common.buffer.BufferManager;
@@ -27,6 +30,8 @@ import org.teiid.common.buffer.TupleBatch;
 import org.teiid.common.buffer.impl.BufferManagerImpl;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
+import org.teiid.core.TeiidRuntimeException;
+import org.teiid.dqp.internal.process.RequestWorkItem;
 import org.teiid.query.processor.ProcessorDataManager;
 import org.teiid.query.util.CommandContext;
 
@@ -34,6 +39,111 @@ import org.teiid.query.util.CommandContext;
 public class UnionAllNode extends RelationalNode {
 
     private static final int SMALL_LIMIT = 10;
+    private static final int BRANCH_QUEUE_BATCHES = 2;
+
+    private enum BranchState {
+        IDLE,
+        QUEUED,
+        RUNNING
+    }
+
+    /**
+     * A child evaluated by a separate worker into a bounded batch queue.
+     * The child subtree uses its own {@link CommandContext} so that it does not
+     * share the per context state of the parent plan across threads.
+     * <br>
+     * All state is guarded by the {@link UnionAllNode} lock.
+     */
+    private class Branch implements Runnable {
+        RelationalNode child;
+        CommandContext context;
+        //the generation of the node when this branch was created, a branch from a prior generation is stale
+        final int branchGeneration;
+        ArrayDeque<TupleBatch> batches = new ArrayDeque<TupleBatch>(BRANCH_QUEUE_BATCHES);
+        BranchState state = BranchState.IDLE;
+        int startEpoch;
+        boolean done;
+        boolean finished;
+
+        Branch(RelationalNode child, CommandContext context) {
+            this.child = child;
+            this.context = context;
+            this.branchGeneration = generation;
+        }
+
+        private boolean isClosed() {
+            return branchGeneration != generation;
+        }
+
+        @Override
+        public void run() {
+            synchronized (UnionAllNode.this) {
+                if (isClosed()) {
+                    //the node was closed or reset, the active count no longer includes this branch
+                    return;
+                }
+                state = BranchState.RUNNING;
+            }
+            boolean blocked = false;
+            Throwable failure = null;
+            CommandContext.pushThreadLocalContext(context);
+            try {
+                while (true) {
+                    synchronized (UnionAllNode.this) {
+                        if (isClosed() || batches.size() >= BRANCH_QUEUE_BATCHES) {
+                            break;
+                        }
+                    }
+                    TupleBatch batch = child.nextBatch();
+                    synchronized (UnionAllNode.this) {
+                        batches.add(batch);
+                        if (batch.getTerminationFlag()) {
+                            done = true;
+                            break;
+                        }
+                    }
+                }
+            } catch (BlockedException e) {
+                blocked = true;
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                CommandContext.popThreadLocalContext();
+            }
+            synchronized (UnionAllNode.this) {
+                if (isClosed()) {
+                    state = BranchState.IDLE;
+                    UnionAllNode.this.notifyAll();
+                    return;
+                }
+                if (failure != null && branchFailure == null) {
+                    branchFailure = failure;
+                }
+                if (blocked) {
+                    if (startEpoch == epoch) {
+                        //the source will notify the work item when more results are available
+                        stopped(this);
+                        return;
+                    }
+                    //the work item ran while this branch was active and may have missed a notification
+                    startEpoch = epoch;
+                    state = BranchState.QUEUED;
+                } else {
+                    stopped(this);
+                    blocked = false;
+                }
+            }
+            if (blocked) {
+                context.executeConcurrent(this);
+                return;
+            }
+            RequestWorkItem workItem = getContext().getWorkItem();
+            if (workItem != null) {
+                workItem.moreWork();
+            }
+        }
+    }
+
     private boolean[] sourceDone;
     private boolean[] sourceOpen;
 
@@ -41,6 +151,14 @@ public class UnionAllNode extends RelationalNode {
     private int reserved;
     private int schemaSize;
 
+    //parallel branch state
+    private Branch[] branches;
+    private int activeBranches;
+    private int epoch;
+    //incremented on close so that queued branches do not use a closed or reopened child
+    private int generation;
+    private Throwable branchFailure;
+
     public UnionAllNode(int nodeID) {
         super(nodeID);
     }
@@ -51,6 +169,10 @@ public class UnionAllNode extends RelationalNode {
         sourceDone = null;
         sourceOpen = null;
         outputRow = 1;
+        branches = null;
+        activeBranches = 0;
+        epoch = 0;
+        branchFailure = null;
     }
 
     @Override
@@ -77,6 +199,24 @@ public class UnionAllNode extends RelationalNode {
         // Initialize done flags
         sourceDone = new boolean[getChildren().length];
 
+        if (useParallelBranches()) {
+            RelationalNode[] children = this.getChildren();
+            branches = new Branch[this.getChildCount()];
+            synchronized (this) {
+                generation++;
+            }
+            for (int i = 0; i < branches.length; i++) {
+                CommandContext branchContext = getContext().clone();
+                RelationalPlan.connectExternal(children[i], branchContext, getDataManager(), getBufferManager());
+                branches[i] = new Branch(children[i], branchContext);
+            }
+            if (reserved == 0) {
+                reserved = getBufferManager().reserveBuffers(getChildCount() * schemaSize * BRANCH_QUEUE_BATCHES, BufferReserveMode.FORCE);
+            }
+            super.open();
+            return;
+        }
+
         // Detect if we should be more conservative than the default strategy of opening all children
         RelationalNode parent = this.getParent();
         int rowLimit = -1;
@@ -144,6 +284,10 @@ public class UnionAllNode extends RelationalNode {
     public TupleBatch nextBatchDirectInternal()
         throws BlockedException, TeiidComponentException, TeiidProcessingException {
 
+        if (branches != null) {
+            return nextParallelBatch();
+        }
+
         // Walk through all children and for each one that isn't done, try to retrieve a batch
         // When all sources are done, set the termination flag on that batch
 
@@ -236,14 +380,148 @@ public class UnionAllNode extends RelationalNode {
         return outputBatch;
     }
 
+    /**
+     * Branches are only evaluated by separate workers when enabled and at least one
+     * child performs engine work, since source queries are already executed asynchronously.
+     */
+    private boolean useParallelBranches() {
+        CommandContext context = getContext();
+        if (!context.getOptions().isParallelUnionBranches() || context.isNonBlocking() || getChildCount() < 2) {
+            return false;
+        }
+        RelationalNode[] children = getChildren();
+        for (int i = 0; i < getChildCount(); i++) {
+            if (!(children[i] instanceof AccessNode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TupleBatch nextParallelBatch() throws BlockedException, TeiidComponentException, TeiidProcessingException {
+        TupleBatch batch = null;
+        boolean finished = true;
+        List<Branch> toStart = null;
+        synchronized (this) {
+            epoch++;
+            if (branchFailure != null) {
+                throwFailure(branchFailure);
+            }
+            int maxActive = Math.max(1, getContext().getUserRequestSourceConcurrency());
+            for (Branch branch : branches) {
+                if (branch.finished) {
+                    continue;
+                }
+                if (batch == null && !branch.batches.isEmpty()) {
+                    batch = branch.batches.poll();
+                    if (batch.getTerminationFlag()) {
+                        branch.finished = true;
+                        if (reserved > 0) {
+                            int toRelease = Math.min(reserved, schemaSize * BRANCH_QUEUE_BATCHES);
+                            getBufferManager().releaseBuffers(toRelease);
+                            reserved -= toRelease;
+                        }
+                        continue;
+                    }
+                }
+                finished = false;
+                if (branch.state == BranchState.IDLE && !branch.done
+                        && branch.batches.size() < BRANCH_QUEUE_BATCHES && activeBranches < maxActive) {
+                    branch.state = BranchState.QUEUED;
+                    branch.startEpoch = epoch;
+                    activeBranches++;
+                    if (toStart == null) {
+                        toStart = new ArrayList<Branch>();
+                    }
+                    toStart.add(branch);
+                }
+            }
+        }
+        if (toStart != null) {
+            for (Branch branch : toStart) {
+                getContext().executeConcurrent(branch);
+            }
+        }
+        if (batch != null) {
+            TupleBatch outputBatch = new TupleBatch(outputRow, batch.getTuples());
+            outputBatch.setTerminationFlag(finished);
+            outputRow += outputBatch.getRowCount();
+            return outputBatch;
+        }
+        if (finished) {
+            TupleBatch outputBatch = new TupleBatch(outputRow, Collections.EMPTY_LIST);
+            outputBatch.setTerminationFlag(true);
+            return outputBatch;
+        }
+        if (getContext().getWorkItem() == null) {
+            //this is for compatibility with engine tests that are below the level of using the work item
+            synchronized (this) {
+                while (activeBranches > 0) {
+                    try {
+                        this.wait();
+                    } catch (InterruptedException e) {
+                        throw new TeiidRuntimeException(e);
+                    }
+                }
+            }
+        }
+        throw BlockedException.block(getContext().getRequestId(), "Blocking on union branches.", getID()); //$NON-NLS-1$
+    }
+
+    private void stopped(Branch branch) {
+        branch.state = BranchState.IDLE;
+        activeBranches--;
+        this.notifyAll();
+    }
+
+    private static void throwFailure(Throwable t) throws TeiidComponentException, TeiidProcessingException {
+        if (t instanceof TeiidComponentException) {
+            throw (TeiidComponentException)t;
+        }
+        if (t instanceof TeiidProcessingException) {
+            throw (TeiidProcessingException)t;
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException)t;
+        }
+        if (t instanceof Error) {
+            throw (Error)t;
+        }
+        throw new TeiidRuntimeException(t);
+    }
+
     @Override
     public void closeDirect() {
+        if (branches != null) {
+            //stop the branches before the children are closed
+            //queued branches will not touch their child once closed
+            synchronized (this) {
+                generation++;
+                while (isBranchRunning()) {
+                    try {
+                        this.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
         if (reserved > 0) {
             getBufferManager().releaseBuffers(reserved);
             reserved = 0;
         }
     }
 
+    private boolean isBranchRunning() {
+        for (Branch branch : branches) {
+            if (branch.state == BranchState.RUNNING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public Object clone(){
         UnionAllNode clonedNode = new UnionAllNode(super.getID());
         super.copyTo(clonedNode);
@@ -0,0 +1,376 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.query.sql.lang;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.teiid.api.exception.query.ExpressionEvaluationException;
+import org.teiid.query.QueryPlugin;
+
+/**
+ * A compiled LIKE pattern that matches without the use of regular expressions.
+ * <br>
+ * The pattern is split on the unescaped {@link MatchCriteria#WILDCARD_CHAR}s into segments.
+ * The first segment must match at the start of the value, the last at the end, and
+ * the others are found left most in order.  The common exact, prefix, suffix, and contains
+ * shapes have specialized implementations.
+ * <br>
+ * Instances are immutable and may be shared between threads.
+ */
+public abstract class LikeMatcher {
+
+    private static final class Segment {
+        final char[] chars;
+        //positions holding the single character match
+        final boolean[] any;
+        final boolean hasAny;
+        final int[] skip;
+
+        Segment(char[] chars, boolean[] any, boolean hasAny) {
+            this.chars = chars;
+            this.any = any;
+            this.hasAny = hasAny;
+            if (!hasAny && chars.length > 1) {
+                //horspool bad character shifts by the low byte, the minimum shift is retained for collisions
+                skip = new int[256];
+                for (int i = 0; i < skip.length; i++) {
+                    skip[i] = chars.length;
+                }
+                for (int i = 0; i < chars.length - 1; i++) {
+                    skip[chars[i] & 0xff] = chars.length - 1 - i;
+                }
+            } else {
+                skip = null;
+            }
+        }
+
+        /**
+         * @return the end index of the match at start or -1
+         */
+        int matchAt(CharSequence value, int start) {
+            int pos = start;
+            int length = value.length();
+            for (int i = 0; i < chars.length; i++) {
+                if (pos >= length) {
+                    return -1;
+                }
+                char c = value.charAt(pos++);
+                if (any[i]) {
+                    //match a code point as the regex would
+                    if (Character.isHighSurrogate(c) && pos < length && Character.isLowSurrogate(value.charAt(pos))) {
+                        pos++;
+                    }
+                } else if (c != chars[i]) {
+                    return -1;
+                }
+            }
+            return pos;
+        }
+
+        /**
+         * Find the left most match at or after start
+         * @return the end index of the match or -1
+         */
+        int find(CharSequence value, int start) {
+            if (skip == null) {
+                for (int i = start; i <= value.length() - chars.length; i++) {
+                    int end = matchAt(value, i);
+                    if (end >= 0) {
+                        return end;
+                    }
+                }
+                return -1;
+            }
+            int last = chars.length - 1;
+            int length = value.length();
+            for (int i = start; i <= length - chars.length;) {
+                int j = last;
+                while (value.charAt(i + j) == chars[j]) {
+                    if (j-- == 0) {
+                        return i + chars.length;
+                    }
+                }
+                i += skip[value.charAt(i + last) & 0xff];
+            }
+            return -1;
+        }
+
+        /**
+         * @return true if a match at or after start ends at the end of the value
+         */
+        boolean matchesEnd(CharSequence value, int start) {
+            int length = value.length();
+            if (!hasAny) {
+                int begin = length - chars.length;
+                return begin >= start && matchAt(value, begin) == length;
+            }
+            //single character matches may consume a surrogate pair
+            for (int i = Math.max(start, length - 2 * chars.length); i <= length - chars.length; i++) {
+                if (matchAt(value, i) == length) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String getLiteral() {
+            return new String(chars);
+        }
+    }
+
+    private static final class GeneralMatcher extends LikeMatcher {
+        private Segment[] segments;
+
+        GeneralMatcher(String pattern, char escape, String prefix, Segment[] segments) {
+            super(pattern, escape, prefix);
+            this.segments = segments;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            Segment first = segments[0];
+            int pos = first.matchAt(value, 0);
+            if (pos < 0) {
+                return false;
+            }
+            if (segments.length == 1) {
+                return pos == value.length();
+            }
+            int last = segments.length - 1;
+            for (int i = 1; i < last; i++) {
+                pos = segments[i].find(value, pos);
+                if (pos < 0) {
+                    return false;
+                }
+            }
+            return segments[last].matchesEnd(value, pos);
+        }
+    }
+
+    private static final class ExactMatcher extends LikeMatcher {
+        private String literal;
+
+        ExactMatcher(String pattern, char escape, String prefix, String literal) {
+            super(pattern, escape, prefix);
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            if (value.length() != literal.length()) {
+                return false;
+            }
+            if (value instanceof String) {
+                return literal.equals(value);
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (value.charAt(i) != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class PrefixMatcher extends LikeMatcher {
+        private String literal;
+
+        PrefixMatcher(String pattern, char escape, String prefix, String literal) {
+            super(pattern, escape, prefix);
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            if (value instanceof String) {
+                return ((String)value).startsWith(literal);
+            }
+            if (value.length() < literal.length()) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (value.charAt(i) != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class SuffixMatcher extends LikeMatcher {
+        private String literal;
+
+        SuffixMatcher(String pattern, char escape, String prefix, String literal) {
+            super(pattern, escape, prefix);
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            if (value instanceof String) {
+                return ((String)value).endsWith(literal);
+            }
+            int offset = value.length() - literal.length();
+            if (offset < 0) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (value.charAt(offset + i) != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class ContainsMatcher extends LikeMatcher {
+        private Segment segment;
+
+        ContainsMatcher(String pattern, char escape, String prefix, Segment segment) {
+            super(pattern, escape, prefix);
+            this.segment = segment;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            return segment.find(value, 0) >= 0;
+        }
+    }
+
+    /**
+     * Compile the LIKE pattern
+     * @param pattern
+     * @param escape the escape char or {@link MatchCriteria#NULL_ESCAPE_CHAR}
+     * @throws ExpressionEvaluationException if the pattern has an invalid escape sequence
+     */
+    public static LikeMatcher compile(String pattern, char escape) throws ExpressionEvaluationException {
+        List<Segment> segments = new ArrayList<Segment>();
+        StringBuilder chars = new StringBuilder();
+        List<Integer> anyPositions = new ArrayList<Integer>();
+        String prefix = null;
+        boolean escaped = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char character = pattern.charAt(i);
+            if (character == escape && character != MatchCriteria.NULL_ESCAPE_CHAR) {
+                if (escaped) {
+                    chars.append(character);
+                }
+                escaped = !escaped;
+                continue;
+            }
+            if (escaped) {
+                if (character != MatchCriteria.WILDCARD_CHAR && character != MatchCriteria.MATCH_CHAR) {
+                    throw invalidEscape(pattern, escape);
+                }
+                chars.append(character);
+                escaped = false;
+                continue;
+            }
+            if (character == MatchCriteria.WILDCARD_CHAR) {
+                if (prefix == null) {
+                    prefix = chars.toString();
+                }
+                if (segments.isEmpty() || chars.length() > 0) {
+                    //empty middle segments are redundant
+                    segments.add(createSegment(chars, anyPositions));
+                }
+                chars.setLength(0);
+                anyPositions.clear();
+                continue;
+            }
+            if (character == MatchCriteria.MATCH_CHAR) {
+                if (prefix == null) {
+                    prefix = chars.toString();
+                }
+                anyPositions.add(chars.length());
+            }
+            chars.append(character);
+        }
+        if (escaped) {
+            throw invalidEscape(pattern, escape);
+        }
+        segments.add(createSegment(chars, anyPositions));
+        if (prefix == null) {
+            prefix = chars.toString();
+        }
+        if (segments.size() == 1 && !segments.get(0).hasAny) {
+            return new ExactMatcher(pattern, escape, prefix, segments.get(0).getLiteral());
+        }
+        if (segments.size() == 2) {
+            Segment first = segments.get(0);
+            Segment last = segments.get(1);
+            if (last.chars.length == 0 && !first.hasAny) {
+                return new PrefixMatcher(pattern, escape, prefix, first.getLiteral());
+            }
+            if (first.chars.length == 0 && !last.hasAny) {
+                return new SuffixMatcher(pattern, escape, prefix, last.getLiteral());
+            }
+        }
+        if (segments.size() == 3 && segments.get(0).chars.length == 0
+                && segments.get(2).chars.length == 0 && !segments.get(1).hasAny) {
+            return new ContainsMatcher(pattern, escape, prefix, segments.get(1));
+        }
+        return new GeneralMatcher(pattern, escape, prefix, segments.toArray(new Segment[segments.size()]));
+    }
+
+    private static Segment createSegment(StringBuilder chars, List<Integer> anyPositions) {
+        char[] result = new char[chars.length()];
+        chars.getChars(0, result.length, result, 0);
+        boolean[] any = new boolean[result.length];
+        for (Integer position : anyPositions) {
+            any[position] = true;
+        }
+        return new Segment(result, any, !anyPositions.isEmpty());
+    }
+
+    private static ExpressionEvaluationException invalidEscape(String pattern, char escape) {
+        return new ExpressionEvaluationException(QueryPlugin.Event.TEIID30449, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30449, new Object[] {pattern, new Character(escape)}));
+    }
+
+    private String pattern;
+    private char escape;
+    private String prefix;
+
+    protected LikeMatcher(String pattern, char escape, String prefix) {
+        this.pattern = pattern;
+        this.escape = escape;
+        this.prefix = prefix;
+    }
+
+    /**
+     * @return true if the value matches the pattern
+     */
+    public abstract boolean matches(CharSequence value);
+
+    /**
+     * @return true if this matcher was compiled from the given pattern and escape
+     */
+    public boolean isFor(String otherPattern, char otherEscape) {
+        return this.escape == otherEscape && this.pattern.equals(otherPattern);
+    }
+
+    /**
+     * @return the literal characters that all matching values must start with
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+}
@@ -68,6 +68,9 @@ public class MatchCriteria extends PredicateCriteria implements Negatable {
     private boolean negated;
     private MatchMode mode = MatchMode.LIKE;
 
+    /** The last compiled LIKE pattern */
+    private volatile LikeMatcher likeMatcher;
+
     /**
      * Constructs a default instance of this class.
      */
@@ -234,9 +237,25 @@ public class MatchCriteria extends PredicateCriteria implements Negatable {
         MatchCriteria criteriaCopy = new MatchCriteria(leftCopy, rightCopy, getEscapeChar());
         criteriaCopy.setNegated(isNegated());
         criteriaCopy.mode = mode;
+        criteriaCopy.likeMatcher = likeMatcher;
         return criteriaCopy;
     }
 
+    /**
+     * Get the {@link LikeMatcher} for the LIKE pattern using this criteria's escape char.
+     * The last matcher is retained, so a constant pattern is compiled only once.
+     * @param pattern
+     * @throws ExpressionEvaluationException if the pattern is not valid
+     */
+    public LikeMatcher getLikeMatcher(String pattern) throws ExpressionEvaluationException {
+        LikeMatcher result = likeMatcher;
+        if (result == null || !result.isFor(pattern, escapeChar)) {
+            result = LikeMatcher.compile(pattern, escapeChar);
+            likeMatcher = result;
+        }
+        return result;
+    }
+
     private final static LRUCache<List<?>, Pattern> patternCache = new LRUCache<List<?>, Pattern>(100);
 
     public static Pattern getPattern(String newPattern, String originalPattern, int flags) throws ExpressionEvaluationException {
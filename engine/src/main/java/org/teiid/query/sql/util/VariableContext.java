@@ -88,8 +88,9 @@ public class VariableContext {
      * @return The value of the given variable
      */
     public Object getValue(Object variable) {
-        if (variableMap.containsKey(variable)) {
-            return variableMap.get(variable);
+        Object value = variableMap.get(variable);
+        if (value != null || variableMap.containsKey(variable)) {
+            return value;
         }
         // if the variable is not present in the current variablecontext
         // look up the parent context
@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import org.teiid.api.exception.query.ExpressionEvaluationException;
 import org.teiid.core.types.ArrayImpl;
 import org.teiid.language.Like.MatchMode;
 import org.teiid.language.SortSpecification.NullOrdering;
@@ -71,6 +72,13 @@ public class BaseIndexInfo<T extends SearchableTable> {
         }
     }
 
+    /**
+     * @return true if the criteria restricts the key values that need to be read
+     */
+    boolean isKeyRestricted() {
+        return !valueSet.isEmpty() || lower != null || upper != null;
+    }
+
     private void processCriteria(Criteria condition, boolean primary) {
         List<Criteria> crits = Criteria.separateCriteriaByAnd(condition);
         if (!primary) {
@@ -123,46 +131,17 @@ public class BaseIndexInfo<T extends SearchableTable> {
                     }
                     Constant value = (Constant)matchCriteria.getRightExpression();
                     String pattern = (String)value.getValue();
-                    boolean escaped = false;
-                    char escapeChar = matchCriteria.getEscapeChar();
-                    if (matchCriteria.getMode() == MatchMode.REGEX) {
-                        escapeChar = '\\';
-                    }
                     StringBuilder prefix = new StringBuilder();
-
-                    if (pattern.length() > 0 && matchCriteria.getMode() == MatchMode.REGEX && pattern.charAt(0) != '^') {
-                        //make the assumption that we require an anchor
-                        continue;
-                    }
-
-                    for (int j = matchCriteria.getMode() == MatchMode.REGEX?1:0; j < pattern.length(); j++) {
-                        char character = pattern.charAt(j);
-
-                        if (character == escapeChar && character != MatchCriteria.NULL_ESCAPE_CHAR) {
-                            if (escaped) {
-                                prefix.append(character);
-                                escaped = false;
-                            } else {
-                                escaped = true;
-                            }
+                    if (matchCriteria.getMode() == MatchMode.LIKE) {
+                        try {
+                            prefix.append(matchCriteria.getLikeMatcher(pattern).getPrefix());
+                        } catch (ExpressionEvaluationException e) {
+                            //the error will be reported by the evaluation
+                            critIter.remove();
                             continue;
                         }
-                        if (!escaped) {
-                            if (matchCriteria.getMode() == MatchMode.LIKE) {
-                                if (character == MatchCriteria.WILDCARD_CHAR || character == MatchCriteria.MATCH_CHAR) {
-                                    break;
-                                }
-                            } else {
-                                int index = Arrays.binarySearch(Evaluator.REGEX_RESERVED, character);
-                                if (index >= 0 && pattern.length() > 0) {
-                                    getRegexPrefix(pattern, escapeChar, prefix, j, character);
-                                    break;
-                                }
-                            }
-                        } else {
-                            escaped = false;
-                        }
-                        prefix.append(character);
+                    } else if (!getRegexPrefix(matchCriteria, pattern, prefix)) {
+                        continue;
                     }
                     if (prefix.length() > 0) {
                         this.addCondition(i, matchResult, new Constant(prefix.toString()), CompareCriteria.GE);
@@ -192,6 +171,48 @@ public class BaseIndexInfo<T extends SearchableTable> {
         }
     }
 
+    /**
+     * Get the literal prefix of a regular expression
+     * @return false if the expression cannot be used
+     */
+    private boolean getRegexPrefix(MatchCriteria matchCriteria, String pattern, StringBuilder prefix) {
+        boolean escaped = false;
+        char escapeChar = matchCriteria.getEscapeChar();
+        if (matchCriteria.getMode() == MatchMode.REGEX) {
+            escapeChar = '\\';
+        }
+
+        if (pattern.length() > 0 && matchCriteria.getMode() == MatchMode.REGEX && pattern.charAt(0) != '^') {
+            //make the assumption that we require an anchor
+            return false;
+        }
+
+        for (int j = matchCriteria.getMode() == MatchMode.REGEX?1:0; j < pattern.length(); j++) {
+            char character = pattern.charAt(j);
+
+            if (character == escapeChar && character != MatchCriteria.NULL_ESCAPE_CHAR) {
+                if (escaped) {
+                    prefix.append(character);
+                    escaped = false;
+                } else {
+                    escaped = true;
+                }
+                continue;
+            }
+            if (!escaped) {
+                int index = Arrays.binarySearch(Evaluator.REGEX_RESERVED, character);
+                if (index >= 0 && pattern.length() > 0) {
+                    getRegexPrefix(pattern, escapeChar, prefix, j, character);
+                    break;
+                }
+            } else {
+                escaped = false;
+            }
+            prefix.append(character);
+        }
+        return true;
+    }
+
     private void getRegexPrefix(String pattern, char escapeChar,
             StringBuilder prefix, int j, char character) {
         boolean escaped = false;
@@ -18,6 +18,11 @@
 
 package org.teiid.query.tempdata;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -25,6 +30,9 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.lang.ref.WeakReference;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -44,6 +52,7 @@ import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.TeiidRuntimeException;
 import org.teiid.core.types.DataTypeManager;
+import org.teiid.core.util.PropertiesUtils;
 import org.teiid.dqp.internal.process.RequestWorkItem;
 import org.teiid.dqp.message.RequestID;
 import org.teiid.language.SQLConstants;
@@ -82,6 +91,9 @@ import org.teiid.query.tempdata.TempTableStore.TransactionMode;
 public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<String> {
 
     private static final String TEIID_FBI = "teiid:fbi"; //$NON-NLS-1$
+    private static final String PERSISTENCE_DIRECTORY = PropertiesUtils.getHierarchicalProperty("org.teiid.matviewPersistenceDirectory", null, String.class); //$NON-NLS-1$
+    private static final String SNAPSHOT_SUFFIX = ".snapshot"; //$NON-NLS-1$
+    private static final int SNAPSHOT_VERSION = 1;
 
     public enum MatState {
         NEEDS_LOADING,
@@ -97,6 +109,8 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
         private long ttl = -1;
         private boolean valid;
         private boolean asynch; //sub state of loading
+        private boolean stale; //restored from disk, but not yet refreshed
+        private Thread restoring; //the thread restoring from disk
         private Map<RequestID, WeakReference<RequestWorkItem>> waiters = new HashMap<RequestID, WeakReference<RequestWorkItem>>(2);
 
         protected MatTableInfo() {}
@@ -147,6 +161,9 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
             }
             this.state = state;
             this.updateTime = System.currentTimeMillis();
+            if (state == MatState.LOADED) {
+                this.stale = false;
+            }
             for (WeakReference<RequestWorkItem> request : waiters.values()) {
                 RequestWorkItem workItem = request.get();
                 if (workItem != null) {
@@ -174,7 +191,14 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
         }
 
         public synchronized boolean isUpToDate() {
-            return isValid() && (ttl < 0 || System.currentTimeMillis() - updateTime - ttl <= 0);
+            return isValid() && (!stale || state == MatState.LOADING) && (ttl < 0 || System.currentTimeMillis() - updateTime - ttl <= 0);
+        }
+
+        /**
+         * @return true if the table was restored from disk and has not yet been refreshed
+         */
+        public synchronized boolean isStale() {
+            return stale;
         }
 
         public synchronized boolean isValid() {
@@ -199,6 +223,25 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
             return result;
         }
 
+        private synchronized void restored() {
+            restoring = null;
+            notifyAll();
+        }
+
+        /**
+         * Wait for the restore of this table by another thread to complete
+         */
+        private synchronized void awaitRestore() {
+            while (restoring != null && restoring != Thread.currentThread()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TeiidRuntimeException(e);
+                }
+            }
+        }
+
     }
 
     private ConcurrentHashMap<String, MatTableInfo> matTables = new ConcurrentHashMap<String, MatTableInfo>();
@@ -207,19 +250,51 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
     private QueryMetadataInterface metadata;
     private volatile Serializable localAddress;
     private VDBMetaData vdbMetaData;
+    private volatile File persistenceDirectory;
 
     public GlobalTableStoreImpl(BufferManager bufferManager, VDBMetaData vdbMetaData, QueryMetadataInterface metadata) {
         this.bufferManager = bufferManager;
         this.vdbMetaData = vdbMetaData;
         this.metadata = new TempMetadataAdapter(metadata, new TempMetadataStore());
+        if (PERSISTENCE_DIRECTORY != null && vdbMetaData != null) {
+            this.persistenceDirectory = new File(PERSISTENCE_DIRECTORY, vdbMetaData.getFullName());
+        }
+    }
+
+    /**
+     * Set the directory used to persist loaded tables.  A table found in the
+     * directory is restored on first use and refreshed in the background.
+     * <br>
+     * Tables are not restored at startup.  The restore runs on the thread of the
+     * first query to use the table, and other queries of that table wait for it,
+     * so the first access of a large table is delayed by the time to read it.
+     * @param persistenceDirectory null to disable persistence
+     */
+    public void setPersistenceDirectory(File persistenceDirectory) {
+        this.persistenceDirectory = persistenceDirectory;
     }
 
-    public synchronized MatTableInfo getMatTableInfo(final String tableName) {
+    /**
+     * Get the info for the table, restoring it from the persistence directory on
+     * first use.  Blocks while another thread restores the table.
+     */
+    public MatTableInfo getMatTableInfo(final String tableName) {
         MatTableInfo info = matTables.get(tableName);
         if (info == null) {
-            info = new MatTableInfo();
-            matTables.put(tableName, info);
+            MatTableInfo newInfo = new MatTableInfo();
+            newInfo.restoring = Thread.currentThread();
+            info = matTables.putIfAbsent(tableName, newInfo);
+            if (info == null) {
+                //restore without holding the store lock, so that only users of this table wait
+                try {
+                    restore(tableName, newInfo);
+                } finally {
+                    newInfo.restored();
+                }
+                return newInfo;
+            }
         }
+        info.awaitRestore();
         return info;
     }
 
@@ -425,6 +500,105 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
     public void loaded(String matTableName, TempTable table) {
         swapTempTable(matTableName, table);
         this.getMatTableInfo(matTableName).setState(MatState.LOADED, true);
+        persist(matTableName, table);
+    }
+
+    private File getPersistenceFile(String stateId) throws IOException {
+        File dir = this.persistenceDirectory;
+        if (dir == null) {
+            return null;
+        }
+        return new File(dir, URLEncoder.encode(stateId, "UTF-8") + SNAPSHOT_SUFFIX); //$NON-NLS-1$
+    }
+
+    private static List<String> getColumnTypes(TempTable table) {
+        List<ElementSymbol> columns = table.getColumns();
+        List<String> result = new ArrayList<String>(columns.size());
+        for (ElementSymbol es : columns) {
+            if (DataTypeManager.isLOB(es.getType())) {
+                //lobs are held by reference and cannot be restored
+                return null;
+            }
+            result.add(es.getShortName() + ' ' + DataTypeManager.getDataTypeName(es.getType()));
+        }
+        return result;
+    }
+
+    /**
+     * Write the loaded table to the persistence directory.  The file is written
+     * under a temporary name and moved into place so that a partial write is never
+     * restored.  Row level updates are not written, they are picked up by the
+     * refresh that follows a restore.
+     */
+    private void persist(String stateId, TempTable table) {
+        File file = null;
+        File tempFile = null;
+        try {
+            file = getPersistenceFile(stateId);
+            if (file == null) {
+                return;
+            }
+            List<String> types = getColumnTypes(table);
+            if (types == null || this.tableStore.getTempTable(stateId) == null || !getMatTableInfo(stateId).isValid()) {
+                return;
+            }
+            File dir = file.getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Could not create " + dir); //$NON-NLS-1$
+            }
+            tempFile = File.createTempFile(file.getName(), null, dir);
+            ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            boolean written = false;
+            try {
+                oos.writeInt(SNAPSHOT_VERSION);
+                oos.writeObject(types);
+                written = sendTable(stateId, oos, false);
+            } finally {
+                oos.close();
+            }
+            if (!written) {
+                //invalidated or removed concurrently, leave any prior file in place
+                return;
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tempFile = null;
+            LogManager.logDetail(LogConstants.CTX_MATVIEWS, "persisted table", stateId, "to", file); //$NON-NLS-1$ //$NON-NLS-2$
+        } catch (Exception e) {
+            LogManager.logWarning(LogConstants.CTX_MATVIEWS, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31303, stateId, file));
+        } finally {
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Restore a persisted table.  The table is valid, but stale so that the first
+     * access will trigger a refresh while the restored rows continue to be used.
+     */
+    private void restore(String stateId, MatTableInfo info) {
+        File file = null;
+        try {
+            file = getPersistenceFile(stateId);
+            if (file == null || !file.isFile()) {
+                return;
+            }
+            ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (loadTable(stateId, ois, true)) {
+                    LogManager.logDetail(LogConstants.CTX_MATVIEWS, "restored table", stateId, "from", file); //$NON-NLS-1$ //$NON-NLS-2$
+                    return;
+                }
+                LogManager.logDetail(LogConstants.CTX_MATVIEWS, "discarding persisted table with a different definition", stateId); //$NON-NLS-1$
+            } finally {
+                ois.close();
+            }
+        } catch (Exception e) {
+            LogManager.logWarning(LogConstants.CTX_MATVIEWS, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31304, stateId, file));
+        }
+        if (file != null) {
+            file.delete();
+        }
     }
 
     private void swapTempTable(String tempTableName, TempTable tempTable) {
@@ -551,7 +725,7 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
                 if (tableName == null) {
                     break;
                 }
-                loadTable(tableName, ois);
+                loadTable(tableName, ois, false);
             }
             ois.close();
         } catch (Exception e) {
@@ -572,15 +746,18 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
         }
     }
 
-    private void sendTable(String stateId, ObjectOutputStream oos, boolean writeName)
+    /**
+     * @return true if the table was written
+     */
+    private boolean sendTable(String stateId, ObjectOutputStream oos, boolean writeName)
             throws IOException, TeiidComponentException {
         TempTable tempTable = this.tableStore.getTempTable(stateId);
         if (tempTable == null) {
-            return;
+            return false;
         }
         MatTableInfo info = getMatTableInfo(stateId);
         if (!info.isValid()) {
-            return;
+            return false;
         }
         if (writeName) {
             oos.writeObject(stateId);
@@ -589,13 +766,14 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
         oos.writeObject(info.loadingAddress);
         oos.writeObject(info.state);
         tempTable.writeTo(oos);
+        return true;
     }
 
     @Override
     public void setState(String stateId, InputStream istream) {
         try {
             ObjectInputStream ois = new ObjectInputStream(istream);
-            loadTable(stateId, ois);
+            loadTable(stateId, ois, false);
             ois.close();
         } catch (Exception e) {
             MatTableInfo info = this.getMatTableInfo(stateId);
@@ -606,11 +784,23 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
         }
     }
 
-    private void loadTable(String stateId, ObjectInputStream ois)
+    /**
+     * @param restore true if reading a persisted snapshot, which starts with a
+     * header of the column types and is loaded as stale
+     * @return false if the snapshot does not match the current table definition
+     */
+    private boolean loadTable(String stateId, ObjectInputStream ois, boolean restore)
             throws TeiidComponentException, QueryMetadataException,
             IOException,
             ClassNotFoundException, TeiidProcessingException {
         LogManager.logDetail(LogConstants.CTX_DQP, "loading table from remote stream", stateId); //$NON-NLS-1$
+        List<?> types = null;
+        if (restore) {
+            if (ois.readInt() != SNAPSHOT_VERSION) {
+                return false;
+            }
+            types = (List<?>)ois.readObject();
+        }
         long updateTime = ois.readLong();
         Serializable loadingAddress = (Serializable) ois.readObject();
         MatState state = (MatState)ois.readObject();
@@ -630,14 +820,30 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
             group.setMetadataID(getCodeTableMetadataId(viewName, returnElementName, keyElementName, stateId));
         }
         TempTable tempTable = this.createMatTable(stateId, group);
-        tempTable.readFrom(ois);
+        if (restore && !types.equals(getColumnTypes(tempTable))) {
+            tempTable.remove();
+            return false;
+        }
+        try {
+            tempTable.readFrom(ois);
+        } catch (IOException e) {
+            tempTable.remove();
+            throw e;
+        }
         MatTableInfo info = this.getMatTableInfo(stateId);
         synchronized (info) {
             swapTempTable(stateId, tempTable);
-            info.setState(state, true);
+            if (restore) {
+                info.setState(MatState.NEEDS_LOADING, true);
+                info.stale = true;
+                loadingAddress = null;
+            } else {
+                info.setState(state, true);
+            }
             info.updateTime = updateTime;
             info.loadingAddress = loadingAddress;
         }
+        return true;
     }
 
     @Override
@@ -23,6 +23,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.nio.IntBuffer;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -43,6 +44,7 @@ import org.teiid.core.TeiidException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.TeiidRuntimeException;
 import org.teiid.core.types.DataTypeManager;
+import org.teiid.core.util.PropertiesUtils;
 import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
 import org.teiid.query.QueryPlugin;
@@ -270,6 +272,68 @@ public class TempTable implements Cloneable, SearchableTable {
 
     }
 
+    /**
+     * Produces the keys common to two key sources, both of which must be sorted by the key
+     */
+    private static final class KeyIntersectionTupleSource implements TupleSource {
+        private final TupleSource left;
+        private final TupleSource right;
+        private final Comparator<List<?>> comparator;
+        private List<?> leftTuple;
+        private List<?> rightTuple;
+        private boolean done;
+
+        private KeyIntersectionTupleSource(TupleSource left, TupleSource right, Comparator<List<?>> comparator) {
+            this.left = left;
+            this.right = right;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public List<?> nextTuple() throws TeiidComponentException,
+                TeiidProcessingException {
+            while (!done) {
+                if (leftTuple == null) {
+                    leftTuple = left.nextTuple();
+                    if (leftTuple == null) {
+                        break;
+                    }
+                }
+                if (rightTuple == null) {
+                    rightTuple = right.nextTuple();
+                    if (rightTuple == null) {
+                        break;
+                    }
+                }
+                int compare = comparator.compare(leftTuple, rightTuple);
+                if (compare == 0) {
+                    List<?> result = leftTuple;
+                    leftTuple = null;
+                    rightTuple = null;
+                    return result;
+                }
+                if (compare < 0) {
+                    leftTuple = null;
+                } else {
+                    rightTuple = null;
+                }
+            }
+            //release the remaining side early
+            closeSource();
+            return null;
+        }
+
+        @Override
+        public void closeSource() {
+            if (done) {
+                return;
+            }
+            done = true;
+            left.closeSource();
+            right.closeSource();
+        }
+    }
+
     private abstract class UpdateProcessor {
         private TupleSource ts;
         protected Evaluator eval;
@@ -359,6 +423,11 @@ public class TempTable implements Cloneable, SearchableTable {
 
     }
     private static AtomicLong ID_GENERATOR = new AtomicLong();
+    private static final boolean SNAPSHOT_READS = PropertiesUtils.getHierarchicalProperty("org.teiid.tempTableSnapshotReads", true, Boolean.class); //$NON-NLS-1$
+    /**
+     * The most that the second index may cost relative to the chosen index for their keys to be intersected
+     */
+    private static final int INTERSECTION_COST_RATIO = 4;
 
     private Long id = ID_GENERATOR.getAndIncrement();
     private STree tree;
@@ -369,6 +438,8 @@ public class TempTable implements Cloneable, SearchableTable {
     private TempMetadataID tid;
     private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private boolean updatable = true;
+    //snapshots leave the pages flagged as shared, so they are only used for tables read by many sessions
+    private boolean snapshotReads;
     private LinkedHashMap<List<ElementSymbol>, TempTable> indexTables;
 
     private int keyBatchSize;
@@ -380,6 +451,9 @@ public class TempTable implements Cloneable, SearchableTable {
     private int uniqueColIndex;
 
     private AtomicInteger activeReaders = new AtomicInteger();
+    private AtomicInteger snapshotReaders = new AtomicInteger();
+    private volatile boolean removed;
+    private AtomicBoolean treeRemoved = new AtomicBoolean();
 
     private boolean allowImplicitIndexing;
 
@@ -454,6 +528,8 @@ public class TempTable implements Cloneable, SearchableTable {
             }
             clone.tree = tree.clone();
             clone.activeReaders = new AtomicInteger();
+            clone.snapshotReaders = new AtomicInteger();
+            clone.treeRemoved = new AtomicBoolean();
             return clone;
         } catch (CloneNotSupportedException e) {
              throw new TeiidRuntimeException(e);
@@ -466,6 +542,41 @@ public class TempTable implements Cloneable, SearchableTable {
         return activeReaders;
     }
 
+    /**
+     * Create a read only copy of the table.  The copy shares the tree pages with this table
+     * copy-on-write, so it costs a page reference rather than a row copy and it does not
+     * need to hold the table lock while it is read.
+     */
+    private TempTable snapshot() {
+        lock.readLock().lock();
+        try {
+            snapshotReaders.incrementAndGet();
+            TempTable snapshot = clone();
+            snapshot.setUpdatable(false);
+            snapshot.allowImplicitIndexing = false;
+            return snapshot;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Clear the cloned flags on the tree if no snapshot may still be reading the shared pages
+     */
+    void clearClonedFlags() {
+        //don't wait on the lock, the flags will otherwise be cleared as the pages are modified or by gc
+        if (!lock.writeLock().tryLock()) {
+            return;
+        }
+        try {
+            if (snapshotReaders.get() == 0) {
+                this.tree.clearClonedFlags();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     void addIndex(List<ElementSymbol> indexColumns, boolean unique) throws TeiidComponentException, TeiidProcessingException {
         List<ElementSymbol> keyColumns = columns.subList(0, tree.getKeyLength());
         if (keyColumns.equals(indexColumns) || (indexTables != null && indexTables.containsKey(indexColumns))) {
@@ -494,8 +605,8 @@ public class TempTable implements Cloneable, SearchableTable {
         }
         if (indexTables == null) {
             indexTables = new LinkedHashMap<List<ElementSymbol>, TempTable>();
-            indexTables.put(indexColumns, indexTable);
         }
+        indexTables.put(indexColumns, indexTable);
         indexTable.setUpdatable(this.updatable);
         return indexTable;
     }
@@ -521,15 +632,23 @@ public class TempTable implements Cloneable, SearchableTable {
             orderBy = null;
         }
         IndexInfo primary = new IndexInfo(this, projectedCols, condition, orderBy, true);
+        if (SNAPSHOT_READS && this.snapshotReads && this.updatable && primary.valueSet.size() != 1) {
+            //rather than holding the read lock while the results are copied, read from a snapshot
+            return createSnapshotTupleSource(projectedCols, condition, orderBy);
+        }
         IndexInfo ii = primary;
         if ((indexTables != null || (!this.updatable && allowImplicitIndexing && condition != null && this.getRowCount() > 2*this.getTree().getPageSize(true))) && (condition != null || orderBy != null) && ii.valueSet.size() != 1) {
             LogManager.logDetail(LogConstants.CTX_DQP, "Considering indexes on table", this, "for query", projectedCols, condition, orderBy); //$NON-NLS-1$ //$NON-NLS-2$
             long rowCost = this.tree.getRowCount();
             long bestCost = estimateCost(orderBy, ii, rowCost);
+            List<IndexInfo> candidates = new ArrayList<IndexInfo>();
             if (this.indexTables != null) {
                 for (TempTable table : this.indexTables.values()) {
                     IndexInfo secondary = new IndexInfo(table, projectedCols, condition, orderBy, false);
                     long cost = estimateCost(orderBy, secondary, rowCost);
+                    if (secondary.isKeyRestricted() && cost < rowCost) {
+                        candidates.add(secondary);
+                    }
                     if (cost < bestCost) {
                         ii = secondary;
                         bestCost = cost;
@@ -569,11 +688,71 @@ public class TempTable implements Cloneable, SearchableTable {
             }
             primary.valueTs = ii.table.createTupleSource(pkColumns,
                     ii.coveredCriteria, pkOrderBy, ii, agg);
+            if (ii != primary && ii.isKeyRestricted()) {
+                //intersect with the keys from the next best restricting index
+                IndexInfo other = null;
+                long otherCost = Long.MAX_VALUE;
+                for (IndexInfo candidate : candidates) {
+                    if (candidate.table == ii.table) {
+                        continue;
+                    }
+                    long cost = estimateCost(null, candidate, rowCost);
+                    if (cost < otherCost) {
+                        other = candidate;
+                        otherCost = cost;
+                    }
+                }
+                //an index much less selective than the chosen one would only add work
+                if (other != null && otherCost <= bestCost * INTERSECTION_COST_RATIO) {
+                    LogManager.logDetail(LogConstants.CTX_DQP, "Intersecting index", ii.table, "with", other.table); //$NON-NLS-1$ //$NON-NLS-2$
+                    other.ordering = null;
+                    TupleSource otherTs = other.table.createTupleSource(pkColumns, other.coveredCriteria, pkOrderBy, other, false);
+                    primary.valueTs = new KeyIntersectionTupleSource(primary.valueTs, otherTs, this.tree.getComparator());
+                }
+            }
             return createTupleSource(projectedCols, ii.nonCoveredCriteria, orderBy, primary, agg);
         }
         return createTupleSource(projectedCols, condition, orderBy, ii, agg);
     }
 
+    private TupleSource createSnapshotTupleSource(final List<? extends Expression> projectedCols, final Criteria condition, OrderBy orderBy) throws TeiidComponentException, TeiidProcessingException {
+        TempTable snapshot = snapshot();
+        boolean success = false;
+        try {
+            final TupleSource ts = snapshot.createTupleSource(projectedCols, condition, orderBy);
+            success = true;
+            return new TupleSource() {
+                private boolean closed;
+
+                @Override
+                public List<?> nextTuple() throws TeiidComponentException,
+                        TeiidProcessingException {
+                    return ts.nextTuple();
+                }
+
+                @Override
+                public void closeSource() {
+                    ts.closeSource();
+                    if (!closed) {
+                        closed = true;
+                        releaseSnapshot();
+                    }
+                }
+            };
+        } finally {
+            if (!success) {
+                releaseSnapshot();
+            }
+        }
+    }
+
+    private void releaseSnapshot() {
+        if (snapshotReaders.decrementAndGet() == 0 && removed) {
+            //the last reader performs the deferred remove
+            removeTrees();
+        }
+    }
+
     private boolean createImplicitIndexIfNeeded(final Criteria condition) throws TeiidComponentException, TeiidProcessingException {
         int operator = CompareCriteria.EQ;
         LinkedHashSet<ElementSymbol> symbols = null;
@@ -724,17 +903,36 @@ public class TempTable implements Cloneable, SearchableTable {
         lock.writeLock().lock();
         try {
             tid.getTableData().removed();
-            tree.remove();
             if (this.indexTables != null) {
                 for (TempTable indexTable : this.indexTables.values()) {
-                    indexTable.remove();
+                    indexTable.tid.getTableData().removed();
                 }
             }
+            removed = true;
+            if (snapshotReaders.get() == 0) {
+                removeTrees();
+            }
         } finally {
             lock.writeLock().unlock();
         }
     }
 
+    /**
+     * Remove the storage for the table and its indexes.  If there are active snapshot
+     * readers this is deferred until the last one is closed.
+     */
+    private void removeTrees() {
+        if (!treeRemoved.compareAndSet(false, true)) {
+            return;
+        }
+        tree.remove();
+        if (this.indexTables != null) {
+            for (TempTable indexTable : this.indexTables.values()) {
+                indexTable.removeTrees();
+            }
+        }
+    }
+
     @Override
     public Object matchesPkColumn(int pkIndex, Expression ex) {
         if (rowId != null) {
@@ -1002,6 +1200,10 @@ public class TempTable implements Cloneable, SearchableTable {
         this.tree.setPreferMemory(preferMemory);
     }
 
+    void setSnapshotReads(boolean snapshotReads) {
+        this.snapshotReads = snapshotReads;
+    }
+
     void setUpdatable(boolean updatable) {
         this.updatable = updatable;
         if (this.indexTables != null) {
@@ -314,7 +314,7 @@ public class TempTableStore {
                 current.retainAll(tables.values());
                 for (TempTable table : current) {
                     table.getActive().set(0);
-                    table.getTree().clearClonedFlags();
+                    table.clearClonedFlags();
                 }
             }
             for (TransactionCallback callback : callbacks) {
@@ -435,6 +435,8 @@ public class TempTableStore {
         }
         final TempTable tempTable = new TempTable(id, buffer, columns, create.getPrimaryKey().size(), sessionID);
         tempTable.getTree().setSaveTemporaryLobs(!localScoped);
+        //the global store tables are read concurrently by all sessions
+        tempTable.setSnapshotReads(transactionMode == TransactionMode.ISOLATE_READS);
         if (add) {
             tempTables.put(tempTableName, tempTable);
         }
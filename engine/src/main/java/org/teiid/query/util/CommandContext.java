@@ -59,6 +59,7 @@ import org.teiid.core.util.LRUCache;
 import org.teiid.core.util.TimestampWithTimezone;
 import org.teiid.dqp.internal.process.AuthorizationValidator;
 import org.teiid.dqp.internal.process.DQPWorkContext;
+import org.teiid.dqp.internal.process.EngineMetrics;
 import org.teiid.dqp.internal.process.PreparedPlan;
 import org.teiid.dqp.internal.process.RequestWorkItem;
 import org.teiid.dqp.internal.process.SessionAwareCache;
@@ -170,6 +171,8 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
 
         private boolean resultSetCacheEnabled = true;
 
+        private EngineMetrics metrics;
+
         private int userRequestSourceConcurrency;
         private Subject subject;
         private HashSet<Object> dataObjects;
@@ -594,6 +597,17 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
         this.globalState.planCache = cache;
     }
 
+    /**
+     * @return the engine metrics or null if metrics are not enabled
+     */
+    public EngineMetrics getMetrics() {
+        return this.globalState.metrics;
+    }
+
+    public void setMetrics(EngineMetrics metrics) {
+        this.globalState.metrics = metrics;
+    }
+
     public PreparedPlan getPlan(String key) {
         if (this.globalState.planCache == null) {
             return null;
@@ -746,6 +760,20 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
         return ForkJoinPool.commonPool().submit(callable);
     }
 
+    /**
+     * Execute engine work for this request.  With a work item the work is counted against
+     * the user request source concurrency, otherwise it is run by the executor.
+     * @param work
+     */
+    public void executeConcurrent(Runnable work) {
+        RequestWorkItem workItem = getWorkItem();
+        if (workItem != null) {
+            workItem.addConcurrentWork(work);
+            return;
+        }
+        getExecutor().execute(work);
+    }
+
     public void setExecutor(Executor e) {
         this.globalState.executor = e;
     }
@@ -39,6 +39,9 @@ public class Options {
     public static final String MAX_SESSION_BUFFER_SIZE_ESTIMATE = "org.teiid.maxSessionBufferSizeEstimate"; //$NON-NLS-1$
     public static final String TRACING_WITH_ACTIVE_SPAN_ONLY = "org.teiid.tracingWithActiveSpanOnly"; //$NON-NLS-1$
     public static final String ENFORCE_SINGLE_MAX_BUFFER_SIZE_ESTIMATE = "org.teiid.enforceSingleMaxBufferSizeEstimate"; //$NON-NLS-1$
+    public static final String PARALLEL_UNION_BRANCHES = "org.teiid.parallelUnionBranches"; //$NON-NLS-1$
+    public static final String TEXT_TABLE_CHUNK_SIZE = "org.teiid.textTableChunkSize"; //$NON-NLS-1$
+    public static final String PARALLEL_XML_TABLE_ROWS = "org.teiid.parallelXmlTableRows"; //$NON-NLS-1$
 
     private Properties properties;
     private boolean subqueryUnnestDefault = false;
@@ -54,6 +57,9 @@ public class Options {
     private boolean tracingWithActiveSpanOnly = true;
     private boolean enforceSingleMaxBufferSizeEstimate = false;
     private boolean relativeXPath = true;
+    private boolean parallelUnionBranches;
+    private int textTableChunkSize;
+    private boolean parallelXmlTableRows;
 
     public Properties getProperties() {
         return properties;
@@ -238,4 +244,43 @@ public class Options {
         return this;
     }
 
+    public boolean isParallelUnionBranches() {
+        return parallelUnionBranches;
+    }
+
+    public void setParallelUnionBranches(boolean parallelUnionBranches) {
+        this.parallelUnionBranches = parallelUnionBranches;
+    }
+
+    public Options parallelUnionBranches(boolean b) {
+        this.parallelUnionBranches = b;
+        return this;
+    }
+
+    public int getTextTableChunkSize() {
+        return textTableChunkSize;
+    }
+
+    public void setTextTableChunkSize(int textTableChunkSize) {
+        this.textTableChunkSize = textTableChunkSize;
+    }
+
+    public Options textTableChunkSize(int size) {
+        this.textTableChunkSize = size;
+        return this;
+    }
+
+    public boolean isParallelXmlTableRows() {
+        return parallelXmlTableRows;
+    }
+
+    public void setParallelXmlTableRows(boolean parallelXmlTableRows) {
+        this.parallelXmlTableRows = parallelXmlTableRows;
+    }
+
+    public Options parallelXmlTableRows(boolean b) {
+        this.parallelXmlTableRows = b;
+        return this;
+    }
+
 }
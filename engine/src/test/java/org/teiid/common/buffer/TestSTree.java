@@ -186,6 +186,44 @@ public class TestSTree {
         }
     }
 
+    @Test public void testCompactKeys() throws TeiidComponentException, TeiidProcessingException {
+        BufferManagerImpl bm = BufferManagerFactory.getTestBufferManager(Integer.MAX_VALUE, 1);
+
+        ElementSymbol e1 = new ElementSymbol("x");
+        e1.setType(String.class);
+        List<ElementSymbol> elements = Arrays.asList(e1);
+        STree map = bm.createSTree(elements, "1", 1);
+
+        int size = 1<<14;
+        for (int i = 0; i < size; i++) {
+            assertNull(map.insert(Arrays.asList(String.valueOf(i*7919%size)), InsertMode.NEW, -1));
+        }
+        assertTrue(map.header[0].getValues() instanceof CompactKeyList);
+        //null keys should still be supported
+        assertNull(map.insert(Arrays.asList((String)null), InsertMode.NEW, -1));
+        for (int i = 0; i < size; i+=2) {
+            assertNotNull(map.remove(Arrays.asList(String.valueOf(i))));
+        }
+        assertEquals(size/2 + 1, map.getRowCount());
+        for (int i = 0; i < size; i++) {
+            TupleBrowser tb = new TupleBrowser(map, new CollectionTupleSource(Collections.singletonList(Arrays.asList(String.valueOf(i))).iterator()), true);
+            if (i % 2 == 0) {
+                assertNull(tb.nextTuple());
+            } else {
+                assertEquals(Arrays.asList(String.valueOf(i)), tb.nextTuple());
+            }
+        }
+        TupleBrowser tb = new TupleBrowser(map, null, null, true, true);
+        List<?> last = tb.nextTuple();
+        assertEquals(Arrays.asList((String)null), last);
+        for (int i = 0; i < size/2; i++) {
+            List<?> next = tb.nextTuple();
+            assertTrue(((String)last.get(0) == null) || ((String)last.get(0)).compareTo((String)next.get(0)) < 0);
+            last = next;
+        }
+        assertNull(tb.nextTuple());
+    }
+
     @Test public void testTupleBrowserRemove() throws Exception {
         BufferManagerImpl bm = BufferManagerFactory.getTestBufferManager(1, 1);
 
@@ -214,6 +214,27 @@ public class TestBufferFrontedFileStoreCache {
         assertEquals(Integer.valueOf(5001), ce.getObject());
     }
 
+    @Test public void testCompressedEviction() throws Exception {
+        cache = createLayeredCache(1<<15, 1<<15, true);
+        cache.setCompressBufferFiles(true);
+
+        Serializer<Integer> s = new SimpleSerializer();
+        WeakReference<? extends Serializer<?>> ref = new WeakReference<Serializer<?>>(s);
+        cache.createCacheGroup(s.getId());
+
+        for (int i = 0; i < 3; i++) {
+            add(cache, s, ref, i);
+        }
+
+        //the serialized form is smaller than the raw ints
+        assertTrue(cache.getSerializedBytes() < 3*4*5000);
+
+        for (int i = 0; i < 3; i++) {
+            CacheEntry ce = get(cache, Long.valueOf(i), s);
+            assertEquals(Integer.valueOf(5000 + i), ce.getObject());
+        }
+    }
+
     @Test public void testEvictionFails() throws Exception {
         cache = createLayeredCache(1<<15, 1<<15, false);
         BufferManagerImpl bmi = Mockito.mock(BufferManagerImpl.class);
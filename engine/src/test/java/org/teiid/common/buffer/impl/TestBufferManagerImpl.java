@@ -34,6 +34,7 @@ import org.teiid.common.buffer.BufferManager.TupleSourceType;
 import org.teiid.common.buffer.BufferManagerFactory;
 import org.teiid.common.buffer.FileStore;
 import org.teiid.common.buffer.TupleBuffer;
+import org.teiid.common.buffer.TupleBuffer.TupleBufferTupleSource;
 import org.teiid.common.buffer.impl.BufferManagerImpl.BatchManagerImpl;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.types.DataTypeManager;
@@ -188,6 +189,31 @@ public class TestBufferManagerImpl {
         assertEquals(processorBatchSize/8, bm.getProcessorBatchSize(elements));
     }
 
+    @Test public void testIoThreads() throws Exception {
+        BufferManagerImpl bufferManager = new BufferManagerImpl();
+        bufferManager.setIoThreads(2);
+        bufferManager.setReadAheadBatches(4);
+        bufferManager.setMaxReserveKB(100);
+        bufferManager.setMaxProcessingKB(100);
+        BufferManagerFactory.initBufferManager(bufferManager);
+        try {
+            TupleBuffer tb = bufferManager.createTupleBuffer(Arrays.asList(new ElementSymbol("x", null, String.class)), "x", TupleSourceType.PROCESSOR);
+            for (int i = 0; i < 50000; i++) {
+                tb.addTuple(Arrays.asList("value " + i));
+            }
+            tb.close();
+            assertTrue(bufferManager.getWriteCount() > 0);
+            TupleBufferTupleSource ts = tb.createIndexedTupleSource(true);
+            for (int i = 0; i < 50000; i++) {
+                assertEquals(Arrays.asList("value " + i), ts.nextTuple());
+            }
+            assertNull(ts.nextTuple());
+            ts.closeSource();
+        } finally {
+            bufferManager.shutdown();
+        }
+    }
+
     @Test public void testRemovedException() throws TeiidComponentException {
         BufferManagerImpl bufferManager = new BufferManagerImpl();
         bufferManager.setCache(new MemoryStorageManager());
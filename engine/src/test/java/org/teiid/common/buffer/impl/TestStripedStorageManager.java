@@ -0,0 +1,97 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.teiid.common.buffer.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.teiid.common.buffer.FileStore;
+
+@SuppressWarnings("nls")
+public class TestStripedStorageManager {
+
+    @Test public void testStriping() throws Exception {
+        FileStorageManager sm1 = TestFileStorageManager.getStorageManager(null, "striped1");
+        FileStorageManager sm2 = TestFileStorageManager.getStorageManager(null, "striped2");
+        StripedStorageManager striped = new StripedStorageManager(Arrays.asList(sm1, sm2));
+        SplittableStorageManager ssm = new SplittableStorageManager(striped);
+        ssm.setMaxFileSizeDirect(2048);
+        FileStore store = ssm.createFileStore("0");
+        byte[] first = TestFileStorageManager.writeBytes(store, 0);
+        TestFileStorageManager.writeBytes(store, 2048);
+
+        //the segments are spread across the managers
+        assertEquals(2048, sm1.getUsedBufferSpace());
+        assertEquals(2048, sm2.getUsedBufferSpace());
+        assertEquals(4096, striped.getUsedBufferSpace());
+        assertTrue(sm1.getBytesWritten() > 0);
+        assertTrue(sm2.getBytesWritten() > 0);
+
+        byte[] bytesRead = new byte[2048];
+        store.readFully(0, bytesRead, 0, bytesRead.length);
+        assertArrayEquals(first, bytesRead);
+
+        store.remove();
+        assertEquals(0, striped.getUsedBufferSpace());
+    }
+
+    @Test public void testFullManagerSkipped() throws Exception {
+        FileStorageManager sm1 = TestFileStorageManager.getStorageManager(null, "striped1");
+        FileStorageManager sm2 = TestFileStorageManager.getStorageManager(null, "striped2");
+        sm1.setMaxBufferSpace(1);
+        StripedStorageManager striped = new StripedStorageManager(Arrays.asList(sm1, sm2));
+
+        for (int i = 0; i < 2; i++) {
+            FileStore store = striped.createFileStore(String.valueOf(i));
+            TestFileStorageManager.writeBytes(store);
+        }
+
+        //the first attempt against the full manager is moved
+        assertEquals(1, sm1.getOutOfDiskErrorCount());
+        assertEquals(0, sm1.getUsedBufferSpace());
+        assertEquals(4096, sm2.getUsedBufferSpace());
+    }
+
+    @Test public void testFullManagerRecovers() throws Exception {
+        FileStorageManager sm1 = TestFileStorageManager.getStorageManager(null, "striped1");
+        FileStorageManager sm2 = TestFileStorageManager.getStorageManager(null, "striped2");
+        sm1.setMaxBufferSpace(3000);
+        StripedStorageManager striped = new StripedStorageManager(Arrays.asList(sm1, sm2));
+
+        FileStore first = striped.createFileStore("0");
+        TestFileStorageManager.writeBytes(first);
+        striped.createFileStore("1");
+        //moved after running out of space
+        FileStore moved = striped.createFileStore("2");
+        TestFileStorageManager.writeBytes(moved);
+        assertEquals(1, sm1.getOutOfDiskErrorCount());
+        assertEquals(1, ((StripedStorageManager.StripedFileStore)moved).getIndex());
+
+        //freeing the space makes the manager usable again, even after it regains the prior usage
+        first.remove();
+        FileStore store = striped.createFileStore("3");
+        assertEquals(0, ((StripedStorageManager.StripedFileStore)store).getIndex());
+        TestFileStorageManager.writeBytes(store);
+        striped.createFileStore("4");
+        store = striped.createFileStore("5");
+        assertEquals(0, ((StripedStorageManager.StripedFileStore)store).getIndex());
+    }
+
+}
@@ -40,6 +40,7 @@ import org.junit.Test;
 import org.mockito.Mockito;
 import org.teiid.adminapi.DataPolicy;
 import org.teiid.adminapi.impl.DataPolicyMetadata;
+import org.teiid.adminapi.impl.WorkerPoolStatisticsMetadata;
 import org.teiid.api.exception.query.QueryResolverException;
 import org.teiid.cache.CacheConfiguration;
 import org.teiid.cache.DefaultCacheFactory;
@@ -195,6 +196,55 @@ public class TestDQPCore {
         assertEquals(1, this.core.getMaxWaitingPlanWatermark());
     }
 
+    @Test public void testResourcePoolRejection() throws Exception {
+        ResourcePoolConfiguration poolConfig = new ResourcePoolConfiguration("reports");
+        poolConfig.addUserName("a");
+        poolConfig.setMaxActivePlans(1);
+        poolConfig.setMaxQueued(0);
+        poolConfig.setMaxThreads(2);
+        config.addResourcePool(poolConfig);
+        config.setMaxActivePlans(2);
+        core.start(config);
+
+        //hold the first request active until the second is submitted
+        agds.latch = new CountDownLatch(2);
+        DQPWorkContext.getWorkContext().getSession().setSessionId("1");
+        DQPWorkContext.getWorkContext().getSession().setUserName("a");
+        RequestMessage reqMsg = exampleRequestMessage("select * FROM BQT1.SmallA");
+        Future<ResultsMessage> message = core.executeRequest(reqMsg.getExecutionId(), reqMsg);
+        try {
+            RequestMessage second = exampleRequestMessage("select * FROM BQT1.SmallA");
+            core.executeRequest(second.getExecutionId(), second);
+            fail("expected the pool to reject the request");
+        } catch (TeiidProcessingException e) {
+            assertTrue(e.getMessage().startsWith("TEIID31302"));
+        } finally {
+            agds.latch.countDown();
+        }
+        assertNull(message.get(500000, TimeUnit.MILLISECONDS).getException());
+
+        WorkerPoolStatisticsMetadata stats = core.getResourcePoolStatistics().get(0);
+        assertEquals("reports", stats.getName());
+        assertEquals(1, stats.getTotalRejected());
+        assertEquals(1, stats.getTotalSubmitted());
+        assertEquals(2, stats.getMaxThreads());
+    }
+
+    @Test public void testMetrics() throws Exception {
+        config.setMetricsEnabled(true);
+        core.start(config);
+
+        helpExecute("SELECT IntKey FROM BQT1.SmallA", "a");
+
+        String text = core.getMetrics().getRegistry().toPrometheusText();
+        assertTrue(text, text.contains("# TYPE teiid_request_queue_seconds histogram\n"));
+        assertTrue(text, text.contains("teiid_request_queue_seconds_count{pool=\"QueryProcessorQueue\"} 1\n"));
+        assertTrue(text, text.contains("teiid_cache_requests_total{cache=\"resultset\"}"));
+        assertTrue(text, text.contains("teiid_buffer_reads_total "));
+        assertTrue(text, text.contains("teiid_buffer_serialized_bytes_per_row "));
+        assertTrue(text, text.contains("teiid_worker_submitted_total{pool=\"QueryProcessorQueue\"}"));
+    }
+
     @Test public void testHasRole() throws Exception {
         String sql = "SELECT hasRole('foo')"; //$NON-NLS-1$
         String userName = "logon"; //$NON-NLS-1$
@@ -0,0 +1,65 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.dqp.internal.process;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("nls")
+public class TestMetricsRegistry {
+
+    @Test public void testPrometheusFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("x_total", "some counter", "a", "1").add(2);
+        registry.counter("x_total", "some counter", "a", "1").inc();
+        registry.gauge("y", "some\ngauge").set(1.5);
+        MetricsRegistry.Histogram h = registry.histogram("z_seconds", "some histogram", new double[] {.1, 1}, "t", "a\"b");
+        h.observe(.05);
+        h.observe(.5);
+        h.observe(5);
+
+        assertEquals("# HELP x_total some counter\n"
+                + "# TYPE x_total counter\n"
+                + "x_total{a=\"1\"} 3\n"
+                + "# HELP y some\\ngauge\n"
+                + "# TYPE y gauge\n"
+                + "y 1.5\n"
+                + "# HELP z_seconds some histogram\n"
+                + "# TYPE z_seconds histogram\n"
+                + "z_seconds_bucket{t=\"a\\\"b\",le=\"0.1\"} 1\n"
+                + "z_seconds_bucket{t=\"a\\\"b\",le=\"1\"} 2\n"
+                + "z_seconds_bucket{t=\"a\\\"b\",le=\"+Inf\"} 3\n"
+                + "z_seconds_sum{t=\"a\\\"b\"} 5.55\n"
+                + "z_seconds_count{t=\"a\\\"b\"} 3\n", registry.toPrometheusText());
+    }
+
+    @Test public void testCollector() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.addCollector(new MetricsRegistry.Collector() {
+
+            @Override
+            public void collect(MetricsRegistry r) {
+                r.sampledCounter("reads_total", "reads").set(10);
+            }
+        });
+        assertEquals("# HELP reads_total reads\n# TYPE reads_total counter\nreads_total 10\n", registry.toPrometheusText());
+    }
+
+}
@@ -22,18 +22,26 @@ import static org.junit.Assert.*;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.teiid.cache.DefaultCacheFactory;
 import org.teiid.common.buffer.BufferManager;
 import org.teiid.common.buffer.BufferManagerFactory;
 import org.teiid.core.TeiidProcessingException;
+import org.teiid.core.util.FileUtils;
+import org.teiid.core.util.UnitTestUtil;
 import org.teiid.dqp.internal.process.CachedResults;
 import org.teiid.dqp.internal.process.QueryProcessorFactoryImpl;
 import org.teiid.dqp.internal.process.SessionAwareCache;
+import org.teiid.logging.LogConstants;
+import org.teiid.logging.LogManager;
+import org.teiid.logging.Logger;
+import org.teiid.logging.MessageLevel;
 import org.teiid.query.metadata.TempMetadataAdapter;
 import org.teiid.query.metadata.TempMetadataID;
 import org.teiid.query.metadata.TransformationMetadata;
@@ -57,11 +65,13 @@ public class TestMaterialization {
     private GlobalTableStoreImpl globalStore;
     private ProcessorPlan previousPlan;
     private HardcodedDataManager hdm;
+    private BufferManager bm;
+    private TransformationMetadata actualMetadata;
 
     @Before public void setUp() {
         tempStore = new TempTableStore("1", TransactionMode.ISOLATE_WRITES); //$NON-NLS-1$
-        BufferManager bm = BufferManagerFactory.getStandaloneBufferManager();
-        TransformationMetadata actualMetadata = RealMetadataFactory.exampleMaterializedView();
+        bm = BufferManagerFactory.getStandaloneBufferManager();
+        actualMetadata = RealMetadataFactory.exampleMaterializedView();
         globalStore = new GlobalTableStoreImpl(bm, actualMetadata.getVdbMetaData(), actualMetadata);
         metadata = new TempMetadataAdapter(actualMetadata, tempStore.getMetadataStore());
         hdm = new HardcodedDataManager();
@@ -111,6 +121,31 @@ public class TestMaterialization {
         this.globalStore.setState(codeTableName, new ByteArrayInputStream(baos.toByteArray()));
     }
 
+    @Test public void testPersistAndRestore() throws Exception {
+        File dir = new File(UnitTestUtil.getTestScratchPath(), "matviews");
+        FileUtils.removeDirectoryAndChildren(dir);
+        globalStore.setPersistenceDirectory(dir);
+        execute("SELECT * from vgroup3 where x = 'one'", Arrays.asList("one", "zne"));
+        assertEquals(1, hdm.getCommandHistory().size());
+
+        //simulate a restart
+        globalStore = new GlobalTableStoreImpl(bm, actualMetadata.getVdbMetaData(), actualMetadata);
+        globalStore.setPersistenceDirectory(dir);
+        String matTableName = RelationalPlanner.MAT_PREFIX + "MATVIEW.VGROUP3";
+        MatTableInfo matTableInfo = globalStore.getMatTableInfo(matTableName);
+        assertTrue(matTableInfo.isValid());
+        assertTrue(matTableInfo.isStale());
+        assertFalse(matTableInfo.isUpToDate());
+        assertEquals(4, globalStore.getTempTable(matTableName).getRowCount());
+
+        //without an executor the refresh is performed inline
+        execute("SELECT * from vgroup3 where x = 'one'", Arrays.asList("one", "zne"));
+        assertEquals(2, hdm.getCommandHistory().size());
+        assertFalse(matTableInfo.isStale());
+        assertTrue(matTableInfo.isUpToDate());
+        FileUtils.removeDirectoryAndChildren(dir);
+    }
+
     @Test(expected=TeiidProcessingException.class) public void testCodeTableResponseException() throws Exception {
         //duplicate key
         execute("select lookup('mattable.info', 'e2', 'e1', 'a')");
@@ -162,6 +197,33 @@ public class TestMaterialization {
         execute("SELECT * from vgroup5 where y is null and z = 2");
     }
 
+    @Test public void testSecondaryIndexIntersection() throws Exception {
+        //enough rows that both indexes are cheaper than a scan
+        List<?>[] rows = new List<?>[100];
+        rows[0] = Arrays.asList((String)null);
+        rows[1] = Arrays.asList("one");
+        rows[2] = Arrays.asList("two");
+        rows[3] = Arrays.asList("three");
+        for (int i = 4; i < rows.length; i++) {
+            rows[i] = Arrays.asList("r" + i);
+        }
+        hdm.addData("SELECT MatSrc.MatSrc.x FROM MatSrc.MatSrc", rows);
+        //the intersection is only observable through the detail logging
+        Logger logger = Mockito.mock(Logger.class);
+        Mockito.stub(logger.isEnabled(Mockito.anyString(), Mockito.anyInt())).toReturn(true);
+        LogManager.setLogListener(logger);
+        try {
+            execute("SELECT * from vgroup5 where y in ('zwo', 'zne') order by x", Arrays.asList("one", "zne", 1), Arrays.asList("two", "zwo", 1));
+            Mockito.verify(logger, Mockito.never()).log(Mockito.eq(MessageLevel.DETAIL), Mockito.eq(LogConstants.CTX_DQP), Mockito.eq("Intersecting index"), Mockito.any(), Mockito.eq("with"), Mockito.any());
+
+            execute("SELECT * from vgroup5 where y in ('zwo', 'zne') and z = 1 order by x", Arrays.asList("one", "zne", 1), Arrays.asList("two", "zwo", 1));
+            Mockito.verify(logger).log(Mockito.eq(MessageLevel.DETAIL), Mockito.eq(LogConstants.CTX_DQP), Mockito.eq("Intersecting index"), Mockito.any(), Mockito.eq("with"), Mockito.any());
+        } finally {
+            LogManager.setLogListener(null);
+        }
+        execute("SELECT x from vgroup5 where y in ('zwo', 'zne') and z = 2");
+    }
+
     @Test public void testNonCoveringSecondaryIndexWithoutPrimaryKey() throws Exception {
         execute("SELECT * from vgroup6 where y in ('zne', 'zwo') order by y desc", Arrays.asList("two", "zwo"), Arrays.asList("one", "zne"));
         execute("SELECT * from vgroup6 where y is null", Arrays.asList((String)null, (String)null));
@@ -40,6 +40,7 @@ import org.teiid.api.exception.query.QueryResolverException;
 import org.teiid.cache.DefaultCacheFactory;
 import org.teiid.common.buffer.BufferManager;
 import org.teiid.common.buffer.BufferManagerFactory;
+import org.teiid.common.buffer.TupleSource;
 import org.teiid.common.buffer.impl.BufferManagerImpl;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
@@ -53,6 +54,7 @@ import org.teiid.query.metadata.TransformationMetadata;
 import org.teiid.query.optimizer.TestOptimizer;
 import org.teiid.query.optimizer.TestOptimizer.ComparisonMode;
 import org.teiid.query.tempdata.GlobalTableStoreImpl;
+import org.teiid.query.tempdata.TempTable;
 import org.teiid.query.tempdata.TempTableDataManager;
 import org.teiid.query.unittest.RealMetadataFactory;
 
@@ -170,6 +172,29 @@ public class TestTempTables extends TempTableTestHarness {
         synch.afterCompletion(Status.STATUS_COMMITTED);
     }
 
+    @Test public void testSnapshotRead() throws Exception {
+        GlobalTableStoreImpl gtsi = new GlobalTableStoreImpl(BufferManagerFactory.getStandaloneBufferManager(), RealMetadataFactory.example1Cached().getVdbMetaData(), RealMetadataFactory.example1Cached());
+        tempStore = gtsi.getTempTableStore();
+        metadata = new TempMetadataAdapter(RealMetadataFactory.example1Cached(), tempStore.getMetadataStore());
+        execute("create local temporary table x (e1 string, e2 integer)", new List[] {Arrays.asList(0)}); //$NON-NLS-1$
+        for (int i = 0; i < 300; i++) {
+            execute("insert into x (e2, e1) select e2, e1 from pm1.g1", new List[] {Arrays.asList(6)}); //$NON-NLS-1$
+        }
+        TempTable table = gtsi.getTempTable("X");
+        TupleSource ts = table.createTupleSource(table.getColumns(), null, null);
+        assertNotNull(ts.nextTuple());
+        //writers proceed while the read is open, and the reader sees the state as of its start
+        gtsi.updateMatViewRow("X", Arrays.asList(2L), true);
+        execute("delete from x where e2 = 2", new List[] {Arrays.asList(300)}); //$NON-NLS-1$
+        int count = 1;
+        while (ts.nextTuple() != null) {
+            count++;
+        }
+        ts.closeSource();
+        assertEquals(1800, count);
+        execute("select count(*) from x", new List[] {Arrays.asList(1499)});
+    }
+
     private void setupTransaction(int isolation) throws RollbackException, SystemException {
         txn = Mockito.mock(Transaction.class);
         Mockito.doAnswer(new Answer<Void>() {
@@ -22,14 +22,21 @@ import static org.junit.Assert.*;
 import static org.teiid.query.optimizer.TestOptimizer.*;
 import static org.teiid.query.processor.TestProcessor.*;
 
+import java.io.File;
+import java.io.FileWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.rowset.serial.SerialClob;
 
 import org.junit.Test;
 import org.teiid.common.buffer.BufferManagerFactory;
+import org.teiid.common.buffer.impl.BufferManagerImpl;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.types.ClobImpl;
 import org.teiid.core.types.ClobType;
@@ -48,6 +55,7 @@ import org.teiid.query.processor.relational.RelationalPlan;
 import org.teiid.query.sql.lang.Command;
 import org.teiid.query.unittest.RealMetadataFactory;
 import org.teiid.query.util.CommandContext;
+import org.teiid.query.util.Options;
 import org.teiid.query.validator.TestValidator;
 
 @SuppressWarnings({"unchecked", "nls"})
@@ -417,6 +425,80 @@ public class TestTextTable {
         helpProcess(plan, createCommandContext(), dataManager, expectedResults);
     }
 
+    @Test public void testBlockBoundaries() throws Exception {
+        String sql = "select y, z from texttable(? COLUMNS x integer, y string, z string) x";
+
+        StringBuilder data = new StringBuilder();
+        List<?>[] expected = new List<?>[2000];
+        for (int i = 0; i < expected.length; i++) {
+            //the unprojected value would fail conversion
+            data.append("x").append(i).append(",  value ").append(i).append("  ,\"q,").append(i).append("\"").append(i%3==0?"\r\n":"\n");
+            expected[i] = Arrays.asList("value " + i, "q," + i);
+        }
+
+        processPreparedStatement(sql, expected, new FakeDataManager(), new DefaultCapabilitiesFinder(), RealMetadataFactory.example1Cached(), Arrays.asList(new ClobType(new ClobImpl(data.toString()))));
+    }
+
+    @Test public void testChunkedFile() throws Exception {
+        helpTestChunkedFile(-1);
+    }
+
+    @Test public void testChunkedFileMultilineValue() throws Exception {
+        helpTestChunkedFile(500);
+    }
+
+    private void helpTestChunkedFile(int multiline) throws Exception {
+        File f = new File(UnitTestUtil.getTestScratchPath(), "chunked.csv");
+        List<?>[] expected = new List<?>[1000];
+        FileWriter writer = new FileWriter(f);
+        try {
+            writer.write("id,name\n");
+            for (int i = 0; i < expected.length; i++) {
+                String name = "name " + i;
+                if (i == multiline) {
+                    name = "name\n" + i;
+                }
+                writer.write(i + ",\"" + name + "\"" + (i%2==0?"\r\n":"\n"));
+                expected[i] = Arrays.asList(i + 1, i, name);
+            }
+        } finally {
+            writer.close();
+        }
+
+        String sql = "select x.* from texttable(? COLUMNS n FOR ORDINALITY, id integer, name string HEADER) x";
+        Command command = helpParse(sql);
+        CommandContext context = createCommandContext();
+        context.setMetadata(RealMetadataFactory.example1Cached());
+        context.setOptions(new Options().textTableChunkSize(256));
+        context.setUserRequestSourceConcurrency(3);
+        BufferManagerImpl bm = BufferManagerFactory.createBufferManager();
+        bm.setProcessorBatchSize(context.getProcessorBatchSize());
+        context.setBufferManager(bm);
+        long reserve = bm.getReserveBatchBytes();
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        final AtomicInteger handedOff = new AtomicInteger();
+        context.setExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                handedOff.incrementAndGet();
+                executor.execute(command);
+            }
+        });
+        try {
+            setParameterValues(Arrays.asList(new ClobType(new ClobImpl(new InputStreamFactory.FileInputStreamFactory(f), -1))), command, context);
+            ProcessorPlan plan = helpGetPlan(command, RealMetadataFactory.example1Cached(), new DefaultCapabilitiesFinder(), context);
+            //the rows must be complete and in file order
+            helpProcess(plan, context, new HardcodedDataManager(), expected);
+        } finally {
+            executor.shutdownNow();
+            f.delete();
+        }
+        //serial processing would only hand off once per batch
+        assertTrue(handedOff.get() > 10);
+        //the chunk reservations are all released
+        assertEquals(reserve, bm.getReserveBatchBytes());
+    }
+
     public static ClobType clobFromFile(final String file) {
         return new ClobType(new ClobImpl(new InputStreamFactory.FileInputStreamFactory(UnitTestUtil.getTestDataFile(file)), -1));
     }
@@ -21,6 +21,7 @@ package org.teiid.query.processor;
 import static org.junit.Assert.*;
 import static org.teiid.query.processor.TestProcessor.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -29,6 +30,8 @@ import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.teiid.api.exception.query.QueryProcessingException;
+import org.teiid.common.buffer.TupleSource;
+import org.teiid.core.TeiidComponentException;
 import org.teiid.dqp.service.TransactionContext;
 import org.teiid.dqp.service.TransactionContext.Scope;
 import org.teiid.dqp.service.TransactionService;
@@ -39,6 +42,9 @@ import org.teiid.query.optimizer.capabilities.BasicSourceCapabilities;
 import org.teiid.query.optimizer.capabilities.DefaultCapabilitiesFinder;
 import org.teiid.query.optimizer.capabilities.SourceCapabilities.Capability;
 import org.teiid.query.resolver.TestResolver;
+import org.teiid.query.sql.lang.Command;
+import org.teiid.query.sql.lang.Update;
+import org.teiid.query.sql.symbol.Constant;
 import org.teiid.query.unittest.RealMetadataFactory;
 import org.teiid.query.util.CommandContext;
 import org.teiid.query.validator.TestUpdateValidator;
@@ -212,6 +218,47 @@ public class TestTriggerActions {
         assertEquals("UPDATE pm1.g1 SET e2 = 5 WHERE e2 = 2", dm.getQueries().get(0));
     }
 
+    @Test public void testUpdateBulk() throws Exception {
+        TransformationMetadata metadata = TestUpdateValidator.example1();
+        TestUpdateValidator.createView("select e1 as x, e2 as y from pm1.g2", metadata, GX);
+        Table t = metadata.getMetadataStore().getSchemas().get(VM1).getTables().get(GX);
+        t.setDeletePlan("");
+        t.setUpdatePlan("FOR EACH ROW BEGIN update pm1.g1 set e2 = new.y where e1 = old.x; END");
+        t.setInsertPlan("");
+
+        String sql = "update gx set y = 5 where y < 2";
+
+        final List<Command> updates = new ArrayList<Command>();
+        FakeDataManager dm = new FakeDataManager() {
+            @Override
+            public TupleSource registerRequest(CommandContext context,
+                    Command command, String modelName,
+                    RegisterRequestParameter parameterObject)
+                    throws TeiidComponentException {
+                if (command instanceof Update) {
+                    updates.add(command);
+                    return CollectionTupleSource.createUpdateCountTupleSource(4);
+                }
+                return super.registerRequest(context, command, modelName, parameterObject);
+            }
+        };
+        FakeDataStore.addTable("pm1.g2", dm, metadata);
+
+        CommandContext context = createCommandContext();
+        BasicSourceCapabilities caps = TestOptimizer.getTypicalCapabilities();
+        caps.setCapabilitySupport(Capability.BULK_UPDATE, true);
+        ProcessorPlan plan = TestProcessor.helpGetPlan(TestResolver.helpResolve(sql, metadata), metadata, new DefaultCapabilitiesFinder(caps), context);
+        List<?>[] expected = new List[] {Arrays.asList(4)};
+        helpProcess(plan, context, dm, expected);
+        //a single source command for all of the rows
+        assertEquals(1, updates.size());
+        Update update = (Update)updates.get(0);
+        assertEquals("UPDATE pm1.g1 SET e2 = ? WHERE e1 = ?", update.toString());
+        Constant c = (Constant)update.getChangeList().getClauses().get(0).getValue();
+        assertTrue(c.isMultiValued());
+        assertEquals(Arrays.asList(5, 5, 5, 5), c.getValue());
+    }
+
     @Test public void testUpdateWithChanging() throws Exception {
         TransformationMetadata metadata = TestUpdateValidator.example1();
         TestUpdateValidator.createView("select 1 as x, 2 as y", metadata, GX);
@@ -42,6 +42,7 @@ import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.types.DataTypeManager;
 import org.teiid.core.util.TimestampWithTimezone;
 import org.teiid.query.eval.Evaluator;
+import org.teiid.query.eval.ExpressionCompiler;
 import org.teiid.query.function.FunctionDescriptor;
 import org.teiid.query.parser.QueryParser;
 import org.teiid.query.processor.FakeDataManager;
@@ -49,7 +50,11 @@ import org.teiid.query.processor.ProcessorDataManager;
 import org.teiid.query.resolver.TestFunctionResolving;
 import org.teiid.query.sql.lang.CollectionValueIterator;
 import org.teiid.query.sql.lang.CompareCriteria;
+import org.teiid.query.sql.lang.CompoundCriteria;
+import org.teiid.query.sql.lang.Criteria;
 import org.teiid.query.sql.lang.IsNullCriteria;
+import org.teiid.query.sql.lang.MatchCriteria;
+import org.teiid.query.sql.lang.NotCriteria;
 import org.teiid.query.sql.lang.Query;
 import org.teiid.query.sql.lang.QueryCommand;
 import org.teiid.query.sql.lang.SubqueryContainer;
@@ -543,4 +548,53 @@ public class TestExpressionEvaluator {
         assertEval("('a', null) is not distinct from ('a', null)", "true");
     }
 
+    @Test public void testCompiledCriteria() throws Exception {
+        ElementSymbol e1 = new ElementSymbol("e1");
+        e1.setType(DataTypeManager.DefaultDataClasses.STRING);
+        ElementSymbol e2 = new ElementSymbol("e2");
+        e2.setType(DataTypeManager.DefaultDataClasses.INTEGER);
+        Map<Expression, Integer> elements = new HashMap<Expression, Integer>();
+        elements.put(e1, 0);
+        elements.put(e2, 1);
+        Evaluator evaluator = new Evaluator(elements, null, new CommandContext());
+        ExpressionCompiler compiler = new ExpressionCompiler(elements, evaluator);
+
+        Criteria[] crits = new Criteria[] {
+            new CompareCriteria(e2, CompareCriteria.GT, new Constant(1)),
+            new CompareCriteria(e1, CompareCriteria.LE, new Constant("b ")),
+            new MatchCriteria(e1, new Constant("a%")),
+            new CompoundCriteria(CompoundCriteria.OR, new IsNullCriteria(e1), new NotCriteria(new CompareCriteria(e1, CompareCriteria.EQ, new Constant("b")))),
+            new CompoundCriteria(CompoundCriteria.AND, new CompareCriteria(e2, CompareCriteria.NE, new Constant(0)), new MatchCriteria(e1, new Constant("%c"))),
+        };
+        List<?>[] tuples = new List<?>[] {
+            Arrays.asList("abc", 2),
+            Arrays.asList(null, 0),
+            Arrays.asList("b", null),
+        };
+        for (Criteria crit : crits) {
+            for (List<?> tuple : tuples) {
+                assertEquals(crit + " " + tuple, evaluator.evaluateTVL(crit, tuple), compiler.compile(crit).evaluateTVL(tuple));
+            }
+        }
+    }
+
+    @Test public void testCompiledFunction() throws Exception {
+        Expression ex = TestFunctionResolving.getExpression("concat('a', substring('xbc', 2))");
+        Evaluator evaluator = new Evaluator(Collections.emptyMap(), null, new CommandContext());
+        assertEquals("abc", new ExpressionCompiler(Collections.<Expression, Integer>emptyMap(), evaluator).compile(ex).evaluate(Collections.emptyList()));
+
+        ex = TestFunctionResolving.getExpression("convert('x', integer) + 1");
+        try {
+            new ExpressionCompiler(Collections.<Expression, Integer>emptyMap(), evaluator).compile(ex).evaluate(Collections.emptyList());
+            fail();
+        } catch (ExpressionEvaluationException e) {
+            try {
+                evaluator.evaluate(ex, Collections.emptyList());
+                fail();
+            } catch (ExpressionEvaluationException e1) {
+                assertEquals(e1.getMessage(), e.getMessage());
+            }
+        }
+    }
+
 }
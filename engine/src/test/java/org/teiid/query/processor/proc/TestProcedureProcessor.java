@@ -28,6 +28,7 @@ import java.util.List;
 
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.teiid.cache.DefaultCacheFactory;
 import org.teiid.api.exception.query.QueryPlannerException;
 import org.teiid.api.exception.query.QueryProcessingException;
 import org.teiid.api.exception.query.QueryValidatorException;
@@ -37,6 +38,8 @@ import org.teiid.core.TeiidException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.types.ArrayImpl;
 import org.teiid.core.types.DataTypeManager;
+import org.teiid.dqp.internal.process.PreparedPlan;
+import org.teiid.dqp.internal.process.SessionAwareCache;
 import org.teiid.dqp.service.TransactionContext;
 import org.teiid.dqp.service.TransactionService;
 import org.teiid.metadata.ColumnSet;
@@ -973,6 +976,66 @@ public class TestProcedureProcessor {
         helpTestProcess(plan, expected, dataMgr, metadata);
     }
 
+    @Test public void testDynamicCommandPlanCaching() throws Exception {
+        TransformationMetadata metadata = RealMetadataFactory.example1();
+
+        addProc(metadata, "sq2", "CREATE VIRTUAL PROCEDURE BEGIN\n" //$NON-NLS-1$ //$NON-NLS-2$
+                        + "declare integer VARIABLES.x; loop on (select e2 from pm1.g2) as c begin VARIABLES.x = c.e2; " //$NON-NLS-1$
+                        + "execute string 'SELECT e1 FROM pm1.g1 WHERE e2 = VARIABLES.x' as e1 string; end select e1 from pm1.g1 order by e1; END", new String[] { "e1" } //$NON-NLS-1$
+        , new String[] { DataTypeManager.DefaultDataTypes.STRING }, new String[0], new String[0]);
+
+        String userUpdateStr = "EXEC pm1.sq2()"; //$NON-NLS-1$
+
+        FakeDataManager dataMgr = exampleDataManager(metadata);
+
+        ProcessorPlan plan = getProcedurePlan(userUpdateStr, metadata);
+
+        CommandContext cc = TestProcessor.createCommandContext();
+        cc.setMetadata(new TempMetadataAdapter(metadata, new TempMetadataStore()));
+        SessionAwareCache<PreparedPlan> planCache = new SessionAwareCache<PreparedPlan>("preparedplan", DefaultCacheFactory.INSTANCE, SessionAwareCache.Type.PREPAREDPLAN, 0); //$NON-NLS-1$
+        cc.setPreparedPlanCache(planCache);
+
+        // the dynamic sql is planned once and reused with the other variable values
+        List[] expected = new List[] {
+                Arrays.asList("First"), //$NON-NLS-1$
+                Arrays.asList("Second"), //$NON-NLS-1$
+                Arrays.asList("Third"), //$NON-NLS-1$
+        };
+        helpProcess(plan, cc, dataMgr, expected);
+        assertEquals(1, planCache.getCachePutCount());
+        assertEquals(2, planCache.getCacheHitCount());
+    }
+
+    @Test public void testDynamicCommandTempTableNotCached() throws Exception {
+        TransformationMetadata metadata = RealMetadataFactory.example1();
+
+        addProc(metadata, "sq2", "CREATE VIRTUAL PROCEDURE BEGIN\n" //$NON-NLS-1$ //$NON-NLS-2$
+                        + "declare integer VARIABLES.x; loop on (select e2 from pm1.g2) as c begin VARIABLES.x = c.e2; " //$NON-NLS-1$
+                        + "execute string 'SELECT e1 FROM pm1.g1 WHERE e2 = VARIABLES.x' as e1 string into #t; end select e1 from #t order by e1; END", new String[] { "e1" } //$NON-NLS-1$
+        , new String[] { DataTypeManager.DefaultDataTypes.STRING }, new String[0], new String[0]);
+
+        String userUpdateStr = "EXEC pm1.sq2()"; //$NON-NLS-1$
+
+        FakeDataManager dataMgr = exampleDataManager(metadata);
+
+        ProcessorPlan plan = getProcedurePlan(userUpdateStr, metadata);
+
+        CommandContext cc = TestProcessor.createCommandContext();
+        cc.setMetadata(new TempMetadataAdapter(metadata, new TempMetadataStore()));
+        SessionAwareCache<PreparedPlan> planCache = new SessionAwareCache<PreparedPlan>("preparedplan", DefaultCacheFactory.INSTANCE, SessionAwareCache.Type.PREPAREDPLAN, 0); //$NON-NLS-1$
+        cc.setPreparedPlanCache(planCache);
+
+        // the temp table insert is planned for each execution
+        List[] expected = new List[] {
+                Arrays.asList("First"), //$NON-NLS-1$
+                Arrays.asList("Second"), //$NON-NLS-1$
+                Arrays.asList("Third"), //$NON-NLS-1$
+        };
+        helpProcess(plan, cc, dataMgr, expected);
+        assertEquals(0, planCache.getCachePutCount());
+        assertEquals(0, planCache.getCacheHitCount());
+    }
+
     @Test public void testDynamicCommandValidationFails() throws Exception {
         TransformationMetadata metadata = RealMetadataFactory.example1();
 
@@ -21,12 +21,19 @@ package org.teiid.query.processor.relational;
 import static org.junit.Assert.*;
 
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 import org.teiid.common.buffer.BufferManager;
 import org.teiid.common.buffer.BufferManagerFactory;
+import org.teiid.query.metadata.TransformationMetadata;
+import org.teiid.query.optimizer.TestOptimizer;
+import org.teiid.query.optimizer.capabilities.BasicSourceCapabilities;
+import org.teiid.query.optimizer.capabilities.DefaultCapabilitiesFinder;
 import org.teiid.query.parser.QueryParser;
 import org.teiid.query.processor.FakeDataManager;
+import org.teiid.query.processor.HardcodedDataManager;
+import org.teiid.query.processor.ProcessorPlan;
 import org.teiid.query.processor.TestProcessor;
 import org.teiid.query.resolver.TestResolver;
 import org.teiid.query.sql.lang.Command;
@@ -40,6 +47,7 @@ import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.sql.symbol.GroupSymbol;
 import org.teiid.query.unittest.RealMetadataFactory;
 import org.teiid.query.util.CommandContext;
+import org.teiid.translator.SourceSystemFunctions;
 
 
 
@@ -127,4 +135,41 @@ public class TestAccessNode {
     @Test public void testUninitailizedClose() throws Exception {
         new AccessNode().close();
     }
+
+    @Test public void testPartitionedScan() throws Exception {
+        TransformationMetadata tm = RealMetadataFactory.fromDDL("create foreign table g1 (e1 string, e2 integer not null) "
+                + "options (\"teiid_rel:PARTITION_COLUMN\" 'e2', \"teiid_rel:PARTITION_COUNT\" '3')", "x", "y");
+        BasicSourceCapabilities bsc = TestOptimizer.getTypicalCapabilities();
+        bsc.setFunctionSupport(SourceSystemFunctions.MOD, true);
+
+        ProcessorPlan plan = TestProcessor.helpGetPlan("SELECT e1 FROM g1", tm, new DefaultCapabilitiesFinder(bsc)); //$NON-NLS-1$
+        assertTrue(((RelationalPlan)plan).getRootNode() instanceof PartitionedAccessNode);
+
+        HardcodedDataManager dataManager = new HardcodedDataManager();
+        dataManager.addData("SELECT g_0.e1 FROM y.g1 AS g_0 WHERE mod(g_0.e2, 3) = 0", Arrays.asList("a")); //$NON-NLS-1$ //$NON-NLS-2$
+        dataManager.addData("SELECT g_0.e1 FROM y.g1 AS g_0 WHERE mod(g_0.e2, 3) IN (1, -2)", Arrays.asList("b")); //$NON-NLS-1$ //$NON-NLS-2$
+        dataManager.addData("SELECT g_0.e1 FROM y.g1 AS g_0 WHERE mod(g_0.e2, 3) IN (2, -1)", Arrays.asList("c")); //$NON-NLS-1$ //$NON-NLS-2$
+        TestProcessor.helpProcess(plan, dataManager, new List[] {Arrays.asList("a"), Arrays.asList("b"), Arrays.asList("c")}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertEquals(3, dataManager.getCommandHistory().size());
+
+        //ordering prevents partitioning
+        plan = TestProcessor.helpGetPlan("SELECT e1 FROM g1 ORDER BY e1", tm, new DefaultCapabilitiesFinder(bsc)); //$NON-NLS-1$
+        assertFalse(((RelationalPlan)plan).getRootNode() instanceof PartitionedAccessNode);
+
+        //a limit above a non-pushed select prevents partitioning
+        plan = TestProcessor.helpGetPlan("SELECT e1 FROM g1 WHERE upper(e1) = 'A' LIMIT 1", tm, new DefaultCapabilitiesFinder(bsc)); //$NON-NLS-1$
+        RelationalNode node = ((RelationalPlan)plan).getRootNode();
+        while (!(node instanceof AccessNode)) {
+            node = node.getChildren()[0];
+        }
+        assertFalse(node instanceof PartitionedAccessNode);
+
+        //but not without the limit
+        plan = TestProcessor.helpGetPlan("SELECT e1 FROM g1 WHERE upper(e1) = 'A'", tm, new DefaultCapabilitiesFinder(bsc)); //$NON-NLS-1$
+        node = ((RelationalPlan)plan).getRootNode();
+        while (!(node instanceof AccessNode)) {
+            node = node.getChildren()[0];
+        }
+        assertTrue(node instanceof PartitionedAccessNode);
+    }
 }
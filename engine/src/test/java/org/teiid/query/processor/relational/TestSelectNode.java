@@ -42,7 +42,9 @@ import org.teiid.query.processor.FakeDataManager;
 import org.teiid.query.processor.ProcessorDataManager;
 import org.teiid.query.processor.QueryProcessor;
 import org.teiid.query.sql.lang.CompareCriteria;
+import org.teiid.query.sql.lang.CompoundCriteria;
 import org.teiid.query.sql.lang.Criteria;
+import org.teiid.query.sql.lang.NotCriteria;
 import org.teiid.query.sql.symbol.Constant;
 import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.sql.symbol.Expression;
@@ -229,6 +231,39 @@ public class TestSelectNode {
 
     }
 
+    @Test public void testBatchSelectWithNulls() throws TeiidComponentException, TeiidProcessingException {
+        ElementSymbol es1 = new ElementSymbol("e1"); //$NON-NLS-1$
+        es1.setType(DataTypeManager.DefaultDataClasses.INTEGER);
+
+        ElementSymbol es2 = new ElementSymbol("e2"); //$NON-NLS-1$
+        es2.setType(DataTypeManager.DefaultDataClasses.STRING);
+
+        List elements = new ArrayList();
+        elements.add(es1);
+        elements.add(es2);
+
+        Criteria crit = new CompoundCriteria(CompoundCriteria.AND, new CompareCriteria(es1, CompareCriteria.GE, new Constant(2)),
+                new NotCriteria(new CompareCriteria(es2, CompareCriteria.EQ, new Constant("b")))); //$NON-NLS-1$
+
+        List[] data = new List[] {
+            Arrays.asList(1, "a"), //$NON-NLS-1$
+            Arrays.asList(2, null),
+            Arrays.asList(3, "a"), //$NON-NLS-1$
+            Arrays.asList(null, "a"), //$NON-NLS-1$
+            Arrays.asList(4, "b"), //$NON-NLS-1$
+            Arrays.asList(5, "c"), //$NON-NLS-1$
+            Arrays.asList(2, "a"), //$NON-NLS-1$
+        };
+
+        List[] expected = new List[] {
+            Arrays.asList(3, "a"), //$NON-NLS-1$
+            Arrays.asList(5, "c"), //$NON-NLS-1$
+            Arrays.asList(2, "a"), //$NON-NLS-1$
+        };
+
+        helpTestSelect(elements, crit, elements, null, expected, new FakeRelationalNode(3, data));
+    }
+
     @Test public void testSelectWithLookup() throws TeiidComponentException, TeiidProcessingException {
         ElementSymbol es1 = new ElementSymbol("e1"); //$NON-NLS-1$
         es1.setType(DataTypeManager.DefaultDataClasses.INTEGER);
@@ -377,4 +377,28 @@ public class TestSortNode {
         assertNull(ts.nextTuple());
     }
 
+    @Test public void testTopN() throws Exception {
+        ElementSymbol es1 = new ElementSymbol("e1"); //$NON-NLS-1$
+        es1.setType(DataTypeManager.DefaultDataClasses.INTEGER);
+        ElementSymbol es2 = new ElementSymbol("e2"); //$NON-NLS-1$
+        es2.setType(DataTypeManager.DefaultDataClasses.STRING);
+        BufferManager bm = BufferManagerFactory.getStandaloneBufferManager();
+        TupleBuffer tsid = bm.createTupleBuffer(Arrays.asList(es1, es2), "test", TupleSourceType.PROCESSOR); //$NON-NLS-1$
+        for (int i = 0; i < 1000; i++) {
+            tsid.addTuple(Arrays.asList((i * 7919) % 1000, String.valueOf(i)));
+        }
+        tsid.addTuple(Arrays.asList(null, "x")); //$NON-NLS-1$
+        tsid.close();
+        SortUtility su = new SortUtility(tsid.createIndexedTupleSource(), Arrays.asList(es1), Arrays.asList(Boolean.FALSE), Mode.SORT, bm, "test", tsid.getSchema()); //$NON-NLS-1$
+        su.setBatchSize(4);
+        TupleBuffer out = su.sort(5);
+        assertEquals(5, out.getRowCount());
+        TupleSource ts = out.createIndexedTupleSource();
+        for (int i = 999; i > 994; i--) {
+            assertEquals(i, ts.nextTuple().get(0));
+        }
+        assertNull(ts.nextTuple());
+        su.remove();
+    }
+
 }
@@ -22,7 +22,12 @@ import static org.junit.Assert.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import org.teiid.common.buffer.BlockedException;
@@ -35,6 +40,7 @@ import org.teiid.core.types.DataTypeManager;
 import org.teiid.query.processor.FakeDataManager;
 import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.util.CommandContext;
+import org.teiid.query.util.Options;
 
 
 /**
@@ -221,4 +227,80 @@ public class TestUnionAllNode {
         helpTestUnionConfigs(3, 1, 6, 1, expected);
     }
 
+    @Test public void testParallelBranches() throws Exception {
+        //run the branches inline, but verify that they were handed off
+        final AtomicInteger handedOff = new AtomicInteger();
+        helpTestParallelBranches(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                handedOff.incrementAndGet();
+                command.run();
+            }
+        });
+        assertTrue(handedOff.get() >= 4);
+    }
+
+    @Test public void testParallelBranchesThreadPool() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 10; i++) {
+                helpTestParallelBranches(executor);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void helpTestParallelBranches(Executor executor) throws Exception {
+        ElementSymbol es1 = new ElementSymbol("e1"); //$NON-NLS-1$
+        es1.setType(DataTypeManager.DefaultDataClasses.INTEGER);
+        List<ElementSymbol> elements = Arrays.asList(es1);
+
+        UnionAllNode union = new UnionAllNode(5);
+        union.setElements(elements);
+        List<Integer> expected = new ArrayList<Integer>();
+        RelationalNode[] nodes = new RelationalNode[4];
+        for (int i = 0; i < nodes.length; i++) {
+            List[] tuples = new List[5];
+            for (int r = 0; r < tuples.length; r++) {
+                tuples[r] = Arrays.asList(i * 10 + r);
+                expected.add(i * 10 + r);
+            }
+            nodes[i] = i % 2 == 0 ? new BlockingFakeRelationalNode(i, tuples, 2) : new FakeRelationalNode(i, tuples, 1);
+            nodes[i].setElements(elements);
+        }
+
+        BufferManager mgr = BufferManagerFactory.getStandaloneBufferManager();
+        CommandContext context = new CommandContext("pid", "test", null, null, 1); //$NON-NLS-1$ //$NON-NLS-2$
+        context.setOptions(new Options().parallelUnionBranches(true));
+        context.setUserRequestSourceConcurrency(2);
+        context.setExecutor(executor);
+        FakeDataManager fdm = new FakeDataManager();
+        for (RelationalNode node : nodes) {
+            union.addChild(node);
+            node.initialize(context, mgr, fdm);
+        }
+        union.initialize(context, mgr, fdm);
+        union.open();
+
+        List<Integer> actual = new ArrayList<Integer>();
+        while (true) {
+            try {
+                TupleBatch batch = union.nextBatch();
+                assertEquals(actual.size() + 1, batch.getBeginRow());
+                for (List<?> tuple : batch.getTuples()) {
+                    actual.add((Integer)tuple.get(0));
+                }
+                if (batch.getTerminationFlag()) {
+                    break;
+                }
+            } catch (BlockedException e) {
+                // ignore and retry
+            }
+        }
+        union.close();
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
 }
@@ -21,6 +21,7 @@ package org.teiid.query.sql.lang;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
+import org.teiid.api.exception.query.ExpressionEvaluationException;
 import org.teiid.core.util.UnitTestUtil;
 import org.teiid.query.sql.symbol.Constant;
 import org.teiid.query.sql.symbol.ElementSymbol;
@@ -122,4 +123,43 @@ public class TestMatchCriteria {
         int equals = -1;
         UnitTestUtil.helpTestEquivalence(equals, c1, c2);
     }
+
+    private void helpTestLike(String pattern, char escape, String value, boolean expected) throws Exception {
+        LikeMatcher matcher = LikeMatcher.compile(pattern, escape);
+        assertEquals(expected, matcher.matches(value));
+        assertEquals(expected, matcher.matches(new StringBuilder(value)));
+    }
+
+    @Test public void testLikeMatcher() throws Exception {
+        helpTestLike("abc", '#', "abc", true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("abc", '#', "abcd", false); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("ab%", '#', "abcd", true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("%cd", '#', "abcd", true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("%cd", '#', "abcde", false); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("%bcd%", '#', "abcde", true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("%bce%", '#', "abcde", false); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("a_c%e", '#', "abcde", true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("a%c%c", '#', "abcbc", true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("a%bc%bc", '#', "abc", false); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("a#%%", '#', "a%b", true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("a#%%", '#', "ab", false); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("a##_", '#', "a#b", true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("%", MatchCriteria.NULL_ESCAPE_CHAR, "", true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestLike("", MatchCriteria.NULL_ESCAPE_CHAR, "a", false); //$NON-NLS-1$ //$NON-NLS-2$
+        //a single match char matches a surrogate pair
+        helpTestLike("a_", MatchCriteria.NULL_ESCAPE_CHAR, "a\uD83D\uDE00", true); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertEquals("ab%c", LikeMatcher.compile("ab#%c_d%", '#').getPrefix()); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Test(expected=ExpressionEvaluationException.class) public void testLikeMatcherInvalidEscape() throws Exception {
+        LikeMatcher.compile("a#b", '#'); //$NON-NLS-1$
+    }
+
+    @Test public void testLikeMatcherCached() throws Exception {
+        MatchCriteria c1 = example("abc%"); //$NON-NLS-1$
+        LikeMatcher matcher = c1.getLikeMatcher("abc%"); //$NON-NLS-1$
+        assertSame(matcher, c1.getLikeMatcher("abc%")); //$NON-NLS-1$
+        assertNotSame(matcher, c1.getLikeMatcher("abd%")); //$NON-NLS-1$
+    }
 }
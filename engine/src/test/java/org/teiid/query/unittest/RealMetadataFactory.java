@@ -511,6 +511,7 @@ public class RealMetadataFactory {
 
         KeyRecord pk = createKey(KeyRecord.Type.Primary, "pk", vGroup5, vElements5.subList(0, 1));
         createKey(KeyRecord.Type.Index, "idx", vGroup5, vElements5.subList(1, 2));
+        createKey(KeyRecord.Type.Index, "idx1", vGroup5, vElements5.subList(2, 3));
 
         //no pk
         QueryNode vTrans6 = new QueryNode("SELECT x, 'z' || substring(x, 2) as y FROM matsrc");         //$NON-NLS-1$ //$NON-NLS-2$
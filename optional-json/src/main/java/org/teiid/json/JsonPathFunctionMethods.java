@@ -124,6 +124,15 @@ public class JsonPathFunctionMethods {
             }
         }
 
+        StreamingJsonPath streaming = StreamingJsonPath.compile(jsonPath, colpaths, ORDINAL);
+        if (streaming != null) {
+            //avoid building the full document for simple paths
+            Object[] rows = streaming.read(clob.getCharacterStream(), nullLeaf);
+            if (rows != null) {
+                return rows;
+            }
+        }
+
         JsonPath path = JsonPath.compile(jsonPath);
         Object result = jsonPathRead(clob.getCharacterStream(), path, nullLeaf);
         if (result == null) {
@@ -0,0 +1,419 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.teiid.json.simple.ContentHandler;
+import org.teiid.json.simple.JSONParser;
+import org.teiid.json.simple.ParseException;
+
+/**
+ * Evaluates a restricted form of the jsontoarray paths over a streaming parse of the document.
+ * <p>
+ * Only the context path and the projected column values are retained, rather than the whole
+ * document tree.  The context path may use child names, non-negative indexes and slices,
+ * and wildcards, but not deep scans or filters.  Column paths must be a single child name.
+ * <p>
+ * When the document does not fit the expectations of the restricted evaluation, for example
+ * a row item that is not an object, a column value that is itself an object or array, or a
+ * missing definite path, {@link #read(Reader, boolean)} returns null so that the caller may
+ * use full jsonpath evaluation instead.
+ */
+final class StreamingJsonPath {
+
+    private static final class Step {
+        String name;
+        int from = -1;
+        int to = Integer.MAX_VALUE;
+        boolean wildcard;
+    }
+
+    private enum Role {
+        NONE,
+        PATH,
+        ROW_CONTAINER,
+        ROW,
+        COLUMN
+    }
+
+    private static final class Frame {
+        Role role;
+        boolean object;
+        int depth;
+        int count;
+        String key;
+    }
+
+    private List<Step> steps;
+    private boolean definite = true;
+    private int columnCount;
+    private List<Integer> ordinals = new ArrayList<>(1);
+    private Map<String, List<Integer>> columns = new HashMap<>();
+
+    private StreamingJsonPath() {
+
+    }
+
+    /**
+     * @return the compiled paths or null if the paths cannot be evaluated in a streaming manner
+     */
+    static StreamingJsonPath compile(String contextPath, String[] colpaths, String ordinal) {
+        if (colpaths.length == 0) {
+            return null;
+        }
+        StreamingJsonPath result = new StreamingJsonPath();
+        result.steps = parseSteps(contextPath, '$');
+        if (result.steps == null) {
+            return null;
+        }
+        for (Step step : result.steps) {
+            if (step.wildcard) {
+                result.definite = false;
+            }
+        }
+        result.columnCount = colpaths.length;
+        for (int i = 0; i < colpaths.length; i++) {
+            if (colpaths[i].equalsIgnoreCase(ordinal)) {
+                result.ordinals.add(i);
+                continue;
+            }
+            List<Step> colSteps = parseSteps(colpaths[i], '@');
+            if (colSteps == null || colSteps.size() != 1 || colSteps.get(0).name == null) {
+                return null;
+            }
+            String name = colSteps.get(0).name;
+            List<Integer> indexes = result.columns.get(name);
+            if (indexes == null) {
+                indexes = new ArrayList<>(1);
+                result.columns.put(name, indexes);
+            }
+            indexes.add(i);
+        }
+        return result;
+    }
+
+    private static List<Step> parseSteps(String path, char root) {
+        path = path.trim();
+        if (path.isEmpty() || path.charAt(0) != root) {
+            return null;
+        }
+        List<Step> result = new ArrayList<>();
+        int i = 1;
+        while (i < path.length()) {
+            Step step = new Step();
+            char c = path.charAt(i);
+            if (c == '.') {
+                int start = ++i;
+                while (i < path.length() && path.charAt(i) != '.' && path.charAt(i) != '[') {
+                    i++;
+                }
+                String name = path.substring(start, i);
+                if (name.equals("*")) { //$NON-NLS-1$
+                    step.wildcard = true;
+                } else if (name.isEmpty() || !isSimpleName(name)) {
+                    //deep scan or a function
+                    return null;
+                } else {
+                    step.name = name;
+                }
+            } else if (c == '[') {
+                int end = path.indexOf(']', i);
+                if (end < 0) {
+                    return null;
+                }
+                String inner = path.substring(i + 1, end).trim();
+                i = end + 1;
+                if (inner.equals("*")) { //$NON-NLS-1$
+                    step.wildcard = true;
+                } else if (inner.length() > 1 && inner.charAt(0) == '\'' && inner.charAt(inner.length() - 1) == '\'') {
+                    String name = inner.substring(1, inner.length() - 1);
+                    if (name.indexOf('\'') >= 0 || name.indexOf('\\') >= 0) {
+                        return null;
+                    }
+                    step.name = name;
+                } else if (!parseRange(inner, step)) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+            result.add(step);
+        }
+        return result;
+    }
+
+    private static boolean isSimpleName(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '$') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * parse a non-negative index or slice
+     */
+    private static boolean parseRange(String inner, Step step) {
+        int colon = inner.indexOf(':');
+        try {
+            if (colon < 0) {
+                step.from = Integer.parseInt(inner);
+                step.to = step.from + 1;
+            } else {
+                String from = inner.substring(0, colon).trim();
+                String to = inner.substring(colon + 1).trim();
+                step.from = from.isEmpty() ? 0 : Integer.parseInt(from);
+                if (!to.isEmpty()) {
+                    step.to = Integer.parseInt(to);
+                }
+                //force the slice to be indefinite
+                step.wildcard = true;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return step.from >= 0 && step.to >= 0;
+    }
+
+    /**
+     * @return the rows or null if full jsonpath evaluation is needed
+     */
+    Object[] read(Reader reader, final boolean nullLeaf) throws IOException {
+        final List<Object[]> rows = new ArrayList<>();
+        final boolean[] fallback = new boolean[1];
+        final int[] matches = new int[1];
+        ContentHandler handler = new ContentHandler() {
+            private ArrayList<Frame> stack = new ArrayList<>();
+            private Object[] row;
+            private boolean[] found;
+
+            @Override
+            public void startJSON() throws ParseException, IOException {
+
+            }
+
+            @Override
+            public void endJSON() throws ParseException, IOException {
+
+            }
+
+            @Override
+            public boolean startObject() throws ParseException, IOException {
+                return start(true);
+            }
+
+            @Override
+            public boolean startArray() throws ParseException, IOException {
+                return start(false);
+            }
+
+            private boolean start(boolean object) {
+                Role role = valueRole();
+                if (role == null) {
+                    return false;
+                }
+                if (role == Role.PATH && isContext()) {
+                    matches[0]++;
+                    if (definite && !object) {
+                        role = Role.ROW_CONTAINER;
+                    } else if (object) {
+                        role = Role.ROW;
+                    } else {
+                        return abort();
+                    }
+                } else if (role == Role.ROW && !object) {
+                    return abort();
+                } else if (role == Role.COLUMN) {
+                    //nested values are not captured
+                    return abort();
+                }
+                if (role == Role.ROW) {
+                    row = new Object[columnCount];
+                    found = new boolean[columnCount];
+                    for (int i : ordinals) {
+                        found[i] = true;
+                    }
+                }
+                Frame frame = new Frame();
+                frame.role = role;
+                frame.object = object;
+                frame.depth = stack.size();
+                stack.add(frame);
+                return true;
+            }
+
+            private boolean isContext() {
+                return stack.size() == steps.size();
+            }
+
+            /**
+             * Determine the role of the value starting at the current position
+             * @return the role or null if parsing should stop
+             */
+            private Role valueRole() {
+                if (stack.isEmpty()) {
+                    return Role.PATH;
+                }
+                Frame parent = stack.get(stack.size() - 1);
+                int index = parent.count++;
+                switch (parent.role) {
+                case PATH:
+                    Step step = steps.get(parent.depth);
+                    if (step.name != null) {
+                        if (!parent.object) {
+                            abort();
+                            return null;
+                        }
+                        return step.name.equals(parent.key) ? Role.PATH : Role.NONE;
+                    }
+                    if (step.from >= 0) {
+                        if (parent.object) {
+                            abort();
+                            return null;
+                        }
+                        return index >= step.from && index < step.to ? Role.PATH : Role.NONE;
+                    }
+                    return Role.PATH;
+                case ROW_CONTAINER:
+                    return Role.ROW;
+                case ROW:
+                    return columns.containsKey(parent.key) ? Role.COLUMN : Role.NONE;
+                default:
+                    return Role.NONE;
+                }
+            }
+
+            private boolean abort() {
+                fallback[0] = true;
+                return false;
+            }
+
+            @Override
+            public boolean endObject() throws ParseException, IOException {
+                Frame frame = stack.remove(stack.size() - 1);
+                if (frame.role == Role.ROW) {
+                    if (!nullLeaf) {
+                        for (boolean f : found) {
+                            if (!f) {
+                                //let jsonpath raise the missing path
+                                return abort();
+                            }
+                        }
+                    }
+                    for (int i : ordinals) {
+                        row[i] = rows.size() + 1;
+                    }
+                    rows.add(row);
+                    row = null;
+                }
+                return true;
+            }
+
+            @Override
+            public boolean endArray() throws ParseException, IOException {
+                stack.remove(stack.size() - 1);
+                return true;
+            }
+
+            @Override
+            public boolean startObjectEntry(String key) throws ParseException, IOException {
+                stack.get(stack.size() - 1).key = key;
+                return true;
+            }
+
+            @Override
+            public boolean endObjectEntry() throws ParseException, IOException {
+                return true;
+            }
+
+            @Override
+            public boolean primitive(Object value) throws ParseException, IOException {
+                Role role = valueRole();
+                if (role == null) {
+                    return false;
+                }
+                if (role == Role.PATH && isContext()) {
+                    if (definite) {
+                        //scalar or null context item
+                        return abort();
+                    }
+                    role = Role.ROW;
+                }
+                switch (role) {
+                case ROW:
+                    if (value != null) {
+                        return abort();
+                    }
+                    //null items are skipped
+                    break;
+                case COLUMN:
+                    Frame parent = stack.get(stack.size() - 1);
+                    for (int i : columns.get(parent.key)) {
+                        row[i] = toJsonSmartValue(value);
+                        found[i] = true;
+                    }
+                    break;
+                default:
+                    break;
+                }
+                return true;
+            }
+        };
+        try {
+            new JSONParser().parse(reader, handler);
+        } catch (ParseException e) {
+            //may be valid to the more permissive parser
+            return null;
+        } finally {
+            reader.close();
+        }
+        if (fallback[0] || (definite && matches[0] != 1)) {
+            return null;
+        }
+        return rows.toArray(new Object[rows.size()]);
+    }
+
+    /**
+     * Use the same value types as the json-smart parser used by jsonpath
+     */
+    static Object toJsonSmartValue(Object value) {
+        if (value instanceof Long) {
+            long l = (Long)value;
+            if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) {
+                return (int)l;
+            }
+        } else if (value instanceof BigDecimal) {
+            BigDecimal bd = (BigDecimal)value;
+            if (bd.toString().length() <= 18) {
+                return bd.doubleValue();
+            }
+        }
+        return value;
+    }
+
+}
@@ -98,6 +98,34 @@ public class TestJsonPath {
         assertEquals("[[Nigel Rees, null], [Evelyn Waugh, null], [Herman Melville, null], [J. R. R. Tolkien, null]]", Arrays.deepToString(result));
     }
 
+    @Test public void testJsonToArrayStreaming() throws Exception {
+        StreamingJsonPath path = StreamingJsonPath.compile("$.store.book[*]", new String[] {"ordinal", "@.author", "@['price']", "@.isbn"}, "ordinal");
+        Object[] result = path.read(new ClobImpl(EXAMPLE).getCharacterStream(), true);
+        assertEquals("[[1, Nigel Rees, 8.95, null], [2, Evelyn Waugh, 12.99, null], [3, Herman Melville, 8.99, 0-553-21311-3], [4, J. R. R. Tolkien, 22.99, 0-395-19395-8]]", Arrays.deepToString(result));
+        assertEquals(Double.class, ((Object[])result[0])[2].getClass());
+
+        result = JsonPathFunctionMethods.jsonToArray(new ClobImpl(EXAMPLE), "$.store.book[1:3]", true, "@.title", "ordinal");
+        assertEquals("[[Sword of Honour, 1], [Moby Dick, 2]]", Arrays.deepToString(result));
+    }
+
+    @Test public void testJsonToArrayStreamingFallback() throws Exception {
+        assertNull(StreamingJsonPath.compile("$..book", new String[] {"@.author"}, "ordinal"));
+        assertNull(StreamingJsonPath.compile("$.store.book[?(@.price < 10)]", new String[] {"@.author"}, "ordinal"));
+        assertNull(StreamingJsonPath.compile("$.store.book", new String[] {"@.author.name"}, "ordinal"));
+
+        //the book array is not an object item
+        StreamingJsonPath path = StreamingJsonPath.compile("$.store.*", new String[] {"@.price"}, "ordinal");
+        assertNull(path.read(new ClobImpl(EXAMPLE).getCharacterStream(), true));
+
+        //missing values without null leaf are left to jsonpath
+        path = StreamingJsonPath.compile("$.store.book", new String[] {"@.isbn"}, "ordinal");
+        assertNull(path.read(new ClobImpl(EXAMPLE).getCharacterStream(), false));
+    }
+
+    @Test(expected=PathNotFoundException.class) public void testJsonToArrayMissingNotNullLeaf() throws Exception {
+        JsonPathFunctionMethods.jsonToArray(new ClobImpl(EXAMPLE), "$.store.book", false, "@.isbn");
+    }
+
     @Test(expected=FunctionExecutionException.class) public void testJsonToArrayInvalidPath() throws Exception {
         JsonPathFunctionMethods.jsonToArray(new ClobImpl(EXAMPLE), "$.store.book", true, ".author", "@.type");
     }
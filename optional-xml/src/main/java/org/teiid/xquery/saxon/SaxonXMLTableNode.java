@@ -21,6 +21,7 @@ package org.teiid.xquery.saxon;
 import java.lang.reflect.Array;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
@@ -29,6 +30,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.teiid.api.exception.query.ExpressionEvaluationException;
 import org.teiid.client.plan.PlanNode;
@@ -120,6 +124,7 @@ public class SaxonXMLTableNode extends SubqueryAwareRelationalNode {
     private int rowLimit = -1;
 
     private boolean streaming;
+    private boolean parallelRows;
 
     public SaxonXMLTableNode(int nodeID) {
         super(nodeID);
@@ -182,6 +187,17 @@ public class SaxonXMLTableNode extends SubqueryAwareRelationalNode {
             }
         }
         streaming = this.saxonXQueryExpression.isStreaming();
+        parallelRows = streaming && getContext().getOptions().isParallelXmlTableRows()
+                && this.saxonXQueryExpression.isSubtreeColumns();
+        if (parallelRows) {
+            for (XMLColumn proColumn : projectedColumns) {
+                if (proColumn.getDefaultExpression() != null) {
+                    //default expressions use the shared evaluator
+                    parallelRows = false;
+                    break;
+                }
+            }
+        }
     }
 
     @Override
@@ -220,7 +236,8 @@ public class SaxonXMLTableNode extends SubqueryAwareRelationalNode {
                     break;
                 }
             }
-            addBatchRow(processRow());
+            addBatchRow(processRow(item, rowCount));
+            item = null;
             if (rowCount == rowLimit) {
                 terminateBatches();
                 break;
@@ -260,6 +277,7 @@ public class SaxonXMLTableNode extends SubqueryAwareRelationalNode {
                     this.buffer.setForwardOnly(true);
                 }
             }
+            final ParallelRowProcessor parallelProcessor = parallelRows?new ParallelRowProcessor(buffer):null;
             Runnable r = new Runnable() {
                 TupleBuffer b = buffer;
                 @Override
@@ -269,6 +287,10 @@ public class SaxonXMLTableNode extends SubqueryAwareRelationalNode {
 
                             @Override
                             public void processRow(NodeInfo row) {
+                                if (parallelProcessor != null) {
+                                    parallelProcessor.submit(row);
+                                    return;
+                                }
                                 synchronized (SaxonXMLTableNode.this) {
                                     if (b != buffer) {
                                         //if the buffer has changed we've been reset
@@ -278,6 +300,9 @@ public class SaxonXMLTableNode extends SubqueryAwareRelationalNode {
                                 }
                             }
                         }, getContext());
+                        if (parallelProcessor != null) {
+                            parallelProcessor.finish();
+                        }
                     } catch (TeiidRuntimeException e) {
                         if (e != EARLY_TERMINATION) {
                             asynchException = e;
@@ -285,6 +310,9 @@ public class SaxonXMLTableNode extends SubqueryAwareRelationalNode {
                     } catch (Throwable e) {
                         asynchException = new TeiidRuntimeException(e);
                     } finally {
+                        if (parallelProcessor != null) {
+                            parallelProcessor.cancel();
+                        }
                         synchronized (SaxonXMLTableNode.this) {
                             if (buffer != null && asynchException == null) {
                                 try {
@@ -309,15 +337,15 @@ public class SaxonXMLTableNode extends SubqueryAwareRelationalNode {
         }
     }
 
-    private List<?> processRow() throws ExpressionEvaluationException, BlockedException,
+    private List<?> processRow(Item item, long rowNumber) throws ExpressionEvaluationException, BlockedException,
             TeiidComponentException, TeiidProcessingException {
         List<Object> tuple = new ArrayList<Object>(projectedColumns.size());
         for (XMLColumn proColumn : projectedColumns) {
             if (proColumn.isOrdinal()) {
-                if (rowCount > Integer.MAX_VALUE) {
+                if (rowNumber > Integer.MAX_VALUE) {
                     throw new TeiidRuntimeException(new TeiidProcessingException(QueryPlugin.Event.TEIID31174, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31174)));
                 }
-                tuple.add((int)rowCount);
+                tuple.add((int)rowNumber);
             } else {
                 try {
                     XPathExpression path = this.saxonXQueryExpression.getXPathExpression(proColumn.getName());
@@ -357,7 +385,6 @@ public class SaxonXMLTableNode extends SubqueryAwareRelationalNode {
                 }
             }
         }
-        item = null;
         return tuple;
     }
 
@@ -427,24 +454,103 @@ public class SaxonXMLTableNode extends SubqueryAwareRelationalNode {
             throw EARLY_TERMINATION;
         }
         assert this.state != State.DONE;
-        this.item = row;
         rowCount++;
         try {
-            this.buffer.addTuple(processRow());
-            if (this.buffer.getRowCount() == rowLimit) {
-                throw EARLY_TERMINATION;
-            }
-            if (state == State.BUILDING && hasNextBatch()) {
-                this.state = State.AVAILABLE;
-                this.notifyAll();
-            }
+            addTuple(processRow(row, rowCount));
         } catch (TeiidException e) {
              throw new TeiidRuntimeException(e);
         }
     }
 
+    private void addTuple(List<?> tuple) throws TeiidComponentException {
+        this.buffer.addTuple(tuple);
+        if (this.buffer.getRowCount() == rowLimit) {
+            throw EARLY_TERMINATION;
+        }
+        if (state == State.BUILDING && hasNextBatch()) {
+            this.state = State.AVAILABLE;
+            this.notifyAll();
+        }
+    }
+
     private boolean hasNextBatch() {
-        return this.outputRow + this.buffer.getBatchSize() <= rowCount + 1;
+        return this.outputRow + this.buffer.getBatchSize() <= this.buffer.getRowCount() + 1;
+    }
+
+    /**
+     * Evaluates the column paths of streamed rows on the request executor
+     * while the document is still being parsed.  Each row is copied from the
+     * document so that it can be evaluated independently, and the rows are added
+     * to the buffer in document order.
+     */
+    private final class ParallelRowProcessor {
+
+        private TupleBuffer b;
+        private ArrayDeque<FutureTask<List<?>>> pending = new ArrayDeque<FutureTask<List<?>>>();
+        private int maxPending;
+        private long submitted;
+
+        ParallelRowProcessor(TupleBuffer b) {
+            this.b = b;
+            this.maxPending = 2 * Math.max(1, getContext().getUserRequestSourceConcurrency());
+        }
+
+        void submit(NodeInfo row) {
+            final NodeInfo copy = XQueryEvaluator.detach(row, saxonXQueryExpression.getConfig());
+            final long rowNumber = ++submitted;
+            FutureTask<List<?>> task = new FutureTask<List<?>>(new Callable<List<?>>() {
+                @Override
+                public List<?> call() throws Exception {
+                    return processRow(copy, rowNumber);
+                }
+            });
+            pending.add(task);
+            getContext().getExecutor().execute(task);
+            while (pending.size() > maxPending) {
+                addNext();
+            }
+        }
+
+        void finish() {
+            while (!pending.isEmpty()) {
+                addNext();
+            }
+        }
+
+        void cancel() {
+            for (FutureTask<List<?>> task : pending) {
+                task.cancel(false);
+            }
+            pending.clear();
+        }
+
+        private void addNext() {
+            FutureTask<List<?>> task = pending.removeFirst();
+            //evaluate here if a worker has not already started the row
+            task.run();
+            List<?> tuple = null;
+            try {
+                tuple = task.get();
+            } catch (InterruptedException e) {
+                throw new TeiidRuntimeException(QueryPlugin.Event.TEIID30169, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof TeiidRuntimeException) {
+                    throw (TeiidRuntimeException)e.getCause();
+                }
+                throw new TeiidRuntimeException(e.getCause());
+            }
+            synchronized (SaxonXMLTableNode.this) {
+                if (b != buffer || isClosed()) {
+                    throw EARLY_TERMINATION;
+                }
+                rowCount++;
+                try {
+                    addTuple(tuple);
+                } catch (TeiidComponentException e) {
+                    throw new TeiidRuntimeException(e);
+                }
+            }
+        }
     }
 
     @Override
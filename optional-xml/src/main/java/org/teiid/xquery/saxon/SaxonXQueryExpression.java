@@ -20,6 +20,7 @@ package org.teiid.xquery.saxon;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -62,6 +63,7 @@ import net.sf.saxon.expr.ContextItemExpression;
 import net.sf.saxon.expr.Expression;
 import net.sf.saxon.expr.Operand;
 import net.sf.saxon.expr.RootExpression;
+import net.sf.saxon.expr.StaticProperty;
 import net.sf.saxon.expr.SystemFunctionCall;
 import net.sf.saxon.expr.parser.PathMap;
 import net.sf.saxon.expr.parser.PathMap.PathMapArc;
@@ -75,6 +77,7 @@ import net.sf.saxon.om.NodeInfo;
 import net.sf.saxon.om.SequenceIterator;
 import net.sf.saxon.om.StructuredQName;
 import net.sf.saxon.pattern.AnyNodeTest;
+import net.sf.saxon.pattern.NodeTest;
 import net.sf.saxon.query.QueryResult;
 import net.sf.saxon.query.StaticQueryContext;
 import net.sf.saxon.query.XQueryExpression;
@@ -83,6 +86,7 @@ import net.sf.saxon.sxpath.XPathEvaluator;
 import net.sf.saxon.sxpath.XPathExpression;
 import net.sf.saxon.trace.ExpressionPresenter;
 import net.sf.saxon.trans.XPathException;
+import net.sf.saxon.type.BuiltInAtomicType;
 import net.sf.saxon.type.ItemType;
 import net.sf.saxon.value.EmptySequence;
 import net.sf.saxon.value.SequenceType;
@@ -184,7 +188,10 @@ public class SaxonXQueryExpression implements org.teiid.query.xquery.XQueryExpre
     Configuration config = new Configuration();
     PathMapRoot contextRoot;
     String streamingPath;
+    XPathExpression[] streamingPredicates;
+    boolean subtreeColumns;
     Map<String, XPathExpression> columnMap;
+    IndependentContext staticContext;
 
     boolean relativePaths = true;
 
@@ -231,6 +238,7 @@ public class SaxonXQueryExpression implements org.teiid.query.xquery.XQueryExpre
         }
 
         saxonXQueryExpression.processColumns(columns, ic);
+        saxonXQueryExpression.staticContext = ic;
 
         try {
             saxonXQueryExpression.xQuery = context.compileQuery(xQueryString);
@@ -259,8 +267,15 @@ public class SaxonXQueryExpression implements org.teiid.query.xquery.XQueryExpre
     }
 
     public void useDocumentProjection(List<XMLTable.XMLColumn> columns, AnalysisRecord record) {
+        this.streamingPath = null;
+        this.streamingPredicates = null;
+        this.subtreeColumns = false;
         try {
-            streamingPath = StreamingUtils.getStreamingPath(xQueryString, namespaceMap);
+            List<String> predicates = new ArrayList<String>();
+            String path = StreamingUtils.removePredicates(xQueryString, predicates);
+            String fixedPath = StreamingUtils.getStreamingPath(path, namespaceMap);
+            streamingPredicates = compileStreamingPredicates(predicates);
+            streamingPath = fixedPath;
         } catch (IllegalArgumentException e) {
             if (record.recordAnnotations()) {
                 record.addAnnotation(XQUERY_PLANNING, "Invalid streaming path " + xQueryString + " "+ e.getMessage(), "Document streaming will not be used", Priority.MEDIUM); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
@@ -342,7 +357,74 @@ public class SaxonXQueryExpression implements org.teiid.query.xquery.XQueryExpre
         false,          // PRECEDING_OR_ANCESTOR;
     };
 
+    /**
+     * Compile the predicates of the last step of the streaming path so that they
+     * may be applied to each streamed element.  Only predicates that are not positional
+     * and that reference just the subtree of the element are supported.
+     */
+    private XPathExpression[] compileStreamingPredicates(List<String> predicates) {
+        if (predicates.isEmpty()) {
+            return null;
+        }
+        if (staticContext == null) {
+            throw new IllegalArgumentException("Predicates are not supported"); //$NON-NLS-1$
+        }
+        XPathEvaluator eval = new XPathEvaluator(config);
+        eval.setStaticContext(staticContext);
+        XPathExpression[] result = new XPathExpression[predicates.size()];
+        for (int i = 0; i < result.length; i++) {
+            String predicate = predicates.get(i);
+            XPathExpression exp;
+            try {
+                exp = eval.createExpression(predicate);
+            } catch (XPathException e) {
+                throw new IllegalArgumentException("the predicate [" + predicate + "] is not valid: " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            Expression internalExpression = exp.getInternalExpression();
+            ItemType type = internalExpression.getItemType();
+            if ((internalExpression.getDependencies() & (StaticProperty.DEPENDS_ON_POSITION | StaticProperty.DEPENDS_ON_LAST)) != 0
+                    || (type != BuiltInAtomicType.BOOLEAN && !(type instanceof NodeTest))) {
+                throw new IllegalArgumentException("the predicate [" + predicate + "] may be positional"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            if (containsRootFunction(internalExpression)) {
+                throw new IllegalArgumentException("the predicate [" + predicate + "] uses the root function"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            for (PathMapRoot root : new PathMap(internalExpression).getPathMapRoots()) {
+                if (!(root.getRootExpression() instanceof ContextItemExpression) || !isSubtreeOnly(root)) {
+                    throw new IllegalArgumentException("the predicate [" + predicate + "] may only reference the subtree of the context item"); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+            result[i] = exp;
+        }
+        return result;
+    }
+
+    /**
+     * @return true if the streamed element satisfies all of the streaming predicates
+     */
+    boolean matchesStreamingPredicates(NodeInfo row) throws XPathException {
+        if (streamingPredicates == null) {
+            return true;
+        }
+        for (XPathExpression predicate : streamingPredicates) {
+            if (!predicate.effectiveBooleanValue(predicate.createDynamicContext(row))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSubtreeOnly(PathMapNode node) {
+        for (PathMapArc arc : node.getArcs()) {
+            if (!AxisInfo.isSubtreeAxis[arc.getAxis()] || !isSubtreeOnly(arc.getTarget())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private PathMapRoot projectColumns(PathMapRoot parentRoot, List<XMLTable.XMLColumn> columns, PathMapNode finalNode, AnalysisRecord record) {
+        subtreeColumns = true;
         for (XMLColumn xmlColumn : columns) {
             if (xmlColumn.isOrdinal()) {
                 continue;
@@ -374,6 +456,9 @@ public class SaxonXQueryExpression implements org.teiid.query.xquery.XQueryExpre
             if (subContextRoot == null) {
                 continue;
             }
+            if (subContextRoot.getRootExpression() instanceof RootExpression || !isSubtreeOnly(subContextRoot)) {
+                subtreeColumns = false;
+            }
             for (PathMapArc arc : subContextRoot.getArcs()) {
                 if (streamingPath != null && !validateColumnForStreaming(record, xmlColumn, arc)) {
                     streamingPath = null;
@@ -583,6 +668,15 @@ public class SaxonXQueryExpression implements org.teiid.query.xquery.XQueryExpre
         return streamingPath != null && contextRoot != null;
     }
 
+    /**
+     * @return true if the column paths only reference the subtree of the
+     * context item, such that each row may be evaluated independently
+     * of the rest of the document.
+     */
+    public boolean isSubtreeColumns() {
+        return subtreeColumns;
+    }
+
     public XPathExpression getXPathExpression(String name) {
         if (columnMap == null) {
             return null;
@@ -19,6 +19,7 @@
 package org.teiid.xquery.saxon;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import org.xml.sax.ContentHandler;
@@ -48,11 +49,50 @@ import net.sf.saxon.type.SimpleType;
 
 final class StreamingUtils {
     /**
-     * Pre-parser that adds validation and handles a default name space
+     * Splits the trailing predicates off of the last step of the location path.
+     * The predicates are added in order to the given list and are expected to
+     * be evaluated against each streamed element.
      *
-     * TODO: add support for more general paths including node tests
-     *   this could be done as a secondary expression applied to the
-     *   context item
+     * @param locationPath
+     * @param predicates
+     * @return the location path without the trailing predicates
+     */
+    public static String removePredicates(String locationPath, List<String> predicates) {
+        String path = locationPath.trim();
+        int index = predicates.size();
+        while (path.endsWith("]")) { //$NON-NLS-1$
+            int depth = 0;
+            char quote = 0;
+            int start = -1;
+            for (int i = path.length() - 1; i >= 0; i--) {
+                char c = path.charAt(i);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '\'' || c == '"') {
+                    quote = c;
+                } else if (c == ']') {
+                    depth++;
+                } else if (c == '[' && --depth == 0) {
+                    start = i;
+                    break;
+                }
+            }
+            if (start <= 0) {
+                throw new IllegalArgumentException("Unbalanced predicate in " + locationPath); //$NON-NLS-1$
+            }
+            predicates.add(index, path.substring(start + 1, path.length() - 1));
+            path = path.substring(0, start).trim();
+        }
+        if (path.indexOf('[') >= 0) {
+            throw new IllegalArgumentException("Predicates are only supported on the last step"); //$NON-NLS-1$
+        }
+        return path;
+    }
+
+    /**
+     * Pre-parser that adds validation and handles a default name space
      *
      * @param locationPath
      * @param prefixMap
@@ -77,6 +117,10 @@ final class StreamingUtils {
         // parse prefix:localName pairs and resolve prefixes to namespaceURIs
         for (int i = 0; i < localNames.length; i++) {
             fixedPath += "/"; //$NON-NLS-1$
+            localNames[i] = localNames[i].trim();
+            if (localNames[i].startsWith("child::")) { //$NON-NLS-1$
+                localNames[i] = localNames[i].substring(7);
+            }
             int k = localNames[i].indexOf(':');
             if (k >= 0 && localNames[i].indexOf(':', k+1) >= 0)
                 throw new IllegalArgumentException(
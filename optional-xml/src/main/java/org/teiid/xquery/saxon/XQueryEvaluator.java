@@ -70,6 +70,7 @@ import net.sf.saxon.om.Sequence;
 import net.sf.saxon.om.StructuredQName;
 import net.sf.saxon.om.TreeInfo;
 import net.sf.saxon.option.xom.XOMDocumentWrapper;
+import net.sf.saxon.option.xom.XOMNodeWrapper;
 import net.sf.saxon.query.DynamicQueryContext;
 import net.sf.saxon.query.QueryResult;
 import net.sf.saxon.trans.XPathException;
@@ -155,7 +156,15 @@ public class XQueryEvaluator {
 
                         final StreamingTransform myTransform = new StreamingTransform() {
                             public Nodes transform(Element elem) {
-                                processor.processRow(XQueryEvaluator.wrap(elem, xquery.config));
+                                NodeInfo row = XQueryEvaluator.wrap(elem, xquery.config);
+                                try {
+                                    if (!xquery.matchesStreamingPredicates(row)) {
+                                        return NONE;
+                                    }
+                                } catch (XPathException e) {
+                                    throw new TeiidRuntimeException(new TeiidProcessingException(QueryPlugin.Event.TEIID30170, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30170, e.getMessage())));
+                                }
+                                processor.processRow(row);
                                 return NONE;
                             }
                         };
@@ -217,6 +226,21 @@ public class XQueryEvaluator {
         return value;
     }
 
+    /**
+     * Copy the streamed row so that it may be evaluated independently of the
+     * document that is still being built.
+     * @param row
+     * @param config
+     * @return
+     */
+    static NodeInfo detach(NodeInfo row, Configuration config) {
+        if (!(row instanceof XOMNodeWrapper)) {
+            return row;
+        }
+        Node node = (Node)((XOMNodeWrapper)row).getUnderlyingNode();
+        return wrap(node.copy(), config);
+    }
+
     /**
      * Converts a xom node into something readable by Saxon
      * @param node
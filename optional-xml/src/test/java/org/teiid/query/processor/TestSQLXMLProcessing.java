@@ -33,6 +33,9 @@ import java.util.List;
 import java.util.TimeZone;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
@@ -853,6 +856,58 @@ public class TestSQLXMLProcessing {
         process(sql, expected);
     }
 
+    @Test public void testXmlTableStreamingPredicate() throws Exception {
+        String sql = "select * from xmltable('/a/b[@x=''2'' or c]' passing xmlparse(document '<a><b x=''1''>1</b><b x=''2''>2</b><b><c/>3</b></a>') columns o for ordinality, y string path '.') as x"; //$NON-NLS-1$
+        List<?>[] expected = new List<?>[] {
+                Arrays.asList(1, "2"),
+                Arrays.asList(2, "3"),
+        };
+        ProcessorPlan plan = process(sql, expected);
+        assertTrue(plan.getDescriptionProperties().toString().contains("+ Streaming:true")); //$NON-NLS-1$
+    }
+
+    @Test public void testXmlTableStreamingPositionalPredicate() throws Exception {
+        String sql = "select * from xmltable('/a/b[2]' passing xmlparse(document '<a><b x=''1''>1</b><b x=''2''>2</b><b><c/>3</b></a>') columns y string path '.') as x"; //$NON-NLS-1$
+        List<?>[] expected = new List<?>[] {
+                Arrays.asList("2"),
+        };
+        ProcessorPlan plan = process(sql, expected);
+        assertTrue(plan.getDescriptionProperties().toString().contains("+ Streaming:false")); //$NON-NLS-1$
+    }
+
+    @Test public void testXmlTableStreamingParallelRows() throws Exception {
+        StringBuilder doc = new StringBuilder("<a>"); //$NON-NLS-1$
+        List<?>[] expected = new List<?>[500];
+        for (int i = 0; i < expected.length; i++) {
+            doc.append("<b x=''").append(i).append("''><c>").append(i%7).append("</c></b>"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            expected[i] = Arrays.asList(i + 1, i, String.valueOf(i%7));
+        }
+        doc.append("</a>"); //$NON-NLS-1$
+        String sql = "select * from xmltable('/a/b' passing xmlparse(document '" + doc + "') columns o for ordinality, x integer path '@x', y string path 'c') as x"; //$NON-NLS-1$ //$NON-NLS-2$
+
+        CommandContext cc = createCommandContext();
+        cc.getOptions().parallelXmlTableRows(true);
+        cc.setUserRequestSourceConcurrency(2);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final AtomicInteger handedOff = new AtomicInteger();
+        cc.setExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                handedOff.incrementAndGet();
+                executor.execute(command);
+            }
+        });
+        try {
+            ProcessorPlan plan = helpGetPlan(helpParse(sql), RealMetadataFactory.example1Cached(), new DefaultCapabilitiesFinder(), cc);
+            //the rows must be complete and in document order
+            helpProcess(plan, cc, dataManager, expected);
+        } finally {
+            executor.shutdownNow();
+        }
+        //the document evaluation plus a task per row
+        assertTrue(handedOff.get() > expected.length);
+    }
+
     /**
      * Highlights that the PathMapFilter needs to be selective in calling startContent
      * @throws Exception
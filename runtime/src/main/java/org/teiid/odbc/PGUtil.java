@@ -34,7 +34,7 @@ public class PGUtil {
     public static final int PG_TYPE_INT4 = 23;
     public static final int PG_TYPE_TEXT = 25;
     public static final int PG_TYPE_XML = 142;
-    //private static final int PG_TYPE_OID = 26;
+    public static final int PG_TYPE_OID = 26;
     public static final int PG_TYPE_FLOAT4 = 700;
     public static final int PG_TYPE_FLOAT8 = 701;
     public static final int PG_TYPE_UNKNOWN = 705;
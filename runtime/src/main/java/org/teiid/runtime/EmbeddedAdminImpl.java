@@ -307,7 +307,10 @@ public class EmbeddedAdminImpl implements Admin {
 
     @Override
     public Collection<? extends WorkerPoolStatistics> getWorkerPoolStats() throws AdminException {
-        return Arrays.asList(this.embeddedServer.dqp.getWorkerPoolStatistics());
+        List<WorkerPoolStatistics> result = new ArrayList<WorkerPoolStatistics>();
+        result.add(this.embeddedServer.dqp.getWorkerPoolStatistics());
+        result.addAll(this.embeddedServer.dqp.getResourcePoolStatistics());
+        return result;
     }
 
     @Override
@@ -41,6 +41,9 @@ public class EmbeddedConfiguration extends DQPConfiguration {
     private ObjectReplicator objectReplicator;
     private boolean useDisk = true;
     private String bufferDirectory;
+    private String stripedBufferDirectories;
+    private int bufferIoThreads = -1;
+    private int bufferReadAheadBatches = -1;
     private CacheFactory cacheFactory;
     private int maxResultSetCacheStaleness = DEFAULT_MAX_STALENESS_SECONDS;
     private String infinispanConfigFile;
@@ -123,6 +126,36 @@ public class EmbeddedConfiguration extends DQPConfiguration {
         return this.bufferDirectory;
     }
 
+    /**
+     * @param dirs comma separated list of additional directories to stripe the buffer storage across
+     */
+    public void setStripedBufferDirectories(String dirs) {
+        this.stripedBufferDirectories = dirs;
+    }
+
+    public String getStripedBufferDirectories() {
+        return this.stripedBufferDirectories;
+    }
+
+    /**
+     * @param ioThreads the number of threads used to write evicted batches and read ahead batches, 0 performs io on the processing threads
+     */
+    public void setBufferIoThreads(int ioThreads) {
+        this.bufferIoThreads = ioThreads;
+    }
+
+    public int getBufferIoThreads() {
+        return this.bufferIoThreads;
+    }
+
+    public void setBufferReadAheadBatches(int readAheadBatches) {
+        this.bufferReadAheadBatches = readAheadBatches;
+    }
+
+    public int getBufferReadAheadBatches() {
+        return this.bufferReadAheadBatches;
+    }
+
     @Deprecated
     public String getInfinispanConfigFile() {
         return infinispanConfigFile;
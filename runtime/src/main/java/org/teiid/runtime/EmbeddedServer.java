@@ -22,6 +22,7 @@ package org.teiid.runtime;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
@@ -78,6 +79,7 @@ import org.teiid.dqp.internal.datamgr.ConnectorManagerRepository.ExecutionFactor
 import org.teiid.dqp.internal.datamgr.TranslatorRepository;
 import org.teiid.dqp.internal.process.CachedResults;
 import org.teiid.dqp.internal.process.DQPCore;
+import org.teiid.dqp.internal.process.EngineMetrics;
 import org.teiid.dqp.internal.process.PreparedPlan;
 import org.teiid.dqp.internal.process.SessionAwareCache;
 import org.teiid.dqp.internal.process.TransactionServerImpl;
@@ -493,6 +495,7 @@ public class EmbeddedServer extends AbstractVDBDeployer implements EventDistribu
                 config.setBufferDirectory(System.getProperty("java.io.tmpdir")); //$NON-NLS-1$
             }
             this.bufferService.setDiskDirectory(config.getBufferDirectory());
+            this.bufferService.setStripedDiskDirectories(config.getStripedBufferDirectories());
         }
 
         if(config.getProcessorBatchSize() != -1)
@@ -516,6 +519,10 @@ public class EmbeddedServer extends AbstractVDBDeployer implements EventDistribu
         this.bufferService.setFixedMemoryBufferOffHeap(config.isMemoryBufferOffHeap());
         if(config.getMemoryBufferSpace() != -1)
             this.bufferService.setFixedMemoryBufferSpaceMb(config.getMemoryBufferSpace());
+        if(config.getBufferIoThreads() != -1)
+            this.bufferService.setIoThreads(config.getBufferIoThreads());
+        if(config.getBufferReadAheadBatches() != -1)
+            this.bufferService.setReadAheadBatches(config.getBufferReadAheadBatches());
 
     }
 
@@ -921,7 +928,49 @@ public class EmbeddedServer extends AbstractVDBDeployer implements EventDistribu
 
     public void undeployVDB(String vdbName, String version) {
         checkStarted();
-        this.repo.removeVDB(vdbName, version);
+        VDBMetaData vdb = this.repo.removeVDB(vdbName, version);
+        if (vdb != null) {
+            removeConnectorManagers(vdb);
+        }
+    }
+
+    /**
+     * Remove the connector managers that are no longer used by any vdb and stop
+     * the execution factories that were built for them.
+     */
+    private void removeConnectorManagers(VDBMetaData vdb) {
+        Set<String> used = new HashSet<String>();
+        for (VDBMetaData other : this.repo.getVDBs()) {
+            for (ModelMetaData model : other.getModelMetaDatas().values()) {
+                used.addAll(model.getSourceNames());
+            }
+        }
+        for (ModelMetaData model : vdb.getModelMetaDatas().values()) {
+            for (String sourceName : model.getSourceNames()) {
+                if (used.contains(sourceName)) {
+                    continue;
+                }
+                ConnectorManager cm = this.cmr.removeConnectorManager(sourceName);
+                if (cm != null && !isExecutionFactoryInUse(cm.getExecutionFactory())) {
+                    cm.getExecutionFactory().stop();
+                }
+            }
+        }
+    }
+
+    private boolean isExecutionFactoryInUse(ExecutionFactory<?, ?> ef) {
+        //the added translators are owned by the server
+        for (ExecutionFactory<?, ?> translator : this.translators.values()) {
+            if (translator == ef) {
+                return true;
+            }
+        }
+        for (ConnectorManager cm : this.cmr.getConnectorManagers().values()) {
+            if (cm.getExecutionFactory() == ef) {
+                return true;
+            }
+        }
+        return false;
     }
 
 
@@ -951,6 +1000,18 @@ public class EmbeddedServer extends AbstractVDBDeployer implements EventDistribu
         eventDistributorFactoryService.stop();
         config.getCacheFactory().destroy();
         config.setCacheFactory(null);
+        Set<ExecutionFactory<?, ?>> stopped = Collections.newSetFromMap(new IdentityHashMap<ExecutionFactory<?, ?>, Boolean>());
+        for (ExecutionFactory<?, ?> ef : this.translators.values()) {
+            if (stopped.add(ef)) {
+                ef.stop();
+            }
+        }
+        for (ConnectorManager cm : this.cmr.getConnectorManagers().values()) {
+            ExecutionFactory<?, ?> ef = cm.getExecutionFactory();
+            if (stopped.add(ef)) {
+                ef.stop();
+            }
+        }
         if (this.bufferService != null) {
             this.bufferService.stop();
         }
@@ -1057,6 +1118,21 @@ public class EmbeddedServer extends AbstractVDBDeployer implements EventDistribu
         return EmbeddedAdminFactory.getInstance().createAdmin(this);
     }
 
+    /**
+     * Write the engine metrics in the Prometheus text exposition format.
+     * Metrics must be enabled with {@link EmbeddedConfiguration#setMetricsEnabled(boolean)}.
+     * @param writer
+     * @throws IOException
+     */
+    public void writeMetrics(Writer writer) throws IOException {
+        checkStarted();
+        EngineMetrics metrics = this.dqp.getMetrics();
+        if (metrics == null) {
+            throw new IllegalStateException(RuntimePlugin.Util.gs(RuntimePlugin.Event.TEIID40170));
+        }
+        metrics.getRegistry().writePrometheus(writer);
+    }
+
     static class ShutDownListener implements ContainerLifeCycleListener {
         private boolean shutdownInProgress = false;
         private boolean bootInProgress = false;
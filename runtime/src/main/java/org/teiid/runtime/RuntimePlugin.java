@@ -172,6 +172,7 @@ public class RuntimePlugin {
         TEIID40167,
         TEIID40168,
         TEIID40169,
+        TEIID40170,
 
         TEIID50029, // dynamic metadata loaded
         TEIID50030,
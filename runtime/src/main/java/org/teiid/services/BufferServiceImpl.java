@@ -21,6 +21,9 @@ package org.teiid.services;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.teiid.common.buffer.BufferManager;
 import org.teiid.common.buffer.StorageManager;
@@ -31,6 +34,7 @@ import org.teiid.common.buffer.impl.EncryptedStorageManager;
 import org.teiid.common.buffer.impl.FileStorageManager;
 import org.teiid.common.buffer.impl.MemoryStorageManager;
 import org.teiid.common.buffer.impl.SplittableStorageManager;
+import org.teiid.common.buffer.impl.StripedStorageManager;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidRuntimeException;
 import org.teiid.core.util.FileUtils;
@@ -62,6 +66,7 @@ public class BufferServiceImpl implements BufferService, Serializable {
     private int maxStorageObjectSize = BufferFrontedFileStoreCache.DEFAULT_MAX_OBJECT_SIZE;
     private BufferFrontedFileStoreCache fsc;
     private FileStorageManager fsm;
+    private StripedStorageManager stripedStorageManager;
 
     //reserve / heap properties
     private int maxProcessingKb = BufferManager.DEFAULT_MAX_PROCESSING_KB;
@@ -73,11 +78,18 @@ public class BufferServiceImpl implements BufferService, Serializable {
 
     //disk properties
     private File bufferDir;
+    private List<File> stripedBufferDirs = Collections.emptyList();
     private boolean encryptFiles = false;
+    //null uses the org.teiid.compressBufferFiles default of the cache
+    private Boolean compressBufferFiles;
     private int maxOpenFiles = FileStorageManager.DEFAULT_MAX_OPEN_FILES;
     private long maxFileSize = SplittableStorageManager.DEFAULT_MAX_FILESIZE; // 2GB
     private long maxDiskBufferSpace = FileStorageManager.DEFAULT_MAX_BUFFERSPACE>>20;
 
+    //io properties
+    private int ioThreads;
+    private int readAheadBatches = 2;
+
     private long vmMaxMemory = Runtime.getRuntime().maxMemory();
     private SessionServiceImpl sessionService;
 
@@ -98,6 +110,8 @@ public class BufferServiceImpl implements BufferService, Serializable {
             this.bufferMgr.setMaxProcessingKB(this.maxProcessingKb);
             this.bufferMgr.setInlineLobs(inlineLobs);
             this.bufferMgr.setSessionService(sessionService);
+            this.bufferMgr.setIoThreads(ioThreads);
+            this.bufferMgr.setReadAheadBatches(readAheadBatches);
             this.bufferMgr.initialize();
 
             // If necessary, add disk storage manager
@@ -110,11 +124,26 @@ public class BufferServiceImpl implements BufferService, Serializable {
                 // wise FileStorageManager is smart enough to clean up after itself
                 cleanDirectory(bufferDir);
                 // Get the properties for FileStorageManager and create.
-                fsm = new FileStorageManager();
-                fsm.setStorageDirectory(bufferDir.getCanonicalPath());
-                fsm.setMaxOpenFiles(maxOpenFiles);
-                fsm.setMaxBufferSpace(maxDiskBufferSpace*MB);
-                SplittableStorageManager ssm = new SplittableStorageManager(fsm);
+                SplittableStorageManager ssm = null;
+                if (stripedBufferDirs.isEmpty()) {
+                    fsm = createFileStorageManager(bufferDir, maxDiskBufferSpace*MB);
+                    ssm = new SplittableStorageManager(fsm);
+                } else {
+                    //each directory gets its own open file budget and an even share of the space
+                    List<FileStorageManager> managers = new ArrayList<FileStorageManager>(stripedBufferDirs.size() + 1);
+                    long maxSpace = maxDiskBufferSpace*MB/(stripedBufferDirs.size() + 1);
+                    fsm = createFileStorageManager(bufferDir, maxSpace);
+                    managers.add(fsm);
+                    for (File dir : stripedBufferDirs) {
+                        LogManager.logDetail(LogConstants.CTX_DQP, "Striping BufferManager storage to", dir); //$NON-NLS-1$
+                        if (!dir.exists()) {
+                            dir.mkdirs();
+                        }
+                        cleanDirectory(dir);
+                        managers.add(createFileStorageManager(dir, maxSpace));
+                    }
+                    ssm = new SplittableStorageManager(stripedStorageManager = new StripedStorageManager(managers));
+                }
                 ssm.setMaxFileSize(maxFileSize);
                 StorageManager sm = ssm;
                 if (encryptFiles) {
@@ -124,6 +153,10 @@ public class BufferServiceImpl implements BufferService, Serializable {
                 fsc.setBufferManager(this.bufferMgr);
                 fsc.setMaxStorageObjectSize(maxStorageObjectSize);
                 fsc.setDirect(fixedMemoryBufferOffHeap);
+                if (compressBufferFiles != null) {
+                    fsc.setCompressBufferFiles(compressBufferFiles);
+                }
+                this.bufferMgr.setEncodeBatches(fsc.isCompressBufferFiles());
                 if (fixedMemoryBufferSpaceMb < 0) {
                     //use approximately 40% of what's set aside for the reserved accounting for conversion from kb to bytes
                     long autoMaxBufferSpace = 4*(((long)this.bufferMgr.getMaxReserveKB())<<10)/10;
@@ -167,6 +200,14 @@ public class BufferServiceImpl implements BufferService, Serializable {
         }
     }
 
+    private FileStorageManager createFileStorageManager(File dir, long maxSpace) throws IOException {
+        FileStorageManager result = new FileStorageManager();
+        result.setStorageDirectory(dir.getCanonicalPath());
+        result.setMaxOpenFiles(maxOpenFiles);
+        result.setMaxBufferSpace(maxSpace);
+        return result;
+    }
+
     public void stop() {
         LogManager.logDetail(LogConstants.CTX_DQP, "Stopping BufferManager using", bufferDir); //$NON-NLS-1$
         if (bufferMgr != null) {
@@ -179,6 +220,10 @@ public class BufferServiceImpl implements BufferService, Serializable {
             cleanDirectory(bufferDir);
             bufferDir.delete();
         }
+        for (File dir : stripedBufferDirs) {
+            cleanDirectory(dir);
+            dir.delete();
+        }
     }
 
     public BufferManagerImpl getBufferManager() {
@@ -198,6 +243,28 @@ public class BufferServiceImpl implements BufferService, Serializable {
         this.bufferDir = new File(dir, "buffer"); //$NON-NLS-1$
     }
 
+    /**
+     * Set additional directories, typically on separate devices, to stripe
+     * the buffer storage across along with the disk directory.
+     * @param dirs comma separated list of directories
+     */
+    public void setStripedDiskDirectories(String dirs) {
+        List<File> result = new ArrayList<File>();
+        if (dirs != null) {
+            for (String dir : dirs.split(",")) { //$NON-NLS-1$
+                dir = dir.trim();
+                if (!dir.isEmpty()) {
+                    result.add(new File(dir, "buffer")); //$NON-NLS-1$
+                }
+            }
+        }
+        this.stripedBufferDirs = result;
+    }
+
+    public List<File> getStripedBufferDirectories() {
+        return stripedBufferDirs;
+    }
+
     public void setProcessorBatchSize(int size) {
         this.processorBatchSize = size;
     }
@@ -281,6 +348,9 @@ public class BufferServiceImpl implements BufferService, Serializable {
     }
 
     public long getUsedDiskBufferSpaceMb() {
+        if (stripedStorageManager != null) {
+            return stripedStorageManager.getUsedBufferSpace()/MB;
+        }
         if (fsm != null) {
             return fsm.getUsedBufferSpace()/MB;
         }
@@ -288,6 +358,9 @@ public class BufferServiceImpl implements BufferService, Serializable {
     }
 
     public int getTotalOutOfDiskErrors() {
+        if (stripedStorageManager != null) {
+            return stripedStorageManager.getOutOfDiskErrorCount();
+        }
         if (fsm != null) {
             return fsm.getOutOfDiskErrorCount();
         }
@@ -355,6 +428,41 @@ public class BufferServiceImpl implements BufferService, Serializable {
         this.encryptFiles = encryptFiles;
     }
 
+    public boolean isCompressBufferFiles() {
+        if (compressBufferFiles == null) {
+            return fsc != null && fsc.isCompressBufferFiles();
+        }
+        return compressBufferFiles;
+    }
+
+    /**
+     * Compress batches written to the buffer storage using column encodings
+     * and deflate.  Trades cpu for reduced memory buffer and disk usage.
+     */
+    public void setCompressBufferFiles(boolean compressBufferFiles) {
+        this.compressBufferFiles = compressBufferFiles;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    /**
+     * The number of threads used to write evicted batches and read ahead
+     * batches.  0 performs io on the processing threads.
+     */
+    public void setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public int getReadAheadBatches() {
+        return readAheadBatches;
+    }
+
+    public void setReadAheadBatches(int readAheadBatches) {
+        this.readAheadBatches = readAheadBatches;
+    }
+
     public void setBufferManager(BufferManagerImpl bufferManager) {
         this.bufferMgr = bufferManager;
     }
@@ -27,7 +27,7 @@ import java.io.StreamCorruptedException;
 import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.nio.ByteOrder;
+import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.security.GeneralSecurityException;
 import java.sql.Array;
@@ -35,8 +35,11 @@ import java.sql.Blob;
 import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Properties;
+import java.util.TimeZone;
 
 import javax.net.ssl.SSLEngine;
 
@@ -60,6 +63,7 @@ import org.teiid.odbc.PGUtil.PgColInfo;
 import org.teiid.query.function.GeometryUtils;
 import org.teiid.runtime.RuntimePlugin;
 import org.teiid.transport.pg.PGbytea;
+import org.teiid.transport.pg.PGnumeric;
 import org.teiid.transport.pg.TimestampUtils;
 
 import io.netty.buffer.ByteBuf;
@@ -425,8 +429,7 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
 
     @Override
     public void flush() {
-        this.dataOut = null;
-        this.writer = null;
+        releaseBuffer();
         this.ctx.flush();
     }
 
@@ -505,6 +508,12 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
 
     private void getBinaryContent(ResultSet rs, PgColInfo col, int column) throws SQLException, TeiidSQLException, IOException {
         switch (col.type) {
+        case PG_TYPE_BOOL:
+            boolean bval = rs.getBoolean(column);
+            if (!rs.wasNull()) {
+                dataOut.writeByte(bval?1:0);
+            }
+            break;
         case PG_TYPE_INT2:
             short sval = rs.getShort(column);
             if (!rs.wasNull()) {
@@ -535,6 +544,12 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
                 dataOut.writeLong(Double.doubleToLongBits(dval));
             }
             break;
+        case PG_TYPE_NUMERIC:
+            BigDecimal bd = rs.getBigDecimal(column);
+            if (bd != null) {
+                PGnumeric.write(dataOut, bd);
+            }
+            break;
         case PG_TYPE_BYTEA:
             Blob blob = rs.getBlob(column);
             if (blob != null) {
@@ -549,17 +564,182 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
         case PG_TYPE_DATE:
             Date d = rs.getDate(column);
             if (d != null) {
-                long millis = d.getTime();
-                millis += TimestampWithTimezone.getCalendar().getTimeZone().getOffset(millis);
-                long secs = TimestampUtils.toPgSecs(millis / 1000);
-                dataOut.writeInt((int) (secs / 86400));
+                dataOut.writeInt(TimestampUtils.toPgDays(TimestampWithTimezone.getCalendar().getTimeZone(), d));
+            }
+            break;
+        case PG_TYPE_TIME:
+            Time t = rs.getTime(column);
+            if (t != null) {
+                //integer_datetimes is off, so the float form is expected
+                dataOut.writeLong(Double.doubleToLongBits(TimestampUtils.toPgSecs(TimestampWithTimezone.getCalendar().getTimeZone(), t)));
+            }
+            break;
+        case PG_TYPE_TIMESTAMP_NO_TMZONE:
+            Timestamp ts = rs.getTimestamp(column);
+            if (ts != null) {
+                dataOut.writeLong(Double.doubleToLongBits(TimestampUtils.toPgSecs(TimestampWithTimezone.getCalendar().getTimeZone(), ts)));
+            }
+            break;
+        case PG_TYPE_GEOGRAPHY:
+        case PG_TYPE_GEOMETRY:
+            Object val = rs.getObject(column);
+            if (val != null) {
+                Blob ewkb = GeometryUtils.geometryToEwkb((AbstractGeospatialType)rs.unwrap(ResultSetImpl.class).getRawCurrentValue());
+                write(ewkb.getBytes(1, (int) ewkb.length()));
+            }
+            break;
+        case PG_TYPE_CHARARRAY:
+        case PG_TYPE_TEXTARRAY:
+        case PG_TYPE_OIDARRAY:
+        case PG_TYPE_BOOLARRAY:
+        case PG_TYPE_INT2ARRAY:
+        case PG_TYPE_INT4ARRAY:
+        case PG_TYPE_INT8ARRAY:
+        case PG_TYPE_FLOAT4ARRAY:
+        case PG_TYPE_FLOAT8ARRAY:
+        case PG_TYPE_NUMERICARRAY:
+        case PG_TYPE_DATEARRAY:
+        case PG_TYPE_TIMEARRAY:
+        case PG_TYPE_TIMESTAMP_NO_TMZONEARRAY:
+            {
+            Array obj = rs.getArray(column);
+            if (obj != null) {
+                Object array = obj.getArray();
+                int length = java.lang.reflect.Array.getLength(array);
+                boolean hasNull = false;
+                if (!array.getClass().getComponentType().isPrimitive()) {
+                    for (int i = 0; i < length && !hasNull; i++) {
+                        hasNull = java.lang.reflect.Array.get(array, i) == null;
+                    }
+                }
+                writeArrayHeader(getArrayElementType(col.type), length, 1, hasNull);
+                for (int i = 0; i < length; i++) {
+                    writeBinaryElement(col.type, java.lang.reflect.Array.get(array, i));
+                }
+            }
+            }
+            break;
+        case PG_TYPE_INT2VECTOR:
+        case PG_TYPE_OIDVECTOR:
+            {
+            ArrayImpl obj = (ArrayImpl)rs.getObject(column);
+            if (obj != null) {
+                Object[] values = obj.getValues();
+                writeArrayHeader(getArrayElementType(col.type), values.length, 0, false);
+                for (Object o : values) {
+                    //vectors do not allow nulls
+                    writeBinaryElement(col.type, o == null ? 0 : o);
+                }
+            }
             }
             break;
         default:
-            throw new AssertionError();
+            //the binary forms of the character types are the same as the text forms
+            getContent(rs, col, column);
+            break;
         }
     }
 
+    /**
+     * Write the postgresql array_send header for a single dimension array
+     */
+    private void writeArrayHeader(int elementType, int length, int lowerBound, boolean hasNull) {
+        if (length == 0) {
+            writeInt(0);
+            writeInt(0);
+            writeInt(elementType);
+            return;
+        }
+        writeInt(1);
+        writeInt(hasNull?1:0);
+        writeInt(elementType);
+        writeInt(length);
+        writeInt(lowerBound);
+    }
+
+    private void writeBinaryElement(int arrayType, Object o) {
+        if (o == null) {
+            writeInt(-1);
+            return;
+        }
+        int dataBytesIndex = this.dataOut.writerIndex();
+        writeInt(-1);
+        TimeZone tz = TimestampWithTimezone.getCalendar().getTimeZone();
+        switch (arrayType) {
+        case PG_TYPE_BOOLARRAY:
+            dataOut.writeByte(((Boolean)o)?1:0);
+            break;
+        case PG_TYPE_INT2ARRAY:
+        case PG_TYPE_INT2VECTOR:
+            dataOut.writeShort(((Number)o).shortValue());
+            break;
+        case PG_TYPE_INT4ARRAY:
+        case PG_TYPE_OIDARRAY:
+        case PG_TYPE_OIDVECTOR:
+            dataOut.writeInt(((Number)o).intValue());
+            break;
+        case PG_TYPE_INT8ARRAY:
+            dataOut.writeLong(((Number)o).longValue());
+            break;
+        case PG_TYPE_FLOAT4ARRAY:
+            dataOut.writeInt(Float.floatToIntBits(((Number)o).floatValue()));
+            break;
+        case PG_TYPE_FLOAT8ARRAY:
+            dataOut.writeLong(Double.doubleToLongBits(((Number)o).doubleValue()));
+            break;
+        case PG_TYPE_NUMERICARRAY:
+            PGnumeric.write(dataOut, o instanceof BigDecimal?(BigDecimal)o:new BigDecimal(o.toString()));
+            break;
+        case PG_TYPE_DATEARRAY:
+            dataOut.writeInt(TimestampUtils.toPgDays(tz, (Date)o));
+            break;
+        case PG_TYPE_TIMEARRAY:
+            dataOut.writeLong(Double.doubleToLongBits(TimestampUtils.toPgSecs(tz, (Time)o)));
+            break;
+        case PG_TYPE_TIMESTAMP_NO_TMZONEARRAY:
+            dataOut.writeLong(Double.doubleToLongBits(TimestampUtils.toPgSecs(tz, (Timestamp)o)));
+            break;
+        default:
+            dataOut.writeCharSequence(o.toString(), this.encoding);
+            break;
+        }
+        this.dataOut.setInt(dataBytesIndex, this.dataOut.writerIndex() - dataBytesIndex - 4);
+    }
+
+    static int getArrayElementType(int arrayType) {
+        switch (arrayType) {
+        case PG_TYPE_CHARARRAY:
+            return PG_TYPE_CHAR;
+        case PG_TYPE_TEXTARRAY:
+            return PG_TYPE_TEXT;
+        case PG_TYPE_OIDARRAY:
+        case PG_TYPE_OIDVECTOR:
+            return PG_TYPE_OID;
+        case PG_TYPE_BOOLARRAY:
+            return PG_TYPE_BOOL;
+        case PG_TYPE_INT2ARRAY:
+        case PG_TYPE_INT2VECTOR:
+            return PG_TYPE_INT2;
+        case PG_TYPE_INT4ARRAY:
+            return PG_TYPE_INT4;
+        case PG_TYPE_INT8ARRAY:
+            return PG_TYPE_INT8;
+        case PG_TYPE_FLOAT4ARRAY:
+            return PG_TYPE_FLOAT4;
+        case PG_TYPE_FLOAT8ARRAY:
+            return PG_TYPE_FLOAT8;
+        case PG_TYPE_NUMERICARRAY:
+            return PG_TYPE_NUMERIC;
+        case PG_TYPE_DATEARRAY:
+            return PG_TYPE_DATE;
+        case PG_TYPE_TIMEARRAY:
+            return PG_TYPE_TIME;
+        case PG_TYPE_TIMESTAMP_NO_TMZONEARRAY:
+            return PG_TYPE_TIMESTAMP_NO_TMZONE;
+        }
+        throw new AssertionError();
+    }
+
     private void getContent(ResultSet rs, PgColInfo col, int column) throws SQLException, TeiidSQLException, IOException {
         switch (col.type) {
             case PG_TYPE_BOOL:
@@ -757,13 +937,39 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
 
     boolean isBinary(int oid) {
         switch (oid) {
+        case PG_TYPE_BOOL:
         case PG_TYPE_INT2:
         case PG_TYPE_INT4:
         case PG_TYPE_INT8:
         case PG_TYPE_FLOAT4:
         case PG_TYPE_FLOAT8:
+        case PG_TYPE_NUMERIC:
         case PG_TYPE_BYTEA:
         case PG_TYPE_DATE:
+        case PG_TYPE_TIME:
+        case PG_TYPE_TIMESTAMP_NO_TMZONE:
+        case PG_TYPE_BPCHAR:
+        case PG_TYPE_VARCHAR:
+        case PG_TYPE_TEXT:
+        case PG_TYPE_XML:
+        case PG_TYPE_JSON:
+        case PG_TYPE_GEOGRAPHY:
+        case PG_TYPE_GEOMETRY:
+        case PG_TYPE_CHARARRAY:
+        case PG_TYPE_TEXTARRAY:
+        case PG_TYPE_OIDARRAY:
+        case PG_TYPE_BOOLARRAY:
+        case PG_TYPE_INT2ARRAY:
+        case PG_TYPE_INT4ARRAY:
+        case PG_TYPE_INT8ARRAY:
+        case PG_TYPE_FLOAT4ARRAY:
+        case PG_TYPE_FLOAT8ARRAY:
+        case PG_TYPE_NUMERICARRAY:
+        case PG_TYPE_DATEARRAY:
+        case PG_TYPE_TIMEARRAY:
+        case PG_TYPE_TIMESTAMP_NO_TMZONEARRAY:
+        case PG_TYPE_INT2VECTOR:
+        case PG_TYPE_OIDVECTOR:
             return true;
         }
         return false;
@@ -958,7 +1164,8 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
     }
 
     private void initBuffer(int estimatedLength) {
-        this.dataOut = Unpooled.buffer(estimatedLength).order(ByteOrder.BIG_ENDIAN);
+        releaseBuffer();
+        this.dataOut = this.ctx.alloc().buffer(estimatedLength);
         ByteBufOutputStream cbos = new ByteBufOutputStream(this.dataOut);
         this.writer = new OutputStreamWriter(cbos, this.encoding);
     }
@@ -969,6 +1176,18 @@ public class PgBackendProtocol extends ChannelOutboundHandlerAdapter implements
         sendContents();
     }
 
+    /**
+     * Release a buffer that will not be sent.  Sent buffers are
+     * released by the pipeline.
+     */
+    private void releaseBuffer() {
+        if (this.dataOut != null) {
+            this.dataOut.release();
+            this.dataOut = null;
+            this.writer = null;
+        }
+    }
+
     private void sendContents() {
         ByteBuf cb = this.dataOut;
         this.dataOut = null;
@@ -0,0 +1,94 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.transport.pg;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Writes the postgresql binary numeric representation:
+ * ndigits, weight, sign, dscale followed by ndigits base 10000 digits
+ * with the most significant first.
+ */
+public class PGnumeric {
+
+    private static final int NBASE = 10000;
+    private static final short NUMERIC_POS = 0x0000;
+    private static final short NUMERIC_NEG = 0x4000;
+    private static final BigInteger BI_NBASE = BigInteger.valueOf(NBASE);
+    private static final int[] POW10 = {1, 10, 100, 1000};
+
+    /**
+     * Write the binary form of the value to the buffer
+     * @param buffer
+     * @param value
+     */
+    public static void write(ByteBuf buffer, BigDecimal value) {
+        int signum = value.signum();
+        if (value.scale() < 0) {
+            value = value.setScale(0);
+        }
+        int dscale = value.scale();
+        //align the decimal point on a base 10000 boundary
+        int pad = (4 - dscale % 4) % 4;
+        int fractionGroups = (dscale + pad) / 4;
+        short[] groups = new short[(value.precision() + pad) / 4 + 2];
+        int count = 0;
+        BigInteger unscaled = value.unscaledValue().abs();
+        if (unscaled.bitLength() < 53) {
+            long val = unscaled.longValue() * POW10[pad];
+            while (val != 0) {
+                groups[count++] = (short)(val % NBASE);
+                val /= NBASE;
+            }
+        } else {
+            if (pad > 0) {
+                unscaled = unscaled.multiply(BigInteger.valueOf(POW10[pad]));
+            }
+            while (unscaled.signum() != 0) {
+                BigInteger[] qr = unscaled.divideAndRemainder(BI_NBASE);
+                groups[count++] = qr[1].shortValue();
+                unscaled = qr[0];
+            }
+        }
+        int weight = count - 1 - fractionGroups;
+        //trailing zero groups need not be sent
+        int start = 0;
+        while (start < count && groups[start] == 0) {
+            start++;
+        }
+        if (start == count) {
+            buffer.writeShort(0);
+            buffer.writeShort(0);
+            buffer.writeShort(NUMERIC_POS);
+            buffer.writeShort(dscale);
+            return;
+        }
+        buffer.writeShort(count - start);
+        buffer.writeShort(weight);
+        buffer.writeShort(signum < 0 ? NUMERIC_NEG : NUMERIC_POS);
+        buffer.writeShort(dscale);
+        for (int i = count - 1; i >= start; i--) {
+            buffer.writeShort(groups[i]);
+        }
+    }
+
+}
@@ -8,6 +8,8 @@
 package org.teiid.transport.pg;
 
 import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.util.TimeZone;
 
 /**
@@ -92,4 +94,37 @@ public class TimestampUtils {
         return secs;
     }
 
+    /**
+     * Returns the postgresql days for the given date as seen in the given timezone
+     */
+    public static int toPgDays(TimeZone tz, Date d) {
+        long millis = d.getTime();
+        millis += tz.getOffset(millis);
+        long secs = toPgSecs(Math.floorDiv(millis, 1000));
+        return (int) Math.floorDiv(secs, 86400);
+    }
+
+    /**
+     * Returns the floating point postgresql seconds for the given timestamp
+     * as seen in the given timezone.  Used for the binary timestamp format when
+     * integer_datetimes is off.
+     */
+    public static double toPgSecs(TimeZone tz, Timestamp ts) {
+        long millis = ts.getTime();
+        millis += tz.getOffset(millis);
+        long secs = toPgSecs(Math.floorDiv(millis, 1000));
+        return secs + ts.getNanos() / 1000000000d;
+    }
+
+    /**
+     * Returns the floating point seconds since midnight for the given time
+     * as seen in the given timezone.  Used for the binary time format when
+     * integer_datetimes is off.
+     */
+    public static double toPgSecs(TimeZone tz, Time t) {
+        long millis = t.getTime();
+        millis += tz.getOffset(millis);
+        return Math.floorMod(millis, 86400000L) / 1000d;
+    }
+
 }
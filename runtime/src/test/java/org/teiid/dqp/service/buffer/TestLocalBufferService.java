@@ -64,6 +64,38 @@ public class TestLocalBufferService {
         assertTrue(((FileStorageManager)ssm.getStorageManager()).getDirectory().endsWith(svc.getBufferDirectory().getName()));
     }
 
+    @Test public void testCompressBufferFilesProperty() throws Exception {
+        String old = System.setProperty("org.teiid.compressBufferFiles", "true");
+        try {
+            BufferServiceImpl svc = new BufferServiceImpl();
+            svc.setDiskDirectory(UnitTestUtil.getTestScratchPath()+"/teiid/1");
+            svc.setUseDisk(true);
+            svc.start();
+            assertTrue(svc.isCompressBufferFiles());
+            BufferManagerImpl mgr = svc.getBufferManager();
+            assertTrue(mgr.isEncodeBatches());
+            assertTrue(((BufferFrontedFileStoreCache)mgr.getCache()).isCompressBufferFiles());
+            svc.stop();
+
+            //an explicit setting takes precedence
+            svc = new BufferServiceImpl();
+            svc.setDiskDirectory(UnitTestUtil.getTestScratchPath()+"/teiid/1");
+            svc.setUseDisk(true);
+            svc.setCompressBufferFiles(false);
+            svc.start();
+            mgr = svc.getBufferManager();
+            assertFalse(mgr.isEncodeBatches());
+            assertFalse(((BufferFrontedFileStoreCache)mgr.getCache()).isCompressBufferFiles());
+            svc.stop();
+        } finally {
+            if (old != null) {
+                System.setProperty("org.teiid.compressBufferFiles", old);
+            } else {
+                System.clearProperty("org.teiid.compressBufferFiles");
+            }
+        }
+    }
+
     @Test public void testCheckMemPropertyGotSet2() throws Exception {
         BufferServiceImpl svc = new BufferServiceImpl();
         svc.setDiskDirectory(UnitTestUtil.getTestScratchPath()+"/teiid/1");
@@ -1327,6 +1327,55 @@ public class TestEmbeddedServer {
         assertTrue(started);
     }
 
+    @Translator(name="stoppable")
+    public static class StoppableExecutionFactory extends ExecutionFactory<Void, Void> {
+
+        static AtomicInteger STOPPED = new AtomicInteger();
+
+        @Override
+        public void getMetadata(MetadataFactory metadataFactory, Void conn)
+                throws TranslatorException {
+            Table t = metadataFactory.addTable("test");
+            metadataFactory.addColumn("x", "integer", t);
+        }
+
+        @Override
+        public boolean isSourceRequiredForMetadata() {
+            return false;
+        }
+
+        @Override
+        public void stop() {
+            STOPPED.incrementAndGet();
+        }
+    }
+
+    @Test public void testUndeployStopsExecutionFactory() throws Exception {
+        EmbeddedConfiguration ec = new EmbeddedConfiguration();
+        ec.setUseDisk(false);
+        es.start(ec);
+        StoppableExecutionFactory.STOPPED.set(0);
+
+        es.addTranslator(StoppableExecutionFactory.class);
+
+        ModelMetaData mmd = new ModelMetaData();
+        mmd.setName("test");
+        mmd.addSourceMapping("stoppable-source", "stoppable", null);
+        es.deployVDB("vdb1", mmd);
+
+        ModelMetaData mmd2 = new ModelMetaData();
+        mmd2.setName("test");
+        mmd2.addSourceMapping("stoppable-source", "stoppable", null);
+        es.deployVDB("vdb2", mmd2);
+
+        //still used by vdb2
+        es.undeployVDB("vdb1");
+        assertEquals(0, StoppableExecutionFactory.STOPPED.get());
+
+        es.undeployVDB("vdb2");
+        assertEquals(1, StoppableExecutionFactory.STOPPED.get());
+    }
+
     @Test public void testGlobalTempTables() throws Exception {
         EmbeddedConfiguration ec = new EmbeddedConfiguration();
         ec.setMaxResultSetCacheStaleness(0);
@@ -0,0 +1,63 @@
+/*
+ * Copyright Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags and
+ * the COPYRIGHT.txt file distributed with this work.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.teiid.transport.pg;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+@SuppressWarnings("nls")
+public class TestPGnumeric {
+
+    private short[] write(String value) {
+        ByteBuf buf = Unpooled.buffer();
+        PGnumeric.write(buf, new BigDecimal(value));
+        short[] result = new short[buf.readableBytes()/2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = buf.readShort();
+        }
+        return result;
+    }
+
+    @Test public void testZero() {
+        assertArrayEquals(new short[] {0, 0, 0, 2}, write("0.00"));
+    }
+
+    @Test public void testFraction() {
+        assertArrayEquals(new short[] {3, 1, 0, 3, 1, 2345, 6780}, write("12345.678"));
+    }
+
+    @Test public void testNegativeSmall() {
+        assertArrayEquals(new short[] {1, -1, 0x4000, 4, 1}, write("-0.0001"));
+    }
+
+    @Test public void testNegativeScale() {
+        assertArrayEquals(new short[] {1, 1, 0, 0, 10}, write("1E+5"));
+    }
+
+    @Test public void testLarge() {
+        assertArrayEquals(new short[] {7, 5, 0, 1, 1234, 5678, 9012, 3456, 7890, 1234, 5000}, write("123456789012345678901234.5"));
+    }
+
+}
@@ -91,6 +91,13 @@ public class CassandraConnectionImpl extends BasicConnection implements Cassandr
         return session.executeAsync(query);
     }
 
+    @Override
+    public ResultSetFuture executeQuery(String query, int fetchSize) {
+        SimpleStatement statement = new SimpleStatement(query);
+        statement.setFetchSize(fetchSize);
+        return session.executeAsync(statement);
+    }
+
     @Override
     public ResultSetFuture executeBatch(List<String> updates){
         BatchStatement bs = new BatchStatement();
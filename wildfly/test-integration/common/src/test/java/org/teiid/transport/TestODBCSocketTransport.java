@@ -33,6 +33,8 @@ import java.sql.Statement;
 import java.util.Properties;
 import java.util.concurrent.ForkJoinPool;
 
+import javax.xml.bind.DatatypeConverter;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -54,6 +56,7 @@ import org.teiid.core.util.UnitTestUtil;
 import org.teiid.deployers.PgCatalogMetadataStore;
 import org.teiid.jdbc.FakeServer;
 import org.teiid.jdbc.TestMMDatabaseMetaData;
+import org.teiid.odbc.PGUtil;
 import org.teiid.runtime.EmbeddedConfiguration;
 import org.teiid.runtime.TestEmbeddedServer;
 import org.teiid.runtime.TestEmbeddedServer.MockTransactionManager;
@@ -146,8 +149,11 @@ public class TestODBCSocketTransport {
     }
 
     private void connect(String database) throws SQLException {
+        connect(database, new Properties());
+    }
+
+    private void connect(String database, Properties p) throws SQLException {
         Driver d = new Driver();
-        Properties p = new Properties();
         p.setProperty("user", "testuser");
         p.setProperty("password", "testpassword");
         conn = d.connect("jdbc:postgresql://"+odbcServer.addr.getHostName()+":" +odbcServer.odbcTransport.getPort()+"/"+database, p);
@@ -840,6 +846,30 @@ public class TestODBCSocketTransport {
         assertEquals("0020000003000010E600000001000000054044000000000000000000000000000040490000000000004049000000000000000000000000000040490000000000000000000000000000000000000000000040440000000000000000000000000000", rs.getString(1));
     }
 
+    @Test public void testBinaryResults() throws Exception {
+        String sql = "SELECT (1, null, 3), cast('12:01:02' as time), cast('2010-01-01 12:01:02.5' as timestamp), ST_GeomFromText('POINT (1 2)')";
+        Statement s = conn.createStatement();
+        ResultSet rs = s.executeQuery(sql);
+        rs.next();
+        String geometryText = rs.getString(4);
+        conn.close();
+
+        //force the binary format for the first execution, including the geometry type
+        Properties p = new Properties();
+        p.setProperty("prepareThreshold", "-1");
+        p.setProperty("binaryTransferEnable", String.valueOf(PGUtil.PG_TYPE_GEOMETRY));
+        connect("parts", p);
+        PreparedStatement ps = conn.prepareStatement(sql);
+        rs = ps.executeQuery();
+        rs.next();
+        Array array = rs.getArray(1);
+        assertArrayEquals(new Integer[] {1, null, 3}, (Object[])array.getArray());
+        assertEquals("12:01:02", rs.getTime(2).toString());
+        assertEquals("2010-01-01 12:01:02.5", rs.getTimestamp(3).toString());
+        assertEquals(geometryText, DatatypeConverter.printHexBinary(rs.getBytes(4)));
+        assertFalse(rs.next());
+    }
+
     @Test public void testJson() throws Exception {
         Statement s = conn.createStatement();
         s.execute("SELECT jsonParse('[1,2]', false);");
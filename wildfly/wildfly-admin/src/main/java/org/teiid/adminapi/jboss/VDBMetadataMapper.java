@@ -1338,6 +1338,8 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
         private static final String TOTAL_COMPLETED = "total-completed"; //$NON-NLS-1$
         private static final String HIGHEST_ACTIVE_THREADS = "highest-active-threads"; //$NON-NLS-1$
         private static final String ACTIVE_THREADS = "active-threads"; //$NON-NLS-1$
+        private static final String TOTAL_REJECTED = "total-rejected"; //$NON-NLS-1$
+        private static final String TOTAL_QUEUE_TIME = "total-queue-time"; //$NON-NLS-1$
 
         public static WorkerPoolStatisticsMetadataMapper INSTANCE = new WorkerPoolStatisticsMetadataMapper();
 
@@ -1353,6 +1355,8 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
             node.get(QUEUED).set(stats.getQueued());
             node.get(HIGHEST_QUEUED).set(stats.getHighestQueued());
             node.get(MAX_THREADS).set(stats.getMaxThreads());
+            node.get(TOTAL_REJECTED).set(stats.getTotalRejected());
+            node.get(TOTAL_QUEUE_TIME).set(stats.getTotalQueueTime());
             wrapDomain(stats, node);
             return node;
         }
@@ -1370,6 +1374,12 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
             stats.setQueued(node.get(QUEUED).asInt());
             stats.setHighestQueued(node.get(HIGHEST_QUEUED).asInt());
             stats.setMaxThreads(node.get(MAX_THREADS).asInt());
+            if (node.get(TOTAL_REJECTED).isDefined()) {
+                stats.setTotalRejected(node.get(TOTAL_REJECTED).asLong());
+            }
+            if (node.get(TOTAL_QUEUE_TIME).isDefined()) {
+                stats.setTotalQueueTime(node.get(TOTAL_QUEUE_TIME).asLong());
+            }
             unwrapDomain(stats, node);
             return stats;
         }
@@ -1383,7 +1393,9 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
                     createAttribute(QUEUE_NAME, ModelType.STRING, false),
                     createAttribute(QUEUED, ModelType.INT, false),
                     createAttribute(HIGHEST_QUEUED, ModelType.INT, false),
-                    createAttribute(MAX_THREADS, ModelType.INT, false)
+                    createAttribute(MAX_THREADS, ModelType.INT, false),
+                    createAttribute(TOTAL_REJECTED, ModelType.LONG, true),
+                    createAttribute(TOTAL_QUEUE_TIME, ModelType.LONG, true)
                 };
         }
     }
@@ -91,6 +91,9 @@ enum Element {
     BUFFER_MANAGER_MAX_BUFFER_SPACE_ATTRIBUTE("disk-max-space-mb", "buffer-manager-disk-max-space-mb"),
     BUFFER_MANAGER_MAX_OPEN_FILES_ATTRIBUTE("disk-max-open-files", "buffer-manager-disk-max-open-files"),
     BUFFER_MANAGER_ENCRYPT_FILES_ATTRIBUTE("disk-encrypt-files", "buffer-manager-disk-encrypt-files"),
+    BUFFER_MANAGER_STRIPED_DIRECTORIES_ATTRIBUTE("disk-striped-directories", "buffer-manager-disk-striped-directories"),
+    BUFFER_MANAGER_IO_THREADS_ATTRIBUTE("disk-io-threads", "buffer-manager-disk-io-threads"),
+    BUFFER_MANAGER_READ_AHEAD_BATCHES_ATTRIBUTE("disk-read-ahead-batches", "buffer-manager-disk-read-ahead-batches"),
 
     //prepared-plan-cache-config
     PREPAREDPLAN_CACHE_ELEMENT("preparedplan-cache"),
@@ -173,6 +173,9 @@ class TeiidAdd extends AbstractAddStepHandler {
         TeiidConstants.BUFFER_MANAGER_MEMORY_BUFFER_OFFHEAP_ATTRIBUTE,
         TeiidConstants.BUFFER_MANAGER_MAX_STORAGE_OBJECT_SIZE_ATTRIBUTE,
         TeiidConstants.BUFFER_MANAGER_ENCRYPT_FILES_ATTRIBUTE,
+        TeiidConstants.BUFFER_MANAGER_STRIPED_DIRECTORIES_ATTRIBUTE,
+        TeiidConstants.BUFFER_MANAGER_IO_THREADS_ATTRIBUTE,
+        TeiidConstants.BUFFER_MANAGER_READ_AHEAD_BATCHES_ATTRIBUTE,
 
         // prepared plan cache
         TeiidConstants.PPC_NAME_ATTRIBUTE,
@@ -772,6 +775,15 @@ class TeiidAdd extends AbstractAddStepHandler {
         } else if (isDefined(ENCRYPT_FILES_ATTRIBUTE, node, context)) {
             bufferManger.setEncryptFiles(asBoolean(ENCRYPT_FILES_ATTRIBUTE, node, context));
         }
+        if (isDefined(BUFFER_MANAGER_STRIPED_DIRECTORIES_ATTRIBUTE, node, context)) {
+            bufferManger.setStripedDiskDirectories(asString(BUFFER_MANAGER_STRIPED_DIRECTORIES_ATTRIBUTE, node, context));
+        }
+        if (isDefined(BUFFER_MANAGER_IO_THREADS_ATTRIBUTE, node, context)) {
+            bufferManger.setIoThreads(asInt(BUFFER_MANAGER_IO_THREADS_ATTRIBUTE, node, context));
+        }
+        if (isDefined(BUFFER_MANAGER_READ_AHEAD_BATCHES_ATTRIBUTE, node, context)) {
+            bufferManger.setReadAheadBatches(asInt(BUFFER_MANAGER_READ_AHEAD_BATCHES_ATTRIBUTE, node, context));
+        }
         return bufferManger;
     }
 
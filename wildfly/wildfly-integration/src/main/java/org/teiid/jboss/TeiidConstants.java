@@ -374,6 +374,26 @@ public class TeiidConstants {
         .setDefaultValue(new ModelNode(false))
         .build();
 
+    public static SimpleAttributeDefinition BUFFER_MANAGER_STRIPED_DIRECTORIES_ATTRIBUTE = new SimpleAttributeDefinitionBuilder(Element.BUFFER_MANAGER_STRIPED_DIRECTORIES_ATTRIBUTE.getModelName(), ModelType.STRING)
+        .setXmlName(Element.BUFFER_MANAGER_STRIPED_DIRECTORIES_ATTRIBUTE.getXMLName())
+        .setRequired(false)
+        .setAllowExpression(false)
+        .build();
+
+    public static SimpleAttributeDefinition BUFFER_MANAGER_IO_THREADS_ATTRIBUTE = new SimpleAttributeDefinitionBuilder(Element.BUFFER_MANAGER_IO_THREADS_ATTRIBUTE.getModelName(), ModelType.INT)
+        .setXmlName(Element.BUFFER_MANAGER_IO_THREADS_ATTRIBUTE.getXMLName())
+        .setRequired(false)
+        .setAllowExpression(false)
+        .setDefaultValue(new ModelNode(0))
+        .build();
+
+    public static SimpleAttributeDefinition BUFFER_MANAGER_READ_AHEAD_BATCHES_ATTRIBUTE = new SimpleAttributeDefinitionBuilder(Element.BUFFER_MANAGER_READ_AHEAD_BATCHES_ATTRIBUTE.getModelName(), ModelType.INT)
+        .setXmlName(Element.BUFFER_MANAGER_READ_AHEAD_BATCHES_ATTRIBUTE.getXMLName())
+        .setRequired(false)
+        .setAllowExpression(false)
+        .setDefaultValue(new ModelNode(2))
+        .build();
+
     // prepared-plan-cache-config
     // PREPAREDPLAN_CACHE_ELEMENT("preparedplan-cache",true, false, MeasurementUnit.NONE);
     public static SimpleAttributeDefinition PPC_ENABLE_ATTRIBUTE = new SimpleAttributeDefinitionBuilder(Element.PPC_ENABLE_ATTRIBUTE.getModelName(), ModelType.BOOLEAN)
@@ -224,6 +224,9 @@ class TeiidSubsystemParser implements XMLStreamConstants, XMLElementReader<List<
         BUFFER_MANAGER_MEMORY_BUFFER_OFFHEAP_ATTRIBUTE.marshallAsAttribute(node, false, writer);
         BUFFER_MANAGER_MAX_STORAGE_OBJECT_SIZE_ATTRIBUTE.marshallAsAttribute(node, false, writer);
         BUFFER_MANAGER_ENCRYPT_FILES_ATTRIBUTE.marshallAsAttribute(node, false, writer);
+        BUFFER_MANAGER_STRIPED_DIRECTORIES_ATTRIBUTE.marshallAsAttribute(node, false, writer);
+        BUFFER_MANAGER_IO_THREADS_ATTRIBUTE.marshallAsAttribute(node, false, writer);
+        BUFFER_MANAGER_READ_AHEAD_BATCHES_ATTRIBUTE.marshallAsAttribute(node, false, writer);
     }
 
     private void writeAdjustedValue(XMLExtendedStreamWriter writer,
@@ -752,6 +755,15 @@ class TeiidSubsystemParser implements XMLStreamConstants, XMLElementReader<List<
                 case BUFFER_MANAGER_ENCRYPT_FILES_ATTRIBUTE:
                     node.get(element.getModelName()).set(Boolean.parseBoolean(attrValue));
                     break;
+                case BUFFER_MANAGER_STRIPED_DIRECTORIES_ATTRIBUTE:
+                    node.get(element.getModelName()).set(attrValue);
+                    break;
+                case BUFFER_MANAGER_IO_THREADS_ATTRIBUTE:
+                    node.get(element.getModelName()).set(Integer.parseInt(attrValue));
+                    break;
+                case BUFFER_MANAGER_READ_AHEAD_BATCHES_ATTRIBUTE:
+                    node.get(element.getModelName()).set(Integer.parseInt(attrValue));
+                    break;
                 default:
                     throw ParseUtils.unexpectedAttribute(reader, i);
                 }
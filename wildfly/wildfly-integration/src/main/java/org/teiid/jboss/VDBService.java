@@ -80,6 +80,7 @@ class VDBService extends AbstractVDBDeployer implements Service<RuntimeVDB> {
     private VDBLifeCycleListener vdbListener;
     private VDBResources vdbResources;
     private VDBKey vdbKey;
+    private IdentityHashMap<Translator, ExecutionFactory<Object, Object>> executionFactories;
 
     public VDBService(VDBMetaData metadata, VDBResources vdbResources, ContainerLifeCycleListener shutdownListener) {
         this.vdb = metadata;
@@ -234,6 +235,7 @@ class VDBService extends AbstractVDBDeployer implements Service<RuntimeVDB> {
 
     void cleanup(LifecycleContext context) {
         getVDBRepository().removeVDB(this.vdb.getName(), this.vdb.getVersion());
+        stopExecutionFactories();
         getVDBRepository().removeListener(this.vdbListener);
         //getVDBRepository().removeListener(this.restEasyListener);
         final ServiceController<?> controller = context.getController().getServiceContainer().getService(TeiidServiceNames.vdbFinishedServiceName(vdb.getName(), vdb.getVersion()));
@@ -253,8 +255,24 @@ class VDBService extends AbstractVDBDeployer implements Service<RuntimeVDB> {
         return this.runtimeVDB;
     }
 
+    /**
+     * Stop the execution factories built for this vdb
+     */
+    private synchronized void stopExecutionFactories() {
+        if (this.executionFactories == null) {
+            return;
+        }
+        for (ExecutionFactory<Object, Object> ef : this.executionFactories.values()) {
+            ef.stop();
+        }
+        this.executionFactories = null;
+    }
+
     private void createConnectorManagers(ConnectorManagerRepository cmr, final TranslatorRepository repo, final VDBMetaData deployment) throws StartException {
         final IdentityHashMap<Translator, ExecutionFactory<Object, Object>> map = new IdentityHashMap<Translator, ExecutionFactory<Object, Object>>();
+        synchronized (this) {
+            this.executionFactories = map;
+        }
 
         try {
             ConnectorManagerRepository.ExecutionFactoryProvider provider = new ConnectorManagerRepository.ExecutionFactoryProvider() {